@@ -1,9 +1,11 @@
 package cn.wekyjay.wknetic.admin.config;
 
 import cn.wekyjay.wknetic.admin.listener.ServerStatusListener;
+import cn.wekyjay.wknetic.admin.system.service.DashboardMetricsHub;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.listener.PatternTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
@@ -22,6 +24,9 @@ public class AdminRedisListenerConfig {
     @Resource
     private ServerStatusListener serverStatusListener;
 
+    @Resource
+    private DashboardMetricsHub dashboardMetricsHub;
+
     @Bean
     public RedisMessageListenerContainer adminRedisMessageListenerContainer(
             RedisConnectionFactory connectionFactory) {
@@ -32,6 +37,10 @@ public RedisMessageListenerContainer adminRedisMessageListenerContainer(
                 new MessageListenerAdapter(serverStatusListener),
                 new PatternTopic("wknetic:server:status:*")
         );
+        container.addMessageListener(
+                new MessageListenerAdapter(dashboardMetricsHub),
+                new ChannelTopic(DashboardMetricsHub.CHANNEL)
+        );
 
         return container;
     }
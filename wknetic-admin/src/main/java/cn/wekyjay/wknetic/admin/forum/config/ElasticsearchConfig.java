@@ -1,9 +1,12 @@
 package cn.wekyjay.wknetic.admin.forum.config;
 
+import cn.wekyjay.wknetic.common.utils.MetricsUtil;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import co.elastic.clients.transport.rest_client.RestClientTransport;
 import org.apache.http.HttpHost;
+import org.apache.http.HttpResponseInterceptor;
+import org.elasticsearch.client.Node;
 import org.elasticsearch.client.RestClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -47,7 +50,25 @@ public RestClient restClient() {
             }
         }
         
-        return RestClient.builder(new HttpHost(host, port, scheme)).build();
+        return RestClient.builder(new HttpHost(host, port, scheme))
+                // 统计 ES 错误：服务端 5xx 和限流 429 按状态码计数，连接失败计为 connection
+                .setHttpClientConfigCallback(builder -> builder.addInterceptorLast(errorCounter()))
+                .setFailureListener(new RestClient.FailureListener() {
+                    @Override
+                    public void onFailure(Node node) {
+                        MetricsUtil.recordError(MetricsUtil.ELASTICSEARCH, "connection");
+                    }
+                })
+                .build();
+    }
+
+    private static HttpResponseInterceptor errorCounter() {
+        return (response, context) -> {
+            int status = response.getStatusLine().getStatusCode();
+            if (status >= 500 || status == 429) {
+                MetricsUtil.recordError(MetricsUtil.ELASTICSEARCH, "http_" + status);
+            }
+        };
     }
 
     /**
@@ -1,5 +1,6 @@
 package cn.wekyjay.wknetic.admin.forum.controller;
 
+import cn.wekyjay.wknetic.admin.forum.dto.AuditBatchResultVO;
 import cn.wekyjay.wknetic.admin.forum.dto.AuditPostVO;
 import cn.wekyjay.wknetic.admin.forum.dto.AuditStatisticsVO;
 import cn.wekyjay.wknetic.admin.forum.service.AuditService;
@@ -13,6 +14,8 @@
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * 审核Controller
  * 
@@ -44,6 +47,30 @@ public Result<IPage<AuditPostVO>> getPendingPosts(
         return Result.success(posts);
     }
     
+    /**
+     * 领取待审核帖子 - 按优先级领取一批帖子，租约期间其他审核员不会领到
+     */
+    @Operation(summary = "领取待审核帖子", description = "按优先级（举报数、作者首次发帖、等待时长）领取一批帖子，先返回自己仍持有的帖子；租约到期未处理的帖子回到队列。")
+    @Parameters({
+            @Parameter(name = "size", description = "领取数量（默认使用配置值）", example = "10")
+    })
+    @PostMapping("/claim")
+    @PreAuthorize("hasRole('MODERATOR')")
+    public Result<List<AuditPostVO>> claimPosts(@RequestParam(required = false) Integer size) {
+        return Result.success(auditService.claimPosts(size));
+    }
+    
+    /**
+     * 放弃领取的帖子 - 放回审核队列
+     */
+    @Operation(summary = "放弃领取的帖子", description = "释放自己领取的帖子，放回审核队列。")
+    @PostMapping("/release")
+    @PreAuthorize("hasRole('MODERATOR')")
+    public Result<Void> releasePosts(@RequestBody List<Long> postIds) {
+        auditService.releasePosts(postIds);
+        return Result.success();
+    }
+    
     /**
      * 审核通过帖子 - 批准帖子转为已发布状态
      */
@@ -75,6 +102,31 @@ public Result<Void> rejectPost(
         return Result.success();
     }
     
+    /**
+     * 批量审核通过 - 一个事务中处理多个帖子
+     */
+    @Operation(summary = "批量审核通过", description = "批量通过帖子的审核，已审核或被其他审核员领取的帖子跳过。")
+    @PostMapping("/approve/batch")
+    @PreAuthorize("hasRole('MODERATOR')")
+    public Result<AuditBatchResultVO> batchApprovePosts(@RequestBody List<Long> postIds) {
+        return Result.success(auditService.batchApprovePosts(postIds));
+    }
+    
+    /**
+     * 批量审核拒绝 - 一个事务中处理多个帖子
+     */
+    @Operation(summary = "批量审核拒绝", description = "批量拒绝帖子的审核，已审核或被其他审核员领取的帖子跳过。")
+    @Parameters({
+            @Parameter(name = "reason", description = "拒绝原因", required = true, example = "内容不符合社区规则")
+    })
+    @PostMapping("/reject/batch")
+    @PreAuthorize("hasRole('MODERATOR')")
+    public Result<AuditBatchResultVO> batchRejectPosts(
+            @RequestBody List<Long> postIds,
+            @RequestParam String reason) {
+        return Result.success(auditService.batchRejectPosts(postIds, reason));
+    }
+    
     /**
      * 获取审核历史 - 查询已处理的审核记录
      */
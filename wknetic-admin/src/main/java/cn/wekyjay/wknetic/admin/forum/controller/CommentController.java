@@ -3,6 +3,7 @@
 import cn.wekyjay.wknetic.admin.forum.service.CommentService;
 import cn.wekyjay.wknetic.common.model.dto.CreateCommentDTO;
 import cn.wekyjay.wknetic.common.model.vo.CommentVO;
+import cn.wekyjay.wknetic.common.model.vo.CursorPageVO;
 import cn.wekyjay.wknetic.common.model.Result;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -86,6 +87,44 @@ public Result<Map<String, Object>> listComments(
         return Result.success(pageResult);
     }
     
+    /**
+     * 游标分页获取帖子评论树 - 按展示顺序一次范围扫描
+     */
+    @Operation(summary = "获取帖子评论树（游标分页）", description = "按楼层展示顺序返回评论树，默认包含顶级评论及其直接回复，更深的回复通过回复接口加载。")
+    @Parameters({
+            @Parameter(name = "postId", description = "帖子ID", required = true, example = "1"),
+            @Parameter(name = "cursor", description = "游标（上一页最后一条评论ID，首页不传）"),
+            @Parameter(name = "size", description = "每页条数", example = "20"),
+            @Parameter(name = "maxDepth", description = "最大层级（0=只看顶级评论）", example = "1")
+    })
+    @GetMapping("/tree")
+    public Result<CursorPageVO<CommentVO>> listCommentTree(
+            @RequestParam Long postId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(defaultValue = "1") Integer maxDepth) {
+        return Result.success(commentService.listCommentTree(postId, cursor, size, maxDepth));
+    }
+    
+    /**
+     * 加载更多回复 - 游标分页获取某条评论下的回复
+     */
+    @Operation(summary = "加载更多回复", description = "游标分页获取指定评论下的回复。")
+    @Parameters({
+            @Parameter(name = "commentId", description = "评论ID", required = true, example = "1"),
+            @Parameter(name = "cursor", description = "游标（上一批最后一条回复ID，首次不传）"),
+            @Parameter(name = "size", description = "每页条数", example = "20"),
+            @Parameter(name = "maxDepth", description = "相对层级（1=只看直接回复）", example = "1")
+    })
+    @GetMapping("/{commentId}/replies")
+    public Result<CursorPageVO<CommentVO>> listReplies(
+            @PathVariable Long commentId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(defaultValue = "1") Integer maxDepth) {
+        return Result.success(commentService.listReplies(commentId, cursor, size, maxDepth));
+    }
+    
     /**
      * 点赞/取消点赞评论 - 切换评论的点赞状态
      */
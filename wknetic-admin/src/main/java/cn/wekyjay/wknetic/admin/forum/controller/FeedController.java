@@ -0,0 +1,46 @@
+package cn.wekyjay.wknetic.admin.forum.controller;
+
+import cn.wekyjay.wknetic.admin.forum.service.FeedService;
+import cn.wekyjay.wknetic.auth.utils.SecurityUtils;
+import cn.wekyjay.wknetic.common.model.Result;
+import cn.wekyjay.wknetic.common.model.vo.CursorPageVO;
+import cn.wekyjay.wknetic.common.model.vo.PostVO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.Parameters;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 关注动态Controller
+ * 
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Tag(name = "关注动态", description = "关注用户的帖子时间线接口")
+@RestController
+@RequestMapping("/api/v1/feed")
+@RequiredArgsConstructor
+public class FeedController {
+    
+    private final FeedService feedService;
+    
+    /**
+     * 获取关注时间线 - 游标分页获取关注用户发布的帖子
+     */
+    @Operation(summary = "获取关注时间线", description = "按发布顺序倒序获取关注用户（含自己）的帖子。首页不传cursor，翻页时传入上一页返回的nextCursor。")
+    @Parameters({
+            @Parameter(name = "cursor", description = "游标（上一页返回的nextCursor，首页不传）", example = "100"),
+            @Parameter(name = "size", description = "每页条数（最大50）", example = "20")
+    })
+    @GetMapping("/following")
+    @PreAuthorize("hasAnyRole('USER','ADMIN','MODERATOR')")
+    public Result<CursorPageVO<PostVO>> getFollowingTimeline(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPageVO<PostVO> timeline = feedService.getTimeline(SecurityUtils.getCurrentUserId(), cursor, size);
+        return Result.success(timeline);
+    }
+}
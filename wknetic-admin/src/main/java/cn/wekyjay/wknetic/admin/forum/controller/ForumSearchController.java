@@ -0,0 +1,34 @@
+package cn.wekyjay.wknetic.admin.forum.controller;
+
+import cn.wekyjay.wknetic.admin.forum.service.ForumSearchService;
+import cn.wekyjay.wknetic.common.model.Result;
+import cn.wekyjay.wknetic.common.model.dto.ForumSearchDTO;
+import cn.wekyjay.wknetic.common.model.vo.ForumSearchVO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 论坛统一搜索Controller
+ * 
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Tag(name = "论坛搜索", description = "帖子、评论、用户统一搜索接口")
+@RestController
+@RequestMapping("/api/v1/search")
+@RequiredArgsConstructor
+public class ForumSearchController {
+    
+    private final ForumSearchService forumSearchService;
+    
+    /**
+     * 统一搜索 - 同时搜索帖子、评论和用户
+     */
+    @Operation(summary = "统一搜索", description = "按关键词同时搜索帖子、评论和用户，返回所选类型的当前页结果（按相关性混排）和各类型的匹配数，types 为空表示全部类型")
+    @PostMapping
+    public Result<ForumSearchVO> search(@RequestBody ForumSearchDTO dto) {
+        return Result.success(forumSearchService.search(dto));
+    }
+}
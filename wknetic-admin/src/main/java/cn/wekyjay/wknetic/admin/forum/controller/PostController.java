@@ -1,13 +1,20 @@
 package cn.wekyjay.wknetic.admin.forum.controller;
 
 import cn.wekyjay.wknetic.admin.forum.service.ElasticsearchService;
+import cn.wekyjay.wknetic.admin.forum.service.PostHistoryService;
 import cn.wekyjay.wknetic.admin.forum.service.PostService;
+import cn.wekyjay.wknetic.admin.forum.service.SearchAnalyticsService;
+import cn.wekyjay.wknetic.admin.forum.service.SearchSuggestService;
+import cn.wekyjay.wknetic.auth.utils.SecurityUtils;
 import cn.wekyjay.wknetic.common.model.dto.CreatePostDTO;
 import cn.wekyjay.wknetic.common.model.dto.SearchPostDTO;
 import cn.wekyjay.wknetic.common.model.dto.UpdatePostDTO;
 import cn.wekyjay.wknetic.common.model.vo.PostDetailVO;
+import cn.wekyjay.wknetic.common.model.vo.PostHistoryVO;
 import cn.wekyjay.wknetic.common.model.vo.PostSearchVO;
 import cn.wekyjay.wknetic.common.model.vo.PostVO;
+import cn.wekyjay.wknetic.common.model.vo.SearchKeywordStatVO;
+import cn.wekyjay.wknetic.common.model.vo.SearchScrollVO;
 import cn.wekyjay.wknetic.common.model.Result;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import io.swagger.v3.oas.annotations.Operation;
@@ -35,6 +42,9 @@ public class PostController {
     
     private final PostService postService;
     private final ElasticsearchService elasticsearchService;
+    private final PostHistoryService postHistoryService;
+    private final SearchSuggestService searchSuggestService;
+    private final SearchAnalyticsService searchAnalyticsService;
     
     /**
      * 创建帖子 - 创建一个新的论坛帖子
@@ -88,6 +98,33 @@ public Result<PostDetailVO> getPostDetail(@PathVariable Long postId) {
         return Result.success(post);
     }
     
+    /**
+     * 获取编辑历史 - 帖子的历史版本列表
+     */
+    @Operation(summary = "获取编辑历史", description = "获取帖子的历史版本列表（不含内容）。只有帖子作者或管理员可以查看。")
+    @Parameters({
+            @Parameter(name = "postId", description = "帖子ID", required = true, example = "1")
+    })
+    @GetMapping("/{postId}/history")
+    @PreAuthorize("hasAnyRole('USER','ADMIN','MODERATOR')")
+    public Result<List<PostHistoryVO>> listHistory(@PathVariable Long postId) {
+        return Result.success(postHistoryService.listRevisions(postId));
+    }
+    
+    /**
+     * 获取历史版本 - 重建指定版本的完整内容
+     */
+    @Operation(summary = "获取历史版本", description = "获取帖子指定历史版本的完整标题和内容。只有帖子作者或管理员可以查看。")
+    @Parameters({
+            @Parameter(name = "postId", description = "帖子ID", required = true, example = "1"),
+            @Parameter(name = "revision", description = "版本号", required = true, example = "1")
+    })
+    @GetMapping("/{postId}/history/{revision}")
+    @PreAuthorize("hasAnyRole('USER','ADMIN','MODERATOR')")
+    public Result<PostHistoryVO> getHistoryRevision(@PathVariable Long postId, @PathVariable Integer revision) {
+        return Result.success(postHistoryService.getRevision(postId, revision));
+    }
+    
     /**
      * 获取最新草稿 - 查询当前用户是否有未发布的草稿
      */
@@ -119,6 +156,24 @@ public Result<IPage<PostVO>> listPosts(
         return Result.success(posts);
     }
     
+    /**
+     * 获取热门帖子 - 按热度排行分页查询
+     */
+    @Operation(summary = "获取热门帖子", description = "按热度（点赞、评论、浏览、收藏随时间衰减加权）倒序分页获取帖子，可按话题筛选。")
+    @Parameters({
+            @Parameter(name = "page", description = "页码", required = true, example = "1"),
+            @Parameter(name = "size", description = "每页条数", required = true, example = "20"),
+            @Parameter(name = "topicId", description = "话题ID（可选，不传为全站热门）", example = "1")
+    })
+    @GetMapping("/hot")
+    public Result<IPage<PostVO>> listHotPosts(
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long topicId) {
+        IPage<PostVO> posts = postService.listHotPosts(page, size, topicId);
+        return Result.success(posts);
+    }
+    
     /**
      * 点赞/取消点赞帖子 - 切换帖子的点赞状态
      */
@@ -143,27 +198,48 @@ public Result<IPage<PostSearchVO>> searchPosts(@RequestBody SearchPostDTO dto) {
         return Result.success(result);
     }
     
+    /**
+     * 游标搜索帖子 - 深度翻页（基于search_after + point-in-time）
+     */
+    @Operation(summary = "游标搜索帖子", description = "条件同搜索帖子，首页不传cursor，之后传入上一页返回的nextCursor继续翻页，翻页深度不受限制。游标过期后需重新搜索")
+    @PostMapping("/search/scroll")
+    public Result<SearchScrollVO<PostSearchVO>> scrollPosts(@RequestBody SearchPostDTO dto) {
+        return Result.success(elasticsearchService.scrollPosts(dto));
+    }
+    
     /**
      * 搜索建议 - 根据前缀获取搜索建议
      */
-    @Operation(summary = "搜索建议", description = "根据输入的前缀返回可能的搜索关键词建议")
+    @Operation(summary = "搜索建议", description = "根据输入的前缀返回帖子标题和标签建议（completion suggester），适合逐字输入时调用；同一用户的新请求会让上一个未完成的请求立即返回空结果")
     @Parameters({
-            @Parameter(name = "prefix", description = "搜索前缀", required = true, example = "Java")
+            @Parameter(name = "prefix", description = "搜索前缀", required = true, example = "Java"),
+            @Parameter(name = "size", description = "建议数量（最多10）", example = "5")
     })
     @GetMapping("/search/suggest")
-    public Result<List<String>> getSuggestions(@RequestParam String prefix) {
-        List<String> suggestions = elasticsearchService.getSuggestions(prefix, 5);
+    public Result<List<String>> getSuggestions(@RequestParam String prefix,
+                                               @RequestParam(defaultValue = "5") int size) {
+        List<String> suggestions = searchSuggestService.suggest(prefix, size, SecurityUtils.getCurrentUserId());
         return Result.success(suggestions);
     }
     
     /**
      * 热门搜索词 - 获取最近热门的搜索关键词
      */
-    @Operation(summary = "热门搜索词", description = "获取最近热门的搜索关键词 Top 10，基于帖子标签统计）")
+    @Operation(summary = "热门搜索词", description = "获取最近一天搜索次数最多的关键词 Top 10，搜索数据不足时用帖子标签统计补齐")
     @GetMapping("/search/hot")
     public Result<List<String>> getHotSearchKeywords() {
         List<String> hotKeywords = elasticsearchService.getHotKeywords(10);
         return Result.success(hotKeywords);
     }
+    
+    /**
+     * 趋势搜索词 - 近期搜索量上升最快的关键词
+     */
+    @Operation(summary = "趋势搜索词", description = "最近两小时搜索次数相对前一天平均水平增幅最大的关键词")
+    @Parameter(name = "size", description = "数量（最多50）", example = "10")
+    @GetMapping("/search/trending")
+    public Result<List<SearchKeywordStatVO>> getTrendingSearchKeywords(@RequestParam(defaultValue = "10") int size) {
+        return Result.success(searchAnalyticsService.getTrending(Math.min(Math.max(size, 1), 50)));
+    }
 }
 
@@ -3,6 +3,7 @@
 import cn.wekyjay.wknetic.admin.forum.service.ReportService;
 import cn.wekyjay.wknetic.common.model.dto.CreateReportDTO;
 import cn.wekyjay.wknetic.common.model.entity.ForumReport;
+import cn.wekyjay.wknetic.common.model.entity.ForumReportTarget;
 import cn.wekyjay.wknetic.common.model.Result;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import io.swagger.v3.oas.annotations.Operation;
@@ -77,6 +78,45 @@ public Result<Void> handleReport(
         return Result.success();
     }
     
+    /**
+     * 获取举报处理项列表 - 同一对象的举报合并为一项
+     */
+    @Operation(summary = "获取举报处理项列表", description = "同一对象的举报合并为一个处理项，按举报人信誉加权的举报分从高到低排列。状态值: 0-待处理, 1-已处理, 2-已驳回。")
+    @Parameters({
+            @Parameter(name = "page", description = "页码", example = "1"),
+            @Parameter(name = "size", description = "每页条数", example = "20"),
+            @Parameter(name = "status", description = "处理状态 (0-待处理 1-已处理 2-已驳回)", example = "0")
+    })
+    @GetMapping("/targets")
+    @PreAuthorize("hasRole('MODERATOR')")
+    public Result<IPage<ForumReportTarget>> getReportTargets(
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Integer status) {
+        return Result.success(reportService.getReportTargets(page, size, status));
+    }
+    
+    /**
+     * 处理举报对象 - 一次处理同一对象的全部待处理举报
+     */
+    @Operation(summary = "处理举报对象", description = "一次处理同一对象的全部待处理举报：ACCEPT 删除内容，REJECT 驳回并恢复自动隐藏的内容。")
+    @Parameters({
+            @Parameter(name = "targetType", description = "对象类型 (POST/COMMENT)", required = true, example = "POST"),
+            @Parameter(name = "targetId", description = "对象ID", required = true, example = "1"),
+            @Parameter(name = "action", description = "处理动作 (ACCEPT-接受/REJECT-拒绝)", required = true, example = "ACCEPT"),
+            @Parameter(name = "handleNote", description = "处理备注", example = "违反社区准则")
+    })
+    @PostMapping("/targets/{targetType}/{targetId}/handle")
+    @PreAuthorize("hasRole('MODERATOR')")
+    public Result<Void> handleTarget(
+            @PathVariable String targetType,
+            @PathVariable Long targetId,
+            @RequestParam String action,
+            @RequestParam(required = false) String handleNote) {
+        reportService.handleTarget(targetType, targetId, action, handleNote);
+        return Result.success();
+    }
+    
     /**
      * 标记举报为处理中 - 版主认领举报开始处理
      */
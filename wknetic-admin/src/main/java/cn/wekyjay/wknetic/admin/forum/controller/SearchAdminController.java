@@ -1,22 +1,28 @@
 package cn.wekyjay.wknetic.admin.forum.controller;
 
-import cn.wekyjay.wknetic.admin.forum.document.PostDocument;
 import cn.wekyjay.wknetic.admin.forum.service.ElasticsearchService;
-import cn.wekyjay.wknetic.common.mapper.*;
-import cn.wekyjay.wknetic.common.model.entity.*;
-import cn.wekyjay.wknetic.common.domain.SysUser;
+import cn.wekyjay.wknetic.admin.forum.service.PostDocumentAssembler;
+import cn.wekyjay.wknetic.admin.forum.service.SearchAnalyticsService;
+import cn.wekyjay.wknetic.admin.forum.service.SearchConsistencyService;
+import cn.wekyjay.wknetic.admin.forum.service.SearchIndexQueue;
+import cn.wekyjay.wknetic.admin.forum.service.SearchReindexService;
+import cn.wekyjay.wknetic.admin.forum.service.SearchResultCache;
+import cn.wekyjay.wknetic.common.mapper.ForumPostMapper;
+import cn.wekyjay.wknetic.common.model.entity.ForumPost;
+import cn.wekyjay.wknetic.common.model.vo.ReindexJobVO;
+import cn.wekyjay.wknetic.common.model.vo.SearchKeywordStatVO;
 import cn.wekyjay.wknetic.common.model.Result;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.Parameters;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * Elasticsearch 管理控制器
@@ -33,79 +39,130 @@
 public class SearchAdminController {
     
     private final ElasticsearchService elasticsearchService;
+    private final SearchReindexService searchReindexService;
+    private final SearchResultCache searchResultCache;
+    private final SearchAnalyticsService searchAnalyticsService;
+    private final SearchIndexQueue searchIndexQueue;
+    private final SearchConsistencyService searchConsistencyService;
+    private final PostDocumentAssembler documentAssembler;
     private final ForumPostMapper postMapper;
-    private final ForumTopicMapper topicMapper;
-    private final SysUserMapper userMapper;
-    private final PostTagMapper postTagMapper;
-    private final ForumTagMapper tagMapper;
     
     /**
      * 全量重建索引
-     * 从数据库读取所有已发布的帖子并重新索引
+     * 后台流式写入新的版本化索引，完成后切换别名，重建期间搜索不受影响
      */
-    @Operation(summary = "全量重建索引", description = "从数据库读取所有已发布帖子并重新建立搜索索引。此操作可能耗时较长。")
+    @Operation(summary = "全量重建索引", description = "启动后台任务，将所有已发布帖子写入新索引并切换别名。立即返回任务状态，可通过状态接口查询进度。")
     @PostMapping("/rebuild-index")
     @PreAuthorize("hasRole('ADMIN')")
-    public Result<String> rebuildIndex() {
-        log.info("开始全量重建搜索索引");
-        
-        try {
-            // 查询所有已发布的帖子
-            List<ForumPost> posts = postMapper.selectList(
-                new LambdaQueryWrapper<ForumPost>()
-                    .eq(ForumPost::getStatus, ForumPost.Status.PUBLISHED.getCode())
-            );
-            
-            log.info("找到 {} 个已发布帖子", posts.size());
-            
-            // 批量转换并索引
-            List<PostDocument> documents = new ArrayList<>();
-            
-            for (ForumPost post : posts) {
-                try {
-                    // 获取作者信息
-                    SysUser user = userMapper.selectById(post.getUserId());
-                    String username = user != null ? user.getUsername() : "Unknown";
-                    
-                    // 获取话题信息
-                    ForumTopic topic = topicMapper.selectById(post.getTopicId());
-                    String topicName = topic != null ? topic.getTopicName() : "Unknown";
-                    
-                    // 获取标签列表
-                    List<PostTag> postTags = postTagMapper.selectList(
-                        new LambdaQueryWrapper<PostTag>().eq(PostTag::getPostId, post.getPostId())
-                    );
-                    List<String> tags = postTags.stream()
-                        .map(pt -> {
-                            ForumTag tag = tagMapper.selectById(pt.getTagId());
-                            return tag != null ? tag.getTagName() : null;
-                        })
-                        .filter(t -> t != null)
-                        .collect(Collectors.toList());
-                    
-                    // 转换为文档
-                    PostDocument document = elasticsearchService.convertToDocument(
-                        post, username, topicName, tags
-                    );
-                    documents.add(document);
-                    
-                } catch (Exception e) {
-                    log.error("处理帖子失败: postId={}", post.getPostId(), e);
-                }
-            }
-            
-            // 批量索引
-            elasticsearchService.indexPosts(documents);
-            
-            String message = String.format("索引重建完成，共索引 %d 个帖子", documents.size());
-            log.info(message);
-            
-            return Result.success(message);
-            
-        } catch (Exception e) {
-            log.error("索引重建失败", e);
-            return Result.error("索引重建失败: " + e.getMessage());
-        }
+    public Result<ReindexJobVO> rebuildIndex(
+            @Parameter(description = "是否从上次中断的断点继续") @RequestParam(defaultValue = "false") Boolean resume) {
+        log.info("开始全量重建搜索索引: resume={}", resume);
+        return Result.success(searchReindexService.start(resume));
+    }
+    
+    /**
+     * 查询重建任务进度
+     */
+    @Operation(summary = "查询重建任务进度", description = "查询最近一次索引重建任务的状态和进度")
+    @GetMapping("/rebuild-index/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<ReindexJobVO> getRebuildStatus() {
+        return Result.success(searchReindexService.getStatus());
+    }
+    
+    /**
+     * 取消重建任务
+     */
+    @Operation(summary = "取消重建任务", description = "取消正在运行的索引重建任务，已写入的数据保留，可通过 resume=true 继续")
+    @PostMapping("/rebuild-index/cancel")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<ReindexJobVO> cancelRebuild() {
+        return Result.success(searchReindexService.cancel());
+    }
+    
+    /**
+     * 回填评论或用户索引
+     */
+    @Operation(summary = "回填评论/用户索引", description = "异步把数据库中的全部评论（type=COMMENT）或用户（type=USER）同步到搜索索引，首次启用评论和用户搜索时执行一次")
+    @Parameter(name = "type", description = "文档类型：COMMENT 或 USER", required = true, example = "COMMENT")
+    @PostMapping("/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<String> backfill(@RequestParam String type) {
+        searchIndexQueue.backfill(type.trim().toUpperCase());
+        return Result.success("索引回填任务已启动");
+    }
+    
+    /**
+     * 搜索结果缓存统计
+     */
+    @Operation(summary = "搜索缓存统计", description = "查询搜索结果缓存的命中数、未命中数、合并的并发查询数和命中率")
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<Map<String, Object>> getCacheStats() {
+        return Result.success(searchResultCache.getStats());
+    }
+    
+    /**
+     * 搜索熔断器状态
+     */
+    @Operation(summary = "搜索熔断器状态", description = "查询帖子搜索熔断器的状态（CLOSED 正常、OPEN 降级到数据库全文检索、HALF_OPEN 探测中）和连续失败次数")
+    @GetMapping("/circuit")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<Map<String, Object>> getCircuitState() {
+        return Result.success(elasticsearchService.getCircuitState());
+    }
+    
+    /**
+     * 索引一致性检查
+     */
+    @Operation(summary = "索引一致性检查", description = "异步从头完整比对一轮数据库与帖子索引，有偏差的帖子按数据库状态重新同步")
+    @PostMapping("/consistency/check")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<String> checkConsistency() {
+        searchConsistencyService.checkAll();
+        return Result.success("一致性检查任务已启动");
+    }
+    
+    /**
+     * 索引一致性检查统计
+     */
+    @Operation(summary = "索引一致性统计", description = "查询累计检查的分段数和帖子数、发现的缺失/过期/多余帖子数、已提交修复的帖子数和当前断点")
+    @GetMapping("/consistency/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<Map<String, Object>> getConsistencyStats() {
+        return Result.success(searchConsistencyService.getStats());
+    }
+    
+    /**
+     * 热门搜索词统计
+     */
+    @Operation(summary = "热门搜索词统计", description = "最近若干小时搜索次数最多的关键词及估计次数（最多7天）")
+    @Parameters({
+            @Parameter(name = "hours", description = "统计小时数", example = "24"),
+            @Parameter(name = "size", description = "数量（最多200）", example = "50")
+    })
+    @GetMapping("/analytics/top")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<List<SearchKeywordStatVO>> getTopQueries(@RequestParam(defaultValue = "24") int hours,
+                                                           @RequestParam(defaultValue = "50") int size) {
+        return Result.success(searchAnalyticsService.getTopQueries(
+                Math.min(Math.max(hours, 1), 168), Math.min(Math.max(size, 1), 200)));
+    }
+    
+    /**
+     * 无结果搜索词统计
+     */
+    @Operation(summary = "无结果搜索词", description = "最近若干天搜索无结果的关键词及次数（最多30天），用于补充同义词和分词词典")
+    @Parameters({
+            @Parameter(name = "days", description = "统计天数", example = "7"),
+            @Parameter(name = "size", description = "数量（最多200）", example = "50")
+    })
+    @GetMapping("/analytics/zero-results")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<List<SearchKeywordStatVO>> getZeroResultQueries(@RequestParam(defaultValue = "7") int days,
+                                                                  @RequestParam(defaultValue = "50") int size) {
+        return Result.success(searchAnalyticsService.getZeroResultQueries(
+                Math.min(Math.max(days, 1), 30), Math.min(Math.max(size, 1), 200)));
     }
     
     /**
@@ -123,31 +180,8 @@ public Result<String> indexPost(@PathVariable Long postId) {
                 return Result.error("帖子不存在");
             }
             
-            // 获取作者信息
-            SysUser user = userMapper.selectById(post.getUserId());
-            String username = user != null ? user.getUsername() : "Unknown";
-            
-            // 获取话题信息
-            ForumTopic topic = topicMapper.selectById(post.getTopicId());
-            String topicName = topic != null ? topic.getTopicName() : "Unknown";
-            
-            // 获取标签列表
-            List<PostTag> postTags = postTagMapper.selectList(
-                new LambdaQueryWrapper<PostTag>().eq(PostTag::getPostId, postId)
-            );
-            List<String> tags = postTags.stream()
-                .map(pt -> {
-                    ForumTag tag = tagMapper.selectById(pt.getTagId());
-                    return tag != null ? tag.getTagName() : null;
-                })
-                .filter(t -> t != null)
-                .collect(Collectors.toList());
-            
             // 转换并索引
-            PostDocument document = elasticsearchService.convertToDocument(
-                post, username, topicName, tags
-            );
-            elasticsearchService.indexPost(document);
+            elasticsearchService.indexPost(documentAssembler.assemble(post));
             
             return Result.success("索引成功");
             
@@ -0,0 +1,96 @@
+package cn.wekyjay.wknetic.admin.forum.document;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 评论搜索文档
+ * 只索引正常状态且所属帖子已发布的评论
+ * 
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(indexName = "comment_index")
+@Setting(settingPath = "elasticsearch/post-index-settings.json")
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CommentDocument {
+    
+    /**
+     * 评论ID
+     */
+    @Id
+    private Long commentId;
+    
+    /**
+     * 所属帖子ID
+     */
+    @Field(type = FieldType.Long)
+    private Long postId;
+    
+    /**
+     * 所属帖子标题（用于显示）
+     */
+    @Field(type = FieldType.Keyword, index = false)
+    private String postTitle;
+    
+    /**
+     * 评论内容（Markdown原文，使用IK分词器）
+     */
+    @Field(type = FieldType.Text, analyzer = "ik_max_word", searchAnalyzer = "ik_smart")
+    private String content;
+    
+    /**
+     * 评论者ID
+     */
+    @Field(type = FieldType.Long)
+    private Long userId;
+    
+    /**
+     * 评论者用户名（用于显示）
+     */
+    @Field(type = FieldType.Keyword)
+    private String username;
+    
+    /**
+     * 父评论ID
+     */
+    @Field(type = FieldType.Long)
+    private Long parentId;
+    
+    /**
+     * 状态：1-正常 2-已删除 3-已隐藏
+     */
+    @Field(type = FieldType.Integer)
+    private Integer status;
+    
+    /**
+     * 点赞数（用于排序）
+     */
+    @Field(type = FieldType.Integer)
+    private Integer likeCount;
+    
+    /**
+     * 创建时间（用于过滤和排序）
+     */
+    @Field(type = FieldType.Date, format = {}, pattern = "uuuu-MM-dd'T'HH:mm:ss||epoch_millis")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @JsonSerialize(using = LocalDateTimeSerializer.class)
+    @JsonDeserialize(using = LocalDateTimeDeserializer.class)
+    private LocalDateTime createTime;
+}
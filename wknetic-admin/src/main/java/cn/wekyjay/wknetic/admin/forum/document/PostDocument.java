@@ -2,6 +2,7 @@
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
@@ -153,4 +154,30 @@ public class PostDocument {
     @JsonSerialize(using = LocalDateTimeSerializer.class)
     @JsonDeserialize(using = LocalDateTimeDeserializer.class)
     private LocalDateTime lastCommentTime;
+    
+    /**
+     * 搜索建议（标题和标签，completion 类型，按互动热度加权）
+     */
+    @CompletionField(analyzer = "simple", searchAnalyzer = "simple", maxInputLength = 50)
+    private Suggest suggest;
+    
+    /**
+     * completion 字段的值
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Suggest {
+        
+        /**
+         * 可匹配的输入
+         */
+        private List<String> input;
+        
+        /**
+         * 权重（越大越靠前）
+         */
+        private Integer weight;
+    }
 }
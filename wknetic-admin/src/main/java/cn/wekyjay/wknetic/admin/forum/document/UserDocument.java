@@ -0,0 +1,103 @@
+package cn.wekyjay.wknetic.admin.forum.document;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户搜索文档
+ * <p>
+ * 用户名、邮箱和MC账号使用 wildcard 类型，支持任意位置的子串匹配（替代 LIKE '%kw%'）；
+ * 用户名和昵称另有分词字段供论坛搜索使用。邮箱和MC UUID只用于后台检索，论坛搜索不返回。
+ * 所有状态的用户都会索引，论坛搜索只查询启用的用户。
+ * </p>
+ * 
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(indexName = "user_index")
+@Setting(settingPath = "elasticsearch/post-index-settings.json")
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserDocument {
+    
+    /**
+     * 用户ID
+     */
+    @Id
+    private Long userId;
+    
+    /**
+     * 用户名（子串匹配，username.text 为分词字段）
+     */
+    @MultiField(
+        mainField = @Field(type = FieldType.Wildcard),
+        otherFields = @InnerField(suffix = "text", type = FieldType.Text, analyzer = "ik_max_word", searchAnalyzer = "ik_smart")
+    )
+    private String username;
+    
+    /**
+     * 昵称（使用IK分词器）
+     */
+    @Field(type = FieldType.Text, analyzer = "ik_max_word", searchAnalyzer = "ik_smart")
+    private String nickname;
+    
+    /**
+     * 邮箱（子串匹配，仅后台）
+     */
+    @Field(type = FieldType.Wildcard)
+    private String email;
+    
+    /**
+     * Minecraft账号UUID（子串匹配，仅后台）
+     */
+    @Field(type = FieldType.Wildcard)
+    private String minecraftUuid;
+    
+    /**
+     * Minecraft游戏名（子串匹配）
+     */
+    @Field(type = FieldType.Wildcard)
+    private String minecraftUsername;
+    
+    /**
+     * 头像地址（用于显示）
+     */
+    @Field(type = FieldType.Keyword, index = false)
+    private String avatar;
+    
+    /**
+     * 状态（0禁用 1启用）
+     */
+    @Field(type = FieldType.Integer)
+    private Integer status;
+    
+    /**
+     * 角色（兼容字段，用于后台筛选）
+     */
+    @Field(type = FieldType.Keyword)
+    private String role;
+    
+    /**
+     * 注册时间（用于排序）
+     */
+    @Field(type = FieldType.Date, format = {}, pattern = "uuuu-MM-dd'T'HH:mm:ss||epoch_millis")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @JsonSerialize(using = LocalDateTimeSerializer.class)
+    @JsonDeserialize(using = LocalDateTimeDeserializer.class)
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,31 @@
+package cn.wekyjay.wknetic.admin.forum.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量审核结果VO
+ *
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditBatchResultVO {
+
+    /**
+     * 已审核的帖子ID
+     */
+    private List<Long> processedIds;
+
+    /**
+     * 跳过的帖子ID（不存在、已不在审核状态或被其他审核员领取）
+     */
+    private List<Long> skippedIds;
+}
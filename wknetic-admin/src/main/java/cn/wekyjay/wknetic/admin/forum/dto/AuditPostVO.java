@@ -89,6 +89,26 @@ public class AuditPostVO {
      */
     private String auditRemark;
     
+    /**
+     * 审核队列优先级得分（仅领取时返回）
+     */
+    private Double priority;
+    
+    /**
+     * 待处理的举报数（仅领取时返回）
+     */
+    private Integer reportCount;
+    
+    /**
+     * 是否作者的首个帖子（仅领取时返回）
+     */
+    private Boolean firstPost;
+    
+    /**
+     * 领取租约到期时间（仅领取时返回）
+     */
+    private LocalDateTime leaseExpireTime;
+    
     /**
      * 作者VO
      */
@@ -0,0 +1,37 @@
+package cn.wekyjay.wknetic.admin.forum.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 仪表板统计推送消息
+ * 推送到 /topic/admin/dashboard，只包含有变化的字段（字段名与 {@link DashboardStatisticsVO} 一致）
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardMetricsMessage {
+
+    /**
+     * 版本号，全局递增；客户端忽略不大于当前快照版本的消息
+     */
+    private Long version;
+
+    /**
+     * 是否为全量快照（为true时替换整个快照，否则只合并changes中的字段）
+     */
+    private Boolean full;
+
+    /**
+     * 有变化的字段 -> 新值
+     */
+    private Map<String, Object> changes;
+}
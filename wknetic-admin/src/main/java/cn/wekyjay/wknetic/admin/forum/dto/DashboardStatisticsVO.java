@@ -21,32 +21,32 @@
 public class DashboardStatisticsVO {
     
     /**
-     * 总用户数
+     * 总用户数（累计注册）
      */
     private Long totalUserCount;
     
     /**
-     * 总用户数周环比 (%)，负数表示下降
+     * 新增用户周环比 (%)：最近7天与前7天对比，负数表示下降
      */
     private BigDecimal totalUserChangeRate;
     
     /**
-     * 当前在线用户数
+     * 当前在线用户数（最近15分钟内有活动）
      */
     private Long onlineUserCount;
     
     /**
-     * 当前在线用户数周环比 (%)
+     * 当前在线用户数周环比 (%)：与上周同一时刻对比
      */
     private BigDecimal onlineUserChangeRate;
     
     /**
-     * 总发帖数
+     * 总发帖数（累计发布）
      */
     private Long totalPostCount;
     
     /**
-     * 总发帖数周环比 (%)
+     * 发帖数周环比 (%)：最近7天与前7天对比
      */
     private BigDecimal totalPostChangeRate;
     
@@ -56,7 +56,27 @@ public class DashboardStatisticsVO {
     private Long pendingAuditCount;
     
     /**
-     * 待审核数周环比 (%)
+     * 新增待审核数周环比 (%)：最近7天与前7天对比
      */
     private BigDecimal pendingAuditChangeRate;
+    
+    /**
+     * 日活跃用户数（今天）
+     */
+    private Long dailyActiveUsers;
+    
+    /**
+     * 周活跃用户数（最近7天）
+     */
+    private Long weeklyActiveUsers;
+    
+    /**
+     * 月活跃用户数（最近30天）
+     */
+    private Long monthlyActiveUsers;
+    
+    /**
+     * 快照版本号，与 /topic/admin/dashboard 推送消息的 version 对应，只应用版本号更大的推送
+     */
+    private Long version;
 }
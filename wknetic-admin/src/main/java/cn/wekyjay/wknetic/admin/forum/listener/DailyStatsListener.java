@@ -0,0 +1,96 @@
+package cn.wekyjay.wknetic.admin.forum.listener;
+
+import cn.wekyjay.wknetic.admin.system.service.DailyStatsService;
+import cn.wekyjay.wknetic.admin.system.service.DashboardMetricsHub;
+import cn.wekyjay.wknetic.community.event.BaseEvent;
+import cn.wekyjay.wknetic.community.event.comment.CommentCreatedEvent;
+import cn.wekyjay.wknetic.community.event.post.PostAuditedEvent;
+import cn.wekyjay.wknetic.community.event.post.PostCreatedEvent;
+import cn.wekyjay.wknetic.community.event.report.ReportCreatedEvent;
+import cn.wekyjay.wknetic.community.event.user.UserRegisterEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * 每日统计监听器
+ * 按事件发生的日期累加每日统计，重复投递的事件跳过，累加后通知仪表板推送
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DailyStatsListener {
+
+    private final DailyStatsService dailyStatsService;
+    private final EventDeduplicator eventDeduplicator;
+    private final DashboardMetricsHub dashboardMetricsHub;
+
+    private static final String HANDLER = "dailyStats";
+
+    /**
+     * 用户注册
+     */
+    @Async
+    @EventListener
+    public void onUserRegister(UserRegisterEvent event) {
+        record(event, DailyStatsService.NEW_USERS);
+    }
+
+    /**
+     * 帖子提交：需要审核的计入待审核，否则计入发布
+     */
+    @Async
+    @EventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        record(event, event.isNeedsReview() ? DailyStatsService.AUDITS : DailyStatsService.POSTS);
+    }
+
+    /**
+     * 帖子审核通过，计入发布（举报隐藏后的复审通过不重复计入）
+     */
+    @Async
+    @EventListener
+    public void onPostAudited(PostAuditedEvent event) {
+        if (event.isApproved() && !event.isReaudit()) {
+            record(event, DailyStatsService.POSTS);
+        }
+    }
+
+    /**
+     * 举报同时计入举报数和待审核数
+     */
+    @Async
+    @EventListener
+    public void onReportCreated(ReportCreatedEvent event) {
+        record(event, DailyStatsService.REPORTS, DailyStatsService.AUDITS);
+    }
+
+    /**
+     * 评论创建
+     */
+    @Async
+    @EventListener
+    public void onCommentCreated(CommentCreatedEvent event) {
+        record(event, DailyStatsService.COMMENTS);
+    }
+
+    private void record(BaseEvent event, String... metrics) {
+        if (!eventDeduplicator.tryAcquire(event, HANDLER)) {
+            return;
+        }
+        try {
+            for (String metric : metrics) {
+                dailyStatsService.increment(event.getEventTime().toLocalDate(), metric, 1);
+            }
+            // 累加之后再标记，仪表板下个推送周期读到的是新值
+            dashboardMetricsHub.markMetricsDirty(metrics);
+        } catch (Exception e) {
+            log.error("更新每日统计失败: {}", event, e);
+        }
+    }
+}
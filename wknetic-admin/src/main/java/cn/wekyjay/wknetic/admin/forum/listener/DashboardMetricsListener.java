@@ -0,0 +1,49 @@
+package cn.wekyjay.wknetic.admin.forum.listener;
+
+import cn.wekyjay.wknetic.admin.system.service.DashboardMetricsHub;
+import cn.wekyjay.wknetic.admin.system.service.DashboardService.StatCard;
+import cn.wekyjay.wknetic.community.event.post.PostAuditedEvent;
+import cn.wekyjay.wknetic.community.event.post.PostDeletedEvent;
+import cn.wekyjay.wknetic.community.event.post.PostUpdatedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 仪表板统计监听器
+ * 待审核数随审核、隐藏、删除变化，这些事件不计入每日统计，在此标记待审核卡片；
+ * 只做内存标记，同步执行，重复投递无影响
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardMetricsListener {
+
+    private final DashboardMetricsHub dashboardMetricsHub;
+
+    /**
+     * 帖子审核完成，离开审核队列
+     */
+    @EventListener
+    public void onPostAudited(PostAuditedEvent event) {
+        dashboardMetricsHub.markDirty(StatCard.AUDITS);
+    }
+
+    /**
+     * 帖子编辑后重新送审、或被举报隐藏送审
+     */
+    @EventListener
+    public void onPostUpdated(PostUpdatedEvent event) {
+        dashboardMetricsHub.markDirty(StatCard.AUDITS);
+    }
+
+    /**
+     * 待审核的帖子被删除
+     */
+    @EventListener
+    public void onPostDeleted(PostDeletedEvent event) {
+        dashboardMetricsHub.markDirty(StatCard.AUDITS);
+    }
+}
@@ -0,0 +1,90 @@
+package cn.wekyjay.wknetic.admin.forum.listener;
+
+import cn.wekyjay.wknetic.community.event.BaseEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 事件幂等处理
+ * 发件箱至少投递一次，同一事件可能被重复投递，监听器以 事件ID + 处理标识 记录已完成的处理
+ * 直接发布的事件不会重复投递，不做记录
+ *
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventDeduplicator {
+
+    private final StringRedisTemplate redisTemplate;
+
+    private static final String KEY_PREFIX = "wknetic:event:done:";
+
+    /** 记录保留时间，需长于发件箱的最长重试周期 */
+    private static final Duration TTL = Duration.ofDays(3);
+
+    /**
+     * 抢占处理权，用于不会抛出异常的处理（异步监听器）
+     *
+     * @param event 事件
+     * @param handler 处理标识
+     * @return 首次投递返回true，重复投递返回false
+     */
+    public boolean tryAcquire(BaseEvent event, String handler) {
+        if (!event.isDurable()) {
+            return true;
+        }
+        try {
+            return !Boolean.FALSE.equals(redisTemplate.opsForValue().setIfAbsent(key(event, handler), "1", TTL));
+        } catch (Exception e) {
+            // Redis不可用时宁可重复处理也不丢失
+            log.warn("事件幂等检查失败: eventId={}", event.getEventId(), e);
+            return true;
+        }
+    }
+
+    /**
+     * 是否已处理过，与 {@link #markDone} 配合用于失败需要重试的处理
+     *
+     * @param event 事件
+     * @param handler 处理标识
+     * @return 是否已处理
+     */
+    public boolean isDone(BaseEvent event, String handler) {
+        if (!event.isDurable()) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(key(event, handler)));
+        } catch (Exception e) {
+            log.warn("事件幂等检查失败: eventId={}", event.getEventId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 记录处理完成
+     *
+     * @param event 事件
+     * @param handler 处理标识
+     */
+    public void markDone(BaseEvent event, String handler) {
+        if (!event.isDurable()) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(key(event, handler), "1", TTL);
+        } catch (Exception e) {
+            log.warn("记录事件处理完成失败: eventId={}", event.getEventId(), e);
+        }
+    }
+
+    private String key(BaseEvent event, String handler) {
+        return KEY_PREFIX + event.getEventId() + ":" + handler;
+    }
+}
@@ -0,0 +1,63 @@
+package cn.wekyjay.wknetic.admin.forum.listener;
+
+import cn.wekyjay.wknetic.admin.forum.service.FeedService;
+import cn.wekyjay.wknetic.common.mapper.ForumPostMapper;
+import cn.wekyjay.wknetic.community.event.post.PostAuditedEvent;
+import cn.wekyjay.wknetic.community.event.post.PostDeletedEvent;
+import cn.wekyjay.wknetic.community.event.user.UserFollowedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * 关注动态监听器
+ * 帖子审核通过后分发到粉丝时间线，下架时从作者发件箱移除
+ * 
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FeedListener {
+    
+    private final FeedService feedService;
+    private final ForumPostMapper postMapper;
+    
+    /**
+     * 监听帖子审核事件
+     */
+    @Async
+    @EventListener
+    public void onPostAudited(PostAuditedEvent event) {
+        try {
+            if (event.isApproved()) {
+                feedService.fanOut(postMapper.selectById(event.getPostId()));
+            } else {
+                feedService.removePost(event.getPostId(), event.getPostAuthorId());
+            }
+        } catch (Exception e) {
+            log.error("分发帖子到关注动态失败: postId={}", event.getPostId(), e);
+        }
+    }
+    
+    /**
+     * 监听帖子删除事件
+     */
+    @Async
+    @EventListener
+    public void onPostDeleted(PostDeletedEvent event) {
+        feedService.removePost(event.getPostId(), event.getPostAuthorId());
+    }
+    
+    /**
+     * 监听用户关注事件，回填被关注者的最近帖子
+     */
+    @Async
+    @EventListener
+    public void onUserFollowed(UserFollowedEvent event) {
+        feedService.backfill(event.getFollowerId(), event.getFollowedId());
+    }
+}
@@ -0,0 +1,130 @@
+package cn.wekyjay.wknetic.admin.forum.listener;
+
+import cn.wekyjay.wknetic.admin.forum.service.HotPostService;
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
+import cn.wekyjay.wknetic.common.mapper.ForumPostMapper;
+import cn.wekyjay.wknetic.common.model.entity.ForumPost;
+import cn.wekyjay.wknetic.community.event.comment.CommentCreatedEvent;
+import cn.wekyjay.wknetic.community.event.comment.CommentDeletedEvent;
+import cn.wekyjay.wknetic.community.event.post.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * 热度排行监听器
+ * 监听点赞、评论、浏览、收藏等互动事件，实时更新帖子热度排行
+ * 热度增量不可重复累加，重复投递的事件跳过
+ * 
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotRankListener {
+    
+    private final HotPostService hotPostService;
+    private final ForumPostMapper postMapper;
+    private final WkNeticProperties properties;
+    private final EventDeduplicator eventDeduplicator;
+    
+    /**
+     * 监听帖子审核事件
+     * 审核通过进入排行，拒绝则移出排行
+     */
+    @Async
+    @EventListener
+    public void onPostAudited(PostAuditedEvent event) {
+        if (event.isApproved()) {
+            hotPostService.onPostPublished(postMapper.selectById(event.getPostId()));
+        } else {
+            hotPostService.removePost(event.getPostId());
+        }
+    }
+    
+    /**
+     * 监听帖子更新事件
+     * 帖子被删除时移出排行，话题变更时迁移到新话题排行
+     */
+    @Async
+    @EventListener
+    public void onPostUpdated(PostUpdatedEvent event) {
+        ForumPost post = postMapper.selectById(event.getPostId());
+        if (post == null || post.getStatus() != ForumPost.Status.PUBLISHED.getCode()) {
+            hotPostService.removePost(event.getPostId());
+        } else {
+            hotPostService.moveTopic(post.getPostId(), post.getTopicId());
+        }
+    }
+    
+    /**
+     * 监听帖子删除事件
+     */
+    @Async
+    @EventListener
+    public void onPostDeleted(PostDeletedEvent event) {
+        hotPostService.removePost(event.getPostId());
+    }
+    
+    /**
+     * 监听帖子点赞事件
+     */
+    @Async
+    @EventListener
+    public void onPostLiked(PostLikedEvent event) {
+        if (!eventDeduplicator.tryAcquire(event, "hot")) {
+            return;
+        }
+        double weight = properties.getHot().getLikeWeight();
+        hotPostService.recordInteraction(event.getPostId(), event.isLiked() ? weight : -weight, event.getEventTime());
+    }
+    
+    /**
+     * 监听帖子收藏事件
+     */
+    @Async
+    @EventListener
+    public void onPostBookmarked(PostBookmarkedEvent event) {
+        if (!eventDeduplicator.tryAcquire(event, "hot")) {
+            return;
+        }
+        double weight = properties.getHot().getBookmarkWeight();
+        hotPostService.recordInteraction(event.getPostId(), event.isBookmarked() ? weight : -weight, event.getEventTime());
+    }
+    
+    /**
+     * 监听帖子浏览事件
+     */
+    @Async
+    @EventListener
+    public void onPostViewed(PostViewedEvent event) {
+        hotPostService.recordInteraction(event.getPostId(), properties.getHot().getViewWeight(), event.getEventTime());
+    }
+    
+    /**
+     * 监听评论创建事件
+     */
+    @Async
+    @EventListener
+    public void onCommentCreated(CommentCreatedEvent event) {
+        if (!eventDeduplicator.tryAcquire(event, "hot")) {
+            return;
+        }
+        hotPostService.recordInteraction(event.getPostId(), properties.getHot().getCommentWeight(), event.getEventTime());
+    }
+    
+    /**
+     * 监听评论删除事件
+     */
+    @Async
+    @EventListener
+    public void onCommentDeleted(CommentDeletedEvent event) {
+        if (!eventDeduplicator.tryAcquire(event, "hot")) {
+            return;
+        }
+        hotPostService.recordInteraction(event.getPostId(), -properties.getHot().getCommentWeight(), event.getEventTime());
+    }
+}
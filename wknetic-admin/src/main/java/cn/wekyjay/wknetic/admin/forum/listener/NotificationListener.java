@@ -1,6 +1,7 @@
 package cn.wekyjay.wknetic.admin.forum.listener;
 
 import cn.wekyjay.wknetic.admin.system.service.NotificationService;
+import cn.wekyjay.wknetic.community.event.BaseEvent;
 import cn.wekyjay.wknetic.community.event.post.*;
 import cn.wekyjay.wknetic.community.event.comment.*;
 import cn.wekyjay.wknetic.community.event.report.*;
@@ -11,12 +12,13 @@
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 /**
  * 通知事件监听器
  * 监听各类业务事件并发送相应通知
+ * 由发件箱中继在事务提交后同步调用，创建通知失败时抛出异常由中继重新投递，
+ * 每个接收者的通知以事件ID去重，重复投递不会产生重复通知
  * 
  * @author WkNetic
  * @since 2026-02-01
@@ -28,12 +30,12 @@ public class NotificationListener {
     
     private final NotificationService notificationService;
     private final ForumPostMapper postMapper;
+    private final EventDeduplicator eventDeduplicator;
     
     /**
      * 监听帖子创建事件
      * 如果帖子需要审核，通知审核员
      */
-    @Async
     @EventListener
     public void onPostCreated(PostCreatedEvent event) {
         log.info("收到帖子创建事件: postId={}, userId={}, needsReview={}", 
@@ -50,7 +52,6 @@ public void onPostCreated(PostCreatedEvent event) {
      * 监听帖子点赞事件
      * 通知帖子作者（如果不是自己点赞自己的帖子）
      */
-    @Async
     @EventListener
     public void onPostLiked(PostLikedEvent event) {
         log.info("收到帖子点赞事件: postId={}, userId={}, liked={}", 
@@ -60,7 +61,7 @@ public void onPostLiked(PostLikedEvent event) {
             // 只在点赞时通知，取消点赞不通知
             ForumPost post = postMapper.selectById(event.getPostId());
             if (post != null && !post.getUserId().equals(event.getUserId())) {
-                notificationService.createNotification(
+                notifyOnce(event,
                     post.getUserId(),
                     "POST_LIKE",
                     "您的帖子收到了新的点赞",
@@ -77,7 +78,6 @@ public void onPostLiked(PostLikedEvent event) {
      * 监听帖子审核事件
      * 通知帖子作者审核结果
      */
-    @Async
     @EventListener
     public void onPostAudited(PostAuditedEvent event) {
         log.info("收到帖子审核事件: postId={}, approved={}, reason={}", 
@@ -92,7 +92,7 @@ public void onPostAudited(PostAuditedEvent event) {
             content = "您的帖子未通过审核，原因：" + event.getReason();
         }
         
-        notificationService.createNotification(
+        notifyOnce(event,
             event.getAuthorId(),
             event.isApproved() ? "POST_AUDIT_PASS" : "POST_AUDIT_REJECT",
             title,
@@ -107,7 +107,6 @@ public void onPostAudited(PostAuditedEvent event) {
      * 监听评论创建事件
      * 通知帖子作者和被回复的用户
      */
-    @Async
     @EventListener
     public void onCommentCreated(CommentCreatedEvent event) {
         log.info("收到评论创建事件: commentId={}, postId={}, userId={}, replyToUserId={}", 
@@ -120,7 +119,7 @@ public void onCommentCreated(CommentCreatedEvent event) {
         
         // 通知帖子作者（如果不是评论者本人）
         if (!post.getUserId().equals(event.getUserId())) {
-            notificationService.createNotification(
+            notifyOnce(event,
                 post.getUserId(),
                 "COMMENT",
                 "您的帖子收到了新评论",
@@ -133,7 +132,7 @@ public void onCommentCreated(CommentCreatedEvent event) {
         
         // 如果是回复评论，通知被回复的用户
         if (event.getReplyToUserId() != null && !event.getReplyToUserId().equals(event.getUserId())) {
-            notificationService.createNotification(
+            notifyOnce(event,
                 event.getReplyToUserId(),
                 "REPLY",
                 "您收到了新的回复",
@@ -149,7 +148,6 @@ public void onCommentCreated(CommentCreatedEvent event) {
      * 监听评论点赞事件
      * 通知评论作者
      */
-    @Async
     @EventListener
     public void onCommentLiked(CommentLikedEvent event) {
         log.info("收到评论点赞事件: commentId={}, userId={}, liked={}", 
@@ -157,7 +155,7 @@ public void onCommentLiked(CommentLikedEvent event) {
         
         if (event.isLiked() && event.getCommentAuthorId() != null 
                 && !event.getCommentAuthorId().equals(event.getUserId())) {
-            notificationService.createNotification(
+            notifyOnce(event,
                 event.getCommentAuthorId(),
                 "COMMENT_LIKE",
                 "您的评论收到了新的点赞",
@@ -173,7 +171,6 @@ public void onCommentLiked(CommentLikedEvent event) {
      * 监听用户提及事件
      * 通知被@的用户
      */
-    @Async
     @EventListener
     public void onUserMentioned(UserMentionedEvent event) {
         log.info("收到用户提及事件: mentionedUserId={}, mentionerId={}, contentType={}, contentId={}", 
@@ -182,7 +179,7 @@ public void onUserMentioned(UserMentionedEvent event) {
         String title = "有人@了您";
         String content = "有用户在" + ("POST".equals(event.getContentType()) ? "帖子" : "评论") + "中提到了您";
         
-        notificationService.createNotification(
+        notifyOnce(event,
             event.getMentionedUserId(),
             "MENTION",
             title,
@@ -197,13 +194,12 @@ public void onUserMentioned(UserMentionedEvent event) {
      * 监听用户关注事件
      * 通知被关注的用户
      */
-    @Async
     @EventListener
     public void onUserFollowed(UserFollowedEvent event) {
         log.info("收到用户关注事件: followedUserId={}, followerId={}", 
                 event.getFollowedUserId(), event.getFollowerId());
         
-        notificationService.createNotification(
+        notifyOnce(event,
             event.getFollowedUserId(),
             "FOLLOW",
             "您有新的关注者",
@@ -218,7 +214,6 @@ public void onUserFollowed(UserFollowedEvent event) {
      * 监听举报创建事件
      * 通知审核员
      */
-    @Async
     @EventListener
     public void onReportCreated(ReportCreatedEvent event) {
         log.info("收到举报创建事件: reportId={}, targetType={}, targetId={}, reason={}", 
@@ -227,4 +222,17 @@ public void onReportCreated(ReportCreatedEvent event) {
         // TODO: 通知所有审核员
         log.info("收到新举报，应通知审核员处理");
     }
+    
+    /**
+     * 创建通知，同一事件对同一接收者只通知一次
+     */
+    private void notifyOnce(BaseEvent event, Long userId, String type, String title, String content,
+                            Long relatedId, String relatedType, Long senderId) {
+        String handler = "notification:" + type + ":" + userId;
+        if (eventDeduplicator.isDone(event, handler)) {
+            return;
+        }
+        notificationService.createNotification(userId, type, title, content, relatedId, relatedType, senderId);
+        eventDeduplicator.markDone(event, handler);
+    }
 }
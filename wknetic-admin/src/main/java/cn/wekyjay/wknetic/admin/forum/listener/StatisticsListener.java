@@ -1,5 +1,7 @@
 package cn.wekyjay.wknetic.admin.forum.listener;
 
+import cn.wekyjay.wknetic.admin.forum.service.AuditService;
+import cn.wekyjay.wknetic.admin.forum.service.ReportAggregationService;
 import cn.wekyjay.wknetic.admin.forum.service.TopicService;
 import cn.wekyjay.wknetic.community.event.post.*;
 import cn.wekyjay.wknetic.community.event.comment.*;
@@ -15,6 +17,7 @@
 /**
  * 统计数据监听器
  * 监听业务事件并更新相关统计数据
+ * 计数增减不可重复执行，重复投递的事件跳过
  * 
  * @author WkNetic
  * @since 2026-02-01
@@ -25,7 +28,10 @@
 public class StatisticsListener {
     
     private final TopicService topicService;
+    private final AuditService auditService;
+    private final ReportAggregationService reportAggregationService;
     private final ForumPostMapper postMapper;
+    private final EventDeduplicator eventDeduplicator;
     
     /**
      * 监听帖子审核事件
@@ -34,7 +40,7 @@ public class StatisticsListener {
     @Async
     @EventListener
     public void onPostAudited(PostAuditedEvent event) {
-        if (event.isApproved()) {
+        if (event.isApproved() && eventDeduplicator.tryAcquire(event, "statistics")) {
             log.info("帖子审核通过，更新板块统计: postId={}", event.getPostId());
             
             ForumPost post = postMapper.selectById(event.getPostId());
@@ -44,6 +50,24 @@ public void onPostAudited(PostAuditedEvent event) {
         }
     }
     
+    /**
+     * 监听帖子审核事件（通过和拒绝）
+     * 累计审核耗时，用于平均审核时间
+     * 复审的帖子从发布到复审的时间不是审核耗时，不计入
+     */
+    @Async
+    @EventListener
+    public void onPostAuditedLatency(PostAuditedEvent event) {
+        if (event.isReaudit() || !eventDeduplicator.tryAcquire(event, "auditLatency")) {
+            return;
+        }
+        try {
+            auditService.recordAuditLatency(event.getPostId(), event.getEventTime());
+        } catch (Exception e) {
+            log.error("累计审核耗时失败: postId={}", event.getPostId(), e);
+        }
+    }
+    
     /**
      * 监听帖子删除事件（通过PostUpdatedEvent判断状态）
      * 删除帖子时减少板块帖子数
@@ -52,6 +76,9 @@ public void onPostAudited(PostAuditedEvent event) {
     @EventListener
     public void onPostUpdated(PostUpdatedEvent event) {
         log.debug("帖子更新事件: postId={}", event.getPostId());
+        if (!eventDeduplicator.tryAcquire(event, "statistics")) {
+            return;
+        }
         
         ForumPost post = postMapper.selectById(event.getPostId());
         if (post != null && post.getStatus() == ForumPost.Status.DELETED.getCode()) {
@@ -76,16 +103,13 @@ public void onCommentCreated(CommentCreatedEvent event) {
     
     /**
      * 监听帖子点赞事件
-     * 点赞数在Service中已处理，这里可以记录用户行为用于推荐算法
+     * 点赞数在Service中已处理，热度计算由HotRankListener负责
      */
     @Async
     @EventListener
     public void onPostLiked(PostLikedEvent event) {
         log.debug("帖子点赞事件: postId={}, userId={}, liked={}", 
                 event.getPostId(), event.getUserId(), event.isLiked());
-        
-        // TODO: 记录用户行为数据用于推荐系统
-        // 例如：记录到Redis或单独的行为表，用于计算热度、推荐等
     }
     
     /**
@@ -103,14 +127,37 @@ public void onCommentLiked(CommentLikedEvent event) {
     
     /**
      * 监听举报创建事件
-     * 统计举报数据，可用于自动识别问题内容
+     * 按举报对象累计加权举报分，同一内容被多次举报时自动隐藏并送审
      */
     @Async
     @EventListener
     public void onReportCreated(ReportCreatedEvent event) {
-        log.info("举报创建，记录统计数据: targetType={}, targetId={}, reason={}", 
+        if (!eventDeduplicator.tryAcquire(event, "reportAggregation")) {
+            return;
+        }
+        log.info("举报创建，累计举报统计: targetType={}, targetId={}, reason={}", 
                 event.getTargetType(), event.getTargetId(), event.getReason());
-        
-        // TODO: 统计举报次数，如果同一内容被多次举报，可以自动标记或隐藏
+        try {
+            reportAggregationService.record(event);
+        } catch (Exception e) {
+            log.error("累计举报统计失败: targetType={}, targetId={}", event.getTargetType(), event.getTargetId(), e);
+        }
+    }
+    
+    /**
+     * 监听帖子审核事件
+     * 因举报自动隐藏的帖子审核完成后，结束它的举报
+     */
+    @Async
+    @EventListener
+    public void onPostAuditedReports(PostAuditedEvent event) {
+        if (!eventDeduplicator.tryAcquire(event, "reportAggregation")) {
+            return;
+        }
+        try {
+            reportAggregationService.onPostAudited(event);
+        } catch (Exception e) {
+            log.error("结束帖子举报失败: postId={}", event.getPostId(), e);
+        }
     }
 }
@@ -0,0 +1,16 @@
+package cn.wekyjay.wknetic.admin.forum.repository;
+
+import cn.wekyjay.wknetic.admin.forum.document.UserDocument;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 用户搜索 Repository
+ * 启动时按文档映射创建索引，查询统一走 ElasticsearchClient
+ * 
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Repository
+public interface UserSearchRepository extends ElasticsearchRepository<UserDocument, Long> {
+}
@@ -1,28 +1,34 @@
 package cn.wekyjay.wknetic.admin.forum.service;
 
+import cn.wekyjay.wknetic.admin.forum.dto.AuditBatchResultVO;
 import cn.wekyjay.wknetic.admin.forum.dto.AuditPostVO;
 import cn.wekyjay.wknetic.admin.forum.dto.AuditStatisticsVO;
+import cn.wekyjay.wknetic.admin.system.service.DailyStatsService;
 import cn.wekyjay.wknetic.community.event.EventPublisher;
 import cn.wekyjay.wknetic.community.event.post.PostAuditedEvent; 
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
 import cn.wekyjay.wknetic.common.domain.SysUser;
 import cn.wekyjay.wknetic.common.mapper.*;
 import cn.wekyjay.wknetic.common.model.entity.*;
+import cn.wekyjay.wknetic.common.model.vo.AuditCountVO;
+import cn.wekyjay.wknetic.common.model.vo.ModerationCandidateVO;
 import cn.wekyjay.wknetic.auth.utils.SecurityUtils;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -31,6 +37,7 @@
  * @author WkNetic
  * @since 2026-02-01
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuditService {
@@ -42,6 +49,16 @@ public class AuditService {
     private final ForumTopicMapper topicMapper;
     private final ForumTagMapper tagMapper;
     private final PostTagMapper postTagMapper;
+    private final ForumReportTargetMapper reportTargetMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ModerationLeaseService leaseService;
+    private final DailyStatsService dailyStatsService;
+    private final WkNeticProperties properties;
+    
+    /** 审核耗时累计：样本数和耗时总和（秒） */
+    private static final String LATENCY_KEY = "wknetic:audit:latency";
+    private static final String LATENCY_COUNT = "count";
+    private static final String LATENCY_SECONDS = "seconds";
     
     /**
      * 获取待审核帖子列表
@@ -84,22 +101,31 @@ public void approvePost(Long postId) {
         }
         
         Long auditorId = SecurityUtils.getCurrentUserId();
+        if (leaseService.isClaimedByOther(postId, auditorId)) {
+            throw new RuntimeException("该帖子已被其他审核员领取");
+        }
+        boolean reaudit = !selectHiddenByReports(List.of(postId)).isEmpty();
         
-        // 更新帖子状态为已发布
+        // 更新帖子状态为已发布（只更新仍在审核中的帖子，并发审核时只有一个成功）
         LambdaUpdateWrapper<ForumPost> updateWrapper = new LambdaUpdateWrapper<ForumPost>()
                 .eq(ForumPost::getPostId, postId)
+                .eq(ForumPost::getStatus, ForumPost.Status.UNDER_REVIEW.getCode())
                 .set(ForumPost::getStatus, ForumPost.Status.PUBLISHED.getCode())
                 .set(ForumPost::getAuditUserId, auditorId)
                 .set(ForumPost::getAuditTime, LocalDateTime.now())
                 .set(ForumPost::getUpdateTime, LocalDateTime.now());
         
-        postMapper.update(null, updateWrapper);
+        if (postMapper.update(null, updateWrapper) == 0) {
+            throw new RuntimeException("该帖子不在审核状态");
+        }
+        dailyStatsService.adjustTotal(DailyStatsService.TOTAL_POSTS, 1);
+        leaseService.complete(List.of(postId));
         
         // 发送审核通过通知
         createAuditNotification(post.getUserId(), postId, "您的帖子已通过审核", Notification.Type.POST_AUDIT_PASS);
         
         // 发布审核通过事件
-        eventPublisher.publishEvent(new PostAuditedEvent(this, postId, post.getUserId(), auditorId, true, null));
+        eventPublisher.publishEvent(new PostAuditedEvent(this, postId, post.getUserId(), auditorId, true, null, reaudit));
     }
     
     /**
@@ -124,24 +150,189 @@ public void rejectPost(Long postId, String reason) {
         }
         
         Long auditorId = SecurityUtils.getCurrentUserId();
+        if (leaseService.isClaimedByOther(postId, auditorId)) {
+            throw new RuntimeException("该帖子已被其他审核员领取");
+        }
+        boolean reaudit = !selectHiddenByReports(List.of(postId)).isEmpty();
         
-        // 更新帖子状态为已拒绝
+        // 更新帖子状态为已拒绝（只更新仍在审核中的帖子）
         LambdaUpdateWrapper<ForumPost> updateWrapper = new LambdaUpdateWrapper<ForumPost>()
                 .eq(ForumPost::getPostId, postId)
+                .eq(ForumPost::getStatus, ForumPost.Status.UNDER_REVIEW.getCode())
                 .set(ForumPost::getStatus, ForumPost.Status.REJECTED.getCode())
                 .set(ForumPost::getAuditUserId, auditorId)
                 .set(ForumPost::getAuditTime, LocalDateTime.now())
                 .set(ForumPost::getAuditRemark, reason)
                 .set(ForumPost::getUpdateTime, LocalDateTime.now());
         
-        postMapper.update(null, updateWrapper);
+        if (postMapper.update(null, updateWrapper) == 0) {
+            throw new RuntimeException("该帖子不在审核状态");
+        }
+        leaseService.complete(List.of(postId));
         
         // 发送审核拒绝通知
         String message = "您的帖子未通过审核，原因：" + reason;
         createAuditNotification(post.getUserId(), postId, message, Notification.Type.POST_AUDIT_REJECT);
         
         // 发布审核拒绝事件
-        eventPublisher.publishEvent(new PostAuditedEvent(this, postId, post.getUserId(), auditorId, false, reason));
+        eventPublisher.publishEvent(new PostAuditedEvent(this, postId, post.getUserId(), auditorId, false, reason, reaudit));
+    }
+    
+    /**
+     * 从审核队列领取帖子
+     * 先返回自己仍持有的帖子，不足时按优先级领取其他审核员没有领取的帖子，每个帖子加一个带过期时间的租约
+     *
+     * @param size 领取数量（为空时使用默认数量）
+     * @return 领取到的帖子，按优先级从高到低
+     */
+    public List<AuditPostVO> claimPosts(Integer size) {
+        if (!SecurityUtils.isModerator()) {
+            throw new RuntimeException("只有审核员才能领取待审核帖子");
+        }
+        WkNeticProperties.Audit config = properties.getAudit();
+        int batchSize = size != null ? size : config.getClaimBatchSize();
+        if (batchSize < 1 || batchSize > config.getMaxBatchSize()) {
+            throw new RuntimeException("领取数量只支持1到" + config.getMaxBatchSize());
+        }
+        Long moderatorId = SecurityUtils.getCurrentUserId();
+        
+        Map<Long, LocalDateTime> claimed = new LinkedHashMap<>(leaseService.getClaimed(moderatorId));
+        Map<Long, ModerationCandidateVO> candidates = new LinkedHashMap<>();
+        int pageSize = Math.max(batchSize * 2, 50);
+        for (int offset = 0; claimed.size() < batchSize; offset += pageSize) {
+            List<ModerationCandidateVO> page = postMapper.selectModerationQueue(config.getReportWeight(),
+                    config.getFirstPostWeight(), config.getWaitingHourWeight(), offset, pageSize);
+            for (ModerationCandidateVO candidate : page) {
+                candidates.put(candidate.getPostId(), candidate);
+                if (claimed.size() < batchSize && !claimed.containsKey(candidate.getPostId())
+                        && leaseService.acquire(candidate.getPostId(), moderatorId)) {
+                    claimed.put(candidate.getPostId(), LocalDateTime.now()
+                            .plus(Duration.ofMillis(config.getClaimLeaseDuration())));
+                }
+            }
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+        if (claimed.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        // 只返回仍在审核中的帖子，已被审核的释放租约
+        List<ForumPost> posts = postMapper.selectList(new LambdaQueryWrapper<ForumPost>()
+                .in(ForumPost::getPostId, claimed.keySet())
+                .eq(ForumPost::getStatus, ForumPost.Status.UNDER_REVIEW.getCode()));
+        Set<Long> stale = new HashSet<>(claimed.keySet());
+        posts.forEach(post -> stale.remove(post.getPostId()));
+        if (!stale.isEmpty()) {
+            leaseService.complete(stale);
+        }
+        
+        List<AuditPostVO> records = convertToAuditPostVOs(posts);
+        for (AuditPostVO vo : records) {
+            ModerationCandidateVO candidate = candidates.get(vo.getId());
+            if (candidate != null) {
+                vo.setPriority(candidate.getPriority());
+                vo.setReportCount(candidate.getReportCount());
+                vo.setFirstPost(candidate.getFirstPost());
+            }
+            vo.setLeaseExpireTime(claimed.get(vo.getId()));
+        }
+        records.sort(Comparator.comparing(AuditPostVO::getPriority, Comparator.nullsLast(Comparator.reverseOrder())));
+        return records;
+    }
+    
+    /**
+     * 放弃领取的帖子，放回审核队列
+     *
+     * @param postIds 帖子ID
+     */
+    public void releasePosts(List<Long> postIds) {
+        if (!SecurityUtils.isModerator()) {
+            throw new RuntimeException("只有审核员才能操作审核队列");
+        }
+        if (postIds == null || postIds.isEmpty()) {
+            return;
+        }
+        leaseService.release(postIds, SecurityUtils.getCurrentUserId());
+    }
+    
+    /**
+     * 批量审核通过
+     *
+     * @param postIds 帖子ID
+     * @return 审核结果
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public AuditBatchResultVO batchApprovePosts(List<Long> postIds) {
+        return auditBatch(postIds, true, null);
+    }
+    
+    /**
+     * 批量审核拒绝
+     *
+     * @param postIds 帖子ID
+     * @param reason 拒绝原因
+     * @return 审核结果
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public AuditBatchResultVO batchRejectPosts(List<Long> postIds, String reason) {
+        return auditBatch(postIds, false, reason);
+    }
+    
+    /**
+     * 在一个事务中审核一批帖子：锁定仍在审核中的帖子，一条 UPDATE 写入结果，
+     * 通知和审核事件各一条多行 INSERT 写入。不存在、已审核或被其他审核员领取的帖子跳过
+     */
+    private AuditBatchResultVO auditBatch(List<Long> postIds, boolean approved, String reason) {
+        if (!SecurityUtils.isModerator()) {
+            throw new RuntimeException("只有审核员才能审核帖子");
+        }
+        if (postIds == null || postIds.isEmpty()) {
+            throw new RuntimeException("请选择要审核的帖子");
+        }
+        List<Long> ids = postIds.stream().distinct().collect(Collectors.toList());
+        int maxBatchSize = properties.getAudit().getMaxBatchSize();
+        if (ids.size() > maxBatchSize) {
+            throw new RuntimeException("批量审核一次最多" + maxBatchSize + "个帖子");
+        }
+        Long auditorId = SecurityUtils.getCurrentUserId();
+        
+        List<ForumPost> posts = postMapper.selectList(new LambdaQueryWrapper<ForumPost>()
+                .in(ForumPost::getPostId, ids)
+                .eq(ForumPost::getStatus, ForumPost.Status.UNDER_REVIEW.getCode())
+                .last("FOR UPDATE"));
+        posts.removeIf(post -> leaseService.isClaimedByOther(post.getPostId(), auditorId));
+        List<Long> processedIds = posts.stream().map(ForumPost::getPostId).collect(Collectors.toList());
+        List<Long> skippedIds = new ArrayList<>(ids);
+        skippedIds.removeAll(processedIds);
+        if (processedIds.isEmpty()) {
+            return AuditBatchResultVO.builder().processedIds(processedIds).skippedIds(skippedIds).build();
+        }
+        
+        Set<Long> reaudited = selectHiddenByReports(processedIds);
+        LocalDateTime now = LocalDateTime.now();
+        int status = approved ? ForumPost.Status.PUBLISHED.getCode() : ForumPost.Status.REJECTED.getCode();
+        postMapper.auditBatch(processedIds, status, auditorId, now, reason);
+        if (approved) {
+            dailyStatsService.adjustTotal(DailyStatsService.TOTAL_POSTS, processedIds.size());
+        }
+        leaseService.complete(processedIds);
+        
+        String message = approved ? "您的帖子已通过审核" : "您的帖子未通过审核，原因：" + reason;
+        Notification.Type type = approved ? Notification.Type.POST_AUDIT_PASS : Notification.Type.POST_AUDIT_REJECT;
+        List<Notification> notifications = new ArrayList<>(posts.size());
+        List<PostAuditedEvent> events = new ArrayList<>(posts.size());
+        for (ForumPost post : posts) {
+            notifications.add(buildAuditNotification(post.getUserId(), post.getPostId(), message, type));
+            events.add(new PostAuditedEvent(this, post.getPostId(), post.getUserId(), auditorId, approved, reason,
+                    reaudited.contains(post.getPostId())));
+        }
+        notificationMapper.insertBatch(notifications);
+        eventPublisher.publishEvents(events);
+        
+        log.info("批量审核完成: approved={}, processed={}, skipped={}", approved, processedIds.size(), skippedIds.size());
+        return AuditBatchResultVO.builder().processedIds(processedIds).skippedIds(skippedIds).build();
     }
     
     /**
@@ -196,75 +387,107 @@ public AuditStatisticsVO getAuditStatistics() {
             throw new RuntimeException("只有审核员才能查看审核统计");
         }
         
-        // 待审核数量
-        Long pendingCount = postMapper.selectCount(new LambdaQueryWrapper<ForumPost>()
-                .eq(ForumPost::getStatus, ForumPost.Status.UNDER_REVIEW.getCode()));
-        
-        // 今日审核统计
         LocalDateTime todayStart = LocalDateTime.of(LocalDate.now(), LocalTime.MIN);
-        LocalDateTime todayEnd = LocalDateTime.of(LocalDate.now(), LocalTime.MAX);
-        
-        Long todayApprovedCount = postMapper.selectCount(new LambdaQueryWrapper<ForumPost>()
-                .eq(ForumPost::getStatus, ForumPost.Status.PUBLISHED.getCode())
-                .between(ForumPost::getAuditTime, todayStart, todayEnd));
-        
-        Long todayRejectedCount = postMapper.selectCount(new LambdaQueryWrapper<ForumPost>()
-                .eq(ForumPost::getStatus, ForumPost.Status.REJECTED.getCode())
-                .between(ForumPost::getAuditTime, todayStart, todayEnd));
-        
         // 本周审核统计（基于今天往前7天）
-        LocalDateTime weekStart = LocalDateTime.of(LocalDate.now().minusDays(7), LocalTime.MIN);
-        LocalDateTime weekEnd = LocalDateTime.of(LocalDate.now(), LocalTime.MAX);
-        
-        Long weekApprovedCount = postMapper.selectCount(new LambdaQueryWrapper<ForumPost>()
-                .eq(ForumPost::getStatus, ForumPost.Status.PUBLISHED.getCode())
-                .between(ForumPost::getAuditTime, weekStart, weekEnd));
-        
-        Long weekRejectedCount = postMapper.selectCount(new LambdaQueryWrapper<ForumPost>()
-                .eq(ForumPost::getStatus, ForumPost.Status.REJECTED.getCode())
-                .between(ForumPost::getAuditTime, weekStart, weekEnd));
+        LocalDateTime weekStart = todayStart.minusDays(7);
+        AuditCountVO counts = postMapper.selectAuditCounts(todayStart, weekStart);
         
-        // 总审核数
-        Long totalApprovedCount = postMapper.selectCount(new LambdaQueryWrapper<ForumPost>()
-                .eq(ForumPost::getStatus, ForumPost.Status.PUBLISHED.getCode())
-                .isNotNull(ForumPost::getAuditUserId));
-        
-        Long totalRejectedCount = postMapper.selectCount(new LambdaQueryWrapper<ForumPost>()
-                .eq(ForumPost::getStatus, ForumPost.Status.REJECTED.getCode()));
-        
-        Long totalAuditCount = totalApprovedCount + totalRejectedCount;
+        Long totalAuditCount = counts.getTotalApprovedCount() + counts.getTotalRejectedCount();
         
         // 计算通过率
         BigDecimal approvalRate = BigDecimal.ZERO;
         if (totalAuditCount > 0) {
-            approvalRate = BigDecimal.valueOf(totalApprovedCount)
+            approvalRate = BigDecimal.valueOf(counts.getTotalApprovedCount())
                     .divide(BigDecimal.valueOf(totalAuditCount), 2, java.math.RoundingMode.HALF_UP)
                     .multiply(BigDecimal.valueOf(100));
         }
         
-        // 计算平均审核时间（如果有数据）
-        Long averageAuditTime = 0L;
-        if (totalAuditCount > 0) {
-            // 简化计算：这里可以通过SQL窗口函数更精确计算
-            // TODO: 实现更精确的平均审核时间计算
-        }
-        
         return AuditStatisticsVO.builder()
-                .pendingCount(pendingCount)
-                .todayApprovedCount(todayApprovedCount)
-                .todayRejectedCount(todayRejectedCount)
-                .weekApprovedCount(weekApprovedCount)
-                .weekRejectedCount(weekRejectedCount)
+                .pendingCount(counts.getPendingCount())
+                .todayApprovedCount(counts.getTodayApprovedCount())
+                .todayRejectedCount(counts.getTodayRejectedCount())
+                .weekApprovedCount(counts.getWeekApprovedCount())
+                .weekRejectedCount(counts.getWeekRejectedCount())
                 .approvalRate(approvalRate)
-                .averageAuditTime(averageAuditTime)
+                .averageAuditTime(getAverageAuditMinutes())
                 .totalAuditCount(totalAuditCount)
                 .build();
     }
     
+    /**
+     * 累计一次审核的耗时（从帖子提交到审核），由审核事件监听器调用
+     * 只累加样本数和耗时总和，平均值在读取时计算，并发累加不会互相覆盖
+     *
+     * @param postId 帖子ID
+     * @param auditTime 审核时间
+     */
+    public void recordAuditLatency(Long postId, LocalDateTime auditTime) {
+        ForumPost post = postMapper.selectById(postId);
+        if (post == null || post.getCreateTime() == null || auditTime == null) {
+            return;
+        }
+        if (ensureLatencyInitialized()) {
+            // 刚按历史数据初始化，已包含本次审核
+            return;
+        }
+        long seconds = Math.max(0, Duration.between(post.getCreateTime(), auditTime).getSeconds());
+        stringRedisTemplate.opsForHash().increment(LATENCY_KEY, LATENCY_COUNT, 1);
+        stringRedisTemplate.opsForHash().increment(LATENCY_KEY, LATENCY_SECONDS, seconds);
+    }
+    
+    /**
+     * 平均审核时间（分钟）
+     */
+    private Long getAverageAuditMinutes() {
+        try {
+            ensureLatencyInitialized();
+            List<Object> values = stringRedisTemplate.opsForHash().multiGet(LATENCY_KEY, List.of(LATENCY_COUNT, LATENCY_SECONDS));
+            long count = values.get(0) != null ? Long.parseLong(values.get(0).toString()) : 0L;
+            long seconds = values.get(1) != null ? Long.parseLong(values.get(1).toString()) : 0L;
+            return count > 0 ? Math.round(seconds / 60.0 / count) : 0L;
+        } catch (Exception e) {
+            log.warn("读取平均审核时间失败", e);
+            return 0L;
+        }
+    }
+    
+    /**
+     * 首次使用时按历史数据初始化审核耗时的累计值，已存在时不覆盖
+     *
+     * @return 本次是否进行了初始化
+     */
+    private boolean ensureLatencyInitialized() {
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(LATENCY_KEY))) {
+            return false;
+        }
+        AuditCountVO totals = postMapper.selectAuditLatencyTotals();
+        stringRedisTemplate.opsForHash().putIfAbsent(LATENCY_KEY, LATENCY_COUNT, String.valueOf(totals.getAuditedCount()));
+        stringRedisTemplate.opsForHash().putIfAbsent(LATENCY_KEY, LATENCY_SECONDS, String.valueOf(totals.getAuditSeconds()));
+        return true;
+    }
+    
+    /**
+     * 筛选出被举报自动隐藏、等待复审的帖子
+     */
+    private Set<Long> selectHiddenByReports(Collection<Long> postIds) {
+        return reportTargetMapper.selectList(new LambdaQueryWrapper<ForumReportTarget>()
+                        .select(ForumReportTarget::getTargetId)
+                        .eq(ForumReportTarget::getTargetType, ReportAggregationService.TARGET_POST)
+                        .in(ForumReportTarget::getTargetId, postIds)
+                        .eq(ForumReportTarget::getStatus, ForumReport.Status.PENDING.getCode())
+                        .eq(ForumReportTarget::getHidden, true)).stream()
+                .map(ForumReportTarget::getTargetId)
+                .collect(Collectors.toSet());
+    }
+    
     /**
      * 创建审核通知
      */
     private void createAuditNotification(Long userId, Long postId, String message, Notification.Type type) {
+        notificationMapper.insert(buildAuditNotification(userId, postId, message, type));
+    }
+    
+    private Notification buildAuditNotification(Long userId, Long postId, String message, Notification.Type type) {
         Notification notification = new Notification();
         notification.setUserId(userId);
         notification.setType(type.getCode());
@@ -273,17 +496,24 @@ private void createAuditNotification(Long userId, Long postId, String message, N
         notification.setRelatedId(postId);
         notification.setIsRead(false);
         notification.setCreateTime(LocalDateTime.now());
-        
-        notificationMapper.insert(notification);
+        return notification;
     }
     
     /**
      * 将帖子分页转换为AuditPostVO分页
      */
     private IPage<AuditPostVO> convertToAuditPostVOPage(IPage<ForumPost> postPage) {
-        List<ForumPost> posts = postPage.getRecords();
+        IPage<AuditPostVO> voPage = new Page<>(postPage.getCurrent(), postPage.getSize(), postPage.getTotal());
+        voPage.setRecords(convertToAuditPostVOs(postPage.getRecords()));
+        return voPage;
+    }
+    
+    /**
+     * 将帖子列表转换为AuditPostVO列表
+     */
+    private List<AuditPostVO> convertToAuditPostVOs(List<ForumPost> posts) {
         if (posts.isEmpty()) {
-            return postPage.convert(post -> new AuditPostVO());
+            return new ArrayList<>();
         }
         
         // 收集所有需要的ID
@@ -325,7 +555,7 @@ private IPage<AuditPostVO> convertToAuditPostVOPage(IPage<ForumPost> postPage) {
                 ));
         
         // 转换为VO
-        return postPage.convert(post -> {
+        return posts.stream().map(post -> {
             AuditPostVO vo = new AuditPostVO();
             vo.setId(post.getPostId());
             vo.setTitle(post.getTitle());
@@ -380,6 +610,6 @@ private IPage<AuditPostVO> convertToAuditPostVOPage(IPage<ForumPost> postPage) {
                     .collect(Collectors.toList()));
             
             return vo;
-        });
+        }).collect(Collectors.toList());
     }
 }
@@ -9,6 +9,8 @@
 import cn.wekyjay.wknetic.common.model.entity.PostBookmark;
 import cn.wekyjay.wknetic.common.model.vo.PostVO;
 import cn.wekyjay.wknetic.auth.utils.SecurityUtils;
+import cn.wekyjay.wknetic.community.event.EventPublisher;
+import cn.wekyjay.wknetic.community.event.post.PostBookmarkedEvent;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
@@ -34,6 +36,7 @@ public class BookmarkService {
     private final PostBookmarkMapper bookmarkMapper;
     private final BookmarkCategoryMapper categoryMapper;
     private final ForumPostMapper postMapper;
+    private final EventPublisher eventPublisher;
     
     /**
      * 收藏/取消收藏帖子
@@ -63,6 +66,7 @@ public boolean toggleBookmark(Long postId, Long categoryId) {
         if (existingBookmark != null) {
             // 已收藏，取消收藏
             bookmarkMapper.deleteById(existingBookmark.getId());
+            eventPublisher.publishEvent(new PostBookmarkedEvent(this, postId, post.getUserId(), userId, true));
             return false;
         } else {
             // 未收藏，添加收藏
@@ -84,6 +88,7 @@ public boolean toggleBookmark(Long postId, Long categoryId) {
             bookmark.setCreateTime(LocalDateTime.now());
             
             bookmarkMapper.insert(bookmark);
+            eventPublisher.publishEvent(new PostBookmarkedEvent(this, postId, post.getUserId(), userId, false));
             return true;
         }
     }
@@ -4,24 +4,27 @@
 import cn.wekyjay.wknetic.community.event.comment.CommentCreatedEvent;
 import cn.wekyjay.wknetic.community.event.comment.CommentDeletedEvent;
 import cn.wekyjay.wknetic.community.event.comment.CommentLikedEvent;
+import cn.wekyjay.wknetic.common.domain.SysUser;
 import cn.wekyjay.wknetic.common.mapper.*;
 import cn.wekyjay.wknetic.common.model.dto.CreateCommentDTO;
 import cn.wekyjay.wknetic.common.model.entity.CommentLike;
 import cn.wekyjay.wknetic.common.model.entity.ForumComment;
 import cn.wekyjay.wknetic.common.model.entity.ForumPost;
 import cn.wekyjay.wknetic.common.model.vo.CommentVO;
+import cn.wekyjay.wknetic.common.model.vo.CursorPageVO;
+import cn.wekyjay.wknetic.common.model.vo.UserInfoVO;
 import cn.wekyjay.wknetic.auth.utils.SecurityUtils;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -38,8 +41,21 @@ public class CommentService extends ServiceImpl<ForumCommentMapper, ForumComment
     private final ForumCommentMapper commentMapper;
     private final ForumPostMapper postMapper;
     private final CommentLikeMapper commentLikeMapper;
+    private final SysUserMapper sysUserMapper;
     private final EventPublisher eventPublisher;
     
+    /**
+     * 物化路径每段长度（评论ID的36进制编码，左侧补0）
+     */
+    private static final int PATH_SEGMENT_WIDTH = 8;
+    
+    /**
+     * 最大嵌套层数，超出后新回复挂到上一层（与父评论同级）
+     */
+    private static final int MAX_TREE_DEPTH = 16;
+    
+    private static final int MAX_PAGE_SIZE = 100;
+    
     /**
      * 创建评论
      *
@@ -56,6 +72,15 @@ public Long createComment(CreateCommentDTO dto) {
             throw new RuntimeException("帖子不存在");
         }
         
+        // 检查父评论是否存在且属于同一帖子
+        ForumComment parent = null;
+        if (dto.getParentId() != null) {
+            parent = commentMapper.selectById(dto.getParentId());
+            if (parent == null || !parent.getPostId().equals(dto.getPostId())) {
+                throw new RuntimeException("父评论不存在");
+            }
+        }
+        
         // 创建评论
         ForumComment comment = new ForumComment();
         comment.setPostId(dto.getPostId());
@@ -68,6 +93,12 @@ public Long createComment(CreateCommentDTO dto) {
         
         commentMapper.insert(comment);
         
+        // 生成物化路径，并增加父评论的回复数
+        assignPath(comment, parent);
+        if (parent != null) {
+            commentMapper.incrementReplyCount(parent.getCommentId());
+        }
+        
         // 更新帖子评论数和最后评论时间
         postMapper.incrementCommentCount(dto.getPostId());
         postMapper.updateLastCommentTime(dto.getPostId());
@@ -112,8 +143,12 @@ public void deleteComment(Long commentId) {
         update.setStatus(2); // 2-已删除
         commentMapper.updateById(update);
         
-        // 更新帖子评论数
+        // 更新帖子评论数和父评论回复数
         postMapper.decrementCommentCount(comment.getPostId());
+        // 被举报自动隐藏的评论仍计在父评论的回复数中
+        if (comment.getParentId() != null && !Integer.valueOf(2).equals(comment.getStatus())) {
+            commentMapper.decrementReplyCount(comment.getParentId());
+        }
         
         // 发布删除事件
         eventPublisher.publishEvent(new CommentDeletedEvent(
@@ -139,7 +174,7 @@ public List<CommentVO> getPostComments(Long postId) {
         List<ForumComment> comments = commentMapper.selectByPostId(postId);
         
         // 构建树形结构
-        return buildCommentTree(comments);
+        return CommentTreeBuilder.buildTree(comments, loadUsers(comments), loadLikedIds(comments));
     }
     
     /**
@@ -172,7 +207,7 @@ public Map<String, Object> listCommentsByPostId(Long postId, Integer page, Integ
         
         // 获取所有子评论
         List<Long> commentIds = comments.stream().map(ForumComment::getCommentId).collect(Collectors.toList());
-        List<ForumComment> replies = commentMapper.selectList(
+        List<ForumComment> replies = commentIds.isEmpty() ? new ArrayList<>() : commentMapper.selectList(
                 new LambdaQueryWrapper<ForumComment>()
                         .eq(ForumComment::getPostId, postId)
                         .in(ForumComment::getParentId, commentIds)
@@ -185,8 +220,12 @@ public Map<String, Object> listCommentsByPostId(Long postId, Integer page, Integ
                     .add(reply);
         }
         
+        List<ForumComment> all = new ArrayList<>(comments);
+        all.addAll(replies);
+        Map<Long, UserInfoVO> users = loadUsers(all);
+        Set<Long> likedIds = loadLikedIds(all);
         List<CommentVO> records = comments.stream()
-                .map(comment -> buildCommentVO(comment, childrenMap))
+                .map(comment -> CommentTreeBuilder.buildNode(comment, childrenMap, users, likedIds))
                 .collect(Collectors.toList());
         
         Map<String, Object> result = new HashMap<>();
@@ -249,52 +288,213 @@ public boolean toggleLike(Long commentId) {
     }
     
     /**
-     * 构建评论树
+     * 按展示顺序分页获取帖子评论树（物化路径范围扫描）
+     *
+     * @param postId 帖子ID
+     * @param cursor 游标（上一页最后一条评论ID，首页传null）
+     * @param size 每页条数
+     * @param maxDepth 最大层级（0=只看顶级评论，为空不限）
+     * @return 评论树分页，跨页的回复会以顶级节点返回并带有parentId
      */
-    private List<CommentVO> buildCommentTree(List<ForumComment> comments) {
-        // 按父ID分组
-        Map<Long, List<ForumComment>> childrenMap = new HashMap<>();
-        List<ForumComment> roots = new ArrayList<>();
+    public CursorPageVO<CommentVO> listCommentTree(Long postId, Long cursor, int size, Integer maxDepth) {
+        size = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        String afterPath = cursor != null ? getPathOrThrow(cursor) : null;
+        List<ForumComment> rows = commentMapper.selectTreeRange(postId, null, afterPath, maxDepth, size + 1);
+        return toTreePage(rows, size);
+    }
+    
+    /**
+     * 加载更多回复：分页获取某条评论的子树
+     *
+     * @param commentId 评论ID
+     * @param cursor 游标（上一批最后一条回复ID，首次传null）
+     * @param size 每页条数
+     * @param maxDepth 相对该评论的最大层级（1=只看直接回复，为空不限）
+     * @return 回复分页
+     */
+    public CursorPageVO<CommentVO> listReplies(Long commentId, Long cursor, int size, Integer maxDepth) {
+        ForumComment parent = commentMapper.selectById(commentId);
+        if (parent == null || parent.getPath() == null) {
+            throw new RuntimeException("评论不存在");
+        }
+        size = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        String afterPath = cursor != null ? getPathOrThrow(cursor) : null;
+        Integer depthLimit = maxDepth != null ? parent.getDepth() + maxDepth : null;
+        List<ForumComment> rows = commentMapper.selectTreeRange(
+                parent.getPostId(), parent.getPath(), afterPath, depthLimit, size + 1);
+        return toTreePage(rows, size);
+    }
+    
+    /**
+     * 启动后为历史评论回填物化路径
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillPaths() {
+        try {
+            int posts = 0;
+            List<Long> postIds;
+            while (!(postIds = commentMapper.selectPostIdsWithoutPath(100)).isEmpty()) {
+                postIds.forEach(this::rebuildPaths);
+                posts += postIds.size();
+            }
+            if (posts > 0) {
+                log.info("评论物化路径回填完成，共处理{}个帖子", posts);
+            }
+        } catch (Exception e) {
+            log.error("评论物化路径回填失败", e);
+        }
+    }
+    
+    /**
+     * 重建帖子下所有评论的物化路径和回复数
+     *
+     * @param postId 帖子ID
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void rebuildPaths(Long postId) {
+        List<ForumComment> comments = commentMapper.selectList(new LambdaQueryWrapper<ForumComment>()
+                .select(ForumComment::getCommentId, ForumComment::getParentId,
+                        ForumComment::getPath, ForumComment::getDepth)
+                .eq(ForumComment::getPostId, postId)
+                .orderByAsc(ForumComment::getCommentId));
         
+        // 父评论ID总是小于子评论ID，按ID顺序处理即可保证父节点先生成路径
+        Map<Long, ForumComment> byId = new HashMap<>();
         for (ForumComment comment : comments) {
-            if (comment.getParentId() == null) {
-                roots.add(comment);
-            } else {
-                childrenMap.computeIfAbsent(comment.getParentId(), k -> new ArrayList<>())
-                        .add(comment);
+            ForumComment parent = comment.getParentId() != null ? byId.get(comment.getParentId()) : null;
+            String oldPath = comment.getPath();
+            computePath(comment, parent);
+            if (!comment.getPath().equals(oldPath)) {
+                commentMapper.updatePath(comment.getCommentId(), comment.getPath(), comment.getDepth());
             }
+            byId.put(comment.getCommentId(), comment);
         }
-        
-        // 递归构建树
-        return roots.stream()
-                .map(comment -> buildCommentVO(comment, childrenMap))
-                .collect(Collectors.toList());
+        commentMapper.recountReplies(postId);
     }
     
     /**
-     * 构建评论VO（递归）
+     * 为新评论生成并保存物化路径
      */
-    private CommentVO buildCommentVO(ForumComment comment, Map<Long, List<ForumComment>> childrenMap) {
-        CommentVO vo = new CommentVO();
-        vo.setCommentId(comment.getCommentId());
-        vo.setContent(comment.getContent());
-        vo.setContentHtml(comment.getContentHtml());
-        vo.setLikeCount(comment.getLikeCount());
-        vo.setParentId(comment.getParentId());
-        vo.setStatus(comment.getStatus());
-        vo.setCreateTime(comment.getCreateTime());
-        vo.setUpdateTime(comment.getUpdateTime());
-        
-        // TODO: 加载作者信息
+    private void assignPath(ForumComment comment, ForumComment parent) {
+        if (parent != null && parent.getPath() == null) {
+            // 父评论还没有路径（历史数据尚未回填），整帖重建
+            rebuildPaths(comment.getPostId());
+            return;
+        }
+        computePath(comment, parent);
+        commentMapper.updatePath(comment.getCommentId(), comment.getPath(), comment.getDepth());
+    }
+    
+    /**
+     * 计算物化路径：父路径 + 自身ID编码；超过最大层数时挂到父评论的上一层
+     */
+    private void computePath(ForumComment comment, ForumComment parent) {
+        String segment = encodePathSegment(comment.getCommentId());
+        if (parent == null || parent.getPath() == null) {
+            comment.setPath(segment);
+            comment.setDepth(0);
+            return;
+        }
+        int parentDepth = parent.getDepth() != null ? parent.getDepth() : 0;
+        if (parentDepth >= MAX_TREE_DEPTH - 1) {
+            String prefix = parent.getPath().substring(0, (MAX_TREE_DEPTH - 1) * PATH_SEGMENT_WIDTH);
+            comment.setPath(prefix + segment);
+            comment.setDepth(MAX_TREE_DEPTH - 1);
+        } else {
+            comment.setPath(parent.getPath() + segment);
+            comment.setDepth(parentDepth + 1);
+        }
+    }
+    
+    private String encodePathSegment(Long commentId) {
+        String encoded = Long.toString(commentId, 36);
+        StringBuilder sb = new StringBuilder(PATH_SEGMENT_WIDTH);
+        for (int i = encoded.length(); i < PATH_SEGMENT_WIDTH; i++) {
+            sb.append('0');
+        }
+        return sb.append(encoded).toString();
+    }
+    
+    private String getPathOrThrow(Long commentId) {
+        ForumComment comment = commentMapper.selectById(commentId);
+        if (comment == null || comment.getPath() == null) {
+            throw new RuntimeException("游标无效");
+        }
+        return comment.getPath();
+    }
+    
+    /**
+     * 将按路径排序的评论切片组装为树形分页
+     * 父节点在本页内的挂到父节点下，否则作为本页的顶级节点返回
+     */
+    private CursorPageVO<CommentVO> toTreePage(List<ForumComment> rows, int size) {
+        boolean hasMore = rows.size() > size;
+        List<ForumComment> page = hasMore ? rows.subList(0, size) : rows;
+        Map<Long, UserInfoVO> users = loadUsers(page);
+        Set<Long> likedIds = loadLikedIds(page);
         
-        // 递归加载子评论
-        List<ForumComment> children = childrenMap.get(comment.getCommentId());
-        if (children != null && !children.isEmpty()) {
-            vo.setReplies(children.stream()
-                    .map(child -> buildCommentVO(child, childrenMap))
-                    .collect(Collectors.toList()));
+        Map<String, CommentVO> byPath = new HashMap<>();
+        List<CommentVO> records = new ArrayList<>();
+        for (ForumComment comment : page) {
+            CommentVO vo = CommentTreeBuilder.toVO(comment, users, likedIds);
+            String parentPath = comment.getPath().substring(0, comment.getPath().length() - PATH_SEGMENT_WIDTH);
+            CommentVO parentVO = byPath.get(parentPath);
+            if (parentVO != null) {
+                if (parentVO.getReplies() == null) {
+                    parentVO.setReplies(new ArrayList<>());
+                }
+                parentVO.getReplies().add(vo);
+            } else {
+                records.add(vo);
+            }
+            byPath.put(comment.getPath(), vo);
         }
         
-        return vo;
+        Long nextCursor = hasMore ? page.get(page.size() - 1).getCommentId() : null;
+        return new CursorPageVO<>(records, nextCursor, hasMore);
+    }
+    
+    /**
+     * 批量加载评论作者和被回复用户信息
+     */
+    private Map<Long, UserInfoVO> loadUsers(List<ForumComment> comments) {
+        Set<Long> userIds = new HashSet<>();
+        for (ForumComment comment : comments) {
+            userIds.add(comment.getUserId());
+            if (comment.getReplyToUserId() != null) {
+                userIds.add(comment.getReplyToUserId());
+            }
+        }
+        userIds.remove(null);
+        if (userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, UserInfoVO> users = new HashMap<>();
+        for (SysUser user : sysUserMapper.selectBatchIds(userIds)) {
+            UserInfoVO vo = new UserInfoVO();
+            vo.setUserId(user.getUserId());
+            vo.setUsername(user.getUsername());
+            vo.setNickname(user.getNickname());
+            vo.setAvatar(user.getAvatar());
+            users.put(user.getUserId(), vo);
+        }
+        return users;
+    }
+    
+    /**
+     * 批量查询当前用户点赞过的评论
+     */
+    private Set<Long> loadLikedIds(List<ForumComment> comments) {
+        Long userId = SecurityUtils.getCurrentUserId();
+        if (userId == null || comments.isEmpty()) {
+            return Collections.emptySet();
+        }
+        List<Long> commentIds = comments.stream().map(ForumComment::getCommentId).collect(Collectors.toList());
+        return commentLikeMapper.selectList(new LambdaQueryWrapper<CommentLike>()
+                        .select(CommentLike::getCommentId)
+                        .eq(CommentLike::getUserId, userId)
+                        .in(CommentLike::getCommentId, commentIds))
+                .stream().map(CommentLike::getCommentId).collect(Collectors.toSet());
     }
 }
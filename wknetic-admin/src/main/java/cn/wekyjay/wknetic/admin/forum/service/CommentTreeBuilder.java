@@ -0,0 +1,103 @@
+package cn.wekyjay.wknetic.admin.forum.service;
+
+import cn.wekyjay.wknetic.common.model.entity.ForumComment;
+import cn.wekyjay.wknetic.common.model.vo.CommentVO;
+import cn.wekyjay.wknetic.common.model.vo.UserInfoVO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 评论树组装工具
+ * 只做内存中的建树和VO转换，作者信息和点赞状态由调用方批量加载后传入
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+public final class CommentTreeBuilder {
+
+    private CommentTreeBuilder() {
+    }
+
+    /**
+     * 构建评论树
+     *
+     * @param comments 帖子下的评论（顶级评论按输入顺序返回）
+     * @param users 用户ID到用户信息的映射
+     * @param likedIds 当前用户点赞过的评论ID
+     * @return 顶级评论列表，子回复挂在 replies 下
+     */
+    public static List<CommentVO> buildTree(List<ForumComment> comments, Map<Long, UserInfoVO> users, Set<Long> likedIds) {
+        // 按父ID分组
+        Map<Long, List<ForumComment>> childrenMap = new HashMap<>();
+        List<ForumComment> roots = new ArrayList<>();
+
+        for (ForumComment comment : comments) {
+            if (comment.getParentId() == null) {
+                roots.add(comment);
+            } else {
+                childrenMap.computeIfAbsent(comment.getParentId(), k -> new ArrayList<>())
+                        .add(comment);
+            }
+        }
+
+        // 递归构建树
+        return roots.stream()
+                .map(comment -> buildNode(comment, childrenMap, users, likedIds))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 构建评论VO及其子回复（递归）
+     *
+     * @param comment 评论
+     * @param childrenMap 父评论ID到子评论的映射
+     * @param users 用户ID到用户信息的映射
+     * @param likedIds 当前用户点赞过的评论ID
+     * @return 评论VO
+     */
+    public static CommentVO buildNode(ForumComment comment, Map<Long, List<ForumComment>> childrenMap,
+                                      Map<Long, UserInfoVO> users, Set<Long> likedIds) {
+        CommentVO vo = toVO(comment, users, likedIds);
+
+        // 递归加载子评论
+        List<ForumComment> children = childrenMap.get(comment.getCommentId());
+        if (children != null && !children.isEmpty()) {
+            vo.setReplies(children.stream()
+                    .map(child -> buildNode(child, childrenMap, users, likedIds))
+                    .collect(Collectors.toList()));
+        }
+
+        return vo;
+    }
+
+    /**
+     * 评论实体转VO（不含子回复）
+     *
+     * @param comment 评论
+     * @param users 用户ID到用户信息的映射
+     * @param likedIds 当前用户点赞过的评论ID
+     * @return 评论VO
+     */
+    public static CommentVO toVO(ForumComment comment, Map<Long, UserInfoVO> users, Set<Long> likedIds) {
+        CommentVO vo = new CommentVO();
+        vo.setCommentId(comment.getCommentId());
+        vo.setAuthor(users.get(comment.getUserId()));
+        vo.setContent(comment.getContent());
+        vo.setContentHtml(comment.getContentHtml());
+        vo.setLikeCount(comment.getLikeCount());
+        vo.setIsLiked(likedIds.contains(comment.getCommentId()));
+        vo.setParentId(comment.getParentId());
+        vo.setReplyToUser(comment.getReplyToUserId() != null ? users.get(comment.getReplyToUserId()) : null);
+        vo.setDepth(comment.getDepth());
+        vo.setReplyCount(comment.getReplyCount());
+        vo.setStatus(comment.getStatus());
+        vo.setCreateTime(comment.getCreateTime());
+        vo.setUpdateTime(comment.getUpdateTime());
+        return vo;
+    }
+}
@@ -2,8 +2,15 @@
 
 import cn.wekyjay.wknetic.admin.forum.document.PostDocument;
 import cn.wekyjay.wknetic.admin.forum.repository.PostSearchRepository;
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
+import cn.wekyjay.wknetic.common.model.dto.SearchPostDTO;
 import cn.wekyjay.wknetic.common.model.entity.ForumPost;
+import cn.wekyjay.wknetic.common.model.vo.PostSearchVO;
+import cn.wekyjay.wknetic.common.model.vo.SearchScrollVO;
+import cn.wekyjay.wknetic.common.utils.CircuitBreaker;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.FieldValue;
 import co.elastic.clients.elasticsearch._types.SortOrder;
 import co.elastic.clients.elasticsearch._types.query_dsl.*;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
@@ -11,20 +18,30 @@
 import co.elastic.clients.elasticsearch.core.search.Highlight;
 import co.elastic.clients.elasticsearch.core.search.HighlightField;
 import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.SourceConfig;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * Elasticsearch 搜索服务
+ * <p>
+ * 帖子搜索经过熔断器：ES连续不可用（连接失败、5xx、429）达到阈值后熔断，
+ * 熔断期间直接由 {@link PostFallbackSearchService} 查询数据库，到期后放行一次探测请求，成功即恢复。
+ * </p>
  * 
  * @author WkNetic
  * @since 2026-02-02
@@ -36,6 +53,39 @@ public class ElasticsearchService {
     
     private final ElasticsearchClient elasticsearchClient;
     private final PostSearchRepository postSearchRepository;
+    private final ObjectMapper objectMapper;
+    private final SearchResultCache searchResultCache;
+    private final SearchAnalyticsService searchAnalyticsService;
+    private final PostFallbackSearchService postFallbackSearchService;
+    private final WkNeticProperties properties;
+    
+    private CircuitBreaker circuitBreaker;
+    
+    private static final String POST_INDEX = SearchReindexService.POST_ALIAS;
+    
+    /** ES 默认的最大结果窗口（from + size） */
+    private static final int MAX_RESULT_WINDOW = 10000;
+    
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    /** 游标翻页的 point-in-time 保活时间，每次翻页续期 */
+    private static final String PIT_KEEP_ALIVE = "2m";
+    
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    
+    /** 列表结果不返回正文全文（正文只通过高亮片段返回）和搜索建议 */
+    private static final SourceConfig LIST_SOURCE = SourceConfig.of(src -> src.filter(f -> f.excludes("content", "suggest")));
+    
+    private static final List<String> DEFAULT_HOT_KEYWORDS = List.of("Minecraft", "Forge", "Fabric", "Plugin", "Mod");
+    
+    /** 搜索建议单个输入的最大长度，与 completion 字段的 maxInputLength 一致 */
+    private static final int SUGGEST_MAX_INPUT_LENGTH = 50;
+    
+    @PostConstruct
+    public void init() {
+        WkNeticProperties.Search search = properties.getSearch();
+        circuitBreaker = new CircuitBreaker(search.getFallbackFailureThreshold(), search.getFallbackOpenDuration());
+    }
     
     /**
      * 索引单个帖子
@@ -43,6 +93,7 @@ public class ElasticsearchService {
     public void indexPost(PostDocument postDocument) {
         try {
             postSearchRepository.save(postDocument);
+            searchResultCache.invalidate();
             log.info("索引帖子成功: postId={}", postDocument.getPostId());
         } catch (Exception e) {
             log.error("索引帖子失败: postId={}", postDocument.getPostId(), e);
@@ -55,6 +106,7 @@ public void indexPost(PostDocument postDocument) {
     public void indexPosts(List<PostDocument> postDocuments) {
         try {
             postSearchRepository.saveAll(postDocuments);
+            searchResultCache.invalidate();
             log.info("批量索引帖子成功: count={}", postDocuments.size());
         } catch (Exception e) {
             log.error("批量索引帖子失败", e);
@@ -67,6 +119,7 @@ public void indexPosts(List<PostDocument> postDocuments) {
     public void deletePost(Long postId) {
         try {
             postSearchRepository.deleteById(postId);
+            searchResultCache.invalidate();
             log.info("删除帖子索引成功: postId={}", postId);
         } catch (Exception e) {
             log.error("删除帖子索引失败: postId={}", postId, e);
@@ -75,168 +128,424 @@ public void deletePost(Long postId) {
     
     /**
      * 搜索帖子（高级搜索，支持多字段、过滤、排序、高亮）
+     * 按页码翻页，受ES结果窗口（from + size <= 10000）限制，深度翻页使用 {@link #scrollPosts}；
+     * ES不可用时返回数据库降级结果
      */
-    @SuppressWarnings("null")
-    public Page<PostDocument> searchPosts(
-        String keyword,
-        Long topicId,
-        List<String> tags,
-        Integer status,
-        LocalDateTime startTime,
-        LocalDateTime endTime,
-        String sortBy,
-        String sortOrder,
-        int page,
-        int size
-    ) {
+    public Page<PostSearchVO> searchPosts(SearchPostDTO dto) {
+        int page = dto.getPage() != null ? Math.max(dto.getPage(), 0) : 0;
+        int size = resolveSize(dto);
+        if ((long) (page + 1) * size > MAX_RESULT_WINDOW) {
+            throw new RuntimeException("翻页过深，请使用游标翻页");
+        }
+        
+        if (!circuitBreaker.allowRequest()) {
+            return fallbackSearch(dto, page, size);
+        }
+        
         try {
-            // 构建查询条件
-            List<Query> mustQueries = new ArrayList<>();
-            List<Query> filterQueries = new ArrayList<>();
-            
-            // 关键词搜索（multi_match，标题权重高）
-            if (keyword != null && !keyword.trim().isEmpty()) {
-                mustQueries.add(Query.of(q -> q
-                    .multiMatch(m -> m
-                        .query(keyword)
-                        .fields("title^3.0", "excerpt^2.0", "content^1.0")
-                        .type(TextQueryType.BestFields)
-                        .operator(Operator.Or)
-                    )
-                ));
+            // 相同条件的搜索共用缓存结果，索引写入后失效
+            Page<PostSearchVO> result = searchResultCache.get("posts", SearchResultCache.keyOf(dto), () -> {
+                try {
+                    SearchResponse<PostDocument> response = elasticsearchClient.search(s -> {
+                        s.index(POST_INDEX)
+                            .query(buildQuery(dto))
+                            .from(page * size)
+                            .size(size)
+                            .highlight(buildHighlight())
+                            .source(LIST_SOURCE);
+                        applySort(s, dto);
+                        return s;
+                    }, PostDocument.class);
+                    circuitBreaker.recordSuccess();
+                    
+                    List<PostSearchVO> records = response.hits().hits().stream()
+                        .map(this::toSearchVO)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList());
+                    long total = response.hits().total() != null ? response.hits().total().value() : 0;
+                    return new PageImpl<>(records, PageRequest.of(page, size), total);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            // 只在首页记录搜索词，翻页不重复计数
+            if (page == 0) {
+                searchAnalyticsService.record(dto.getKeyword(), result.getTotalElements());
             }
+            return result;
             
-            // 话题过滤
-            if (topicId != null) {
-                filterQueries.add(Query.of(q -> q
-                    .term(t -> t.field("topicId").value(topicId))
-                ));
+        } catch (Exception e) {
+            if (isUnavailable(e)) {
+                circuitBreaker.recordFailure();
+                log.error("ES不可用，使用降级搜索: {}", e.getMessage());
+                return fallbackSearch(dto, page, size);
             }
+            log.error("搜索帖子失败", e);
+            return Page.empty();
+        }
+    }
+    
+    /**
+     * 游标翻页搜索帖子
+     * 首页打开 point-in-time，之后每页以上一页最后一条的排序值 search_after 继续，
+     * 翻页深度不受结果窗口限制，翻页期间新增或删除的帖子不会导致结果重复或遗漏；
+     * 最后一页返回后关闭 point-in-time，中途放弃的在保活时间后自动释放
+     */
+    public SearchScrollVO<PostSearchVO> scrollPosts(SearchPostDTO dto) {
+        int size = resolveSize(dto);
+        ScrollCursor cursor = decodeCursor(dto.getCursor());
+        if (cursor == null && !circuitBreaker.allowRequest()) {
+            return fallbackScroll(dto, size);
+        }
+        
+        try {
+            String pitId = cursor != null ? cursor.pitId()
+                : elasticsearchClient.openPointInTime(o -> o
+                    .index(POST_INDEX)
+                    .keepAlive(t -> t.time(PIT_KEEP_ALIVE))
+                ).id();
             
-            // 标签过滤（多个标签 OR 关系）
-            if (tags != null && !tags.isEmpty()) {
-                filterQueries.add(Query.of(q -> q
-                    .terms(t -> t
-                        .field("tags")
-                        .terms(ts -> ts.value(
-                            tags.stream()
-                                .map(tag -> co.elastic.clients.elasticsearch._types.FieldValue.of(tag))
-                                .collect(Collectors.toList())
-                        ))
-                    )
-                ));
-            }
+            SearchResponse<PostDocument> response = elasticsearchClient.search(s -> {
+                s.pit(p -> p.id(pitId).keepAlive(t -> t.time(PIT_KEEP_ALIVE)))
+                    .query(buildQuery(dto))
+                    .size(size)
+                    .highlight(buildHighlight())
+                    .source(LIST_SOURCE);
+                // 使用 point-in-time 时ES自动追加 _shard_doc 作为排序的唯一性兜底
+                applySort(s, dto);
+                if (cursor != null) {
+                    s.searchAfter(cursor.searchAfter());
+                }
+                return s;
+            }, PostDocument.class);
+            circuitBreaker.recordSuccess();
             
-            // 状态过滤
-            if (status != null) {
-                filterQueries.add(Query.of(q -> q
-                    .term(t -> t.field("status").value(status))
-                ));
+            List<Hit<PostDocument>> hits = response.hits().hits();
+            if (cursor == null) {
+                searchAnalyticsService.record(dto.getKeyword(), response.hits().total() != null ? response.hits().total().value() : 0);
             }
+            List<PostSearchVO> records = hits.stream()
+                .map(this::toSearchVO)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+            long total = response.hits().total() != null ? response.hits().total().value() : 0;
+            String nextPitId = response.pitId() != null ? response.pitId() : pitId;
             
-            // TODO: 时间范围过滤待实现 - Elasticsearch Java Client 8.x API 变更
-            // if (startTime != null || endTime != null) {
-            //     // 需要使用不同的API方式
-            // }
+            boolean hasMore = hits.size() >= size;
+            String nextCursor = null;
+            if (hasMore) {
+                nextCursor = encodeCursor(nextPitId, hits.get(hits.size() - 1).sort());
+            } else {
+                closePointInTime(nextPitId);
+            }
+            return new SearchScrollVO<>(records, total, nextCursor, hasMore);
             
-            // 构建 bool 查询
-            BoolQuery.Builder boolQueryBuilder = new BoolQuery.Builder();
-            if (!mustQueries.isEmpty()) {
-                boolQueryBuilder.must(mustQueries);
+        } catch (ElasticsearchException e) {
+            if (cursor != null && e.status() == 404) {
+                throw new RuntimeException("搜索游标已过期，请重新搜索");
             }
-            if (!filterQueries.isEmpty()) {
-                boolQueryBuilder.filter(filterQueries);
+            return scrollFailed(dto, size, cursor, e);
+        } catch (Exception e) {
+            return scrollFailed(dto, size, cursor, e);
+        }
+    }
+    
+    /**
+     * 游标搜索失败：ES不可用且是首页时返回降级结果（降级结果不支持继续翻页）
+     */
+    private SearchScrollVO<PostSearchVO> scrollFailed(SearchPostDTO dto, int size, ScrollCursor cursor, Exception e) {
+        if (isUnavailable(e)) {
+            circuitBreaker.recordFailure();
+            if (cursor == null) {
+                log.error("ES不可用，使用降级搜索: {}", e.getMessage());
+                return fallbackScroll(dto, size);
             }
-            
-            // 如果没有任何条件，添加 match_all
-            Query query;
-            if (mustQueries.isEmpty() && filterQueries.isEmpty()) {
-                query = Query.of(q -> q.matchAll(m -> m));
-            } else {
-                query = Query.of(q -> q.bool(boolQueryBuilder.build()));
+        }
+        log.error("游标搜索帖子失败", e);
+        return new SearchScrollVO<>(Collections.emptyList(), 0L, null, false);
+    }
+    
+    private Page<PostSearchVO> fallbackSearch(SearchPostDTO dto, int page, int size) {
+        try {
+            Page<PostSearchVO> result = postFallbackSearchService.search(dto, page, size);
+            if (page == 0) {
+                searchAnalyticsService.record(dto.getKeyword(), result.getTotalElements());
             }
-            
-            // 构建排序
-            SortOrder order = "desc".equalsIgnoreCase(sortOrder) ? SortOrder.Desc : SortOrder.Asc;
-            String sortField = sortBy != null ? sortBy : "_score";
-            
-            // 构建高亮
-            Map<String, HighlightField> highlightFields = new HashMap<>();
-            highlightFields.put("title", HighlightField.of(h -> h
-                .preTags("<em>")
-                .postTags("</em>")
-                .numberOfFragments(0)
+            return result;
+        } catch (Exception e) {
+            log.error("降级搜索帖子失败", e);
+            return Page.empty();
+        }
+    }
+    
+    private SearchScrollVO<PostSearchVO> fallbackScroll(SearchPostDTO dto, int size) {
+        Page<PostSearchVO> result = fallbackSearch(dto, 0, size);
+        return new SearchScrollVO<>(result.getContent(), result.getTotalElements(), null, false);
+    }
+    
+    /**
+     * 是否为ES不可用（连接失败、超时、服务端错误或限流），查询本身的错误（如 400）不计入熔断
+     */
+    private static boolean isUnavailable(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ElasticsearchException ee) {
+                return ee.status() >= 500 || ee.status() == 429;
+            }
+            if (t instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 搜索熔断器状态
+     *
+     * @return 状态、连续失败次数、阈值、熔断时长
+     */
+    public Map<String, Object> getCircuitState() {
+        WkNeticProperties.Search search = properties.getSearch();
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("state", circuitBreaker.getState().name());
+        state.put("failures", circuitBreaker.getFailures());
+        state.put("failureThreshold", search.getFallbackFailureThreshold());
+        state.put("openDuration", search.getFallbackOpenDuration());
+        return state;
+    }
+    
+    /**
+     * 构建查询条件
+     */
+    private Query buildQuery(SearchPostDTO dto) {
+        List<Query> mustQueries = new ArrayList<>();
+        List<Query> filterQueries = new ArrayList<>();
+        
+        // 关键词搜索（multi_match，标题权重高）
+        String keyword = dto.getKeyword();
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            mustQueries.add(Query.of(q -> q
+                .multiMatch(m -> m
+                    .query(keyword)
+                    .fields("title^3.0", "excerpt^2.0", "content^1.0")
+                    .type(TextQueryType.BestFields)
+                    .operator(Operator.Or)
+                )
             ));
-            highlightFields.put("excerpt", HighlightField.of(h -> h
-                .preTags("<em>")
-                .postTags("</em>")
-                .fragmentSize(200)
-                .numberOfFragments(1)
+        }
+        
+        // 话题过滤
+        if (dto.getTopicId() != null) {
+            filterQueries.add(Query.of(q -> q
+                .term(t -> t.field("topicId").value(dto.getTopicId()))
             ));
-            highlightFields.put("content", HighlightField.of(h -> h
-                .preTags("<em>")
-                .postTags("</em>")
-                .fragmentSize(150)
-                .numberOfFragments(2)
+        }
+        
+        // 标签过滤（多个标签 OR 关系）
+        List<String> tags = dto.getTags();
+        if (tags != null && !tags.isEmpty()) {
+            filterQueries.add(Query.of(q -> q
+                .terms(t -> t
+                    .field("tags")
+                    .terms(ts -> ts.value(
+                        tags.stream()
+                            .map(FieldValue::of)
+                            .collect(Collectors.toList())
+                    ))
+                )
             ));
-            
-            Highlight highlight = Highlight.of(h -> h.fields(highlightFields));
-            
-            // 构建排序 - _score 需要特殊处理
-            final String finalSortField = sortField;
-            final SortOrder finalOrder = order;
-            
-            // 执行搜索
-            SearchRequest searchRequest = SearchRequest.of(s -> {
-                s.index("post_index")
-                    .query(query)
-                    .from(page * size)
-                    .size(size)
-                    .highlight(highlight);
-                
-                // _score 排序需要使用 score() 方法
-                if ("_score".equals(finalSortField)) {
-                    s.sort(sort -> sort.score(sc -> sc.order(finalOrder)));
+        }
+        
+        // 状态过滤
+        if (dto.getStatus() != null) {
+            filterQueries.add(Query.of(q -> q
+                .term(t -> t.field("status").value(dto.getStatus()))
+            ));
+        }
+        
+        // 创建时间范围过滤（闭区间）
+        LocalDateTime startTime = dto.getStartTime();
+        LocalDateTime endTime = dto.getEndTime();
+        if (startTime != null || endTime != null) {
+            filterQueries.add(Query.of(q -> q
+                .range(r -> r.date(d -> {
+                    d.field("createTime");
+                    if (startTime != null) {
+                        d.gte(startTime.format(DATE_FORMATTER));
+                    }
+                    if (endTime != null) {
+                        d.lte(endTime.format(DATE_FORMATTER));
+                    }
+                    return d;
+                }))
+            ));
+        }
+        
+        // 如果没有任何条件，使用 match_all
+        if (mustQueries.isEmpty() && filterQueries.isEmpty()) {
+            return Query.of(q -> q.matchAll(m -> m));
+        }
+        BoolQuery.Builder boolQueryBuilder = new BoolQuery.Builder();
+        if (!mustQueries.isEmpty()) {
+            boolQueryBuilder.must(mustQueries);
+        }
+        if (!filterQueries.isEmpty()) {
+            boolQueryBuilder.filter(filterQueries);
+        }
+        return Query.of(q -> q.bool(boolQueryBuilder.build()));
+    }
+    
+    /**
+     * 设置排序，_score 需要使用 score() 方法
+     */
+    private void applySort(SearchRequest.Builder s, SearchPostDTO dto) {
+        SortOrder order = "asc".equalsIgnoreCase(dto.getSortOrder()) ? SortOrder.Asc : SortOrder.Desc;
+        String sortField = dto.getSortBy() != null ? dto.getSortBy() : "_score";
+        if ("_score".equals(sortField)) {
+            s.sort(sort -> sort.score(sc -> sc.order(order)));
+        } else {
+            s.sort(sort -> sort.field(f -> f.field(sortField).order(order)));
+        }
+    }
+    
+    /**
+     * 构建高亮（正文只返回片段，列表结果不含正文全文）
+     */
+    private Highlight buildHighlight() {
+        Map<String, HighlightField> highlightFields = new HashMap<>();
+        highlightFields.put("title", HighlightField.of(h -> h
+            .preTags("<em>")
+            .postTags("</em>")
+            .numberOfFragments(0)
+        ));
+        highlightFields.put("excerpt", HighlightField.of(h -> h
+            .preTags("<em>")
+            .postTags("</em>")
+            .fragmentSize(200)
+            .numberOfFragments(1)
+        ));
+        highlightFields.put("content", HighlightField.of(h -> h
+            .preTags("<em>")
+            .postTags("</em>")
+            .fragmentSize(150)
+            .numberOfFragments(2)
+        ));
+        return Highlight.of(h -> h.fields(highlightFields));
+    }
+    
+    /**
+     * 将搜索命中转换为搜索结果VO（带相关性得分和高亮片段）
+     */
+    private PostSearchVO toSearchVO(Hit<PostDocument> hit) {
+        PostDocument doc = hit.source();
+        if (doc == null) {
+            return null;
+        }
+        return PostSearchVO.builder()
+            .postId(doc.getPostId())
+            .title(doc.getTitle())
+            .excerpt(doc.getExcerpt())
+            .userId(doc.getUserId())
+            .username(doc.getUsername())
+            .topicId(doc.getTopicId())
+            .topicName(doc.getTopicName())
+            .tags(doc.getTags())
+            .status(doc.getStatus())
+            .isPinned(doc.getIsPinned())
+            .isHot(doc.getIsHot())
+            .likeCount(doc.getLikeCount())
+            .commentCount(doc.getCommentCount())
+            .viewCount(doc.getViewCount())
+            .bookmarkCount(doc.getBookmarkCount())
+            .createTime(doc.getCreateTime())
+            .updateTime(doc.getUpdateTime())
+            .lastCommentTime(doc.getLastCommentTime())
+            .score(hit.score())
+            .highlights(hit.highlight() != null && !hit.highlight().isEmpty() ? hit.highlight() : null)
+            .build();
+    }
+    
+    private int resolveSize(SearchPostDTO dto) {
+        int size = dto.getSize() != null ? dto.getSize() : 20;
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+    
+    /**
+     * 游标编码：point-in-time ID 和最后一条的排序值，Base64URL 编码的 JSON
+     */
+    private String encodeCursor(String pitId, List<FieldValue> sortValues) {
+        List<Object> values = new ArrayList<>(sortValues.size());
+        for (FieldValue value : sortValues) {
+            if (value.isLong()) {
+                values.add(value.longValue());
+            } else if (value.isDouble()) {
+                values.add(value.doubleValue());
+            } else if (value.isBoolean()) {
+                values.add(value.booleanValue());
+            } else if (value.isString()) {
+                values.add(value.stringValue());
+            } else {
+                values.add(null);
+            }
+        }
+        Map<String, Object> cursor = new HashMap<>();
+        cursor.put("pit", pitId);
+        cursor.put("after", values);
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(cursor));
+        } catch (Exception e) {
+            throw new RuntimeException("生成搜索游标失败", e);
+        }
+    }
+    
+    private ScrollCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            Map<String, Object> map = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor),
+                new TypeReference<Map<String, Object>>() {});
+            String pitId = (String) map.get("pit");
+            List<?> values = (List<?>) map.get("after");
+            if (pitId == null || values == null) {
+                throw new IllegalArgumentException("missing fields");
+            }
+            List<FieldValue> searchAfter = new ArrayList<>(values.size());
+            for (Object value : values) {
+                if (value == null) {
+                    searchAfter.add(FieldValue.NULL);
+                } else if (value instanceof Double || value instanceof Float) {
+                    searchAfter.add(FieldValue.of(((Number) value).doubleValue()));
+                } else if (value instanceof Number number) {
+                    searchAfter.add(FieldValue.of(number.longValue()));
+                } else if (value instanceof Boolean bool) {
+                    searchAfter.add(FieldValue.of(bool));
                 } else {
-                    s.sort(sort -> sort.field(f -> f.field(finalSortField).order(finalOrder)));
-                }
-                
-                return s;
-            });
-            
-            SearchResponse<PostDocument> response = elasticsearchClient.search(
-                searchRequest, 
-                PostDocument.class
-            );
-            
-            // 处理结果
-            List<PostDocument> documents = new ArrayList<>();
-            for (Hit<PostDocument> hit : response.hits().hits()) {
-                PostDocument doc = hit.source();
-                if (doc != null) {
-                    // 处理高亮
-                    // Map<String, List<String>> highlights = hit.highlight();
-                    // 可以在这里将高亮信息存储到文档中（需要添加字段）
-                    documents.add(doc);
+                    searchAfter.add(FieldValue.of(String.valueOf(value)));
                 }
             }
-            
-            long total = 0;
-            if (response.hits().total() != null) {
-                total = response.hits().total().value();
-            }
-            Pageable pageable = PageRequest.of(page, size);
-            
-            return new PageImpl<>(documents, pageable, total);
-            
+            return new ScrollCursor(pitId, searchAfter);
         } catch (Exception e) {
-            log.error("搜索帖子失败", e);
-            return Page.empty();
+            throw new RuntimeException("搜索游标无效");
         }
     }
     
+    private void closePointInTime(String pitId) {
+        try {
+            elasticsearchClient.closePointInTime(c -> c.id(pitId));
+        } catch (Exception e) {
+            log.debug("关闭 point-in-time 失败，将在保活时间后自动释放", e);
+        }
+    }
+    
+    /**
+     * 解码后的游标
+     */
+    private record ScrollCursor(String pitId, List<FieldValue> searchAfter) {
+    }
+    
     /**
-     * 搜索建议（根据前缀匹配标题）
+     * 搜索建议（根据前缀短语匹配标题）
+     * 每次都是完整的打分查询，仅在索引没有 completion 字段时由 {@link SearchSuggestService} 回退使用
      */
     @SuppressWarnings("null")
     public List<String> getSuggestions(String prefix, int limit) {
@@ -249,7 +558,7 @@ public List<String> getSuggestions(String prefix, int limit) {
             );
             
             SearchRequest searchRequest = SearchRequest.of(s -> s
-                .index("post_index")
+                .index(POST_INDEX)
                 .query(query)
                 .size(limit)
                 .source(source -> source.filter(f -> f.includes("title")))
@@ -273,52 +582,75 @@ public List<String> getSuggestions(String prefix, int limit) {
     }
     
     /**
-     * 获取热门搜索关键词（基于最近的帖子标签统计）
+     * 获取热门搜索关键词（优先取最近一天的真实搜索词，不足时用帖子标签统计补齐）
      */
     public List<String> getHotKeywords(int limit) {
         try {
-            // 构建查询：只查询已发布的帖子
-            Query query = Query.of(q -> q
-                .bool(b -> b
-                    .filter(f -> f.term(t -> t.field("status").value(1))) // status=1 表示已发布
-                )
-            );
-            
-            // 构建聚合：统计tags字段出现次数最多的关键词
-            SearchRequest searchRequest = SearchRequest.of(s -> s
-                .index("post_index")
-                .query(query)
-                .size(0) // 不需要返回文档，只需要聚合结果
-                .aggregations("hot_keywords", a -> a
-                    .terms(t -> t
-                        .field("tags")
-                        .size(limit)
-                    )
+            // 全量聚合开销大且结果变化慢，按有效期缓存
+            return searchResultCache.getTimed("hot-keywords", String.valueOf(limit),
+                properties.getSearch().getHotKeywordsCacheTtl(), () -> {
+                    Set<String> keywords = new LinkedHashSet<>();
+                    searchAnalyticsService.getTopQueries(24, limit)
+                        .forEach(stat -> keywords.add(stat.getKeyword()));
+                    if (keywords.size() < limit) {
+                        try {
+                            keywords.addAll(aggregateHotKeywords(limit));
+                        } catch (IOException e) {
+                            if (keywords.isEmpty()) {
+                                throw new UncheckedIOException(e);
+                            }
+                            log.warn("聚合标签热词失败，仅返回搜索词: {}", e.getMessage());
+                        }
+                    }
+                    return keywords.stream().limit(limit).collect(Collectors.toList());
+                });
+        } catch (Exception e) {
+            log.error("获取热门关键词失败", e);
+            return DEFAULT_HOT_KEYWORDS;
+        }
+    }
+    
+    private List<String> aggregateHotKeywords(int limit) throws IOException {
+        // 构建查询：只查询已发布的帖子
+        Query query = Query.of(q -> q
+            .bool(b -> b
+                .filter(f -> f.term(t -> t.field("status").value(1))) // status=1 表示已发布
+            )
+        );
+        
+        // 构建聚合：统计tags字段出现次数最多的关键词
+        SearchRequest searchRequest = SearchRequest.of(s -> s
+            .index(POST_INDEX)
+            .query(query)
+            .size(0) // 不需要返回文档，只需要聚合结果
+            .aggregations("hot_keywords", a -> a
+                .terms(t -> t
+                    .field("tags")
+                    .size(limit)
                 )
-            );
-            
-            SearchResponse<PostDocument> response = elasticsearchClient.search(
-                searchRequest,
-                PostDocument.class
-            );
-            
-            // 提取聚合结果
-            if (response.aggregations() != null && response.aggregations().containsKey("hot_keywords")) {
-                var aggregation = response.aggregations().get("hot_keywords");
-                if (aggregation.isSterms()) {
-                    return aggregation.sterms().buckets().array().stream()
-                        .map(bucket -> bucket.key().stringValue())
-                        .collect(Collectors.toList());
+            )
+        );
+        
+        SearchResponse<PostDocument> response = elasticsearchClient.search(
+            searchRequest,
+            PostDocument.class
+        );
+        
+        // 提取聚合结果
+        if (response.aggregations() != null && response.aggregations().containsKey("hot_keywords")) {
+            var aggregation = response.aggregations().get("hot_keywords");
+            if (aggregation.isSterms()) {
+                List<String> keywords = aggregation.sterms().buckets().array().stream()
+                    .map(bucket -> bucket.key().stringValue())
+                    .collect(Collectors.toList());
+                if (!keywords.isEmpty()) {
+                    return keywords;
                 }
             }
-            
-            // 如果没有统计结果，返回默认关键词
-            return List.of("Minecraft", "Forge", "Fabric", "Plugin", "Mod");
-            
-        } catch (Exception e) {
-            log.error("获取热门关键词失败", e);
-            return List.of("Minecraft", "Forge", "Fabric", "Plugin", "Mod");
         }
+        
+        // 如果没有统计结果，返回默认关键词
+        return DEFAULT_HOT_KEYWORDS;
     }
     
     /**
@@ -345,6 +677,32 @@ public PostDocument convertToDocument(ForumPost post, String username, String to
             .createTime(post.getCreateTime())
             .updateTime(post.getUpdateTime())
             .lastCommentTime(post.getLastCommentTime())
+            .suggest(buildSuggest(post, tags))
             .build();
     }
+    
+    /**
+     * 搜索建议输入为标题和标签，权重取互动数的对数，避免个别爆款帖子长期霸占建议
+     */
+    private PostDocument.Suggest buildSuggest(ForumPost post, List<String> tags) {
+        List<String> input = new ArrayList<>();
+        if (post.getTitle() != null && !post.getTitle().isBlank()) {
+            String title = post.getTitle().trim();
+            input.add(title.length() > SUGGEST_MAX_INPUT_LENGTH ? title.substring(0, SUGGEST_MAX_INPUT_LENGTH) : title);
+        }
+        if (tags != null) {
+            tags.stream().filter(tag -> tag != null && !tag.isBlank()).forEach(input::add);
+        }
+        if (input.isEmpty()) {
+            return null;
+        }
+        long interactions = value(post.getLikeCount()) * 3L + value(post.getCommentCount()) * 2L
+            + value(post.getBookmarkCount()) * 3L + value(post.getViewCount()) / 10;
+        int weight = 1 + (int) Math.round(Math.log1p(interactions) * 100);
+        return new PostDocument.Suggest(input, weight);
+    }
+    
+    private int value(Integer count) {
+        return count != null ? count : 0;
+    }
 }
@@ -0,0 +1,234 @@
+package cn.wekyjay.wknetic.admin.forum.service;
+
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
+import cn.wekyjay.wknetic.common.domain.UserFollow;
+import cn.wekyjay.wknetic.common.mapper.ForumPostMapper;
+import cn.wekyjay.wknetic.common.mapper.UserFollowMapper;
+import cn.wekyjay.wknetic.common.model.entity.ForumPost;
+import cn.wekyjay.wknetic.common.model.vo.CursorPageVO;
+import cn.wekyjay.wknetic.common.model.vo.PostVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 关注动态（时间线）服务
+ * <p>
+ * 普通作者采用写扩散：帖子审核通过后推送到每个粉丝的收件箱；
+ * 粉丝数超过阈值的作者采用读扩散：只写入作者发件箱，粉丝读取时再合并。
+ * 收件箱/发件箱均为以帖子ID为分数的有界 ZSET，游标即上一页最后一个帖子ID。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FeedService {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final UserFollowMapper userFollowMapper;
+    private final ForumPostMapper postMapper;
+    private final PostAssembler postAssembler;
+    private final WkNeticProperties properties;
+
+    private static final String INBOX_KEY_PREFIX = "wknetic:feed:inbox:";
+    private static final String OUTBOX_KEY_PREFIX = "wknetic:feed:outbox:";
+    /** 采用读扩散的作者集合 */
+    private static final String PULL_AUTHORS_KEY = "wknetic:feed:pull-authors";
+    private static final int MAX_PAGE_SIZE = 50;
+
+    /**
+     * 帖子审核通过后分发到时间线
+     *
+     * @param post 帖子
+     */
+    public void fanOut(ForumPost post) {
+        if (post == null || post.getStatus() == null
+                || post.getStatus() != ForumPost.Status.PUBLISHED.getCode()) {
+            return;
+        }
+        Long authorId = post.getUserId();
+        String member = String.valueOf(post.getPostId());
+        double score = post.getPostId();
+
+        // 1. 写入作者发件箱（读扩散和新关注回填都依赖它）
+        String outboxKey = OUTBOX_KEY_PREFIX + authorId;
+        stringRedisTemplate.opsForZSet().add(outboxKey, member, score);
+        stringRedisTemplate.opsForZSet().removeRange(outboxKey, 0, -(properties.getFeed().getOutboxCapacity() + 1));
+
+        // 2. 大V改为读扩散
+        long followerCount = userFollowMapper.getFollowerCount(authorId);
+        if (followerCount >= properties.getFeed().getFanoutThreshold()) {
+            stringRedisTemplate.opsForSet().add(PULL_AUTHORS_KEY, String.valueOf(authorId));
+            log.info("作者{}粉丝数{}超过阈值，帖子{}改为读扩散", authorId, followerCount, post.getPostId());
+            return;
+        }
+
+        // 3. 写扩散：按批推送到粉丝收件箱
+        int batchSize = properties.getFeed().getFanoutBatchSize();
+        int inboxCapacity = properties.getFeed().getInboxCapacity();
+        long lastId = 0L;
+        int pushed = 0;
+        while (true) {
+            List<UserFollow> batch = userFollowMapper.selectFollowerBatch(authorId, lastId, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    for (UserFollow follow : batch) {
+                        String inboxKey = INBOX_KEY_PREFIX + follow.getFollowerId();
+                        ops.opsForZSet().add(inboxKey, member, score);
+                        ops.opsForZSet().removeRange(inboxKey, 0, -(inboxCapacity + 1));
+                    }
+                    return null;
+                }
+            });
+            pushed += batch.size();
+            lastId = batch.get(batch.size() - 1).getId();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        log.info("帖子{}已推送到{}位粉丝的时间线", post.getPostId(), pushed);
+    }
+
+    /**
+     * 帖子下架（删除、拒绝），从作者发件箱移除
+     * 粉丝收件箱中的残留条目在读取时按帖子状态过滤
+     *
+     * @param postId 帖子ID
+     * @param authorId 作者ID
+     */
+    public void removePost(Long postId, Long authorId) {
+        if (postId == null || authorId == null) {
+            return;
+        }
+        stringRedisTemplate.opsForZSet().remove(OUTBOX_KEY_PREFIX + authorId, String.valueOf(postId));
+    }
+
+    /**
+     * 新关注时，将被关注者最近的帖子回填到关注者收件箱
+     *
+     * @param followerId 关注者ID
+     * @param followingId 被关注者ID
+     */
+    public void backfill(Long followerId, Long followingId) {
+        if (Boolean.TRUE.equals(stringRedisTemplate.opsForSet().isMember(PULL_AUTHORS_KEY, String.valueOf(followingId)))) {
+            // 读扩散作者在读取时合并，无需回填
+            return;
+        }
+        String inboxKey = INBOX_KEY_PREFIX + followerId;
+        String outboxKey = OUTBOX_KEY_PREFIX + followingId;
+        stringRedisTemplate.opsForZSet().unionAndStore(inboxKey, outboxKey, inboxKey);
+        stringRedisTemplate.opsForZSet().removeRange(inboxKey, 0, -(properties.getFeed().getInboxCapacity() + 1));
+    }
+
+    /**
+     * 游标分页读取关注时间线
+     *
+     * @param userId 当前用户ID
+     * @param cursor 游标（上一页最后一个帖子ID，首页传null）
+     * @param size 每页数量
+     * @return 时间线分页
+     */
+    public CursorPageVO<PostVO> getTimeline(Long userId, Long cursor, int size) {
+        if (userId == null) {
+            throw new RuntimeException("请先登录");
+        }
+        size = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        double max = cursor != null ? cursor - 1 : Double.POSITIVE_INFINITY;
+        int fetch = size + 1;
+
+        // 1. 关注列表（含自己），用于合并读扩散作者并过滤已取关作者
+        Set<Long> authorIds = new HashSet<>(userFollowMapper.selectFollowingIds(userId));
+        authorIds.add(userId);
+        List<String> pullKeys = resolvePullAuthors(authorIds, userId).stream()
+                .map(id -> OUTBOX_KEY_PREFIX + id)
+                .collect(Collectors.toList());
+
+        // 2. 收件箱 + 读扩散作者发件箱，一次管道读取
+        String inboxKey = INBOX_KEY_PREFIX + userId;
+        List<Object> ranges = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.opsForZSet().reverseRangeByScore(inboxKey, Double.NEGATIVE_INFINITY, max, 0, fetch);
+                for (String key : pullKeys) {
+                    ops.opsForZSet().reverseRangeByScore(key, Double.NEGATIVE_INFINITY, max, 0, fetch);
+                }
+                return null;
+            }
+        });
+
+        boolean sourceHasMore = false;
+        TreeSet<Long> candidates = new TreeSet<>(Comparator.reverseOrder());
+        for (Object range : ranges) {
+            if (range instanceof Collection<?> members) {
+                sourceHasMore |= members.size() >= fetch;
+                members.forEach(m -> candidates.add(Long.valueOf(m.toString())));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return new CursorPageVO<>(new ArrayList<>(), null, false);
+        }
+
+        // 3. 批量加载帖子，过滤下架帖子和已取关作者
+        List<Long> window = candidates.stream().limit(fetch).collect(Collectors.toList());
+        Map<Long, ForumPost> postMap = postMapper.selectBatchIds(window).stream()
+                .collect(Collectors.toMap(ForumPost::getPostId, Function.identity()));
+        List<ForumPost> posts = new ArrayList<>();
+        int scanned = 0;
+        for (Long postId : window) {
+            if (posts.size() >= size) {
+                break;
+            }
+            scanned++;
+            ForumPost post = postMap.get(postId);
+            if (post != null && post.getStatus() == ForumPost.Status.PUBLISHED.getCode()
+                    && authorIds.contains(post.getUserId())) {
+                posts.add(post);
+            }
+        }
+
+        // 游标取最后一个已扫描的帖子ID，被过滤掉的条目不会在下一页重复出现
+        Long lastScanned = window.get(scanned - 1);
+        boolean hasMore = sourceHasMore || candidates.size() > scanned;
+        return new CursorPageVO<>(postAssembler.assemble(posts, userId), hasMore ? lastScanned : null, hasMore);
+    }
+
+    /**
+     * 从关注列表中筛选出采用读扩散的作者
+     */
+    private List<Long> resolvePullAuthors(Set<Long> authorIds, Long userId) {
+        Object[] members = authorIds.stream().map(String::valueOf).toArray();
+        Map<Object, Boolean> flags = stringRedisTemplate.opsForSet().isMember(PULL_AUTHORS_KEY, members);
+        List<Long> pullAuthors = new ArrayList<>();
+        if (flags != null) {
+            flags.forEach((member, isPull) -> {
+                if (Boolean.TRUE.equals(isPull)) {
+                    pullAuthors.add(Long.valueOf(member.toString()));
+                }
+            });
+        }
+        // 自己的帖子不推送到自己的收件箱，始终从发件箱读取
+        if (!pullAuthors.contains(userId)) {
+            pullAuthors.add(userId);
+        }
+        return pullAuthors;
+    }
+}
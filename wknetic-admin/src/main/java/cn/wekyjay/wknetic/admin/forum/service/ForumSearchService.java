@@ -0,0 +1,314 @@
+package cn.wekyjay.wknetic.admin.forum.service;
+
+import cn.wekyjay.wknetic.admin.forum.document.CommentDocument;
+import cn.wekyjay.wknetic.admin.forum.document.PostDocument;
+import cn.wekyjay.wknetic.admin.forum.document.UserDocument;
+import cn.wekyjay.wknetic.common.domain.SysUser;
+import cn.wekyjay.wknetic.common.mapper.SysUserMapper;
+import cn.wekyjay.wknetic.common.model.dto.ForumSearchDTO;
+import cn.wekyjay.wknetic.common.model.dto.UserQueryDTO;
+import cn.wekyjay.wknetic.common.model.vo.ForumSearchHitVO;
+import cn.wekyjay.wknetic.common.model.vo.ForumSearchVO;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.MsearchResponse;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchResponseItem;
+import co.elastic.clients.elasticsearch.core.search.Highlight;
+import co.elastic.clients.elasticsearch.core.search.HighlightField;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.SourceConfig;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 论坛统一搜索服务
+ * <p>
+ * 一次 _msearch 请求同时查询帖子、评论、用户三个索引：
+ * 第一个子查询覆盖全部索引、只按 _index 聚合得到各类型的计数，
+ * 第二个子查询只查询所选类型的索引并返回当前页结果，两者共用同一个查询条件。
+ * 后台用户检索也在这里，用 wildcard 字段代替数据库的 LIKE '%kw%' 全表扫描。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ForumSearchService {
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final SysUserMapper userMapper;
+    private final ObjectMapper objectMapper;
+
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_RESULT_WINDOW = 10000;
+
+    /** 类型 -> 索引（帖子为别名） */
+    private static final Map<String, String> TYPE_INDICES = new LinkedHashMap<>();
+
+    static {
+        TYPE_INDICES.put(SearchIndexQueue.TYPE_POST, SearchReindexService.POST_ALIAS);
+        TYPE_INDICES.put(SearchIndexQueue.TYPE_COMMENT, SearchIndexQueue.COMMENT_INDEX);
+        TYPE_INDICES.put(SearchIndexQueue.TYPE_USER, SearchIndexQueue.USER_INDEX);
+    }
+
+    /** 各索引的全文字段，缺少某字段的索引会忽略该字段 */
+    private static final List<String> SEARCH_FIELDS = List.of(
+            "title^3", "excerpt^2", "content", "tags^2", "nickname^3", "username.text^2");
+
+    /** 不返回正文全文（只通过高亮片段返回）、搜索建议和用户的隐私字段 */
+    private static final SourceConfig LIST_SOURCE = SourceConfig.of(src -> src.filter(f -> f
+            .excludes("content", "suggest", "email", "minecraftUuid")));
+
+    /** 后台用户检索的子串匹配字段 */
+    private static final List<String> USER_WILDCARD_FIELDS = List.of(
+            "username", "email", "minecraftUuid", "minecraftUsername");
+
+    /**
+     * 统一搜索
+     *
+     * @param dto 搜索条件
+     * @return 当前页结果和各类型计数
+     */
+    public ForumSearchVO search(ForumSearchDTO dto) {
+        Map<String, Long> facets = new LinkedHashMap<>();
+        TYPE_INDICES.keySet().forEach(type -> facets.put(type, 0L));
+        if (!StringUtils.hasText(dto.getKeyword())) {
+            return new ForumSearchVO(new ArrayList<>(), 0L, facets);
+        }
+        int page = dto.getPage() != null ? Math.max(dto.getPage(), 0) : 0;
+        int size = dto.getSize() != null ? Math.min(Math.max(dto.getSize(), 1), MAX_PAGE_SIZE) : 20;
+        if ((long) (page + 1) * size > MAX_RESULT_WINDOW) {
+            throw new RuntimeException("翻页过深，请缩小搜索范围");
+        }
+        List<String> indices = resolveIndices(dto.getTypes());
+        Query query = buildQuery(dto.getKeyword().trim());
+
+        try {
+            MsearchResponse<ObjectNode> response = elasticsearchClient.msearch(m -> m
+                    .searches(s -> s
+                            .header(h -> h.index(new ArrayList<>(TYPE_INDICES.values())).ignoreUnavailable(true))
+                            .body(b -> b
+                                    .query(query)
+                                    .size(0)
+                                    .aggregations("types", a -> a.terms(t -> t.field("_index").size(10)))))
+                    .searches(s -> s
+                            .header(h -> h.index(indices).ignoreUnavailable(true))
+                            .body(b -> b
+                                    .query(query)
+                                    .from(page * size)
+                                    .size(size)
+                                    .source(LIST_SOURCE)
+                                    .highlight(buildHighlight()))),
+                    ObjectNode.class);
+
+            MultiSearchResponseItem<ObjectNode> facetItem = response.responses().get(0);
+            if (facetItem.isResult()) {
+                Aggregate types = facetItem.result().aggregations().get("types");
+                if (types != null && types.isSterms()) {
+                    types.sterms().buckets().array().forEach(bucket ->
+                            facets.merge(typeOf(bucket.key().stringValue()), bucket.docCount(), Long::sum));
+                }
+            } else {
+                log.warn("统一搜索分类计数失败: {}", facetItem.failure().error().reason());
+            }
+
+            MultiSearchResponseItem<ObjectNode> hitsItem = response.responses().get(1);
+            if (hitsItem.isFailure()) {
+                throw new RuntimeException("搜索失败: " + hitsItem.failure().error().reason());
+            }
+            List<ForumSearchHitVO> records = hitsItem.result().hits().hits().stream()
+                    .map(this::toHitVO)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            long total = hitsItem.result().hits().total() != null ? hitsItem.result().hits().total().value() : 0;
+            return new ForumSearchVO(records, total, facets);
+        } catch (IOException e) {
+            log.error("统一搜索失败: keyword={}", dto.getKeyword(), e);
+            throw new RuntimeException("搜索失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 后台用户检索：关键词在用户名、邮箱、MC UUID、MC游戏名中做子串匹配（不区分大小写）
+     *
+     * @param queryDTO 查询条件（页码从1开始）
+     * @return 用户分页，按注册时间倒序
+     * @throws IOException ES请求失败
+     */
+    public Page<SysUser> searchUsers(UserQueryDTO queryDTO) throws IOException {
+        int pageNum = queryDTO.getPage() != null ? Math.max(queryDTO.getPage(), 1) : 1;
+        int size = queryDTO.getSize() != null ? Math.min(Math.max(queryDTO.getSize(), 1), 100) : 10;
+        if ((long) pageNum * size > MAX_RESULT_WINDOW) {
+            throw new RuntimeException("翻页过深，请缩小搜索范围");
+        }
+        String pattern = "*" + escapeWildcard(queryDTO.getKeyword().trim()) + "*";
+
+        SearchResponse<Void> response = elasticsearchClient.search(s -> s
+                .index(SearchIndexQueue.USER_INDEX)
+                .query(q -> q.bool(b -> {
+                    b.must(m -> m.bool(should -> {
+                        USER_WILDCARD_FIELDS.forEach(field -> should.should(w -> w.wildcard(wc -> wc
+                                .field(field)
+                                .value(pattern)
+                                .caseInsensitive(true))));
+                        return should.minimumShouldMatch("1");
+                    }));
+                    if (queryDTO.getStatus() != null) {
+                        b.filter(f -> f.term(t -> t.field("status").value(queryDTO.getStatus())));
+                    }
+                    if (StringUtils.hasText(queryDTO.getRole())) {
+                        b.filter(f -> f.term(t -> t.field("role").value(queryDTO.getRole())));
+                    }
+                    return b;
+                }))
+                .sort(so -> so.field(f -> f.field("createTime").order(SortOrder.Desc)))
+                .from((pageNum - 1) * size)
+                .size(size)
+                .source(src -> src.fetch(false)), Void.class);
+
+        long total = response.hits().total() != null ? response.hits().total().value() : 0;
+        Page<SysUser> page = new Page<>(pageNum, size, total);
+        List<Long> userIds = response.hits().hits().stream()
+                .map(hit -> Long.valueOf(hit.id()))
+                .collect(Collectors.toList());
+        if (!userIds.isEmpty()) {
+            // 按ES的顺序返回，索引中存在但数据库已删除的用户跳过
+            Map<Long, SysUser> userMap = userMapper.selectBatchIds(userIds).stream()
+                    .collect(Collectors.toMap(SysUser::getUserId, Function.identity()));
+            page.setRecords(userIds.stream().map(userMap::get).filter(Objects::nonNull).collect(Collectors.toList()));
+        }
+        return page;
+    }
+
+    private Query buildQuery(String keyword) {
+        return Query.of(q -> q.bool(b -> b
+                .must(m -> m.multiMatch(mm -> mm
+                        .query(keyword)
+                        .fields(SEARCH_FIELDS)
+                        .lenient(true)))
+                // 三类文档的 status=1 分别表示已发布、正常、启用
+                .filter(f -> f.term(t -> t.field("status").value(1)))));
+    }
+
+    private Highlight buildHighlight() {
+        Map<String, HighlightField> fields = new HashMap<>();
+        fields.put("title", HighlightField.of(h -> h
+                .preTags("<em>")
+                .postTags("</em>")
+                .numberOfFragments(0)));
+        fields.put("nickname", HighlightField.of(h -> h
+                .preTags("<em>")
+                .postTags("</em>")
+                .numberOfFragments(0)));
+        // 正文没有命中（只命中标题）时也返回开头一段作为摘要
+        fields.put("content", HighlightField.of(h -> h
+                .preTags("<em>")
+                .postTags("</em>")
+                .fragmentSize(120)
+                .numberOfFragments(1)
+                .noMatchSize(120)));
+        return Highlight.of(h -> h.fields(fields));
+    }
+
+    private ForumSearchHitVO toHitVO(Hit<ObjectNode> hit) {
+        if (hit.source() == null) {
+            return null;
+        }
+        String type = typeOf(hit.index());
+        Map<String, List<String>> highlight = hit.highlight();
+        ForumSearchHitVO vo = new ForumSearchHitVO();
+        vo.setType(type);
+        vo.setId(Long.valueOf(hit.id()));
+        vo.setScore(hit.score());
+        try {
+            switch (type) {
+                case SearchIndexQueue.TYPE_POST -> {
+                    PostDocument doc = objectMapper.treeToValue(hit.source(), PostDocument.class);
+                    vo.setTitle(first(highlight, "title", doc.getTitle()));
+                    vo.setSnippet(first(highlight, "content", doc.getExcerpt()));
+                    vo.setPostId(doc.getPostId());
+                    vo.setUserId(doc.getUserId());
+                    vo.setUsername(doc.getUsername());
+                    vo.setCreateTime(doc.getCreateTime());
+                }
+                case SearchIndexQueue.TYPE_COMMENT -> {
+                    CommentDocument doc = objectMapper.treeToValue(hit.source(), CommentDocument.class);
+                    vo.setTitle(doc.getPostTitle());
+                    vo.setSnippet(first(highlight, "content", null));
+                    vo.setPostId(doc.getPostId());
+                    vo.setUserId(doc.getUserId());
+                    vo.setUsername(doc.getUsername());
+                    vo.setCreateTime(doc.getCreateTime());
+                }
+                default -> {
+                    UserDocument doc = objectMapper.treeToValue(hit.source(), UserDocument.class);
+                    vo.setTitle(first(highlight, "nickname", doc.getNickname()));
+                    vo.setUserId(doc.getUserId());
+                    vo.setUsername(doc.getUsername());
+                    vo.setAvatar(doc.getAvatar());
+                    vo.setCreateTime(doc.getCreateTime());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("解析搜索结果失败: index={}, id={}", hit.index(), hit.id(), e);
+            return null;
+        }
+        return vo;
+    }
+
+    /**
+     * 所选类型对应的索引，为空或全部无效时查询全部
+     */
+    private List<String> resolveIndices(List<String> types) {
+        List<String> indices = types == null ? new ArrayList<>() : types.stream()
+                .filter(Objects::nonNull)
+                .map(type -> TYPE_INDICES.get(type.trim().toUpperCase(Locale.ROOT)))
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        return indices.isEmpty() ? new ArrayList<>(TYPE_INDICES.values()) : indices;
+    }
+
+    /**
+     * 实际索引名（帖子索引为带版本号的索引）对应的类型
+     */
+    private String typeOf(String indexName) {
+        for (Map.Entry<String, String> entry : TYPE_INDICES.entrySet()) {
+            if (indexName.startsWith(entry.getValue())) {
+                return entry.getKey();
+            }
+        }
+        return indexName;
+    }
+
+    private String first(Map<String, List<String>> highlight, String field, String fallback) {
+        List<String> fragments = highlight != null ? highlight.get(field) : null;
+        return fragments != null && !fragments.isEmpty() ? fragments.get(0) : fallback;
+    }
+
+    private String escapeWildcard(String keyword) {
+        StringBuilder escaped = new StringBuilder(keyword.length());
+        for (char c : keyword.toCharArray()) {
+            if (c == '\\' || c == '*' || c == '?') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,322 @@
+package cn.wekyjay.wknetic.admin.forum.service;
+
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
+import cn.wekyjay.wknetic.common.mapper.ForumPostMapper;
+import cn.wekyjay.wknetic.common.model.entity.ForumPost;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 热门帖子排行服务
+ * <p>
+ * 采用前向衰减（forward decay）计算热度：每次互动按 weight * 2^((t - base) / halfLife) 累加到 ZSET，
+ * 越新的互动增量越大，等价于所有历史互动按半衰期指数衰减，且每次更新只需一次 ZINCRBY（O(log n)）。
+ * 全站和每个话题各维护一个容量有限的 ZSET，热门列表直接按排名读取，无需扫表。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HotPostService {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ForumPostMapper postMapper;
+    private final WkNeticProperties properties;
+
+    private static final String HOT_GLOBAL_KEY = "wknetic:post:hot:global";
+    private static final String HOT_TOPIC_KEY_PREFIX = "wknetic:post:hot:topic:";
+    /** 帖子ID -> 话题ID，同时作为"已进入排行"的标记 */
+    private static final String HOT_POST_TOPIC_KEY = "wknetic:post:hot:post-topic";
+    /** 出现过排行的话题ID集合 */
+    private static final String HOT_TOPICS_KEY = "wknetic:post:hot:topics";
+    /** 衰减基准时间（epoch秒） */
+    private static final String HOT_BASE_KEY = "wknetic:post:hot:base";
+    /** 无话题帖子在 post-topic 中的占位值 */
+    private static final String NO_TOPIC = "0";
+    /** 基准时间距今超过多少个半衰期时重新归一化，避免分数溢出 */
+    private static final int REBASE_HALF_LIVES = 32;
+
+    /**
+     * 帖子审核通过，进入排行榜
+     *
+     * @param post 帖子
+     */
+    public void onPostPublished(ForumPost post) {
+        if (post == null || post.getStatus() == null
+                || post.getStatus() != ForumPost.Status.PUBLISHED.getCode()) {
+            return;
+        }
+        String topic = post.getTopicId() != null ? String.valueOf(post.getTopicId()) : NO_TOPIC;
+        stringRedisTemplate.opsForHash().put(HOT_POST_TOPIC_KEY, String.valueOf(post.getPostId()), topic);
+        incrementScore(post.getPostId(), topic, properties.getHot().getPublishWeight(), LocalDateTime.now());
+    }
+
+    /**
+     * 记录一次互动（点赞、评论、浏览、收藏等）
+     *
+     * @param postId 帖子ID
+     * @param weight 互动权重（取消操作传负数）
+     * @param eventTime 互动发生时间
+     */
+    public void recordInteraction(Long postId, double weight, LocalDateTime eventTime) {
+        if (postId == null || weight == 0) {
+            return;
+        }
+        String topic = resolveTopic(postId);
+        if (topic == null) {
+            // 非已发布帖子不参与排行
+            return;
+        }
+        incrementScore(postId, topic, weight, eventTime);
+    }
+
+    /**
+     * 帖子话题变更，将热度迁移到新话题的排行榜
+     *
+     * @param postId 帖子ID
+     * @param newTopicId 新话题ID
+     */
+    public void moveTopic(Long postId, Long newTopicId) {
+        String member = String.valueOf(postId);
+        Object oldTopic = stringRedisTemplate.opsForHash().get(HOT_POST_TOPIC_KEY, member);
+        String newTopic = newTopicId != null ? String.valueOf(newTopicId) : NO_TOPIC;
+        if (oldTopic == null || newTopic.equals(oldTopic)) {
+            return;
+        }
+        Double score = stringRedisTemplate.opsForZSet().score(HOT_GLOBAL_KEY, member);
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                if (!NO_TOPIC.equals(oldTopic)) {
+                    ops.opsForZSet().remove(HOT_TOPIC_KEY_PREFIX + oldTopic, member);
+                }
+                if (score != null && !NO_TOPIC.equals(newTopic)) {
+                    ops.opsForZSet().add(HOT_TOPIC_KEY_PREFIX + newTopic, member, score);
+                    ops.opsForSet().add(HOT_TOPICS_KEY, newTopic);
+                }
+                ops.opsForHash().put(HOT_POST_TOPIC_KEY, member, newTopic);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 将帖子移出排行榜（删除、审核拒绝、下架等）
+     *
+     * @param postId 帖子ID
+     */
+    public void removePost(Long postId) {
+        String member = String.valueOf(postId);
+        Object topic = stringRedisTemplate.opsForHash().get(HOT_POST_TOPIC_KEY, member);
+        if (topic == null) {
+            // 映射可能已被清理，回源数据库确定话题
+            ForumPost post = postMapper.selectById(postId);
+            topic = post != null && post.getTopicId() != null ? String.valueOf(post.getTopicId()) : null;
+        }
+        Object topicToRemove = topic;
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.opsForZSet().remove(HOT_GLOBAL_KEY, member);
+                if (topicToRemove != null && !NO_TOPIC.equals(topicToRemove)) {
+                    ops.opsForZSet().remove(HOT_TOPIC_KEY_PREFIX + topicToRemove, member);
+                }
+                ops.opsForHash().delete(HOT_POST_TOPIC_KEY, member);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 按热度倒序获取帖子ID
+     *
+     * @param topicId 话题ID（为空表示全站）
+     * @param offset 起始位置
+     * @param count 数量
+     * @return 帖子ID列表（按热度从高到低）
+     */
+    public List<Long> getHotPostIds(Long topicId, long offset, long count) {
+        Set<String> members = stringRedisTemplate.opsForZSet()
+                .reverseRange(rankKey(topicId), offset, offset + count - 1);
+        if (members == null || members.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return members.stream().map(Long::valueOf).collect(Collectors.toList());
+    }
+
+    /**
+     * 获取排行榜中的帖子数量
+     *
+     * @param topicId 话题ID（为空表示全站）
+     * @return 帖子数量
+     */
+    public long countHotPosts(Long topicId) {
+        Long size = stringRedisTemplate.opsForZSet().zCard(rankKey(topicId));
+        return size != null ? size : 0;
+    }
+
+    /**
+     * 定时刷新热门标记
+     * 全站排行前 N 名标记为 is_hot，其余取消标记；同时负责衰减基准的归一化和失效数据的清理
+     */
+    @Scheduled(initialDelay = 60000, fixedDelayString = "${wknetic.hot.refresh-interval:300000}")
+    public void refreshHotFlags() {
+        try {
+            rebaseIfNeeded();
+
+            List<Long> hotIds = getHotPostIds(null, 0, properties.getHot().getHotCount());
+            int cleared = postMapper.clearHotExcept(hotIds);
+            int marked = hotIds.isEmpty() ? 0 : postMapper.markHot(hotIds);
+
+            pruneTopicMapping();
+            log.info("热门帖子标记已刷新: 热门{}篇, 新增{}篇, 取消{}篇", hotIds.size(), marked, cleared);
+        } catch (Exception e) {
+            log.error("刷新热门帖子标记失败", e);
+        }
+    }
+
+    /**
+     * 累加热度并裁剪排行榜容量
+     */
+    private void incrementScore(Long postId, String topic, double weight, LocalDateTime eventTime) {
+        String member = String.valueOf(postId);
+        double delta = weight * decayFactor(eventTime);
+        int capacity = properties.getHot().getCapacity();
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.opsForZSet().incrementScore(HOT_GLOBAL_KEY, member, delta);
+                ops.opsForZSet().removeRange(HOT_GLOBAL_KEY, 0, -(capacity + 1));
+                if (!NO_TOPIC.equals(topic)) {
+                    String topicKey = HOT_TOPIC_KEY_PREFIX + topic;
+                    ops.opsForZSet().incrementScore(topicKey, member, delta);
+                    ops.opsForZSet().removeRange(topicKey, 0, -(capacity + 1));
+                    ops.opsForSet().add(HOT_TOPICS_KEY, topic);
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 查询帖子所属话题（优先读缓存，未命中时回源数据库）
+     *
+     * @return 话题ID字符串；帖子不存在或未发布时返回null
+     */
+    private String resolveTopic(Long postId) {
+        String member = String.valueOf(postId);
+        Object cached = stringRedisTemplate.opsForHash().get(HOT_POST_TOPIC_KEY, member);
+        if (cached != null) {
+            return cached.toString();
+        }
+        ForumPost post = postMapper.selectById(postId);
+        if (post == null || post.getStatus() == null
+                || post.getStatus() != ForumPost.Status.PUBLISHED.getCode()) {
+            return null;
+        }
+        String topic = post.getTopicId() != null ? String.valueOf(post.getTopicId()) : NO_TOPIC;
+        stringRedisTemplate.opsForHash().put(HOT_POST_TOPIC_KEY, member, topic);
+        return topic;
+    }
+
+    /**
+     * 计算相对于基准时间的放大系数 2^((t - base) / halfLife)
+     */
+    private double decayFactor(LocalDateTime eventTime) {
+        long eventSeconds = (eventTime != null ? eventTime : LocalDateTime.now())
+                .atZone(ZoneId.systemDefault()).toEpochSecond();
+        return Math.pow(2, (eventSeconds - getBaseSeconds()) / (double) halfLifeSeconds());
+    }
+
+    private long getBaseSeconds() {
+        String base = stringRedisTemplate.opsForValue().get(HOT_BASE_KEY);
+        if (base != null) {
+            return Long.parseLong(base);
+        }
+        long now = System.currentTimeMillis() / 1000;
+        Boolean created = stringRedisTemplate.opsForValue().setIfAbsent(HOT_BASE_KEY, String.valueOf(now));
+        if (Boolean.TRUE.equals(created)) {
+            return now;
+        }
+        return Long.parseLong(Objects.requireNonNull(stringRedisTemplate.opsForValue().get(HOT_BASE_KEY)));
+    }
+
+    private long halfLifeSeconds() {
+        return properties.getHot().getHalfLifeHours() * 3600L;
+    }
+
+    /**
+     * 基准时间过旧时，将所有分数按同一比例缩小并前移基准，排名保持不变
+     */
+    private void rebaseIfNeeded() {
+        long base = getBaseSeconds();
+        long now = System.currentTimeMillis() / 1000;
+        if (now - base < REBASE_HALF_LIVES * halfLifeSeconds()) {
+            return;
+        }
+        double scale = Math.pow(2, -(now - base) / (double) halfLifeSeconds());
+
+        List<String> keys = new ArrayList<>();
+        keys.add(HOT_GLOBAL_KEY);
+        Set<String> topics = stringRedisTemplate.opsForSet().members(HOT_TOPICS_KEY);
+        if (topics != null) {
+            topics.forEach(topic -> keys.add(HOT_TOPIC_KEY_PREFIX + topic));
+        }
+
+        for (String key : keys) {
+            Set<ZSetOperations.TypedTuple<String>> tuples = stringRedisTemplate.opsForZSet().rangeWithScores(key, 0, -1);
+            if (tuples == null || tuples.isEmpty()) {
+                continue;
+            }
+            Set<ZSetOperations.TypedTuple<String>> scaled = tuples.stream()
+                    .filter(t -> t.getValue() != null && t.getScore() != null)
+                    .map(t -> ZSetOperations.TypedTuple.of(t.getValue(), t.getScore() * scale))
+                    .collect(Collectors.toSet());
+            stringRedisTemplate.opsForZSet().add(key, scaled);
+        }
+        stringRedisTemplate.opsForValue().set(HOT_BASE_KEY, String.valueOf(now));
+        log.info("热度基准时间已前移 {} 秒", now - base);
+    }
+
+    /**
+     * 清理已被挤出全站排行的帖子话题映射，避免映射无限增长
+     */
+    private void pruneTopicMapping() {
+        Set<Object> mapped = stringRedisTemplate.opsForHash().keys(HOT_POST_TOPIC_KEY);
+        if (mapped == null || mapped.isEmpty()) {
+            return;
+        }
+        Set<String> ranked = stringRedisTemplate.opsForZSet().range(HOT_GLOBAL_KEY, 0, -1);
+        Object[] stale = mapped.stream()
+                .filter(member -> ranked == null || !ranked.contains(member.toString()))
+                .toArray();
+        if (stale.length > 0) {
+            stringRedisTemplate.opsForHash().delete(HOT_POST_TOPIC_KEY, stale);
+        }
+    }
+
+    private String rankKey(Long topicId) {
+        return topicId != null ? HOT_TOPIC_KEY_PREFIX + topicId : HOT_GLOBAL_KEY;
+    }
+}
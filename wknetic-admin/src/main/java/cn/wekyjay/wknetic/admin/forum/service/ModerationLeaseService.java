@@ -0,0 +1,159 @@
+package cn.wekyjay.wknetic.admin.forum.service;
+
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * 审核租约服务
+ * <p>
+ * 审核员从审核队列领取帖子时为每个帖子加一个带过期时间的租约（SET NX PX），
+ * 租约期间其他审核员领取时跳过该帖子，也不能审核该帖子；租约到期未处理的帖子自动回到队列。
+ * 每个审核员领取的帖子另存一个有序集合（分数为到期时间），用于再次领取时返回仍持有的帖子。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ModerationLeaseService {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final WkNeticProperties properties;
+
+    private static final String LEASE_KEY_PREFIX = "wknetic:audit:lease:";
+    private static final String CLAIMS_KEY_PREFIX = "wknetic:audit:claims:";
+
+    /**
+     * 领取帖子，已由自己持有时续期
+     *
+     * @param postId 帖子ID
+     * @param moderatorId 审核员ID
+     * @return 是否领取成功
+     */
+    public boolean acquire(Long postId, Long moderatorId) {
+        String leaseKey = LEASE_KEY_PREFIX + postId;
+        String holder = String.valueOf(moderatorId);
+        Duration duration = leaseDuration();
+        boolean acquired = Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(leaseKey, holder, duration));
+        if (!acquired) {
+            if (!holder.equals(stringRedisTemplate.opsForValue().get(leaseKey))) {
+                return false;
+            }
+            stringRedisTemplate.expire(leaseKey, duration);
+        }
+        long expireAt = System.currentTimeMillis() + duration.toMillis();
+        stringRedisTemplate.opsForZSet().add(CLAIMS_KEY_PREFIX + moderatorId, String.valueOf(postId), expireAt);
+        stringRedisTemplate.expire(CLAIMS_KEY_PREFIX + moderatorId, duration);
+        return true;
+    }
+
+    /**
+     * 审核员当前持有的帖子（去掉已到期或已被释放的）
+     *
+     * @param moderatorId 审核员ID
+     * @return 帖子ID -> 租约到期时间
+     */
+    public Map<Long, LocalDateTime> getClaimed(Long moderatorId) {
+        String claimsKey = CLAIMS_KEY_PREFIX + moderatorId;
+        stringRedisTemplate.opsForZSet().removeRangeByScore(claimsKey, 0, System.currentTimeMillis());
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                stringRedisTemplate.opsForZSet().rangeWithScores(claimsKey, 0, -1);
+        if (tuples == null || tuples.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<String> postIds = new ArrayList<>(tuples.size());
+        tuples.forEach(tuple -> postIds.add(tuple.getValue()));
+        List<String> holders = stringRedisTemplate.opsForValue()
+                .multiGet(postIds.stream().map(id -> LEASE_KEY_PREFIX + id).toList());
+
+        String holder = String.valueOf(moderatorId);
+        Map<Long, LocalDateTime> claimed = new LinkedHashMap<>();
+        int i = 0;
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            if (holders != null && holder.equals(holders.get(i)) && tuple.getScore() != null) {
+                claimed.put(Long.parseLong(tuple.getValue()), LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(tuple.getScore().longValue()), ZoneId.systemDefault()));
+            } else {
+                stringRedisTemplate.opsForZSet().remove(claimsKey, tuple.getValue());
+            }
+            i++;
+        }
+        return claimed;
+    }
+
+    /**
+     * 帖子当前的租约持有人
+     *
+     * @param postId 帖子ID
+     * @return 审核员ID，没有租约时返回null
+     */
+    public Long getHolder(Long postId) {
+        String holder = stringRedisTemplate.opsForValue().get(LEASE_KEY_PREFIX + postId);
+        return holder != null ? Long.parseLong(holder) : null;
+    }
+
+    /**
+     * 帖子是否被其他审核员领取
+     *
+     * @param postId 帖子ID
+     * @param moderatorId 当前审核员ID
+     * @return 是否被其他人持有
+     */
+    public boolean isClaimedByOther(Long postId, Long moderatorId) {
+        Long holder = getHolder(postId);
+        return holder != null && !holder.equals(moderatorId);
+    }
+
+    /**
+     * 放弃自己持有的帖子，放回队列
+     *
+     * @param postIds 帖子ID
+     * @param moderatorId 审核员ID
+     */
+    public void release(Collection<Long> postIds, Long moderatorId) {
+        String holder = String.valueOf(moderatorId);
+        for (Long postId : postIds) {
+            String leaseKey = LEASE_KEY_PREFIX + postId;
+            if (holder.equals(stringRedisTemplate.opsForValue().get(leaseKey))) {
+                stringRedisTemplate.delete(leaseKey);
+            }
+            stringRedisTemplate.opsForZSet().remove(CLAIMS_KEY_PREFIX + moderatorId, String.valueOf(postId));
+        }
+    }
+
+    /**
+     * 帖子已审核，删除租约（无论由谁持有）
+     *
+     * @param postIds 帖子ID
+     */
+    public void complete(Collection<Long> postIds) {
+        try {
+            for (Long postId : postIds) {
+                Long holder = getHolder(postId);
+                if (holder != null) {
+                    stringRedisTemplate.delete(LEASE_KEY_PREFIX + postId);
+                    stringRedisTemplate.opsForZSet().remove(CLAIMS_KEY_PREFIX + holder, String.valueOf(postId));
+                }
+            }
+        } catch (Exception e) {
+            // 租约会自然到期，已审核的帖子也不会再进入队列
+            log.warn("删除审核租约失败: postIds={}", postIds, e);
+        }
+    }
+
+    private Duration leaseDuration() {
+        return Duration.ofMillis(properties.getAudit().getClaimLeaseDuration());
+    }
+}
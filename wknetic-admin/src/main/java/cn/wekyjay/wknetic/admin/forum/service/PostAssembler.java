@@ -0,0 +1,158 @@
+package cn.wekyjay.wknetic.admin.forum.service;
+
+import cn.wekyjay.wknetic.common.domain.SysUser;
+import cn.wekyjay.wknetic.common.mapper.*;
+import cn.wekyjay.wknetic.common.model.entity.*;
+import cn.wekyjay.wknetic.common.model.vo.PostVO;
+import cn.wekyjay.wknetic.common.model.vo.TagVO;
+import cn.wekyjay.wknetic.common.model.vo.TopicVO;
+import cn.wekyjay.wknetic.common.model.vo.UserInfoVO;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 帖子VO批量组装器
+ * 一次性批量加载作者、话题、标签、点赞/收藏状态，避免逐条查询（N+1）
+ *
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Component
+@RequiredArgsConstructor
+public class PostAssembler {
+
+    private final SysUserMapper sysUserMapper;
+    private final ForumTopicMapper topicMapper;
+    private final ForumTagMapper tagMapper;
+    private final PostTagMapper postTagMapper;
+    private final PostLikeMapper postLikeMapper;
+    private final PostBookmarkMapper postBookmarkMapper;
+
+    /**
+     * 批量组装帖子VO，保持输入顺序
+     *
+     * @param posts 帖子列表
+     * @param currentUserId 当前用户ID（为空时不查询点赞/收藏状态）
+     * @return 帖子VO列表
+     */
+    public List<PostVO> assemble(List<ForumPost> posts, Long currentUserId) {
+        if (posts == null || posts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> postIds = posts.stream().map(ForumPost::getPostId).collect(Collectors.toList());
+
+        // 作者
+        Set<Long> userIds = posts.stream().map(ForumPost::getUserId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, SysUser> userMap = userIds.isEmpty() ? Collections.emptyMap()
+                : sysUserMapper.selectBatchIds(userIds).stream()
+                        .collect(Collectors.toMap(SysUser::getUserId, Function.identity()));
+
+        // 话题
+        Set<Long> topicIds = posts.stream().map(ForumPost::getTopicId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, ForumTopic> topicMap = topicIds.isEmpty() ? Collections.emptyMap()
+                : topicMapper.selectBatchIds(topicIds).stream()
+                        .collect(Collectors.toMap(ForumTopic::getTopicId, Function.identity()));
+
+        // 标签
+        List<PostTag> postTags = postTagMapper.selectList(new LambdaQueryWrapper<PostTag>()
+                .in(PostTag::getPostId, postIds));
+        Set<Long> tagIds = postTags.stream().map(PostTag::getTagId).collect(Collectors.toSet());
+        Map<Long, ForumTag> tagMap = tagIds.isEmpty() ? Collections.emptyMap()
+                : tagMapper.selectBatchIds(tagIds).stream()
+                        .collect(Collectors.toMap(ForumTag::getTagId, Function.identity()));
+        Map<Long, List<Long>> postTagIds = postTags.stream().collect(Collectors.groupingBy(
+                PostTag::getPostId, Collectors.mapping(PostTag::getTagId, Collectors.toList())));
+
+        // 当前用户点赞/收藏状态
+        Set<Long> likedPostIds = Collections.emptySet();
+        Set<Long> bookmarkedPostIds = Collections.emptySet();
+        if (currentUserId != null) {
+            likedPostIds = postLikeMapper.selectList(new LambdaQueryWrapper<PostLike>()
+                            .select(PostLike::getPostId)
+                            .eq(PostLike::getUserId, currentUserId)
+                            .in(PostLike::getPostId, postIds))
+                    .stream().map(PostLike::getPostId).collect(Collectors.toSet());
+            bookmarkedPostIds = postBookmarkMapper.selectList(new LambdaQueryWrapper<PostBookmark>()
+                            .select(PostBookmark::getPostId)
+                            .eq(PostBookmark::getUserId, currentUserId)
+                            .in(PostBookmark::getPostId, postIds))
+                    .stream().map(PostBookmark::getPostId).collect(Collectors.toSet());
+        }
+
+        List<PostVO> result = new ArrayList<>(posts.size());
+        for (ForumPost post : posts) {
+            PostVO vo = toBaseVO(post);
+            vo.setAuthor(convertUserToVO(userMap.get(post.getUserId())));
+            if (post.getTopicId() != null) {
+                vo.setTopic(convertTopicToVO(topicMap.get(post.getTopicId())));
+            }
+            List<Long> ids = postTagIds.get(post.getPostId());
+            if (ids != null) {
+                vo.setTags(ids.stream().map(tagMap::get).filter(Objects::nonNull)
+                        .map(this::convertTagToVO).collect(Collectors.toList()));
+            }
+            if (currentUserId != null) {
+                vo.setIsLiked(likedPostIds.contains(post.getPostId()));
+                vo.setIsBookmarked(bookmarkedPostIds.contains(post.getPostId()));
+            }
+            result.add(vo);
+        }
+        return result;
+    }
+
+    private PostVO toBaseVO(ForumPost post) {
+        PostVO vo = new PostVO();
+        vo.setPostId(post.getPostId());
+        vo.setUserId(post.getUserId());
+        vo.setTitle(post.getTitle());
+        vo.setExcerpt(post.getExcerpt());
+        vo.setStatus(post.getStatus());
+        vo.setIsPinned(post.getIsPinned());
+        vo.setIsHot(post.getIsHot());
+        vo.setLikeCount(post.getLikeCount());
+        vo.setCommentCount(post.getCommentCount());
+        vo.setViewCount(post.getViewCount());
+        vo.setBookmarkCount(post.getBookmarkCount());
+        vo.setLastCommentTime(post.getLastCommentTime());
+        vo.setCreateTime(post.getCreateTime());
+        vo.setUpdateTime(post.getUpdateTime());
+        return vo;
+    }
+
+    private UserInfoVO convertUserToVO(SysUser user) {
+        if (user == null) return null;
+        UserInfoVO vo = new UserInfoVO();
+        vo.setUserId(user.getUserId());
+        vo.setUsername(user.getUsername());
+        vo.setNickname(user.getNickname());
+        vo.setAvatar(user.getAvatar());
+        return vo;
+    }
+
+    private TopicVO convertTopicToVO(ForumTopic topic) {
+        if (topic == null) return null;
+        TopicVO vo = new TopicVO();
+        vo.setTopicId(topic.getTopicId());
+        vo.setTopicName(topic.getTopicName());
+        vo.setTopicDesc(topic.getTopicDesc());
+        vo.setIcon(topic.getIcon());
+        vo.setColor(topic.getColor());
+        vo.setPostCount(topic.getPostCount());
+        return vo;
+    }
+
+    private TagVO convertTagToVO(ForumTag tag) {
+        TagVO vo = new TagVO();
+        vo.setTagId(tag.getTagId());
+        vo.setTagName(tag.getTagName());
+        vo.setUseCount(tag.getUseCount());
+        return vo;
+    }
+}
@@ -0,0 +1,81 @@
+package cn.wekyjay.wknetic.admin.forum.service;
+
+import cn.wekyjay.wknetic.admin.forum.document.PostDocument;
+import cn.wekyjay.wknetic.common.domain.SysUser;
+import cn.wekyjay.wknetic.common.mapper.ForumTopicMapper;
+import cn.wekyjay.wknetic.common.mapper.SysUserMapper;
+import cn.wekyjay.wknetic.common.model.entity.ForumPost;
+import cn.wekyjay.wknetic.common.model.entity.ForumTopic;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 帖子搜索文档批量组装器
+ * 一批帖子的作者、话题、标签各用一次查询加载
+ *
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Component
+@RequiredArgsConstructor
+public class PostDocumentAssembler {
+
+    private final SysUserMapper userMapper;
+    private final ForumTopicMapper topicMapper;
+    private final TagService tagService;
+    private final ElasticsearchService elasticsearchService;
+
+    /**
+     * 批量组装搜索文档，保持输入顺序
+     *
+     * @param posts 帖子列表
+     * @return 搜索文档列表
+     */
+    public List<PostDocument> assemble(List<ForumPost> posts) {
+        if (posts == null || posts.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> userIds = posts.stream().map(ForumPost::getUserId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, SysUser> userMap = userIds.isEmpty() ? Collections.emptyMap()
+                : userMapper.selectBatchIds(userIds).stream()
+                        .collect(Collectors.toMap(SysUser::getUserId, Function.identity()));
+
+        Set<Long> topicIds = posts.stream().map(ForumPost::getTopicId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, ForumTopic> topicMap = topicIds.isEmpty() ? Collections.emptyMap()
+                : topicMapper.selectBatchIds(topicIds).stream()
+                        .collect(Collectors.toMap(ForumTopic::getTopicId, Function.identity()));
+
+        Map<Long, List<String>> tagMap = tagService.getTagNames(
+                posts.stream().map(ForumPost::getPostId).collect(Collectors.toList()));
+
+        List<PostDocument> documents = new ArrayList<>(posts.size());
+        for (ForumPost post : posts) {
+            SysUser user = userMap.get(post.getUserId());
+            ForumTopic topic = topicMap.get(post.getTopicId());
+            documents.add(elasticsearchService.convertToDocument(
+                    post,
+                    user != null ? user.getUsername() : "Unknown",
+                    topic != null ? topic.getTopicName() : "Unknown",
+                    tagMap.getOrDefault(post.getPostId(), new ArrayList<>())
+            ));
+        }
+        return documents;
+    }
+
+    /**
+     * 组装单个帖子的搜索文档
+     *
+     * @param post 帖子
+     * @return 搜索文档
+     */
+    public PostDocument assemble(ForumPost post) {
+        return assemble(List.of(post)).get(0);
+    }
+}
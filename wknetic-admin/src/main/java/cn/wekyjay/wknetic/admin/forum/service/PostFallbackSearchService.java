@@ -0,0 +1,160 @@
+package cn.wekyjay.wknetic.admin.forum.service;
+
+import cn.wekyjay.wknetic.common.domain.SysUser;
+import cn.wekyjay.wknetic.common.mapper.ForumPostMapper;
+import cn.wekyjay.wknetic.common.mapper.ForumTopicMapper;
+import cn.wekyjay.wknetic.common.mapper.SysUserMapper;
+import cn.wekyjay.wknetic.common.model.dto.SearchPostDTO;
+import cn.wekyjay.wknetic.common.model.entity.ForumPost;
+import cn.wekyjay.wknetic.common.model.entity.ForumTopic;
+import cn.wekyjay.wknetic.common.model.vo.PostSearchVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 帖子降级搜索服务
+ * <p>
+ * Elasticsearch 不可用时由 {@link ElasticsearchService} 的熔断器切换到这里，
+ * 使用 forum_post 上的 ngram 全文索引（MATCH ... AGAINST，布尔模式，多个词须全部命中）检索标题和正文。
+ * 支持关键词、话题、时间范围和排序，不支持标签过滤和正文高亮，标题中的关键词用 &lt;em&gt; 标记。
+ * 返回的结果都标记为降级结果（degraded=true）。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostFallbackSearchService {
+
+    private final ForumPostMapper postMapper;
+    private final SysUserMapper userMapper;
+    private final ForumTopicMapper topicMapper;
+    private final TagService tagService;
+
+    /** 排序字段 -> 列名（白名单，直接拼入SQL） */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "createTime", "create_time",
+            "updateTime", "update_time",
+            "likeCount", "like_count",
+            "commentCount", "comment_count",
+            "viewCount", "view_count",
+            "bookmarkCount", "bookmark_count");
+
+    /** 全文检索的布尔模式运算符，用户输入中的一律去掉 */
+    private static final Pattern BOOLEAN_OPERATORS = Pattern.compile("[+\\-<>()~*\"@]");
+
+    /**
+     * 按页码搜索
+     *
+     * @param dto 搜索条件
+     * @param page 页码（从0开始）
+     * @param size 每页数量
+     * @return 降级搜索结果
+     */
+    public Page<PostSearchVO> search(SearchPostDTO dto, int page, int size) {
+        String expression = toBooleanQuery(dto.getKeyword());
+        String orderColumn = dto.getSortBy() != null ? SORT_COLUMNS.get(dto.getSortBy()) : null;
+        boolean asc = "asc".equalsIgnoreCase(dto.getSortOrder());
+
+        long total = postMapper.countFulltext(expression, dto.getTopicId(), dto.getStartTime(), dto.getEndTime());
+        List<ForumPost> posts = total == 0 ? Collections.emptyList()
+                : postMapper.selectFulltext(expression, dto.getTopicId(), dto.getStartTime(), dto.getEndTime(),
+                        orderColumn, asc, (long) page * size, size);
+        log.info("降级搜索: keyword={}, total={}", dto.getKeyword(), total);
+        return new PageImpl<>(toSearchVOs(posts, terms(dto.getKeyword())), PageRequest.of(page, size), total);
+    }
+
+    /**
+     * 把用户输入转换为全文检索的布尔模式表达式：去掉运算符，每个词作为必须命中的短语
+     *
+     * @param keyword 用户输入
+     * @return 检索表达式，没有有效词时返回null（不按关键词过滤）
+     */
+    public static String toBooleanQuery(String keyword) {
+        List<String> terms = terms(keyword);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        return terms.stream().map(term -> "+\"" + term + "\"").collect(Collectors.joining(" "));
+    }
+
+    private static List<String> terms(String keyword) {
+        if (keyword == null) {
+            return Collections.emptyList();
+        }
+        String cleaned = BOOLEAN_OPERATORS.matcher(keyword).replaceAll(" ").trim();
+        if (cleaned.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(cleaned.split("\\s+")).distinct().collect(Collectors.toList());
+    }
+
+    private List<PostSearchVO> toSearchVOs(List<ForumPost> posts, List<String> terms) {
+        if (posts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<Long> userIds = posts.stream().map(ForumPost::getUserId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, SysUser> userMap = userIds.isEmpty() ? Collections.emptyMap()
+                : userMapper.selectBatchIds(userIds).stream()
+                        .collect(Collectors.toMap(SysUser::getUserId, Function.identity()));
+        Set<Long> topicIds = posts.stream().map(ForumPost::getTopicId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, ForumTopic> topicMap = topicIds.isEmpty() ? Collections.emptyMap()
+                : topicMapper.selectBatchIds(topicIds).stream()
+                        .collect(Collectors.toMap(ForumTopic::getTopicId, Function.identity()));
+        Map<Long, List<String>> tagMap = tagService.getTagNames(
+                posts.stream().map(ForumPost::getPostId).collect(Collectors.toList()));
+        Pattern highlight = terms.isEmpty() ? null : Pattern.compile(
+                terms.stream().map(Pattern::quote).collect(Collectors.joining("|")),
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+        List<PostSearchVO> records = new ArrayList<>(posts.size());
+        for (ForumPost post : posts) {
+            SysUser user = userMap.get(post.getUserId());
+            ForumTopic topic = topicMap.get(post.getTopicId());
+            Map<String, List<String>> highlights = new HashMap<>();
+            if (highlight != null && post.getTitle() != null) {
+                Matcher matcher = highlight.matcher(post.getTitle());
+                if (matcher.find()) {
+                    highlights.put("title", List.of(matcher.replaceAll(m -> "<em>" + Matcher.quoteReplacement(m.group()) + "</em>")));
+                }
+            }
+            records.add(PostSearchVO.builder()
+                    .postId(post.getPostId())
+                    .title(post.getTitle())
+                    .excerpt(post.getExcerpt())
+                    .userId(post.getUserId())
+                    .username(user != null ? user.getUsername() : "Unknown")
+                    .topicId(post.getTopicId())
+                    .topicName(topic != null ? topic.getTopicName() : "Unknown")
+                    .tags(tagMap.getOrDefault(post.getPostId(), new ArrayList<>()))
+                    .status(post.getStatus())
+                    .isPinned(post.getIsPinned())
+                    .isHot(post.getIsHot())
+                    .likeCount(post.getLikeCount())
+                    .commentCount(post.getCommentCount())
+                    .viewCount(post.getViewCount())
+                    .bookmarkCount(post.getBookmarkCount())
+                    .createTime(post.getCreateTime())
+                    .updateTime(post.getUpdateTime())
+                    .lastCommentTime(post.getLastCommentTime())
+                    .highlights(highlights)
+                    .degraded(true)
+                    .build());
+        }
+        return records;
+    }
+}
@@ -0,0 +1,255 @@
+package cn.wekyjay.wknetic.admin.forum.service;
+
+import cn.wekyjay.wknetic.auth.utils.SecurityUtils;
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
+import cn.wekyjay.wknetic.common.mapper.ForumPostMapper;
+import cn.wekyjay.wknetic.common.mapper.PostHistoryMapper;
+import cn.wekyjay.wknetic.common.model.entity.ForumPost;
+import cn.wekyjay.wknetic.common.model.entity.PostHistory;
+import cn.wekyjay.wknetic.common.model.vo.PostHistoryVO;
+import cn.wekyjay.wknetic.common.utils.TextDiffUtils;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 帖子编辑历史服务
+ * <p>
+ * 每隔 N 个版本保存一次完整快照，其余版本只保存相对上一版本的按行差异。
+ * 重建任意版本时从最近的快照开始依次应用差异，最多回放 N-1 次。
+ * 改动过大（差异不比全文小）时提前保存快照。
+ * 分配版本号前锁定帖子行，同一帖子的编辑和压缩串行执行，(post_id, revision) 唯一约束兜底。
+ * 升级前的全文历史由定时任务压缩编号，查询接口只读取已编号的版本。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostHistoryService {
+
+    private final PostHistoryMapper historyMapper;
+    private final ForumPostMapper postMapper;
+    private final WkNeticProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int COMPACT_BATCH_SIZE = 100;
+
+    /**
+     * 编辑前保存帖子的当前版本
+     *
+     * @param post 编辑前的帖子
+     * @param editorId 编辑者ID
+     * @param changeSummary 修改摘要
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void saveRevision(ForumPost post, Long editorId, String changeSummary) {
+        Long postId = post.getPostId();
+        lockPost(postId);
+        compactPost(postId);
+
+        Integer last = historyMapper.selectMaxRevision(postId);
+        int revision = last == null ? 1 : last + 1;
+        PostHistory previous = last == null ? null : reconstruct(postId, last);
+
+        PostHistory history = new PostHistory();
+        history.setPostId(postId);
+        history.setEditorId(editorId);
+        history.setTitle(post.getTitle());
+        history.setContent(post.getContent());
+        history.setContentHtml(post.getContentHtml());
+        history.setChangeSummary(changeSummary);
+        encodeRevision(history, revision, previous);
+        historyMapper.insert(history);
+    }
+
+    /**
+     * 获取帖子的版本列表（不含内容）
+     *
+     * @param postId 帖子ID
+     * @return 版本列表，按版本号倒序
+     */
+    public List<PostHistoryVO> listRevisions(Long postId) {
+        checkPermission(postId);
+        return historyMapper.selectRevisions(postId).stream()
+                .map(this::convertToVO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 获取帖子指定版本的完整内容
+     *
+     * @param postId 帖子ID
+     * @param revision 版本号
+     * @return 历史版本
+     */
+    public PostHistoryVO getRevision(Long postId, Integer revision) {
+        checkPermission(postId);
+        return convertToVO(reconstruct(postId, revision));
+    }
+
+    /**
+     * 定时将旧的全文历史记录压缩为快照+增量
+     */
+    @Scheduled(initialDelay = 60000, fixedDelayString = "${wknetic.history.compact-interval:3600000}")
+    public void compactLegacyHistory() {
+        try {
+            int posts = 0;
+            int rows = 0;
+            List<Long> postIds;
+            while (!(postIds = historyMapper.selectUncompactedPostIds(COMPACT_BATCH_SIZE)).isEmpty()) {
+                for (Long postId : postIds) {
+                    Integer compacted = transactionTemplate.execute(status -> {
+                        lockPost(postId);
+                        return compactPost(postId);
+                    });
+                    rows += compacted != null ? compacted : 0;
+                }
+                posts += postIds.size();
+            }
+            if (posts > 0) {
+                log.info("帖子编辑历史压缩完成，共处理{}个帖子、{}条记录", posts, rows);
+            }
+        } catch (Exception e) {
+            log.error("帖子编辑历史压缩失败", e);
+        }
+    }
+
+    /**
+     * 锁定帖子行，直到当前事务结束
+     */
+    private void lockPost(Long postId) {
+        postMapper.selectOne(new LambdaQueryWrapper<ForumPost>()
+                .select(ForumPost::getPostId)
+                .eq(ForumPost::getPostId, postId)
+                .last("FOR UPDATE"));
+    }
+
+    /**
+     * 将帖子尚未编号的全文历史记录按时间顺序编号，并按快照间隔改写为增量
+     * 调用方需在事务中先锁定帖子行；中断后下次从已编号的最大版本继续
+     *
+     * @param postId 帖子ID
+     * @return 处理的记录数
+     */
+    private int compactPost(Long postId) {
+        List<PostHistory> legacy = historyMapper.selectList(new LambdaQueryWrapper<PostHistory>()
+                .eq(PostHistory::getPostId, postId)
+                .isNull(PostHistory::getRevision)
+                .orderByAsc(PostHistory::getHistoryId));
+        if (legacy.isEmpty()) {
+            return 0;
+        }
+
+        Integer last = historyMapper.selectMaxRevision(postId);
+        int revision = last == null ? 0 : last;
+        PostHistory previous = revision > 0 ? reconstruct(postId, revision) : null;
+        for (PostHistory row : legacy) {
+            PostHistory update = new PostHistory();
+            update.setHistoryId(row.getHistoryId());
+            update.setContent(row.getContent());
+            update.setContentHtml(row.getContentHtml());
+            encodeRevision(update, ++revision, previous);
+            historyMapper.updateById(update);
+            previous = row;
+        }
+        return legacy.size();
+    }
+
+    /**
+     * 设置版本号，并在不需要快照时将全文改写为相对上一版本的增量
+     *
+     * @param history 内容为全文的历史记录
+     * @param revision 版本号
+     * @param previous 上一版本（全文），没有时为null
+     */
+    private void encodeRevision(PostHistory history, int revision, PostHistory previous) {
+        history.setRevision(revision);
+        history.setIsSnapshot(true);
+        if (previous == null || (revision - 1) % properties.getHistory().getSnapshotInterval() == 0) {
+            return;
+        }
+
+        String contentDelta = TextDiffUtils.diff(previous.getContent(), history.getContent());
+        String htmlDelta = history.getContentHtml() == null ? null
+                : TextDiffUtils.diff(previous.getContentHtml(), history.getContentHtml());
+        if (contentDelta == null || (history.getContentHtml() != null && htmlDelta == null)) {
+            return;
+        }
+        int fullSize = length(history.getContent()) + length(history.getContentHtml());
+        if (length(contentDelta) + length(htmlDelta) >= fullSize) {
+            return;
+        }
+        history.setIsSnapshot(false);
+        history.setContent(contentDelta);
+        history.setContentHtml(htmlDelta);
+    }
+
+    /**
+     * 从最近的快照开始回放增量，重建指定版本的全文
+     */
+    private PostHistory reconstruct(Long postId, Integer revision) {
+        List<PostHistory> chain = historyMapper.selectReplayChain(postId, revision);
+        if (chain.isEmpty() || !revision.equals(chain.get(chain.size() - 1).getRevision())) {
+            throw new RuntimeException("历史版本不存在");
+        }
+        if (!Boolean.TRUE.equals(chain.get(0).getIsSnapshot())) {
+            throw new RuntimeException("历史版本数据不完整");
+        }
+
+        PostHistory state = null;
+        for (PostHistory row : chain) {
+            if (Boolean.TRUE.equals(row.getIsSnapshot())) {
+                state = row;
+                continue;
+            }
+            row.setContent(TextDiffUtils.patch(state.getContent(), row.getContent()));
+            row.setContentHtml(row.getContentHtml() == null ? null
+                    : TextDiffUtils.patch(state.getContentHtml(), row.getContentHtml()));
+            row.setIsSnapshot(true);
+            state = row;
+        }
+        return state;
+    }
+
+    /**
+     * 只有作者或管理员可以查看编辑历史
+     */
+    private void checkPermission(Long postId) {
+        ForumPost post = postMapper.selectById(postId);
+        if (post == null) {
+            throw new RuntimeException("帖子不存在");
+        }
+        Long userId = SecurityUtils.getCurrentUserId();
+        if (!post.getUserId().equals(userId) && !SecurityUtils.isAdmin()) {
+            throw new RuntimeException("无权查看此帖子的编辑历史");
+        }
+    }
+
+    private PostHistoryVO convertToVO(PostHistory history) {
+        PostHistoryVO vo = new PostHistoryVO();
+        vo.setHistoryId(history.getHistoryId());
+        vo.setPostId(history.getPostId());
+        vo.setRevision(history.getRevision());
+        vo.setEditorId(history.getEditorId());
+        vo.setTitle(history.getTitle());
+        vo.setContent(history.getContent());
+        vo.setContentHtml(history.getContentHtml());
+        vo.setChangeSummary(history.getChangeSummary());
+        vo.setCreateTime(history.getCreateTime());
+        return vo;
+    }
+
+    private int length(String text) {
+        return text == null ? 0 : text.length();
+    }
+}
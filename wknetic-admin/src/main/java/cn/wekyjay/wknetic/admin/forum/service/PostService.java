@@ -1,6 +1,6 @@
 package cn.wekyjay.wknetic.admin.forum.service;
 
-import cn.wekyjay.wknetic.admin.forum.document.PostDocument;
+import cn.wekyjay.wknetic.admin.system.service.DailyStatsService;
 import cn.wekyjay.wknetic.community.event.EventPublisher;
 import cn.wekyjay.wknetic.community.event.post.*;
 import cn.wekyjay.wknetic.common.domain.SysUser;
@@ -31,6 +31,8 @@
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -50,10 +52,14 @@ public class PostService extends ServiceImpl<ForumPostMapper, ForumPost> {
     private final PostTagMapper postTagMapper;
     private final PostLikeMapper postLikeMapper;
     private final PostBookmarkMapper postBookmarkMapper;
-    private final PostHistoryMapper postHistoryMapper;
+    private final PostHistoryService postHistoryService;
     private final SysUserMapper sysUserMapper;
     private final EventPublisher eventPublisher;
     private final ElasticsearchService elasticsearchService;
+    private final HotPostService hotPostService;
+    private final PostAssembler postAssembler;
+    private final TagService tagService;
+    private final DailyStatsService dailyStatsService;
     
     /**
      * 创建帖子
@@ -101,7 +107,7 @@ public Long createPost(CreatePostDTO dto) {
         
         // 处理标签
         if (dto.getTags() != null && !dto.getTags().isEmpty()) {
-            handlePostTags(post.getPostId(), dto.getTags());
+            tagService.attachTags(post.getPostId(), dto.getTags());
         }
         
         // 注意：这里不更新话题帖子数，因为帖子处于审核状态
@@ -142,7 +148,7 @@ public void updatePost(Long postId, UpdatePostDTO dto) {
         }
         
         // 保存编辑历史
-        savePostHistory(oldPost, userId, dto.getChangeSummary());
+        postHistoryService.saveRevision(oldPost, userId, dto.getChangeSummary());
         
         // 更新帖子
         ForumPost post = new ForumPost();
@@ -165,15 +171,9 @@ public void updatePost(Long postId, UpdatePostDTO dto) {
         
         postMapper.updateById(post);
         
-        // 更新标签
+        // 更新标签（只增删差异部分，并同步调整使用次数）
         if (dto.getTags() != null) {
-            // 删除旧标签关联
-            postTagMapper.delete(new LambdaQueryWrapper<PostTag>()
-                    .eq(PostTag::getPostId, postId));
-            // 添加新标签
-            if (!dto.getTags().isEmpty()) {
-                handlePostTags(postId, dto.getTags());
-            }
+            tagService.replaceTags(postId, dto.getTags());
         }
         
         // 发布更新事件
@@ -208,6 +208,9 @@ public void deletePost(Long postId) {
         update.setPostId(postId);
         update.setStatus(ForumPost.Status.DELETED.getCode());
         postMapper.updateById(update);
+        if (post.getStatus() == ForumPost.Status.PUBLISHED.getCode()) {
+            dailyStatsService.adjustTotal(DailyStatsService.TOTAL_POSTS, -1);
+        }
         
         // 更新话题计数
         topicMapper.decrementPostCount(post.getTopicId());
@@ -234,6 +237,9 @@ public PostDetailVO getPostDetail(Long postId) {
         
         // 增加浏览数
         postMapper.incrementViewCount(postId);
+        eventPublisher.publishEvent(new PostViewedEvent(
+                this, postId, post.getTopicId(), SecurityUtils.getCurrentUserId()
+        ));
         
         PostDetailVO vo = new PostDetailVO();
         vo.setPostId(post.getPostId());
@@ -410,66 +416,39 @@ public IPage<PostVO> listPosts(int page, int size, Long topicId, Integer status)
         
         IPage<ForumPost> postPage = postMapper.selectPage(pageParam, wrapper);
         
-        // 转换为VO，加载关联数据
-        Long userId = SecurityUtils.getCurrentUserId();
-        return postPage.convert(post -> convertPostToVO(post, userId));
+        // 批量加载关联数据并转换为VO
+        Page<PostVO> voPage = new Page<>(postPage.getCurrent(), postPage.getSize(), postPage.getTotal());
+        voPage.setRecords(postAssembler.assemble(postPage.getRecords(), SecurityUtils.getCurrentUserId()));
+        return voPage;
     }
     
     /**
-     * 将ForumPost转换为PostVO，包含关联数据
+     * 分页查询热门帖子
+     * 直接按热度排行榜（Redis ZSET）分页读取，不扫描帖子表
+     *
+     * @param page 页码
+     * @param size 每页大小
+     * @param topicId 话题ID（可选，为空表示全站）
+     * @return 按热度倒序的帖子列表
      */
-    private PostVO convertPostToVO(ForumPost post, Long userId) {
-        PostVO vo = new PostVO();
-        vo.setPostId(post.getPostId());
-        vo.setUserId(post.getUserId());
-        vo.setTitle(post.getTitle());
-        vo.setExcerpt(post.getExcerpt());
-        vo.setStatus(post.getStatus());
-        vo.setIsPinned(post.getIsPinned());
-        vo.setIsHot(post.getIsHot());
-        vo.setLikeCount(post.getLikeCount());
-        vo.setCommentCount(post.getCommentCount());
-        vo.setViewCount(post.getViewCount());
-        vo.setBookmarkCount(post.getBookmarkCount());
-        vo.setLastCommentTime(post.getLastCommentTime());
-        vo.setCreateTime(post.getCreateTime());
-        vo.setUpdateTime(post.getUpdateTime());
-        
-        // 查询作者信息
-        SysUser author = sysUserMapper.selectById(post.getUserId());
-        if (author != null) {
-            vo.setAuthor(convertUserToVO(author));
-        }
-        
-        // 查询话题信息
-        if (post.getTopicId() != null) {
-            ForumTopic topic = topicMapper.selectById(post.getTopicId());
-            if (topic != null) {
-                vo.setTopic(convertTopicToVO(topic));
-            }
+    public IPage<PostVO> listHotPosts(int page, int size, Long topicId) {
+        page = Math.max(page, 1);
+        Page<PostVO> result = new Page<>(page, size, hotPostService.countHotPosts(topicId));
+        List<Long> postIds = hotPostService.getHotPostIds(topicId, (long) (page - 1) * size, size);
+        if (postIds.isEmpty()) {
+            result.setRecords(new ArrayList<>());
+            return result;
         }
         
-        // 查询标签信息
-        List<PostTag> postTags = postTagMapper.selectList(
-                new LambdaQueryWrapper<PostTag>()
-                        .eq(PostTag::getPostId, post.getPostId())
-        );
-        if (!postTags.isEmpty()) {
-            List<Long> tagIds = postTags.stream().map(PostTag::getTagId).collect(Collectors.toList());
-            List<ForumTag> tags = tagMapper.selectList(
-                    new LambdaQueryWrapper<ForumTag>()
-                            .in(ForumTag::getTagId, tagIds)
-            );
-            vo.setTags(tags.stream().map(this::convertTagToVO).collect(Collectors.toList()));
-        }
-        
-        // 检查当前用户是否点赞/收藏
-        if (userId != null) {
-            vo.setIsLiked(checkUserLiked(post.getPostId(), userId));
-            vo.setIsBookmarked(checkUserBookmarked(post.getPostId(), userId));
-        }
-        
-        return vo;
+        // 按排行顺序组装，过滤掉已下架的帖子
+        Map<Long, ForumPost> postMap = postMapper.selectBatchIds(postIds).stream()
+                .collect(Collectors.toMap(ForumPost::getPostId, Function.identity()));
+        List<ForumPost> posts = postIds.stream()
+                .map(postMap::get)
+                .filter(post -> post != null && post.getStatus() == ForumPost.Status.PUBLISHED.getCode())
+                .collect(Collectors.toList());
+        result.setRecords(postAssembler.assemble(posts, SecurityUtils.getCurrentUserId()));
+        return result;
     }
     
     /**
@@ -526,49 +505,6 @@ public boolean toggleLike(Long postId) {
         return liked;
     }
     
-    /**
-     * 处理帖子标签
-     */
-    private void handlePostTags(Long postId, List<String> tagNames) {
-        for (String tagName : tagNames) {
-            // 查找或创建标签
-            ForumTag tag = tagMapper.selectOne(
-                    new LambdaQueryWrapper<ForumTag>()
-                            .eq(ForumTag::getTagName, tagName)
-            );
-            
-            if (tag == null) {
-                tag = new ForumTag();
-                tag.setTagName(tagName);
-                tag.setUseCount(0);
-                tagMapper.insert(tag);
-            }
-            
-            // 创建关联
-            PostTag postTag = new PostTag();
-            postTag.setPostId(postId);
-            postTag.setTagId(tag.getTagId());
-            postTagMapper.insert(postTag);
-            
-            // 增加使用次数
-            tagMapper.incrementUseCount(tag.getTagId());
-        }
-    }
-    
-    /**
-     * 保存编辑历史
-     */
-    private void savePostHistory(ForumPost post, Long editorId, String changeSummary) {
-        PostHistory history = new PostHistory();
-        history.setPostId(post.getPostId());
-        history.setEditorId(editorId);
-        history.setTitle(post.getTitle());
-        history.setContent(post.getContent());
-        history.setContentHtml(post.getContentHtml());
-        history.setChangeSummary(changeSummary);
-        postHistoryMapper.insert(history);
-    }
-    
     /**
      * 检查用户是否点赞
      */
@@ -595,47 +531,12 @@ private boolean checkUserBookmarked(Long postId, Long userId) {
      * 搜索帖子（基于Elasticsearch）
      */
     public IPage<PostSearchVO> searchPosts(SearchPostDTO dto) {
-        // 调用Elasticsearch服务进行搜索
-        org.springframework.data.domain.Page<PostDocument> esPage = elasticsearchService.searchPosts(
-            dto.getKeyword(),
-            dto.getTopicId(),
-            dto.getTags(),
-            dto.getStatus(),
-            dto.getStartTime(),
-            dto.getEndTime(),
-            dto.getSortBy(),
-            dto.getSortOrder(),
-            dto.getPage(),
-            dto.getSize()
-        );
-        
-        // 转换为 PostSearchVO
-        List<PostSearchVO> voList = esPage.getContent().stream()
-            .map(doc -> PostSearchVO.builder()
-                .postId(doc.getPostId())
-                .title(doc.getTitle())
-                .excerpt(doc.getExcerpt())
-                .userId(doc.getUserId())
-                .username(doc.getUsername())
-                .topicId(doc.getTopicId())
-                .topicName(doc.getTopicName())
-                .tags(doc.getTags())
-                .status(doc.getStatus())
-                .isPinned(doc.getIsPinned())
-                .isHot(doc.getIsHot())
-                .likeCount(doc.getLikeCount())
-                .commentCount(doc.getCommentCount())
-                .viewCount(doc.getViewCount())
-                .bookmarkCount(doc.getBookmarkCount())
-                .createTime(doc.getCreateTime())
-                .updateTime(doc.getUpdateTime())
-                .lastCommentTime(doc.getLastCommentTime())
-                .build())
-            .collect(Collectors.toList());
+        // 调用Elasticsearch服务进行搜索（结果已带相关性得分和高亮片段）
+        org.springframework.data.domain.Page<PostSearchVO> esPage = elasticsearchService.searchPosts(dto);
         
         // 转换为 MyBatis-Plus IPage
         Page<PostSearchVO> page = new Page<>(dto.getPage() + 1, dto.getSize());
-        page.setRecords(voList);
+        page.setRecords(esPage.getContent());
         page.setTotal(esPage.getTotalElements());
         
         return page;
@@ -0,0 +1,450 @@
+package cn.wekyjay.wknetic.admin.forum.service;
+
+import cn.wekyjay.wknetic.admin.system.service.DailyStatsService;
+import cn.wekyjay.wknetic.community.event.EventPublisher;
+import cn.wekyjay.wknetic.community.event.comment.CommentDeletedEvent;
+import cn.wekyjay.wknetic.community.event.post.PostAuditedEvent;
+import cn.wekyjay.wknetic.community.event.post.PostDeletedEvent;
+import cn.wekyjay.wknetic.community.event.post.PostUpdatedEvent;
+import cn.wekyjay.wknetic.community.event.report.ReportCreatedEvent;
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
+import cn.wekyjay.wknetic.common.domain.SysUser;
+import cn.wekyjay.wknetic.common.mapper.*;
+import cn.wekyjay.wknetic.common.model.entity.*;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 举报聚合服务
+ * <p>
+ * 同一对象的举报合并为一个处理项（forum_report_target），审核员按对象处理，一次结束该对象的全部待处理举报。
+ * 每个对象在 Redis 中维护本轮的举报人集合（去重）和计数器（举报人数、加权举报分），
+ * 权重取决于举报人的信誉：历史举报被采纳的比例（新用户为1），审核员固定高权重，新注册账号打折。
+ * 加权举报分和举报人数都达到阈值时自动隐藏内容：帖子转为审核中进入审核队列，评论转为隐藏。
+ * 隐藏的帖子审核后举报随之结束（通过即举报不成立，拒绝即举报成立）。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportAggregationService {
+
+    private final ForumReportMapper reportMapper;
+    private final ForumReportTargetMapper targetMapper;
+    private final ForumPostMapper postMapper;
+    private final ForumCommentMapper commentMapper;
+    private final ForumTopicMapper topicMapper;
+    private final SysUserMapper userMapper;
+    private final NotificationMapper notificationMapper;
+    private final EventPublisher eventPublisher;
+    private final SearchIndexQueue searchIndexQueue;
+    private final DailyStatsService dailyStatsService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final WkNeticProperties properties;
+
+    public static final String TARGET_POST = "POST";
+    public static final String TARGET_COMMENT = "COMMENT";
+
+    private static final String REPORTERS_KEY_PREFIX = "wknetic:report:reporters:";
+    private static final String COUNTER_KEY_PREFIX = "wknetic:report:counter:";
+    private static final String REPUTATION_KEY_PREFIX = "wknetic:report:reputation:";
+    private static final String FIELD_COUNT = "count";
+    private static final String FIELD_SCORE = "score";
+
+    /** 举报计数保留时长，超过时长没有处理的对象重新计数 */
+    private static final Duration COUNTER_TTL = Duration.ofDays(30);
+    private static final Duration REPUTATION_TTL = Duration.ofHours(1);
+
+    private static final int COMMENT_NORMAL = 1;
+    private static final int COMMENT_DELETED = 2;
+    private static final int COMMENT_HIDDEN = 3;
+
+    /**
+     * 登记举报人，同一对象的本轮举报中每人只能举报一次
+     *
+     * @param targetType 对象类型
+     * @param targetId 对象ID
+     * @param reporterId 举报人ID
+     * @return 是否首次举报；Redis 不可用时返回null，由调用方查库判断
+     */
+    public Boolean markReporter(String targetType, Long targetId, Long reporterId) {
+        try {
+            String key = REPORTERS_KEY_PREFIX + targetType + ":" + targetId;
+            Long added = stringRedisTemplate.opsForSet().add(key, String.valueOf(reporterId));
+            stringRedisTemplate.expire(key, COUNTER_TTL);
+            return added != null && added > 0;
+        } catch (Exception e) {
+            log.warn("登记举报人失败: target={}:{}", targetType, targetId, e);
+            return null;
+        }
+    }
+
+    /**
+     * 撤销举报人登记（举报写入失败时）
+     *
+     * @param targetType 对象类型
+     * @param targetId 对象ID
+     * @param reporterId 举报人ID
+     */
+    public void unmarkReporter(String targetType, Long targetId, Long reporterId) {
+        try {
+            stringRedisTemplate.opsForSet().remove(REPORTERS_KEY_PREFIX + targetType + ":" + targetId, String.valueOf(reporterId));
+        } catch (Exception e) {
+            log.warn("撤销举报人登记失败: target={}:{}", targetType, targetId, e);
+        }
+    }
+
+    /**
+     * 累计一次举报，达到阈值时自动隐藏内容
+     *
+     * @param event 举报创建事件
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void record(ReportCreatedEvent event) {
+        String targetType = event.getTargetType();
+        Long targetId = event.getTargetId();
+        double weight = getReputation(event.getReporterId());
+        targetMapper.increment(targetType, targetId, weight, event.getReason(), event.getEventTime());
+
+        String counterKey = COUNTER_KEY_PREFIX + targetType + ":" + targetId;
+        Long count = stringRedisTemplate.opsForHash().increment(counterKey, FIELD_COUNT, 1);
+        Double score = stringRedisTemplate.opsForHash().increment(counterKey, FIELD_SCORE, weight);
+        stringRedisTemplate.expire(counterKey, COUNTER_TTL);
+
+        WkNeticProperties.Report config = properties.getReport();
+        if (count != null && score != null
+                && count >= config.getHideMinReporters() && score >= config.getHideScore()) {
+            hide(targetType, targetId, count, score);
+        }
+    }
+
+    /**
+     * 举报人信誉权重，缓存一小时，举报被处理后失效
+     *
+     * @param reporterId 举报人ID
+     * @return 权重
+     */
+    public double getReputation(Long reporterId) {
+        String key = REPUTATION_KEY_PREFIX + reporterId;
+        String cached = stringRedisTemplate.opsForValue().get(key);
+        if (cached != null) {
+            return Double.parseDouble(cached);
+        }
+        WkNeticProperties.Report config = properties.getReport();
+        double weight;
+        SysUser user = userMapper.getUserWithRoleById(reporterId);
+        if (user != null && ("ADMIN".equals(user.getRole()) || "MODERATOR".equals(user.getRole()))) {
+            weight = config.getModeratorWeight();
+        } else {
+            long accepted = reportMapper.selectCount(new LambdaQueryWrapper<ForumReport>()
+                    .eq(ForumReport::getReporterId, reporterId)
+                    .eq(ForumReport::getStatus, ForumReport.Status.HANDLED.getCode()));
+            long rejected = reportMapper.selectCount(new LambdaQueryWrapper<ForumReport>()
+                    .eq(ForumReport::getReporterId, reporterId)
+                    .eq(ForumReport::getStatus, ForumReport.Status.REJECTED.getCode()));
+            // 采纳率的平滑估计，没有历史时为1
+            weight = 2.0 * (accepted + 1) / (accepted + rejected + 2);
+            if (user != null && isNewAccount(user.getCreateTime(), config.getNewAccountDays())) {
+                weight *= config.getNewAccountFactor();
+            }
+            weight = Math.max(config.getMinReputation(), Math.min(config.getMaxReputation(), weight));
+        }
+        stringRedisTemplate.opsForValue().set(key, String.valueOf(weight), REPUTATION_TTL);
+        return weight;
+    }
+
+    /**
+     * 分页查询举报处理项，按加权举报分从高到低
+     *
+     * @param page 页码
+     * @param size 每页数量
+     * @param status 处理状态（可选）
+     * @return 举报处理项
+     */
+    public IPage<ForumReportTarget> getTargets(int page, int size, Integer status) {
+        LambdaQueryWrapper<ForumReportTarget> queryWrapper = new LambdaQueryWrapper<ForumReportTarget>()
+                .orderByDesc(ForumReportTarget::getScore)
+                .orderByDesc(ForumReportTarget::getLastReportTime);
+        if (status != null) {
+            queryWrapper.eq(ForumReportTarget::getStatus, status);
+        }
+        return targetMapper.selectPage(new Page<>(page, size), queryWrapper);
+    }
+
+    /**
+     * 待处理的举报处理项数量
+     *
+     * @return 数量
+     */
+    public Long countPendingTargets() {
+        return targetMapper.selectCount(new LambdaQueryWrapper<ForumReportTarget>()
+                .eq(ForumReportTarget::getStatus, ForumReport.Status.PENDING.getCode()));
+    }
+
+    /**
+     * 处理对象的全部待处理举报
+     * 采纳时删除内容，驳回时恢复自动隐藏的内容
+     *
+     * @param targetType 对象类型
+     * @param targetId 对象ID
+     * @param accepted 是否采纳
+     * @param handlerId 处理人ID
+     * @param handleNote 处理备注
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void resolve(String targetType, Long targetId, boolean accepted, Long handlerId, String handleNote) {
+        if (!resolveReports(targetType, targetId, accepted, handlerId, handleNote, true)) {
+            throw new RuntimeException("该举报已处理");
+        }
+    }
+
+    /**
+     * 自动隐藏的帖子审核完成后结束它的举报：审核通过即举报不成立，审核拒绝即举报成立
+     *
+     * @param event 帖子审核事件
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void onPostAudited(PostAuditedEvent event) {
+        ForumReportTarget target = targetMapper.selectTarget(TARGET_POST, event.getPostId());
+        if (target == null || target.getStatus() != ForumReport.Status.PENDING.getCode()
+                || !Boolean.TRUE.equals(target.getHidden())) {
+            return;
+        }
+        String note = event.isApproved() ? "帖子审核通过" : "帖子审核未通过：" + event.getRemark();
+        resolveReports(TARGET_POST, event.getPostId(), !event.isApproved(), event.getAuditorId(), note, false);
+    }
+
+    /**
+     * 结束本轮举报
+     *
+     * @param applyToContent 是否按结果处理内容（审核已经处理过内容时为false）
+     * @return 是否有待处理的举报
+     */
+    private boolean resolveReports(String targetType, Long targetId, boolean accepted, Long handlerId,
+                                   String handleNote, boolean applyToContent) {
+        ForumReportTarget target = targetMapper.selectTarget(targetType, targetId);
+        List<Long> reporterIds = reportMapper.selectPendingReporterIds(targetType, targetId);
+        boolean targetPending = target != null && target.getStatus() == ForumReport.Status.PENDING.getCode();
+        if (reporterIds.isEmpty() && !targetPending) {
+            return false;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int status = accepted ? ForumReport.Status.HANDLED.getCode() : ForumReport.Status.REJECTED.getCode();
+        reportMapper.resolvePending(targetType, targetId, status, handlerId, now, handleNote);
+        targetMapper.resolve(targetType, targetId, status, handlerId, now, handleNote);
+
+        String reason = target != null ? target.getLastReason() : handleNote;
+        if (applyToContent) {
+            if (accepted) {
+                removeContent(targetType, targetId, handlerId, reason);
+            } else if (target != null && Boolean.TRUE.equals(target.getHidden())) {
+                restoreContent(targetType, targetId, target.getHiddenFromStatus());
+            }
+        }
+
+        List<Notification> notifications = new ArrayList<>(reporterIds.size());
+        String message = accepted ? "您的举报已被处理，举报内容已被删除"
+                : "您的举报未被采纳" + (handleNote != null ? "：" + handleNote : "");
+        for (Long reporterId : reporterIds) {
+            notifications.add(buildNotification(reporterId, targetId, "举报通知", message));
+        }
+        if (!notifications.isEmpty()) {
+            notificationMapper.insertBatch(notifications);
+        }
+
+        try {
+            stringRedisTemplate.delete(List.of(
+                    COUNTER_KEY_PREFIX + targetType + ":" + targetId,
+                    REPORTERS_KEY_PREFIX + targetType + ":" + targetId));
+            stringRedisTemplate.delete(reporterIds.stream().map(id -> REPUTATION_KEY_PREFIX + id).toList());
+        } catch (Exception e) {
+            log.warn("清理举报计数失败: target={}:{}", targetType, targetId, e);
+        }
+        log.info("举报处理完成: target={}:{}, accepted={}, reporters={}", targetType, targetId, accepted, reporterIds.size());
+        return true;
+    }
+
+    /**
+     * 自动隐藏内容：帖子转为审核中，评论转为隐藏
+     */
+    private void hide(String targetType, Long targetId, long count, double score) {
+        ForumReportTarget target = targetMapper.selectTarget(targetType, targetId);
+        if (target == null || Boolean.TRUE.equals(target.getHidden())
+                || target.getStatus() != ForumReport.Status.PENDING.getCode()) {
+            return;
+        }
+        if (TARGET_POST.equals(targetType)) {
+            ForumPost post = postMapper.selectById(targetId);
+            if (post == null || post.getStatus() != ForumPost.Status.PUBLISHED.getCode()) {
+                return;
+            }
+            int updated = postMapper.update(null, new LambdaUpdateWrapper<ForumPost>()
+                    .eq(ForumPost::getPostId, targetId)
+                    .eq(ForumPost::getStatus, ForumPost.Status.PUBLISHED.getCode())
+                    .set(ForumPost::getStatus, ForumPost.Status.UNDER_REVIEW.getCode())
+                    .set(ForumPost::getUpdateTime, LocalDateTime.now()));
+            if (updated == 0) {
+                return;
+            }
+            targetMapper.markHidden(targetType, targetId, ForumPost.Status.PUBLISHED.getCode());
+            dailyStatsService.adjustTotal(DailyStatsService.TOTAL_POSTS, -1);
+            if (post.getTopicId() != null) {
+                topicMapper.decrementPostCount(post.getTopicId());
+            }
+            notificationMapper.insert(buildNotification(post.getUserId(), targetId, "帖子审核通知",
+                    "您的帖子被多次举报，已暂时隐藏，等待审核员审核"));
+            eventPublisher.publishEvent(new PostUpdatedEvent(this, targetId, null, "被多次举报，自动隐藏待审核"));
+        } else if (TARGET_COMMENT.equals(targetType)) {
+            int updated = commentMapper.update(null, new LambdaUpdateWrapper<ForumComment>()
+                    .eq(ForumComment::getCommentId, targetId)
+                    .eq(ForumComment::getStatus, COMMENT_NORMAL)
+                    .set(ForumComment::getStatus, COMMENT_HIDDEN));
+            if (updated == 0) {
+                return;
+            }
+            targetMapper.markHidden(targetType, targetId, COMMENT_NORMAL);
+            searchIndexQueue.enqueueDelete(SearchIndexQueue.TYPE_COMMENT, targetId);
+        } else {
+            return;
+        }
+        log.info("举报达到阈值，自动隐藏: target={}:{}, reporters={}, score={}", targetType, targetId, count, score);
+    }
+
+    /**
+     * 举报成立，删除内容
+     */
+    private void removeContent(String targetType, Long targetId, Long handlerId, String reason) {
+        if (TARGET_POST.equals(targetType)) {
+            ForumPost post = postMapper.selectById(targetId);
+            if (post == null || post.getStatus() == ForumPost.Status.DELETED.getCode()) {
+                return;
+            }
+            postMapper.update(null, new LambdaUpdateWrapper<ForumPost>()
+                    .eq(ForumPost::getPostId, targetId)
+                    .set(ForumPost::getStatus, ForumPost.Status.DELETED.getCode())
+                    .set(ForumPost::getUpdateTime, LocalDateTime.now()));
+            // 自动隐藏时已经减过板块帖子数和已发布总数
+            if (post.getStatus() == ForumPost.Status.PUBLISHED.getCode()) {
+                dailyStatsService.adjustTotal(DailyStatsService.TOTAL_POSTS, -1);
+                if (post.getTopicId() != null) {
+                    topicMapper.decrementPostCount(post.getTopicId());
+                }
+            }
+            notificationMapper.insert(buildNotification(post.getUserId(), targetId, "举报通知",
+                    "您的帖子因违规被删除：" + reason));
+            eventPublisher.publishEvent(new PostDeletedEvent(this, targetId, post.getUserId(), handlerId, "举报属实"));
+        } else if (TARGET_COMMENT.equals(targetType)) {
+            ForumComment comment = commentMapper.selectById(targetId);
+            if (comment == null || Integer.valueOf(COMMENT_DELETED).equals(comment.getStatus())) {
+                return;
+            }
+            ForumComment update = new ForumComment();
+            update.setCommentId(targetId);
+            update.setStatus(COMMENT_DELETED);
+            commentMapper.updateById(update);
+            postMapper.decrementCommentCount(comment.getPostId());
+            // 自动隐藏不减父评论的回复数，正常和已隐藏的评论都在这里减
+            if (comment.getParentId() != null && !Integer.valueOf(COMMENT_DELETED).equals(comment.getStatus())) {
+                commentMapper.decrementReplyCount(comment.getParentId());
+            }
+            notificationMapper.insert(buildNotification(comment.getUserId(), targetId, "举报通知",
+                    "您的评论因违规被删除：" + reason));
+            eventPublisher.publishEvent(new CommentDeletedEvent(this, targetId, comment.getPostId(),
+                    comment.getUserId(), handlerId, "举报属实"));
+        }
+    }
+
+    /**
+     * 举报不成立，恢复自动隐藏的内容
+     */
+    private void restoreContent(String targetType, Long targetId, Integer fromStatus) {
+        if (fromStatus == null) {
+            return;
+        }
+        if (TARGET_POST.equals(targetType)) {
+            ForumPost post = postMapper.selectById(targetId);
+            if (post == null) {
+                return;
+            }
+            int updated = postMapper.update(null, new LambdaUpdateWrapper<ForumPost>()
+                    .eq(ForumPost::getPostId, targetId)
+                    .eq(ForumPost::getStatus, ForumPost.Status.UNDER_REVIEW.getCode())
+                    .set(ForumPost::getStatus, fromStatus)
+                    .set(ForumPost::getUpdateTime, LocalDateTime.now()));
+            if (updated > 0) {
+                if (fromStatus == ForumPost.Status.PUBLISHED.getCode()) {
+                    dailyStatsService.adjustTotal(DailyStatsService.TOTAL_POSTS, 1);
+                }
+                if (post.getTopicId() != null) {
+                    topicMapper.incrementPostCount(post.getTopicId());
+                }
+                republishAfterCommit(targetId);
+                eventPublisher.publishEvent(new PostUpdatedEvent(this, targetId, null, "举报不成立，恢复显示"));
+            }
+        } else if (TARGET_COMMENT.equals(targetType)) {
+            int updated = commentMapper.update(null, new LambdaUpdateWrapper<ForumComment>()
+                    .eq(ForumComment::getCommentId, targetId)
+                    .eq(ForumComment::getStatus, COMMENT_HIDDEN)
+                    .set(ForumComment::getStatus, fromStatus));
+            if (updated > 0) {
+                searchIndexQueue.enqueueIndex(SearchIndexQueue.TYPE_COMMENT, targetId);
+            }
+        }
+    }
+
+    /**
+     * 恢复显示的帖子在事务提交后重建索引（隐藏时其评论已从索引删除）
+     */
+    private void republishAfterCommit(Long postId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    searchIndexQueue.enqueueRepublish(postId);
+                }
+            });
+        } else {
+            searchIndexQueue.enqueueRepublish(postId);
+        }
+    }
+
+    private static boolean isNewAccount(Date createTime, int days) {
+        if (createTime == null) {
+            return false;
+        }
+        LocalDateTime registered = LocalDateTime.ofInstant(createTime.toInstant(), ZoneId.systemDefault());
+        return registered.isAfter(LocalDateTime.now().minusDays(days));
+    }
+
+    private static Notification buildNotification(Long userId, Long relatedId, String title, String message) {
+        Notification notification = new Notification();
+        notification.setUserId(userId);
+        notification.setType(Notification.Type.SYSTEM.getCode());
+        notification.setTitle(title);
+        notification.setContent(message);
+        notification.setRelatedId(relatedId);
+        notification.setIsRead(false);
+        notification.setCreateTime(LocalDateTime.now());
+        return notification;
+    }
+}
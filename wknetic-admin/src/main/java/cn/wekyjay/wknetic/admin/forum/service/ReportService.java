@@ -2,13 +2,14 @@
 
 import cn.wekyjay.wknetic.community.event.EventPublisher;
 import cn.wekyjay.wknetic.community.event.report.ReportCreatedEvent;
+import cn.wekyjay.wknetic.common.mapper.ForumCommentMapper;
 import cn.wekyjay.wknetic.common.mapper.ForumPostMapper;
 import cn.wekyjay.wknetic.common.mapper.ForumReportMapper;
-import cn.wekyjay.wknetic.common.mapper.NotificationMapper;
 import cn.wekyjay.wknetic.common.model.dto.CreateReportDTO;
+import cn.wekyjay.wknetic.common.model.entity.ForumComment;
 import cn.wekyjay.wknetic.common.model.entity.ForumPost;
 import cn.wekyjay.wknetic.common.model.entity.ForumReport;
-import cn.wekyjay.wknetic.common.model.entity.Notification;
+import cn.wekyjay.wknetic.common.model.entity.ForumReportTarget;
 import cn.wekyjay.wknetic.auth.utils.SecurityUtils;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
@@ -17,6 +18,8 @@
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 
@@ -32,8 +35,9 @@ public class ReportService {
     
     private final ForumReportMapper reportMapper;
     private final ForumPostMapper postMapper;
-    private final NotificationMapper notificationMapper;
+    private final ForumCommentMapper commentMapper;
     private final EventPublisher eventPublisher;
+    private final ReportAggregationService reportAggregationService;
     
     /**
      * 创建举报
@@ -49,22 +53,39 @@ public Long createReport(CreateReportDTO dto) {
         }
         
         // 检查目标是否存在
-        if ("POST".equals(dto.getTargetType())) {
+        if (ReportAggregationService.TARGET_POST.equals(dto.getTargetType())) {
             ForumPost post = postMapper.selectById(dto.getTargetId());
-            if (post == null) {
+            if (post == null || post.getStatus() == ForumPost.Status.DELETED.getCode()) {
                 throw new RuntimeException("帖子不存在");
             }
+        } else if (ReportAggregationService.TARGET_COMMENT.equals(dto.getTargetType())) {
+            ForumComment comment = commentMapper.selectById(dto.getTargetId());
+            if (comment == null || Integer.valueOf(2).equals(comment.getStatus())) {
+                throw new RuntimeException("评论不存在");
+            }
+        } else {
+            throw new RuntimeException("不支持的举报对象类型");
         }
-        // TODO: 检查其他类型（评论等）
-        
-        // 检查是否已经举报过（同一用户对同一目标只能举报一次）
-        Long count = reportMapper.selectCount(new LambdaQueryWrapper<ForumReport>()
-                .eq(ForumReport::getReporterId, reporterId)
-                .eq(ForumReport::getTargetType, dto.getTargetType())
-                .eq(ForumReport::getTargetId, dto.getTargetId())
-                .in(ForumReport::getStatus, ForumReport.Status.PENDING.getCode()));
         
-        if (count > 0) {
+        // 同一用户对同一目标只能举报一次：Redis 举报人集合判重，不可用时查库
+        Boolean first = reportAggregationService.markReporter(dto.getTargetType(), dto.getTargetId(), reporterId);
+        if (first == null) {
+            first = reportMapper.selectCount(new LambdaQueryWrapper<ForumReport>()
+                    .eq(ForumReport::getReporterId, reporterId)
+                    .eq(ForumReport::getTargetType, dto.getTargetType())
+                    .eq(ForumReport::getTargetId, dto.getTargetId())
+                    .eq(ForumReport::getStatus, ForumReport.Status.PENDING.getCode())) == 0;
+        } else if (first && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        reportAggregationService.unmarkReporter(dto.getTargetType(), dto.getTargetId(), reporterId);
+                    }
+                }
+            });
+        }
+        if (!first) {
             throw new RuntimeException("您已经举报过该内容，请等待处理");
         }
         
@@ -109,14 +130,29 @@ public IPage<ForumReport> getReports(int page, int size, Integer status) {
         return reportMapper.selectPage(pageParam, queryWrapper);
     }
     
+    /**
+     * 获取举报处理项列表（同一对象的举报合并为一项）
+     *
+     * @param page 页码
+     * @param size 每页数量
+     * @param status 处理状态（可选）
+     * @return 举报处理项列表，按加权举报分从高到低
+     */
+    public IPage<ForumReportTarget> getReportTargets(int page, int size, Integer status) {
+        if (!SecurityUtils.isModerator()) {
+            throw new RuntimeException("只有审核员才能查看举报列表");
+        }
+        return reportAggregationService.getTargets(page, size, status);
+    }
+    
     /**
      * 处理举报
+     * 同一对象的举报合并处理，处理任意一条即处理该对象的全部待处理举报
      *
      * @param reportId 举报ID
      * @param action 处理动作（ACCEPT=接受，REJECT=拒绝）
      * @param handleNote 处理备注
      */
-    @Transactional(rollbackFor = Exception.class)
     public void handleReport(Long reportId, String action, String handleNote) {
         if (!SecurityUtils.isModerator()) {
             throw new RuntimeException("只有审核员才能处理举报");
@@ -131,54 +167,32 @@ public void handleReport(Long reportId, String action, String handleNote) {
             throw new RuntimeException("该举报已处理");
         }
         
-        Long handlerId = SecurityUtils.getCurrentUserId();
-        Integer newStatus;
+        handleTarget(report.getTargetType(), report.getTargetId(), action, handleNote);
+    }
+    
+    /**
+     * 处理对象的全部待处理举报
+     *
+     * @param targetType 对象类型
+     * @param targetId 对象ID
+     * @param action 处理动作（ACCEPT=接受，删除内容；REJECT=拒绝，恢复自动隐藏的内容）
+     * @param handleNote 处理备注
+     */
+    public void handleTarget(String targetType, Long targetId, String action, String handleNote) {
+        if (!SecurityUtils.isModerator()) {
+            throw new RuntimeException("只有审核员才能处理举报");
+        }
         
+        boolean accepted;
         if ("ACCEPT".equals(action)) {
-            newStatus = ForumReport.Status.HANDLED.getCode();
-            
-            // 如果举报被接受，需要对目标内容进行处理
-            if ("POST".equals(report.getTargetType())) {
-                // 删除帖子（设置为已删除状态）
-                LambdaUpdateWrapper<ForumPost> updateWrapper = new LambdaUpdateWrapper<ForumPost>()
-                        .eq(ForumPost::getPostId, report.getTargetId())
-                        .set(ForumPost::getStatus, ForumPost.Status.DELETED.getCode())
-                        .set(ForumPost::getUpdateTime, LocalDateTime.now());
-                postMapper.update(null, updateWrapper);
-                
-                // 通知帖子作者
-                ForumPost post = postMapper.selectById(report.getTargetId());
-                if (post != null) {
-                    createReportNotification(post.getUserId(), reportId, 
-                            "您的帖子因违规被删除：" + report.getReason());
-                }
-            }
-            // TODO: 处理其他类型的举报（评论等）
-            
-            // 通知举报者
-            createReportNotification(report.getReporterId(), reportId, 
-                    "您的举报已被处理，举报内容已被删除");
-            
+            accepted = true;
         } else if ("REJECT".equals(action)) {
-            newStatus = ForumReport.Status.REJECTED.getCode();
-            
-            // 通知举报者
-            createReportNotification(report.getReporterId(), reportId, 
-                    "您的举报未被采纳：" + handleNote);
-            
+            accepted = false;
         } else {
             throw new RuntimeException("无效的处理动作");
         }
         
-        // 更新举报状态
-        LambdaUpdateWrapper<ForumReport> updateWrapper = new LambdaUpdateWrapper<ForumReport>()
-                .eq(ForumReport::getReportId, reportId)
-                .set(ForumReport::getStatus, newStatus)
-                .set(ForumReport::getHandlerId, handlerId)
-                .set(ForumReport::getHandleTime, LocalDateTime.now())
-                .set(ForumReport::getHandleRemark, handleNote);
-        
-        reportMapper.update(null, updateWrapper);
+        reportAggregationService.resolve(targetType, targetId, accepted, SecurityUtils.getCurrentUserId(), handleNote);
     }
     
     /**
@@ -212,7 +226,7 @@ public void markAsProcessing(Long reportId) {
     }
     
     /**
-     * 获取待处理举报数量
+     * 获取待处理举报数量（按对象计，同一对象的多条举报算一项）
      *
      * @return 待处理举报数量
      */
@@ -221,23 +235,6 @@ public Long getPendingReportCount() {
             return 0L;
         }
         
-        return reportMapper.selectCount(new LambdaQueryWrapper<ForumReport>()
-                .eq(ForumReport::getStatus, ForumReport.Status.PENDING.getCode()));
-    }
-    
-    /**
-     * 创建举报通知
-     */
-    private void createReportNotification(Long userId, Long reportId, String message) {
-        Notification notification = new Notification();
-        notification.setUserId(userId);
-        notification.setType(Notification.Type.SYSTEM.getCode());
-        notification.setTitle("举报通知");
-        notification.setContent(message);
-        notification.setRelatedId(reportId);
-        notification.setIsRead(false);
-        notification.setCreateTime(LocalDateTime.now());
-        
-        notificationMapper.insert(notification);
+        return reportAggregationService.countPendingTargets();
     }
 }
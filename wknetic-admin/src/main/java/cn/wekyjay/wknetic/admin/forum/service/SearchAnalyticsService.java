@@ -0,0 +1,372 @@
+package cn.wekyjay.wknetic.admin.forum.service;
+
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
+import cn.wekyjay.wknetic.common.model.vo.SearchKeywordStatVO;
+import cn.wekyjay.wknetic.common.utils.CountMinSketch;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 搜索词统计服务
+ * <p>
+ * 每个节点在内存中用 Count-Min Sketch 统计搜索词频率，并按估计值维护本周期的前 K 个高频词；
+ * 定时把 sketch 的非零单元格累加到 Redis 中按小时划分的 Hash（各节点的 sketch 按单元格相加即为合并），
+ * 高频词累加到同一小时的 ZSET 作为候选。查询时从候选中挑选，再用合并后的 sketch 估计次数。
+ * 无结果的搜索词按天单独累计，用于调整分词和同义词。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchAnalyticsService {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final WkNeticProperties properties;
+
+    private static final String CMS_KEY_PREFIX = "wknetic:search:query:cms:";
+    private static final String TOP_KEY_PREFIX = "wknetic:search:query:top:";
+    private static final String ZERO_KEY_PREFIX = "wknetic:search:query:zero:";
+
+    private static final int CMS_WIDTH = 2048;
+    private static final int CMS_DEPTH = 4;
+
+    private static final int MAX_KEYWORD_LENGTH = 50;
+
+    /** 每小时候选ZSET保留的成员数 */
+    private static final int TOP_KEEP = 1000;
+    /** 每天无结果ZSET保留的成员数 */
+    private static final int ZERO_KEEP = 5000;
+    /** 每个周期本地记录的无结果搜索词上限 */
+    private static final int LOCAL_ZERO_CAPACITY = 1000;
+
+    private static final Duration HOURLY_RETENTION = Duration.ofDays(8);
+    private static final Duration DAILY_RETENTION = Duration.ofDays(31);
+
+    /** 趋势榜：近期（小时数）和基线（小时数） */
+    private static final int TRENDING_RECENT_HOURS = 2;
+    private static final int TRENDING_BASELINE_HOURS = 24;
+    /** 趋势榜的最低近期次数，过滤偶发搜索 */
+    private static final long TRENDING_MIN_COUNT = 3;
+
+    private static final DateTimeFormatter HOUR_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHH");
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    /** 当前小时的本地统计 */
+    private Window current;
+    /** 已跨小时、等待写入的本地统计 */
+    private final List<Window> retired = new ArrayList<>();
+
+    /**
+     * 记录一次搜索
+     *
+     * @param keyword 搜索词
+     * @param totalHits 结果总数
+     */
+    public void record(String keyword, long totalHits) {
+        String normalized = normalize(keyword);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        String hour = LocalDateTime.now().format(HOUR_FORMAT);
+        synchronized (this) {
+            if (current == null || !current.hour.equals(hour)) {
+                if (current != null) {
+                    retired.add(current);
+                }
+                current = new Window(hour, properties.getSearch().getAnalyticsTopK());
+            }
+            current.add(normalized, totalHits == 0);
+        }
+    }
+
+    /**
+     * 将本地统计累加到 Redis
+     */
+    @Scheduled(initialDelay = 60000, fixedDelayString = "${wknetic.search.analytics-flush-interval:60000}")
+    public void flush() {
+        List<Window> windows;
+        synchronized (this) {
+            windows = new ArrayList<>(retired);
+            retired.clear();
+            if (current != null) {
+                windows.add(current);
+                current = null;
+            }
+        }
+        for (Window window : windows) {
+            if (window.sketch.total() == 0) {
+                continue;
+            }
+            try {
+                write(window);
+            } catch (Exception e) {
+                log.warn("写入搜索词统计失败，丢弃本周期数据: hour={}, count={}", window.hour, window.sketch.total(), e);
+            }
+        }
+    }
+
+    /**
+     * 关闭前写入剩余的统计
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 最近若干小时的热门搜索词
+     *
+     * @param hours 小时数
+     * @param limit 数量
+     * @return 按次数倒序
+     */
+    public List<SearchKeywordStatVO> getTopQueries(int hours, int limit) {
+        List<String> hourKeys = recentHours(0, hours);
+        List<String> candidates = candidates(hourKeys, limit * 2);
+        Map<String, Long> counts = estimate(candidates, hourKeys);
+        return counts.entrySet().stream()
+                .filter(e -> e.getValue() > 0)
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(limit)
+                .map(e -> new SearchKeywordStatVO(e.getKey(), e.getValue(), null, null))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 趋势搜索词：最近两小时的次数相对前一天平均水平的增幅
+     *
+     * @param limit 数量
+     * @return 按增幅倒序
+     */
+    public List<SearchKeywordStatVO> getTrending(int limit) {
+        List<String> recentKeys = recentHours(0, TRENDING_RECENT_HOURS);
+        List<String> baselineKeys = recentHours(TRENDING_RECENT_HOURS, TRENDING_BASELINE_HOURS);
+        List<String> candidates = candidates(recentKeys, limit * 3);
+        Map<String, Long> recent = estimate(candidates, recentKeys);
+        Map<String, Long> baseline = estimate(candidates, baselineKeys);
+
+        double scale = (double) TRENDING_RECENT_HOURS / TRENDING_BASELINE_HOURS;
+        List<SearchKeywordStatVO> result = new ArrayList<>();
+        for (String keyword : candidates) {
+            long count = recent.getOrDefault(keyword, 0L);
+            if (count < TRENDING_MIN_COUNT) {
+                continue;
+            }
+            double expected = baseline.getOrDefault(keyword, 0L) * scale;
+            // 加一平滑，新出现的词不会得到无穷大的增幅
+            double score = (count + 1) / (expected + 1);
+            result.add(new SearchKeywordStatVO(keyword, count, expected, score));
+        }
+        result.sort(Comparator.comparing(SearchKeywordStatVO::getScore).reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * 最近若干天无结果的搜索词
+     *
+     * @param days 天数
+     * @param limit 数量
+     * @return 按次数倒序
+     */
+    public List<SearchKeywordStatVO> getZeroResultQueries(int days, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> dayKeys = new ArrayList<>();
+        for (int i = 0; i < days; i++) {
+            dayKeys.add(ZERO_KEY_PREFIX + now.minusDays(i).format(DAY_FORMAT));
+        }
+        return sumTop(dayKeys, limit).entrySet().stream()
+                .limit(limit)
+                .map(e -> new SearchKeywordStatVO(e.getKey(), e.getValue(), null, null))
+                .collect(Collectors.toList());
+    }
+
+    private void write(Window window) {
+        String cmsKey = CMS_KEY_PREFIX + window.hour;
+        String topKey = TOP_KEY_PREFIX + window.hour;
+        String zeroKey = ZERO_KEY_PREFIX + window.hour.substring(0, 8);
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                CountMinSketch sketch = window.sketch;
+                for (int cell = 0; cell < sketch.size(); cell++) {
+                    long count = sketch.get(cell);
+                    if (count != 0) {
+                        ops.opsForHash().increment(cmsKey, String.valueOf(cell), count);
+                    }
+                }
+                ops.expire(cmsKey, HOURLY_RETENTION);
+
+                window.topK.forEach((keyword, count) -> ops.opsForZSet().incrementScore(topKey, keyword, count));
+                ops.opsForZSet().removeRange(topKey, 0, -(TOP_KEEP + 1));
+                ops.expire(topKey, HOURLY_RETENTION);
+
+                if (!window.zeroResults.isEmpty()) {
+                    window.zeroResults.forEach((keyword, count) -> ops.opsForZSet().incrementScore(zeroKey, keyword, count));
+                    ops.opsForZSet().removeRange(zeroKey, 0, -(ZERO_KEEP + 1));
+                    ops.expire(zeroKey, DAILY_RETENTION);
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 从若干小时的候选ZSET中取出总分最高的候选词
+     */
+    private List<String> candidates(List<String> hourKeys, int limit) {
+        return new ArrayList<>(sumTop(hourKeys.stream().map(h -> TOP_KEY_PREFIX + h).collect(Collectors.toList()), limit).keySet());
+    }
+
+    /**
+     * 累加多个ZSET的前若干名，按总分倒序
+     */
+    private LinkedHashMap<String, Long> sumTop(List<String> keys, int limit) {
+        List<Object> ranges = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (String key : keys) {
+                    ops.opsForZSet().reverseRangeWithScores(key, 0, Math.max(limit, TOP_KEEP / 5) - 1);
+                }
+                return null;
+            }
+        });
+        Map<String, Long> totals = new HashMap<>();
+        for (Object range : ranges) {
+            if (range instanceof Set<?> tuples) {
+                for (Object tuple : tuples) {
+                    ZSetOperations.TypedTuple<?> typed = (ZSetOperations.TypedTuple<?>) tuple;
+                    if (typed.getValue() != null && typed.getScore() != null) {
+                        totals.merge(String.valueOf(typed.getValue()), typed.getScore().longValue(), Long::sum);
+                    }
+                }
+            }
+        }
+        return totals.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(limit)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * 用合并后的 sketch 估计候选词在若干小时内的总次数
+     */
+    private Map<String, Long> estimate(List<String> keywords, List<String> hourKeys) {
+        if (keywords.isEmpty() || hourKeys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<List<Object>> fields = keywords.stream()
+                .map(keyword -> Arrays.stream(CountMinSketch.cells(keyword, CMS_WIDTH, CMS_DEPTH))
+                        .mapToObj(String::valueOf)
+                        .collect(Collectors.<Object>toList()))
+                .collect(Collectors.toList());
+        List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (List<Object> cells : fields) {
+                    for (String hour : hourKeys) {
+                        ops.opsForHash().multiGet(CMS_KEY_PREFIX + hour, cells);
+                    }
+                }
+                return null;
+            }
+        });
+
+        Map<String, Long> counts = new HashMap<>();
+        int index = 0;
+        for (String keyword : keywords) {
+            long sum = 0;
+            for (int h = 0; h < hourKeys.size(); h++) {
+                Object values = results.get(index++);
+                long min = Long.MAX_VALUE;
+                if (values instanceof List<?> list) {
+                    for (Object value : list) {
+                        min = Math.min(min, value == null ? 0 : Long.parseLong(String.valueOf(value)));
+                    }
+                }
+                sum += min == Long.MAX_VALUE ? 0 : min;
+            }
+            counts.put(keyword, sum);
+        }
+        return counts;
+    }
+
+    /**
+     * 从 offset 小时前开始往前的若干个小时
+     */
+    private List<String> recentHours(int offset, int hours) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> keys = new ArrayList<>(hours);
+        for (int i = offset; i < offset + hours; i++) {
+            keys.add(now.minusHours(i).format(HOUR_FORMAT));
+        }
+        return keys;
+    }
+
+    private String normalize(String keyword) {
+        if (keyword == null) {
+            return "";
+        }
+        String normalized = keyword.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.length() > MAX_KEYWORD_LENGTH ? normalized.substring(0, MAX_KEYWORD_LENGTH) : normalized;
+    }
+
+    /**
+     * 一个小时内本节点的统计（由外层锁保护）
+     */
+    private static final class Window {
+
+        private final String hour;
+        private final int capacity;
+        private final CountMinSketch sketch = new CountMinSketch(CMS_WIDTH, CMS_DEPTH);
+        /** 估计次数最高的前 K 个搜索词 -> 估计次数 */
+        private final Map<String, Long> topK = new HashMap<>();
+        /** 无结果的搜索词 -> 次数 */
+        private final Map<String, Long> zeroResults = new HashMap<>();
+
+        private Window(String hour, int capacity) {
+            this.hour = hour;
+            this.capacity = capacity;
+        }
+
+        private void add(String keyword, boolean zeroResult) {
+            sketch.add(keyword, 1);
+            long estimate = sketch.estimate(keyword);
+            if (topK.containsKey(keyword) || topK.size() < capacity) {
+                topK.put(keyword, estimate);
+            } else {
+                // 估计值超过当前最小的候选时替换它
+                Map.Entry<String, Long> min = Collections.min(topK.entrySet(), Map.Entry.comparingByValue());
+                if (estimate > min.getValue()) {
+                    topK.remove(min.getKey());
+                    topK.put(keyword, estimate);
+                }
+            }
+            if (zeroResult && (zeroResults.containsKey(keyword) || zeroResults.size() < LOCAL_ZERO_CAPACITY)) {
+                zeroResults.merge(keyword, 1L, Long::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package cn.wekyjay.wknetic.admin.forum.service;
+
+import cn.wekyjay.wknetic.admin.forum.document.PostDocument;
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
+import cn.wekyjay.wknetic.common.mapper.ForumPostMapper;
+import cn.wekyjay.wknetic.common.model.entity.ForumPost;
+import cn.wekyjay.wknetic.common.utils.ThreadUtil;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.SourceConfig;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 搜索索引一致性检查服务
+ * <p>
+ * 按帖子ID键集分段，同时读取数据库中的已发布帖子和索引中同一ID区间的文档，
+ * 对每个帖子的状态、置顶/热门、计数和更新时间计算指纹，分段校验和（指纹之和与文档数）一致的直接跳过，
+ * 不一致的分段逐个比对，缺失、过期和多余的帖子交给 {@link SearchIndexQueue} 按数据库状态批量重新同步。
+ * 定时任务每次检查若干分段，断点保存在 Redis 中，下次继续，扫完一轮后从头开始；
+ * 多个节点通过 Redis 锁互斥，索引重建期间不检查。
+ * 刚变更、尚未同步到索引的帖子也会被计为偏差，重新同步是幂等的。
+ * 标题、正文、标签等内容的变更都会更新 update_time，由更新时间覆盖；
+ * 计数变更同样会触发 update_time 自动更新，因此计数的部分更新也一并写入更新时间。
+ * 统计累计在 Redis 中（所有节点），同时以 wknetic.search.consistency.* 计数器暴露本节点的检查结果。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchConsistencyService implements MeterBinder {
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ForumPostMapper postMapper;
+    private final SearchIndexQueue searchIndexQueue;
+    private final SearchReindexService searchReindexService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final WkNeticProperties properties;
+
+    private static final String CURSOR_KEY = "wknetic:search:consistency:cursor";
+    private static final String STATS_KEY = "wknetic:search:consistency:stats";
+    private static final String LOCK_KEY = "wknetic:search:consistency:lock";
+    private static final Duration LOCK_TTL = Duration.ofMinutes(10);
+
+    private static final List<String> STATS_FIELDS =
+            List.of("buckets", "posts", "driftBuckets", "missing", "stale", "orphan", "repaired", "passes");
+
+    /** 本节点的检查统计，供指标使用 */
+    private final Map<String, LongAdder> localStats = new ConcurrentHashMap<>();
+
+    /** 比对只需要参与指纹计算的字段 */
+    private static final SourceConfig CHECK_SOURCE = SourceConfig.of(src -> src.filter(f -> f.includes(
+            "postId", "status", "isPinned", "isHot", "likeCount", "commentCount", "viewCount", "bookmarkCount", "updateTime")));
+
+    /**
+     * 定时增量检查，从上次的断点继续
+     */
+    @Scheduled(initialDelay = 120000, fixedDelayString = "${wknetic.search.consistency-check-interval:300000}")
+    public void check() {
+        if (searchReindexService.isRunning()) {
+            log.debug("索引重建中，跳过一致性检查");
+            return;
+        }
+        String token = tryLock();
+        if (token == null) {
+            return;
+        }
+        execute(token, properties.getSearch().getConsistencyBucketsPerRun(), false);
+    }
+
+    /**
+     * 从头完整检查一轮（异步执行）
+     */
+    public void checkAll() {
+        if (searchReindexService.isRunning()) {
+            throw new RuntimeException("索引重建中，请稍后再检查");
+        }
+        String token = tryLock();
+        if (token == null) {
+            throw new RuntimeException("一致性检查正在进行中");
+        }
+        ThreadUtil.runAsync(() -> execute(token, Integer.MAX_VALUE, true));
+    }
+
+    /**
+     * 检查统计（所有节点累计）
+     *
+     * @return 已检查的分段数和帖子数、有偏差的分段数、缺失/过期/多余的帖子数、已提交修复的帖子数、完成的轮数、当前断点
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (String field : STATS_FIELDS) {
+            stats.put(field, 0L);
+        }
+        stringRedisTemplate.<String, String>opsForHash().entries(STATS_KEY)
+                .forEach((field, value) -> stats.put(field, Long.parseLong(value)));
+        String cursor = stringRedisTemplate.opsForValue().get(CURSOR_KEY);
+        stats.put("cursor", cursor != null ? Long.parseLong(cursor) : 0L);
+        stats.put("running", Boolean.TRUE.equals(stringRedisTemplate.hasKey(LOCK_KEY)));
+        return stats;
+    }
+
+    /**
+     * 注册检查指标：检查的分段和帖子数、有偏差的分段数、按类型区分的偏差帖子数、已提交修复的帖子数、完成的轮数
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "wknetic.search.consistency.buckets", "buckets", "result", "checked");
+        counter(registry, "wknetic.search.consistency.buckets", "driftBuckets", "result", "drift");
+        counter(registry, "wknetic.search.consistency.posts", "posts", "result", "checked");
+        counter(registry, "wknetic.search.consistency.posts", "missing", "result", "missing");
+        counter(registry, "wknetic.search.consistency.posts", "stale", "result", "stale");
+        counter(registry, "wknetic.search.consistency.posts", "orphan", "result", "orphan");
+        counter(registry, "wknetic.search.consistency.posts", "repaired", "result", "repaired");
+        FunctionCounter.builder("wknetic.search.consistency.passes", localStat("passes"), LongAdder::sum)
+                .description("索引一致性检查完成的轮数").register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, String field, String tagKey, String tagValue) {
+        FunctionCounter.builder(name, localStat(field), LongAdder::sum).tag(tagKey, tagValue).register(registry);
+    }
+
+    private LongAdder localStat(String field) {
+        return localStats.computeIfAbsent(field, k -> new LongAdder());
+    }
+
+    /**
+     * 累加检查统计（Redis 中的全局统计和本节点指标）
+     */
+    private void increment(String field, long delta) {
+        stringRedisTemplate.opsForHash().increment(STATS_KEY, field, delta);
+        localStat(field).add(delta);
+    }
+
+    private void execute(String token, int maxBuckets, boolean fromStart) {
+        long cursor = 0L;
+        try {
+            if (!fromStart) {
+                String saved = stringRedisTemplate.opsForValue().get(CURSOR_KEY);
+                cursor = saved != null ? Long.parseLong(saved) : 0L;
+            }
+            for (int i = 0; i < maxBuckets; i++) {
+                cursor = checkBucket(cursor);
+                stringRedisTemplate.opsForValue().set(CURSOR_KEY, String.valueOf(cursor));
+                stringRedisTemplate.expire(LOCK_KEY, LOCK_TTL);
+                if (cursor == 0L) {
+                    increment("passes", 1);
+                    log.info("索引一致性检查完成一轮");
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("索引一致性检查失败: cursor={}", cursor, e);
+        } finally {
+            if (token.equals(stringRedisTemplate.opsForValue().get(LOCK_KEY))) {
+                stringRedisTemplate.delete(LOCK_KEY);
+            }
+        }
+    }
+
+    /**
+     * 检查一个分段：数据库中ID大于 after 的下一批已发布帖子，以及索引中同一ID区间的文档
+     *
+     * @param after 上一分段的最大帖子ID
+     * @return 下一分段的起点，扫描到末尾时返回0
+     */
+    private long checkBucket(long after) throws IOException {
+        int bucketSize = properties.getSearch().getConsistencyBucketSize();
+        List<ForumPost> posts = postMapper.selectList(new LambdaQueryWrapper<ForumPost>()
+                .select(ForumPost::getPostId, ForumPost::getStatus, ForumPost::getIsPinned, ForumPost::getIsHot,
+                        ForumPost::getLikeCount, ForumPost::getCommentCount, ForumPost::getViewCount,
+                        ForumPost::getBookmarkCount, ForumPost::getUpdateTime)
+                .eq(ForumPost::getStatus, ForumPost.Status.PUBLISHED.getCode())
+                .gt(ForumPost::getPostId, after)
+                .orderByAsc(ForumPost::getPostId)
+                .last("LIMIT " + bucketSize));
+        // 最后一个分段不设上界，覆盖索引中ID更大的多余文档
+        Long upper = posts.size() < bucketSize ? null : posts.get(posts.size() - 1).getPostId();
+
+        Map<Long, Long> expected = new HashMap<>();
+        for (ForumPost post : posts) {
+            expected.put(post.getPostId(), fingerprint(post.getPostId(), post.getStatus(), post.getIsPinned(),
+                    post.getIsHot(), post.getLikeCount(), post.getCommentCount(), post.getViewCount(),
+                    post.getBookmarkCount(), post.getUpdateTime()));
+        }
+        Map<Long, Long> actual = fetchIndexed(after, upper, bucketSize);
+
+        Map<String, Long> counters = new HashMap<>();
+        counters.put("buckets", 1L);
+        counters.put("posts", (long) expected.size());
+        if (expected.size() != actual.size() || checksum(expected) != checksum(actual)) {
+            List<Long> drifted = new ArrayList<>();
+            long missing = 0L;
+            long stale = 0L;
+            for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+                Long indexed = actual.get(entry.getKey());
+                if (indexed == null) {
+                    missing++;
+                    drifted.add(entry.getKey());
+                } else if (!indexed.equals(entry.getValue())) {
+                    stale++;
+                    drifted.add(entry.getKey());
+                }
+            }
+            long orphan = 0L;
+            for (Long postId : actual.keySet()) {
+                if (!expected.containsKey(postId)) {
+                    orphan++;
+                    drifted.add(postId);
+                }
+            }
+            // 重建操作按数据库状态处理：已发布的写入，其余的从索引删除
+            drifted.forEach(searchIndexQueue::enqueueIndex);
+            counters.put("driftBuckets", 1L);
+            counters.put("missing", missing);
+            counters.put("stale", stale);
+            counters.put("orphan", orphan);
+            counters.put("repaired", (long) drifted.size());
+            log.warn("索引偏差: 区间=({}, {}], 缺失={}, 过期={}, 多余={}",
+                    after, upper != null ? upper : "∞", missing, stale, orphan);
+        }
+        counters.forEach((field, delta) -> {
+            if (delta > 0) {
+                increment(field, delta);
+            }
+        });
+        return upper != null ? upper : 0L;
+    }
+
+    /**
+     * 按帖子ID顺序读取索引中 (after, upper] 区间的文档指纹
+     */
+    private Map<Long, Long> fetchIndexed(long after, Long upper, int pageSize) throws IOException {
+        Map<Long, Long> fingerprints = new HashMap<>();
+        List<FieldValue> searchAfter = null;
+        while (true) {
+            List<FieldValue> current = searchAfter;
+            SearchResponse<PostDocument> response = elasticsearchClient.search(s -> {
+                s.index(SearchReindexService.POST_ALIAS)
+                    .query(q -> q.range(r -> r.number(n -> {
+                        n.field("postId").gt((double) after);
+                        if (upper != null) {
+                            n.lte((double) upper);
+                        }
+                        return n;
+                    })))
+                    .sort(sort -> sort.field(f -> f.field("postId").order(SortOrder.Asc)))
+                    .size(pageSize)
+                    .source(CHECK_SOURCE);
+                if (current != null) {
+                    s.searchAfter(current);
+                }
+                return s;
+            }, PostDocument.class);
+
+            List<Hit<PostDocument>> hits = response.hits().hits();
+            for (Hit<PostDocument> hit : hits) {
+                PostDocument doc = hit.source();
+                if (doc == null || doc.getPostId() == null) {
+                    continue;
+                }
+                fingerprints.put(doc.getPostId(), fingerprint(doc.getPostId(), doc.getStatus(), doc.getIsPinned(),
+                        doc.getIsHot(), doc.getLikeCount(), doc.getCommentCount(), doc.getViewCount(),
+                        doc.getBookmarkCount(), doc.getUpdateTime()));
+            }
+            if (hits.size() < pageSize) {
+                return fingerprints;
+            }
+            searchAfter = hits.get(hits.size() - 1).sort();
+        }
+    }
+
+    /**
+     * 分段校验和：指纹之和，与顺序无关
+     */
+    private static long checksum(Map<Long, Long> fingerprints) {
+        long sum = 0L;
+        for (long fingerprint : fingerprints.values()) {
+            sum += fingerprint;
+        }
+        return sum;
+    }
+
+    /**
+     * 帖子指纹，更新时间精确到秒（索引中的日期格式只到秒）
+     */
+    private static long fingerprint(Long postId, Integer status, Boolean isPinned, Boolean isHot, Integer likeCount,
+                                    Integer commentCount, Integer viewCount, Integer bookmarkCount, LocalDateTime updateTime) {
+        LocalDateTime time = updateTime != null ? updateTime.truncatedTo(ChronoUnit.SECONDS) : null;
+        long hash = 1125899906842597L;
+        for (Object value : new Object[]{postId, status, isPinned, isHot, likeCount, commentCount, viewCount, bookmarkCount, time}) {
+            hash = 31 * hash + (value != null ? value.hashCode() : 0);
+        }
+        // 混合高低位，使校验和对单个字段的变化敏感
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private String tryLock() {
+        String token = UUID.randomUUID().toString();
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token, LOCK_TTL)) ? token : null;
+    }
+}
@@ -0,0 +1,105 @@
+package cn.wekyjay.wknetic.admin.forum.service;
+
+import cn.wekyjay.wknetic.admin.forum.document.CommentDocument;
+import cn.wekyjay.wknetic.admin.forum.document.UserDocument;
+import cn.wekyjay.wknetic.common.domain.SysUser;
+import cn.wekyjay.wknetic.common.mapper.ForumPostMapper;
+import cn.wekyjay.wknetic.common.mapper.SysUserMapper;
+import cn.wekyjay.wknetic.common.model.entity.ForumComment;
+import cn.wekyjay.wknetic.common.model.entity.ForumPost;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 评论和用户搜索文档批量组装器（帖子见 {@link PostDocumentAssembler}）
+ * 一批评论的作者、所属帖子各用一次查询加载
+ *
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchDocumentAssembler {
+
+    private final SysUserMapper userMapper;
+    private final ForumPostMapper postMapper;
+
+    /**
+     * 批量组装评论搜索文档
+     * 只返回正常状态且所属帖子已发布的评论，其余评论应从索引删除
+     *
+     * @param comments 评论列表
+     * @return 评论ID -> 搜索文档
+     */
+    public Map<Long, CommentDocument> assemble(List<ForumComment> comments) {
+        if (comments == null || comments.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        Set<Long> postIds = comments.stream().map(ForumComment::getPostId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, ForumPost> postMap = postIds.isEmpty() ? Collections.emptyMap()
+                : postMapper.selectList(new LambdaQueryWrapper<ForumPost>()
+                        .select(ForumPost::getPostId, ForumPost::getTitle, ForumPost::getStatus)
+                        .in(ForumPost::getPostId, postIds)).stream()
+                        .collect(Collectors.toMap(ForumPost::getPostId, Function.identity()));
+
+        Set<Long> userIds = comments.stream().map(ForumComment::getUserId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, SysUser> userMap = userIds.isEmpty() ? Collections.emptyMap()
+                : userMapper.selectBatchIds(userIds).stream()
+                        .collect(Collectors.toMap(SysUser::getUserId, Function.identity()));
+
+        Map<Long, CommentDocument> documents = new LinkedHashMap<>();
+        for (ForumComment comment : comments) {
+            ForumPost post = postMap.get(comment.getPostId());
+            if (!Integer.valueOf(1).equals(comment.getStatus()) || post == null
+                    || !Integer.valueOf(ForumPost.Status.PUBLISHED.getCode()).equals(post.getStatus())) {
+                continue;
+            }
+            SysUser user = userMap.get(comment.getUserId());
+            documents.put(comment.getCommentId(), CommentDocument.builder()
+                    .commentId(comment.getCommentId())
+                    .postId(comment.getPostId())
+                    .postTitle(post.getTitle())
+                    .content(comment.getContent())
+                    .userId(comment.getUserId())
+                    .username(user != null ? user.getUsername() : "Unknown")
+                    .parentId(comment.getParentId())
+                    .status(comment.getStatus())
+                    .likeCount(comment.getLikeCount())
+                    .createTime(comment.getCreateTime())
+                    .build());
+        }
+        return documents;
+    }
+
+    /**
+     * 组装用户搜索文档
+     *
+     * @param user 用户
+     * @return 搜索文档
+     */
+    public UserDocument toDocument(SysUser user) {
+        return UserDocument.builder()
+                .userId(user.getUserId())
+                .username(user.getUsername())
+                .nickname(user.getNickname())
+                .email(user.getEmail())
+                .minecraftUuid(user.getMinecraftUuid())
+                .minecraftUsername(user.getMinecraftUsername())
+                .avatar(user.getAvatar())
+                .status(user.getStatus())
+                .role(user.getRole())
+                .createTime(user.getCreateTime() != null
+                        ? LocalDateTime.ofInstant(user.getCreateTime().toInstant(), ZoneId.systemDefault()) : null)
+                .build();
+    }
+}
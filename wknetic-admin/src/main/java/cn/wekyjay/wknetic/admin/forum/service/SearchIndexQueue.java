@@ -0,0 +1,667 @@
+package cn.wekyjay.wknetic.admin.forum.service;
+
+import cn.wekyjay.wknetic.admin.forum.document.CommentDocument;
+import cn.wekyjay.wknetic.admin.forum.document.PostDocument;
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
+import cn.wekyjay.wknetic.common.domain.SysUser;
+import cn.wekyjay.wknetic.common.mapper.ForumCommentMapper;
+import cn.wekyjay.wknetic.common.mapper.ForumPostMapper;
+import cn.wekyjay.wknetic.common.mapper.SearchIndexOutboxMapper;
+import cn.wekyjay.wknetic.common.mapper.SysUserMapper;
+import cn.wekyjay.wknetic.common.model.entity.ForumComment;
+import cn.wekyjay.wknetic.common.model.entity.ForumPost;
+import cn.wekyjay.wknetic.common.model.entity.SearchIndexOutbox;
+import cn.wekyjay.wknetic.common.utils.ThreadUtil;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Conflicts;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 搜索索引增量同步队列
+ * <p>
+ * 帖子、评论、用户的变更只登记文档类型、ID和操作类型，刷新窗口内同一文档的多次变更合并为一次，
+ * 每个窗口发送一个 _bulk 请求：
+ * INDEX 按数据库当前状态重建文档（已下架的改为删除），DELETE 删除文档，
+ * STATS 只以部分更新写入计数（帖子的点赞/评论/浏览/收藏，评论的点赞），不重建整个文档；
+ * 计数变更会自动更新帖子的 update_time，帖子的部分更新同时写入更新时间，与一致性检查的指纹保持一致。
+ * 帖子从索引删除时，其评论一并删除；重新发布（审核通过、举报不成立恢复）时重建其评论。
+ * 失败的操作写入 MySQL 重试表，按指数退避重新按数据库状态同步，索引不会静默偏离。
+ * 窗口内有 INDEX/DELETE 写入成功时使搜索结果缓存失效；只有 STATS 的窗口不失效，
+ * 计数的滞后由缓存有效期限制，避免浏览量等高频计数让缓存几乎无法命中。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchIndexQueue implements MeterBinder {
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ForumPostMapper postMapper;
+    private final ForumCommentMapper commentMapper;
+    private final SysUserMapper userMapper;
+    private final SearchIndexOutboxMapper outboxMapper;
+    private final PostDocumentAssembler documentAssembler;
+    private final SearchDocumentAssembler searchDocumentAssembler;
+    private final SearchResultCache searchResultCache;
+    private final WkNeticProperties properties;
+
+    public static final String ACTION_INDEX = "INDEX";
+    public static final String ACTION_DELETE = "DELETE";
+    public static final String ACTION_STATS = "STATS";
+
+    public static final String TYPE_POST = "POST";
+    public static final String TYPE_COMMENT = "COMMENT";
+    public static final String TYPE_USER = "USER";
+
+    public static final String COMMENT_INDEX = "comment_index";
+    public static final String USER_INDEX = "user_index";
+
+    /** 部分更新中日期字段的格式，与 PostDocument 的日期格式一致 */
+    private static final DateTimeFormatter DOCUMENT_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    /** 重试退避上限（毫秒） */
+    private static final long MAX_RETRY_BACKOFF = 3600_000L;
+
+    /** 文档 -> 待同步操作 */
+    private Map<DocKey, String> pending = new HashMap<>();
+
+    /** 重新发布、需要重建评论索引的帖子 */
+    private Set<Long> republished = new HashSet<>();
+
+    /** 正在执行的全量回填（文档类型） */
+    private final Set<String> backfilling = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 登记帖子内容变更（按数据库当前状态重建文档）
+     */
+    public void enqueueIndex(Long postId) {
+        enqueueIndex(TYPE_POST, postId);
+    }
+
+    /**
+     * 登记帖子删除
+     */
+    public void enqueueDelete(Long postId) {
+        enqueueDelete(TYPE_POST, postId);
+    }
+
+    /**
+     * 登记帖子重新发布（审核通过、举报不成立恢复显示）：重建帖子文档，并重建其评论
+     * 帖子离开已发布状态时评论已从索引删除，需在事务提交后调用，重建时才能读到已发布的帖子
+     */
+    public synchronized void enqueueRepublish(Long postId) {
+        if (postId == null) {
+            return;
+        }
+        pending.put(new DocKey(TYPE_POST, postId), ACTION_INDEX);
+        republished.add(postId);
+    }
+
+    /**
+     * 登记帖子计数变更（点赞、评论、浏览、收藏）
+     */
+    public void enqueueStats(Long postId) {
+        enqueueStats(TYPE_POST, postId);
+    }
+
+    /**
+     * 登记文档内容变更（按数据库当前状态重建文档）
+     *
+     * @param type 文档类型
+     * @param id 文档ID
+     */
+    public void enqueueIndex(String type, Long id) {
+        enqueue(type, id, ACTION_INDEX);
+    }
+
+    /**
+     * 登记文档删除
+     *
+     * @param type 文档类型
+     * @param id 文档ID
+     */
+    public void enqueueDelete(String type, Long id) {
+        enqueue(type, id, ACTION_DELETE);
+    }
+
+    /**
+     * 登记文档计数变更
+     *
+     * @param type 文档类型
+     * @param id 文档ID
+     */
+    public void enqueueStats(String type, Long id) {
+        enqueue(type, id, ACTION_STATS);
+    }
+
+    private synchronized void enqueue(String type, Long id, String action) {
+        if (id == null) {
+            return;
+        }
+        DocKey key = new DocKey(type, id);
+        // 计数更新不覆盖已登记的重建/删除（重建会带上最新计数）
+        if (ACTION_STATS.equals(action)) {
+            pending.putIfAbsent(key, action);
+        } else {
+            pending.put(key, action);
+        }
+    }
+
+    private synchronized Map<DocKey, String> drain() {
+        Map<DocKey, String> batch = pending;
+        pending = new HashMap<>();
+        return batch;
+    }
+
+    private synchronized Set<Long> drainRepublished() {
+        Set<Long> postIds = republished;
+        republished = new HashSet<>();
+        return postIds;
+    }
+
+    /**
+     * 当前窗口内待同步的文档数
+     *
+     * @return 文档数
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("wknetic.search.index.pending", this, SearchIndexQueue::getPendingCount)
+                .description("搜索索引待同步的文档数")
+                .register(registry);
+    }
+
+    /**
+     * 刷新当前窗口内的变更
+     */
+    @Scheduled(initialDelay = 5000, fixedDelayString = "${wknetic.search.index-flush-interval:1000}")
+    public void flush() {
+        Map<DocKey, String> batch = drain();
+        if (!batch.isEmpty()) {
+            Map<DocKey, String> errors = sync(batch);
+            if (changesDocuments(batch, errors)) {
+                searchResultCache.invalidate();
+            }
+            saveFailures(batch, errors);
+        }
+        reindexComments(drainRepublished());
+    }
+
+    /**
+     * 重建重新发布的帖子的评论索引
+     * 按评论ID键集分页，每页作为一个窗口同步，失败的文档进入重试表
+     */
+    private void reindexComments(Set<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        int pageSize = properties.getSearch().getReindexPageSize();
+        long lastId = 0L;
+        boolean indexed = false;
+        try {
+            while (true) {
+                List<Long> ids = commentMapper.selectList(new LambdaQueryWrapper<ForumComment>()
+                                .select(ForumComment::getCommentId)
+                                .in(ForumComment::getPostId, postIds)
+                                .eq(ForumComment::getStatus, 1)
+                                .gt(ForumComment::getCommentId, lastId)
+                                .orderByAsc(ForumComment::getCommentId)
+                                .last("LIMIT " + pageSize)).stream()
+                        .map(ForumComment::getCommentId).collect(Collectors.toList());
+                if (ids.isEmpty()) {
+                    break;
+                }
+                lastId = ids.get(ids.size() - 1);
+                Map<DocKey, String> actions = new LinkedHashMap<>();
+                ids.forEach(id -> actions.put(new DocKey(TYPE_COMMENT, id), ACTION_INDEX));
+                Map<DocKey, String> errors = sync(actions);
+                saveFailures(actions, errors);
+                indexed |= errors.size() < actions.size();
+            }
+        } catch (Exception e) {
+            log.error("重建重新发布帖子的评论索引失败: postIds={}", postIds, e);
+        }
+        if (indexed) {
+            searchResultCache.invalidate();
+        }
+    }
+
+    /**
+     * 是否有 INDEX/DELETE 操作写入成功（STATS 只更新计数，其滞后由缓存有效期限制）
+     */
+    private static boolean changesDocuments(Map<DocKey, String> actions, Map<DocKey, String> errors) {
+        return actions.entrySet().stream()
+                .anyMatch(entry -> !ACTION_STATS.equals(entry.getValue()) && !errors.containsKey(entry.getKey()));
+    }
+
+    /**
+     * 重试同步失败的文档，统一按数据库当前状态重新同步
+     */
+    @Scheduled(initialDelay = 30000, fixedDelayString = "${wknetic.search.outbox-retry-interval:30000}")
+    public void retryOutbox() {
+        try {
+            List<SearchIndexOutbox> due = outboxMapper.selectDue(properties.getSearch().getOutboxBatchSize());
+            if (due.isEmpty()) {
+                return;
+            }
+            Map<DocKey, String> actions = new LinkedHashMap<>();
+            due.forEach(record -> actions.put(DocKey.of(record), ACTION_INDEX));
+            Map<DocKey, String> errors = sync(actions);
+
+            List<SearchIndexOutbox> succeeded = new ArrayList<>();
+            List<SearchIndexOutbox> failed = new ArrayList<>();
+            LocalDateTime now = LocalDateTime.now();
+            for (SearchIndexOutbox record : due) {
+                String error = errors.get(DocKey.of(record));
+                if (error == null) {
+                    succeeded.add(record);
+                    continue;
+                }
+                int retryCount = record.getRetryCount() != null ? record.getRetryCount() + 1 : 1;
+                long backoff = properties.getSearch().getOutboxRetryInterval() << Math.min(retryCount, 16);
+                record.setLastError(error);
+                record.setNextRetryTime(now.plus(Math.min(backoff, MAX_RETRY_BACKOFF), ChronoUnit.MILLIS));
+                failed.add(record);
+            }
+            if (!succeeded.isEmpty()) {
+                searchResultCache.invalidate();
+                outboxMapper.deleteProcessed(succeeded);
+            }
+            if (!failed.isEmpty()) {
+                saveToOutbox(failed);
+            }
+            log.info("搜索索引重试完成: 成功={}, 仍失败={}", succeeded.size(), failed.size());
+        } catch (Exception e) {
+            log.error("搜索索引重试失败", e);
+        }
+    }
+
+    /**
+     * 关闭前把窗口内剩余的变更同步掉
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 启动后检查评论和用户索引，索引为空而数据库有数据时（升级安装，索引刚被自动创建）自动回填
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillEmptyIndices() {
+        backfillIfEmpty(TYPE_COMMENT, COMMENT_INDEX);
+        backfillIfEmpty(TYPE_USER, USER_INDEX);
+    }
+
+    private void backfillIfEmpty(String type, String index) {
+        try {
+            if (elasticsearchClient.count(c -> c.index(index)).count() > 0) {
+                return;
+            }
+            boolean hasRows = TYPE_COMMENT.equals(type)
+                    ? commentMapper.exists(new LambdaQueryWrapper<ForumComment>())
+                    : userMapper.exists(new LambdaQueryWrapper<SysUser>());
+            if (hasRows) {
+                log.info("索引为空，开始自动回填: index={}", index);
+                backfill(type);
+            }
+        } catch (Exception e) {
+            log.warn("检查索引是否需要回填失败: index={}, {}", index, e.getMessage());
+        }
+    }
+
+    /**
+     * 该类型的索引是否正在全量回填（回填期间索引数据不完整）
+     *
+     * @param type 文档类型
+     * @return 是否正在回填
+     */
+    public boolean isBackfilling(String type) {
+        return backfilling.contains(type);
+    }
+
+    /**
+     * 全量回填评论或用户索引（异步执行）
+     * 按ID键集分页读取，每页作为一个窗口同步，失败的文档进入重试表
+     * 帖子索引使用 {@link SearchReindexService} 重建
+     *
+     * @param type 文档类型（COMMENT/USER）
+     */
+    public void backfill(String type) {
+        if (!TYPE_COMMENT.equals(type) && !TYPE_USER.equals(type)) {
+            throw new RuntimeException("不支持的文档类型: " + type);
+        }
+        if (!backfilling.add(type)) {
+            throw new RuntimeException("该类型的索引回填正在进行中");
+        }
+        ThreadUtil.runAsync(() -> {
+            int pageSize = properties.getSearch().getReindexPageSize();
+            long lastId = 0L;
+            long total = 0L;
+            long failed = 0L;
+            try {
+                while (true) {
+                    List<Long> ids = TYPE_COMMENT.equals(type)
+                            ? commentMapper.selectList(new LambdaQueryWrapper<ForumComment>()
+                                    .select(ForumComment::getCommentId)
+                                    .gt(ForumComment::getCommentId, lastId)
+                                    .orderByAsc(ForumComment::getCommentId)
+                                    .last("LIMIT " + pageSize)).stream()
+                                    .map(ForumComment::getCommentId).collect(Collectors.toList())
+                            : userMapper.selectList(new LambdaQueryWrapper<SysUser>()
+                                    .select(SysUser::getUserId)
+                                    .gt(SysUser::getUserId, lastId)
+                                    .orderByAsc(SysUser::getUserId)
+                                    .last("LIMIT " + pageSize)).stream()
+                                    .map(SysUser::getUserId).collect(Collectors.toList());
+                    if (ids.isEmpty()) {
+                        break;
+                    }
+                    lastId = ids.get(ids.size() - 1);
+                    Map<DocKey, String> actions = new LinkedHashMap<>();
+                    ids.forEach(id -> actions.put(new DocKey(type, id), ACTION_INDEX));
+                    Map<DocKey, String> errors = sync(actions);
+                    saveFailures(actions, errors);
+                    total += ids.size();
+                    failed += errors.size();
+                }
+                searchResultCache.invalidate();
+                log.info("索引回填完成: type={}, 总数={}, 失败={}", type, total, failed);
+            } catch (Exception e) {
+                log.error("索引回填失败: type={}, lastId={}", type, lastId, e);
+            } finally {
+                backfilling.remove(type);
+            }
+        });
+    }
+
+    /**
+     * 将一批操作合并为 _bulk 请求发送
+     *
+     * @param actions 文档 -> 操作
+     * @return 失败的文档 -> 失败原因
+     */
+    private Map<DocKey, String> sync(Map<DocKey, String> actions) {
+        Map<DocKey, String> errors = new HashMap<>();
+        List<BulkOperation> operations = new ArrayList<>();
+        List<DocKey> operationKeys = new ArrayList<>();
+        List<Long> removedPostIds = new ArrayList<>();
+        try {
+            Map<String, Map<String, List<Long>>> grouped = new HashMap<>();
+            actions.forEach((key, action) -> grouped
+                    .computeIfAbsent(key.type(), t -> new HashMap<>())
+                    .computeIfAbsent(action, a -> new ArrayList<>())
+                    .add(key.id()));
+
+            Map<String, List<Long>> posts = grouped.getOrDefault(TYPE_POST, Collections.emptyMap());
+            preparePosts(posts, operations, operationKeys, removedPostIds);
+            Map<String, List<Long>> comments = grouped.getOrDefault(TYPE_COMMENT, Collections.emptyMap());
+            prepareComments(comments, operations, operationKeys);
+            Map<String, List<Long>> users = grouped.getOrDefault(TYPE_USER, Collections.emptyMap());
+            prepareUsers(users, operations, operationKeys);
+        } catch (Exception e) {
+            log.error("准备搜索索引同步数据失败: keys={}", actions.keySet(), e);
+            actions.keySet().forEach(key -> errors.put(key, truncate(e.getMessage())));
+            return errors;
+        }
+
+        int maxActions = properties.getSearch().getBulkMaxActions();
+        for (int from = 0; from < operations.size(); from += maxActions) {
+            int to = Math.min(from + maxActions, operations.size());
+            send(operations.subList(from, to), operationKeys.subList(from, to), errors);
+        }
+        deleteComments(removedPostIds);
+        if (!operations.isEmpty()) {
+            log.debug("搜索索引增量同步: 文档数={}, 操作数={}, 失败={}", actions.size(), operations.size(), errors.size());
+        }
+        return errors;
+    }
+
+    private void preparePosts(Map<String, List<Long>> actions, List<BulkOperation> operations,
+                              List<DocKey> operationKeys, List<Long> removedPostIds) {
+        List<Long> indexIds = actions.getOrDefault(ACTION_INDEX, Collections.emptyList());
+        List<Long> deleteIds = new ArrayList<>(actions.getOrDefault(ACTION_DELETE, Collections.emptyList()));
+        List<Long> statsIds = actions.getOrDefault(ACTION_STATS, Collections.emptyList());
+
+        // 重建：已发布的写入完整文档，其余（已下架、已删除）从索引删除
+        if (!indexIds.isEmpty()) {
+            Map<Long, ForumPost> postMap = postMapper.selectBatchIds(indexIds).stream()
+                    .collect(Collectors.toMap(ForumPost::getPostId, Function.identity()));
+            List<ForumPost> published = new ArrayList<>();
+            for (Long postId : indexIds) {
+                ForumPost post = postMap.get(postId);
+                if (post != null && Integer.valueOf(ForumPost.Status.PUBLISHED.getCode()).equals(post.getStatus())) {
+                    published.add(post);
+                } else {
+                    deleteIds.add(postId);
+                }
+            }
+            for (PostDocument document : documentAssembler.assemble(published)) {
+                operations.add(BulkOperation.of(op -> op.index(i -> i
+                        .index(SearchReindexService.POST_ALIAS)
+                        .id(String.valueOf(document.getPostId()))
+                        .document(document))));
+                operationKeys.add(new DocKey(TYPE_POST, document.getPostId()));
+            }
+        }
+
+        for (Long postId : deleteIds) {
+            operations.add(BulkOperation.of(op -> op.delete(d -> d
+                    .index(SearchReindexService.POST_ALIAS)
+                    .id(String.valueOf(postId)))));
+            operationKeys.add(new DocKey(TYPE_POST, postId));
+        }
+        removedPostIds.addAll(deleteIds);
+
+        // 计数：一次查询取最新值，以部分更新写入（可重复执行）
+        if (!statsIds.isEmpty()) {
+            List<ForumPost> stats = postMapper.selectList(new LambdaQueryWrapper<ForumPost>()
+                    .select(ForumPost::getPostId, ForumPost::getLikeCount, ForumPost::getCommentCount,
+                            ForumPost::getViewCount, ForumPost::getBookmarkCount, ForumPost::getUpdateTime)
+                    .in(ForumPost::getPostId, statsIds));
+            for (ForumPost post : stats) {
+                Map<String, Object> partial = new HashMap<>();
+                partial.put("likeCount", post.getLikeCount());
+                partial.put("commentCount", post.getCommentCount());
+                partial.put("viewCount", post.getViewCount());
+                partial.put("bookmarkCount", post.getBookmarkCount());
+                if (post.getUpdateTime() != null) {
+                    partial.put("updateTime", DOCUMENT_TIME_FORMAT.format(post.getUpdateTime()));
+                }
+                operations.add(BulkOperation.of(op -> op.update(u -> u
+                        .index(SearchReindexService.POST_ALIAS)
+                        .id(String.valueOf(post.getPostId()))
+                        .action(a -> a.doc(partial)))));
+                operationKeys.add(new DocKey(TYPE_POST, post.getPostId()));
+            }
+        }
+    }
+
+    private void prepareComments(Map<String, List<Long>> actions, List<BulkOperation> operations, List<DocKey> operationKeys) {
+        List<Long> indexIds = actions.getOrDefault(ACTION_INDEX, Collections.emptyList());
+        List<Long> deleteIds = new ArrayList<>(actions.getOrDefault(ACTION_DELETE, Collections.emptyList()));
+        List<Long> statsIds = actions.getOrDefault(ACTION_STATS, Collections.emptyList());
+
+        if (!indexIds.isEmpty()) {
+            Map<Long, CommentDocument> documents = searchDocumentAssembler.assemble(commentMapper.selectBatchIds(indexIds));
+            for (Long commentId : indexIds) {
+                CommentDocument document = documents.get(commentId);
+                if (document == null) {
+                    deleteIds.add(commentId);
+                    continue;
+                }
+                operations.add(BulkOperation.of(op -> op.index(i -> i
+                        .index(COMMENT_INDEX)
+                        .id(String.valueOf(commentId))
+                        .document(document))));
+                operationKeys.add(new DocKey(TYPE_COMMENT, commentId));
+            }
+        }
+
+        for (Long commentId : deleteIds) {
+            operations.add(BulkOperation.of(op -> op.delete(d -> d
+                    .index(COMMENT_INDEX)
+                    .id(String.valueOf(commentId)))));
+            operationKeys.add(new DocKey(TYPE_COMMENT, commentId));
+        }
+
+        if (!statsIds.isEmpty()) {
+            List<ForumComment> stats = commentMapper.selectList(new LambdaQueryWrapper<ForumComment>()
+                    .select(ForumComment::getCommentId, ForumComment::getLikeCount)
+                    .in(ForumComment::getCommentId, statsIds));
+            for (ForumComment comment : stats) {
+                Map<String, Object> partial = Map.of("likeCount", comment.getLikeCount() != null ? comment.getLikeCount() : 0);
+                operations.add(BulkOperation.of(op -> op.update(u -> u
+                        .index(COMMENT_INDEX)
+                        .id(String.valueOf(comment.getCommentId()))
+                        .action(a -> a.doc(partial)))));
+                operationKeys.add(new DocKey(TYPE_COMMENT, comment.getCommentId()));
+            }
+        }
+    }
+
+    private void prepareUsers(Map<String, List<Long>> actions, List<BulkOperation> operations, List<DocKey> operationKeys) {
+        // 用户只有重建和删除，计数变更按重建处理
+        List<Long> indexIds = new ArrayList<>(actions.getOrDefault(ACTION_INDEX, Collections.emptyList()));
+        indexIds.addAll(actions.getOrDefault(ACTION_STATS, Collections.emptyList()));
+        List<Long> deleteIds = new ArrayList<>(actions.getOrDefault(ACTION_DELETE, Collections.emptyList()));
+
+        if (!indexIds.isEmpty()) {
+            Map<Long, SysUser> userMap = userMapper.selectBatchIds(indexIds).stream()
+                    .collect(Collectors.toMap(SysUser::getUserId, Function.identity()));
+            for (Long userId : indexIds) {
+                SysUser user = userMap.get(userId);
+                if (user == null) {
+                    deleteIds.add(userId);
+                    continue;
+                }
+                operations.add(BulkOperation.of(op -> op.index(i -> i
+                        .index(USER_INDEX)
+                        .id(String.valueOf(userId))
+                        .document(searchDocumentAssembler.toDocument(user)))));
+                operationKeys.add(new DocKey(TYPE_USER, userId));
+            }
+        }
+
+        for (Long userId : deleteIds) {
+            operations.add(BulkOperation.of(op -> op.delete(d -> d
+                    .index(USER_INDEX)
+                    .id(String.valueOf(userId)))));
+            operationKeys.add(new DocKey(TYPE_USER, userId));
+        }
+    }
+
+    /**
+     * 帖子从索引删除后，删除其全部评论（失败时只记录，评论重建时会按帖子状态过滤）
+     */
+    private void deleteComments(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        try {
+            List<FieldValue> values = postIds.stream().map(id -> FieldValue.of(id.longValue())).collect(Collectors.toList());
+            elasticsearchClient.deleteByQuery(d -> d
+                    .index(COMMENT_INDEX)
+                    .conflicts(Conflicts.Proceed)
+                    .query(q -> q.terms(t -> t.field("postId").terms(v -> v.value(values)))));
+        } catch (Exception e) {
+            log.warn("删除已下架帖子的评论索引失败: postIds={}", postIds, e);
+        }
+    }
+
+    private void send(List<BulkOperation> operations, List<DocKey> keys, Map<DocKey, String> errors) {
+        try {
+            BulkResponse response = elasticsearchClient.bulk(b -> b.operations(operations));
+            if (!response.errors()) {
+                return;
+            }
+            List<BulkResponseItem> items = response.items();
+            for (int i = 0; i < items.size(); i++) {
+                BulkResponseItem item = items.get(i);
+                // 文档不存在（删除或计数更新未索引的文档）不算失败
+                if (item.error() == null || item.status() == 404) {
+                    continue;
+                }
+                errors.put(keys.get(i), truncate(item.error().type() + ": " + item.error().reason()));
+            }
+        } catch (Exception e) {
+            log.warn("_bulk 请求失败，转入重试表: count={}", operations.size(), e);
+            keys.forEach(key -> errors.put(key, truncate(e.getMessage())));
+        }
+    }
+
+    /**
+     * 首次失败的操作写入重试表
+     */
+    private void saveFailures(Map<DocKey, String> actions, Map<DocKey, String> errors) {
+        if (errors.isEmpty()) {
+            return;
+        }
+        LocalDateTime retryAt = LocalDateTime.now().plus(properties.getSearch().getOutboxRetryInterval(), ChronoUnit.MILLIS);
+        saveToOutbox(errors.entrySet().stream().map(e -> {
+            SearchIndexOutbox record = new SearchIndexOutbox();
+            record.setDocType(e.getKey().type());
+            record.setDocId(e.getKey().id());
+            record.setAction(actions.get(e.getKey()));
+            record.setLastError(e.getValue());
+            record.setNextRetryTime(retryAt);
+            return record;
+        }).collect(Collectors.toList()));
+    }
+
+    private void saveToOutbox(List<SearchIndexOutbox> records) {
+        try {
+            outboxMapper.upsertBatch(records);
+            log.warn("{}个文档的搜索索引同步失败，已记录待重试", records.size());
+        } catch (Exception e) {
+            log.error("记录搜索索引同步失败时出错，以下文档需要手动重建索引: {}",
+                    records.stream().map(r -> r.getDocType() + ":" + r.getDocId()).collect(Collectors.toList()), e);
+        }
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    /**
+     * 待同步的文档
+     */
+    private record DocKey(String type, Long id) {
+
+        static DocKey of(SearchIndexOutbox record) {
+            return new DocKey(record.getDocType() != null ? record.getDocType() : TYPE_POST, record.getDocId());
+        }
+    }
+}
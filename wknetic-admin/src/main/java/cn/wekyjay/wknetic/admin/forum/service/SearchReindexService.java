@@ -0,0 +1,520 @@
+package cn.wekyjay.wknetic.admin.forum.service;
+
+import cn.wekyjay.wknetic.admin.forum.document.PostDocument;
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
+import cn.wekyjay.wknetic.common.mapper.ForumPostMapper;
+import cn.wekyjay.wknetic.common.model.entity.ForumPost;
+import cn.wekyjay.wknetic.common.model.vo.ReindexJobVO;
+import cn.wekyjay.wknetic.common.utils.ThreadUtil;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 搜索索引全量重建服务
+ * <p>
+ * 按帖子ID键集分页流式读取数据库，批量组装文档后按条数/字节数切分为 _bulk 请求，
+ * 由有限数量的并发请求写入新的版本化索引（信号量限流，写满即阻塞读取）。
+ * 全部写入后追平重建期间变更的帖子，再原子切换别名 post_index，对搜索无感知。
+ * 任务状态和断点保存在 Redis 中，中断或取消后可从断点继续。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchReindexService {
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ForumPostMapper postMapper;
+    private final PostDocumentAssembler documentAssembler;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final SearchResultCache searchResultCache;
+    private final WkNeticProperties properties;
+
+    /** 搜索使用的索引别名（即 PostDocument 的 indexName） */
+    public static final String POST_ALIAS = "post_index";
+    private static final String JOB_KEY = "wknetic:search:reindex:job";
+    private static final String LOCK_KEY = "wknetic:search:reindex:lock";
+    private static final Duration LOCK_TTL = Duration.ofMinutes(10);
+    private static final int MAX_RETRIES = 3;
+    /** 追平阶段向前多取的时间，容忍节点间时钟偏差 */
+    private static final long CATCH_UP_MARGIN_MILLIS = 60_000L;
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+    public static final String STATUS_CANCELLED = "CANCELLED";
+
+    /** 本节点正在执行的任务 */
+    private volatile ReindexRun current;
+
+    /**
+     * 启动重建任务（异步执行）
+     *
+     * @param resume 是否从上次中断的断点继续
+     * @return 任务状态
+     */
+    public ReindexJobVO start(boolean resume) {
+        ReindexRun run;
+        if (resume) {
+            Map<Object, Object> state = stringRedisTemplate.opsForHash().entries(JOB_KEY);
+            if (state.isEmpty() || STATUS_COMPLETED.equals(state.get("status"))) {
+                throw new RuntimeException("没有可恢复的重建任务");
+            }
+            run = ReindexRun.restore(state);
+            if (!indexExists(run.targetIndex)) {
+                throw new RuntimeException("重建任务的目标索引已不存在，请重新开始");
+            }
+        } else {
+            long now = System.currentTimeMillis();
+            String version = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault()).format(VERSION_FORMAT);
+            run = new ReindexRun(UUID.randomUUID().toString(), POST_ALIAS + "_v" + version, now);
+        }
+
+        if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(LOCK_KEY, run.jobId, LOCK_TTL))) {
+            throw new RuntimeException("已有索引重建任务正在运行");
+        }
+        current = run;
+        saveState(run, STATUS_RUNNING, resume ? "从断点继续重建" : "正在重建索引");
+        log.info("索引重建任务启动: jobId={}, targetIndex={}, resume={}, checkpoint={}",
+                run.jobId, run.targetIndex, resume, run.checkpoint);
+        ThreadUtil.runAsync(() -> execute(run, !resume));
+        return getStatus();
+    }
+
+    /**
+     * 取消本节点正在执行的任务，已写入的数据和断点保留，可恢复继续
+     *
+     * @return 任务状态
+     */
+    public ReindexJobVO cancel() {
+        ReindexRun run = current;
+        if (run == null) {
+            throw new RuntimeException("当前没有正在运行的重建任务");
+        }
+        run.cancelled = true;
+        return getStatus();
+    }
+
+    /**
+     * 查询最近一次重建任务的状态
+     *
+     * @return 任务状态，没有任务时返回null
+     */
+    public ReindexJobVO getStatus() {
+        Map<Object, Object> state = stringRedisTemplate.opsForHash().entries(JOB_KEY);
+        if (state.isEmpty()) {
+            return null;
+        }
+        ReindexJobVO vo = new ReindexJobVO();
+        vo.setJobId(string(state, "jobId"));
+        vo.setStatus(string(state, "status"));
+        vo.setTargetIndex(string(state, "targetIndex"));
+        vo.setTotal(number(state, "total"));
+        vo.setIndexed(number(state, "indexed"));
+        vo.setFailed(number(state, "failed"));
+        vo.setCheckpoint(number(state, "checkpoint"));
+        vo.setMessage(string(state, "message"));
+        vo.setStartTime(toDateTime(number(state, "startTime")));
+        vo.setFinishTime(toDateTime(number(state, "finishTime")));
+        if (vo.getTotal() != null && vo.getTotal() > 0 && vo.getIndexed() != null) {
+            vo.setProgress(Math.min(100.0, Math.round(vo.getIndexed() * 1000.0 / vo.getTotal()) / 10.0));
+        }
+        return vo;
+    }
+
+    /**
+     * 是否有重建任务正在运行（任意节点）
+     *
+     * @return 是否正在重建
+     */
+    public boolean isRunning() {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(LOCK_KEY));
+    }
+
+    private void execute(ReindexRun run, boolean createIndex) {
+        try {
+            if (createIndex) {
+                createTargetIndex(run.targetIndex);
+            }
+            run.total = postMapper.selectCount(new LambdaQueryWrapper<ForumPost>()
+                    .eq(ForumPost::getStatus, ForumPost.Status.PUBLISHED.getCode()));
+
+            copyPublishedPosts(run);
+            if (run.cancelled) {
+                saveState(run, STATUS_CANCELLED, "任务已取消，可从断点继续");
+                log.info("索引重建任务已取消: jobId={}, checkpoint={}", run.jobId, run.checkpoint);
+                return;
+            }
+
+            catchUp(run);
+            elasticsearchClient.indices().putSettings(p -> p.index(run.targetIndex)
+                    .settings(s -> s.refreshInterval(t -> t.time("1s"))));
+            elasticsearchClient.indices().refresh(r -> r.index(run.targetIndex));
+            swapAlias(run.targetIndex);
+
+            String message = String.format("索引重建完成，共索引 %d 个帖子，失败 %d 个", run.indexed.get(), run.failed.get());
+            saveState(run, STATUS_COMPLETED, message);
+            log.info("{}: jobId={}, targetIndex={}", message, run.jobId, run.targetIndex);
+        } catch (Exception e) {
+            log.error("索引重建任务失败: jobId={}", run.jobId, e);
+            saveState(run, STATUS_FAILED, "索引重建失败: " + e.getMessage());
+        } finally {
+            current = null;
+            if (run.jobId.equals(stringRedisTemplate.opsForValue().get(LOCK_KEY))) {
+                stringRedisTemplate.delete(LOCK_KEY);
+            }
+        }
+    }
+
+    /**
+     * 创建新的版本化索引（沿用 PostDocument 的设置和映射），写入期间关闭自动刷新
+     */
+    private void createTargetIndex(String indexName) throws Exception {
+        IndexOperations template = elasticsearchOperations.indexOps(PostDocument.class);
+        IndexOperations target = elasticsearchOperations.indexOps(IndexCoordinates.of(indexName));
+        target.create(template.createSettings(), template.createMapping());
+        elasticsearchClient.indices().putSettings(p -> p.index(indexName)
+                .settings(s -> s.refreshInterval(t -> t.time("-1"))));
+    }
+
+    /**
+     * 键集分页读取已发布帖子并并发写入，信号量控制进行中的 _bulk 请求数
+     */
+    private void copyPublishedPosts(ReindexRun run) throws InterruptedException {
+        int pageSize = properties.getSearch().getReindexPageSize();
+        int concurrency = properties.getSearch().getBulkConcurrency();
+        Semaphore permits = new Semaphore(concurrency);
+        long lastId = run.checkpoint;
+
+        while (!run.cancelled) {
+            List<ForumPost> posts = postMapper.selectList(new LambdaQueryWrapper<ForumPost>()
+                    .eq(ForumPost::getStatus, ForumPost.Status.PUBLISHED.getCode())
+                    .gt(ForumPost::getPostId, lastId)
+                    .orderByAsc(ForumPost::getPostId)
+                    .last("LIMIT " + pageSize));
+            if (posts.isEmpty()) {
+                break;
+            }
+            long pageLastId = posts.get(posts.size() - 1).getPostId();
+            lastId = pageLastId;
+
+            List<List<PostDocument>> chunks = split(documentAssembler.assemble(posts));
+            run.registerPage(pageLastId, chunks.size());
+            for (List<PostDocument> chunk : chunks) {
+                permits.acquire();
+                ThreadUtil.runAsync(() -> {
+                    try {
+                        int failed = bulkIndex(run.targetIndex, chunk);
+                        run.indexed.addAndGet(chunk.size() - failed);
+                        run.failed.addAndGet(failed);
+                    } finally {
+                        permits.release();
+                        if (run.chunkDone(pageLastId)) {
+                            saveState(run, STATUS_RUNNING, "正在重建索引");
+                        }
+                    }
+                });
+            }
+            stringRedisTemplate.expire(LOCK_KEY, LOCK_TTL);
+        }
+
+        // 等待进行中的请求全部完成
+        permits.acquire(concurrency);
+        permits.release(concurrency);
+    }
+
+    /**
+     * 追平重建期间发生变更的帖子：仍为已发布的重新写入，其余从新索引删除
+     * 追平之后到别名切换之间的极短窗口内的变更仍写入旧索引，由后续的增量同步覆盖
+     */
+    private void catchUp(ReindexRun run) {
+        LocalDateTime since = toDateTime(run.startTime - CATCH_UP_MARGIN_MILLIS);
+        int pageSize = properties.getSearch().getReindexPageSize();
+        long lastId = 0L;
+        int changed = 0;
+        while (true) {
+            List<ForumPost> posts = postMapper.selectList(new LambdaQueryWrapper<ForumPost>()
+                    .ge(ForumPost::getUpdateTime, since)
+                    .gt(ForumPost::getPostId, lastId)
+                    .orderByAsc(ForumPost::getPostId)
+                    .last("LIMIT " + pageSize));
+            if (posts.isEmpty()) {
+                break;
+            }
+            lastId = posts.get(posts.size() - 1).getPostId();
+            changed += posts.size();
+
+            Map<Boolean, List<ForumPost>> partitioned = posts.stream().collect(Collectors.partitioningBy(
+                    post -> Integer.valueOf(ForumPost.Status.PUBLISHED.getCode()).equals(post.getStatus())));
+            for (List<PostDocument> chunk : split(documentAssembler.assemble(partitioned.get(true)))) {
+                run.failed.addAndGet(bulkIndex(run.targetIndex, chunk));
+            }
+            bulkDelete(run.targetIndex, partitioned.get(false).stream()
+                    .map(ForumPost::getPostId).collect(Collectors.toList()));
+        }
+        log.info("索引重建追平完成: jobId={}, 变更帖子数={}", run.jobId, changed);
+    }
+
+    /**
+     * 原子切换别名到新索引，并删除旧索引
+     * 首次切换时 post_index 还是 Spring Data 自动创建的实体索引，在同一请求中删除它
+     */
+    private void swapAlias(String targetIndex) throws Exception {
+        Set<String> oldIndices = new HashSet<>();
+        try {
+            oldIndices.addAll(elasticsearchClient.indices().get(g -> g.index(POST_ALIAS)).result().keySet());
+        } catch (ElasticsearchException e) {
+            if (e.status() != 404) {
+                throw e;
+            }
+        }
+        oldIndices.remove(targetIndex);
+
+        elasticsearchClient.indices().updateAliases(u -> {
+            for (String old : oldIndices) {
+                if (POST_ALIAS.equals(old)) {
+                    u.actions(a -> a.removeIndex(r -> r.index(old)));
+                } else {
+                    u.actions(a -> a.remove(r -> r.index(old).alias(POST_ALIAS)));
+                }
+            }
+            return u.actions(a -> a.add(ad -> ad.index(targetIndex).alias(POST_ALIAS)));
+        });
+        log.info("索引别名 {} 已切换到 {}", POST_ALIAS, targetIndex);
+        searchResultCache.invalidate();
+
+        oldIndices.remove(POST_ALIAS);
+        if (!oldIndices.isEmpty()) {
+            elasticsearchClient.indices().delete(d -> d.index(new ArrayList<>(oldIndices)));
+            log.info("已删除旧索引: {}", oldIndices);
+        }
+    }
+
+    /**
+     * 发送一个 _bulk 写入请求，被限流（429）或请求异常的文档退避后重试
+     *
+     * @return 最终失败的文档数
+     */
+    private int bulkIndex(String indexName, List<PostDocument> documents) {
+        List<PostDocument> pending = documents;
+        int failed = 0;
+        for (int attempt = 0; !pending.isEmpty(); attempt++) {
+            List<PostDocument> retry = new ArrayList<>();
+            try {
+                List<PostDocument> batch = pending;
+                BulkResponse response = elasticsearchClient.bulk(b -> {
+                    for (PostDocument document : batch) {
+                        b.operations(op -> op.index(i -> i
+                                .index(indexName)
+                                .id(String.valueOf(document.getPostId()))
+                                .document(document)));
+                    }
+                    return b;
+                });
+                List<BulkResponseItem> items = response.items();
+                for (int i = 0; i < items.size(); i++) {
+                    BulkResponseItem item = items.get(i);
+                    if (item.error() == null) {
+                        continue;
+                    }
+                    if (item.status() == 429) {
+                        retry.add(batch.get(i));
+                    } else {
+                        failed++;
+                        log.warn("索引文档失败: postId={}, reason={}", item.id(), item.error().reason());
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("_bulk 请求失败（第{}次）: {}", attempt + 1, e.getMessage());
+                retry = pending;
+            }
+            if (!retry.isEmpty() && attempt >= MAX_RETRIES) {
+                log.error("_bulk 重试{}次后仍有{}个文档失败", MAX_RETRIES, retry.size());
+                return failed + retry.size();
+            }
+            if (!retry.isEmpty()) {
+                sleepQuietly(500L << attempt);
+            }
+            pending = retry;
+        }
+        return failed;
+    }
+
+    private void bulkDelete(String indexName, List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        try {
+            elasticsearchClient.bulk(b -> {
+                for (Long postId : postIds) {
+                    b.operations(op -> op.delete(d -> d.index(indexName).id(String.valueOf(postId))));
+                }
+                return b;
+            });
+        } catch (Exception e) {
+            log.warn("从新索引删除下架帖子失败: postIds={}", postIds, e);
+        }
+    }
+
+    /**
+     * 按条数和估算字节数切分 _bulk 请求
+     */
+    private List<List<PostDocument>> split(List<PostDocument> documents) {
+        int maxActions = properties.getSearch().getBulkMaxActions();
+        long maxBytes = properties.getSearch().getBulkMaxBytes();
+        List<List<PostDocument>> chunks = new ArrayList<>();
+        List<PostDocument> chunk = new ArrayList<>();
+        long bytes = 0;
+        for (PostDocument document : documents) {
+            long size = estimateSize(document);
+            if (!chunk.isEmpty() && (chunk.size() >= maxActions || bytes + size > maxBytes)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                bytes = 0;
+            }
+            chunk.add(document);
+            bytes += size;
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * 估算文档序列化后的字节数（中文按UTF-8每字3字节计）
+     */
+    private long estimateSize(PostDocument document) {
+        long chars = length(document.getTitle()) + length(document.getExcerpt()) + length(document.getContent());
+        return chars * 3 + 512;
+    }
+
+    private void saveState(ReindexRun run, String status, String message) {
+        Map<String, String> state = new HashMap<>();
+        state.put("jobId", run.jobId);
+        state.put("status", status);
+        state.put("targetIndex", run.targetIndex);
+        state.put("startTime", String.valueOf(run.startTime));
+        state.put("total", String.valueOf(run.total));
+        state.put("indexed", String.valueOf(run.indexed.get()));
+        state.put("failed", String.valueOf(run.failed.get()));
+        state.put("checkpoint", String.valueOf(run.checkpoint));
+        state.put("message", message);
+        if (!STATUS_RUNNING.equals(status)) {
+            state.put("finishTime", String.valueOf(System.currentTimeMillis()));
+        }
+        synchronized (run) {
+            if (STATUS_RUNNING.equals(status)) {
+                stringRedisTemplate.opsForHash().delete(JOB_KEY, "finishTime");
+            }
+            stringRedisTemplate.opsForHash().putAll(JOB_KEY, state);
+        }
+    }
+
+    private boolean indexExists(String indexName) {
+        try {
+            return elasticsearchClient.indices().exists(e -> e.index(indexName)).value();
+        } catch (Exception e) {
+            throw new RuntimeException("检查索引失败: " + e.getMessage());
+        }
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int length(String text) {
+        return text == null ? 0 : text.length();
+    }
+
+    private static String string(Map<Object, Object> state, String field) {
+        Object value = state.get(field);
+        return value != null ? value.toString() : null;
+    }
+
+    private static Long number(Map<Object, Object> state, String field) {
+        String value = string(state, field);
+        return value != null ? Long.valueOf(value) : null;
+    }
+
+    private static LocalDateTime toDateTime(Long epochMillis) {
+        return epochMillis != null ? LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()) : null;
+    }
+
+    /**
+     * 一次重建任务的运行状态
+     * 断点只在某一页及其之前所有页的 _bulk 请求都完成后才推进，恢复时不会漏数据
+     */
+    private static class ReindexRun {
+        final String jobId;
+        final String targetIndex;
+        final long startTime;
+        final AtomicLong indexed = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        volatile long total;
+        volatile long checkpoint;
+        volatile boolean cancelled;
+        /** 页内最后一个帖子ID -> 未完成的请求数 */
+        private final TreeMap<Long, Integer> pendingPages = new TreeMap<>();
+
+        ReindexRun(String jobId, String targetIndex, long startTime) {
+            this.jobId = jobId;
+            this.targetIndex = targetIndex;
+            this.startTime = startTime;
+        }
+
+        static ReindexRun restore(Map<Object, Object> state) {
+            ReindexRun run = new ReindexRun(string(state, "jobId"), string(state, "targetIndex"), number(state, "startTime"));
+            run.checkpoint = Optional.ofNullable(number(state, "checkpoint")).orElse(0L);
+            run.indexed.set(Optional.ofNullable(number(state, "indexed")).orElse(0L));
+            run.failed.set(Optional.ofNullable(number(state, "failed")).orElse(0L));
+            return run;
+        }
+
+        synchronized void registerPage(long pageLastId, int chunks) {
+            pendingPages.put(pageLastId, chunks);
+        }
+
+        /**
+         * @return 断点是否推进
+         */
+        synchronized boolean chunkDone(long pageLastId) {
+            pendingPages.merge(pageLastId, -1, Integer::sum);
+            boolean advanced = false;
+            while (!pendingPages.isEmpty() && pendingPages.firstEntry().getValue() <= 0) {
+                checkpoint = pendingPages.pollFirstEntry().getKey();
+                advanced = true;
+            }
+            return advanced;
+        }
+    }
+}
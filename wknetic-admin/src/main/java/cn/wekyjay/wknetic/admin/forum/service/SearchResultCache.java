@@ -0,0 +1,226 @@
+package cn.wekyjay.wknetic.admin.forum.service;
+
+import cn.hutool.cache.Cache;
+import cn.hutool.cache.CacheUtil;
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
+import cn.wekyjay.wknetic.common.model.dto.SearchPostDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 搜索结果缓存
+ * <p>
+ * 进程内缓存相同条件的搜索结果，键为规范化后的搜索条件。
+ * 索引每次写入都会递增全局代数（Redis），缓存键带代数，写入后旧结果自然失效，
+ * 其他实例最多延迟一秒感知；有效期只是兜底。
+ * 同一键的并发未命中只由一个线程查询ES，其余线程等待并共用结果。
+ * 查询失败不缓存。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchResultCache implements MeterBinder {
+
+    private final StringRedisTemplate redisTemplate;
+    private final WkNeticProperties properties;
+
+    private static final String GENERATION_KEY = "wknetic:search:generation";
+
+    /** 本地代数的刷新间隔（毫秒） */
+    private static final long GENERATION_REFRESH_INTERVAL = 1000L;
+
+    private Cache<String, Object> cache;
+
+    /** 完整缓存键 -> 进行中的查询 */
+    private final Map<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    private volatile long generation;
+    private volatile long generationReadAt;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        cache = CacheUtil.newLRUCache(properties.getSearch().getResultCacheSize());
+    }
+
+    /**
+     * 获取随索引写入失效的缓存结果
+     *
+     * @param namespace 查询类型
+     * @param key 规范化的查询条件
+     * @param loader 查询ES，失败时抛出异常
+     * @return 查询结果
+     */
+    public <T> T get(String namespace, String key, Supplier<T> loader) {
+        String fullKey = namespace + ":" + currentGeneration() + ":" + key;
+        return load(fullKey, properties.getSearch().getResultCacheTtl(), loader);
+    }
+
+    /**
+     * 获取只按有效期过期的缓存结果（统计类结果，不随单次写入变化）
+     *
+     * @param namespace 查询类型
+     * @param key 查询条件
+     * @param ttl 有效期（毫秒）
+     * @param loader 查询ES，失败时抛出异常
+     * @return 查询结果
+     */
+    public <T> T getTimed(String namespace, String key, long ttl, Supplier<T> loader) {
+        return load(namespace + ":" + key, ttl, loader);
+    }
+
+    /**
+     * 索引写入后递增代数，使所有实例上的缓存结果失效
+     */
+    public void invalidate() {
+        try {
+            Long next = redisTemplate.opsForValue().increment(GENERATION_KEY);
+            if (next != null) {
+                generation = next;
+                generationReadAt = System.currentTimeMillis();
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("递增搜索缓存代数失败，仅清空本地缓存: {}", e.getMessage());
+        }
+        cache.clear();
+    }
+
+    /**
+     * 缓存统计
+     *
+     * @return 命中数、未命中数、合并的并发查询数、命中率、条目数
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long coalescedCount = coalesced.sum();
+        long total = hitCount + missCount + coalescedCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("coalesced", coalescedCount);
+        // 合并的查询没有单独访问ES，计入命中
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) (hitCount + coalescedCount) / total);
+        stats.put("size", cache.size());
+        stats.put("generation", generation);
+        return stats;
+    }
+
+    /**
+     * 注册缓存指标：按结果区分的访问次数、命中率、条目数（cache 标签为 search）
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("wknetic.cache.gets", hits, LongAdder::sum)
+                .tags("cache", "search", "result", "hit").register(registry);
+        FunctionCounter.builder("wknetic.cache.gets", misses, LongAdder::sum)
+                .tags("cache", "search", "result", "miss").register(registry);
+        FunctionCounter.builder("wknetic.cache.gets", coalesced, LongAdder::sum)
+                .tags("cache", "search", "result", "coalesced").register(registry);
+        Gauge.builder("wknetic.cache.hit.ratio", this, c -> (double) c.getStats().get("hitRatio"))
+                .tag("cache", "search").register(registry);
+        Gauge.builder("wknetic.cache.size", this, c -> c.cache == null ? 0 : c.cache.size())
+                .tag("cache", "search").register(registry);
+    }
+
+    /**
+     * 搜索条件的规范化键：关键词去除多余空白并转小写，标签去重排序
+     *
+     * @param dto 搜索条件
+     * @return 缓存键
+     */
+    public static String keyOf(SearchPostDTO dto) {
+        String keyword = dto.getKeyword() == null ? ""
+                : dto.getKeyword().trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        String tags = dto.getTags() == null ? "" : dto.getTags().stream()
+                .filter(Objects::nonNull)
+                .map(tag -> tag.trim().toLowerCase(Locale.ROOT))
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(","));
+        return String.join("|",
+                keyword,
+                String.valueOf(dto.getTopicId()),
+                tags,
+                String.valueOf(dto.getStatus()),
+                String.valueOf(dto.getStartTime()),
+                String.valueOf(dto.getEndTime()),
+                dto.getSortBy() == null ? "_score" : dto.getSortBy(),
+                "asc".equalsIgnoreCase(dto.getSortOrder()) ? "asc" : "desc",
+                String.valueOf(dto.getPage()),
+                String.valueOf(dto.getSize()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T load(String fullKey, long ttl, Supplier<T> loader) {
+        Object cached = cache.get(fullKey);
+        if (cached != null) {
+            hits.increment();
+            return (T) cached;
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = loading.putIfAbsent(fullKey, mine);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+
+        misses.increment();
+        try {
+            T value = loader.get();
+            if (value != null) {
+                cache.put(fullKey, value, ttl);
+            }
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(fullKey, mine);
+        }
+    }
+
+    private long currentGeneration() {
+        long now = System.currentTimeMillis();
+        if (now - generationReadAt < GENERATION_REFRESH_INTERVAL) {
+            return generation;
+        }
+        try {
+            String value = redisTemplate.opsForValue().get(GENERATION_KEY);
+            generation = value != null ? Long.parseLong(value) : 0L;
+        } catch (Exception e) {
+            log.debug("读取搜索缓存代数失败，沿用本地代数: {}", e.getMessage());
+        }
+        generationReadAt = now;
+        return generation;
+    }
+}
@@ -0,0 +1,230 @@
+package cn.wekyjay.wknetic.admin.forum.service;
+
+import cn.hutool.cache.Cache;
+import cn.hutool.cache.CacheUtil;
+import cn.wekyjay.wknetic.admin.forum.document.PostDocument;
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Suggestion;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 搜索建议服务
+ * <p>
+ * 基于 completion suggester（内存中的前缀索引，不做全文打分），
+ * 热门前缀在进程内短时缓存，同一前缀的并发请求共用一次查询。
+ * 同一用户连续输入时，新请求会让该用户上一个仍在等待的请求立即返回空结果，
+ * 没有其他等待者的查询直接中止，不再占用ES。
+ * 索引尚未重建（没有 completion 字段）时回退到标题短语匹配。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchSuggestService implements MeterBinder {
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchService elasticsearchService;
+
+    private static final String SUGGESTER = "post-suggest";
+    private static final int MAX_PREFIX_LENGTH = 50;
+    private static final int MAX_LIMIT = 10;
+
+    /** 前缀缓存容量和有效期（毫秒） */
+    private static final int CACHE_CAPACITY = 10000;
+    private static final long CACHE_TTL = 30000L;
+
+    /** 等待查询结果的最长时间（毫秒），超时返回空结果，查询完成后仍会写入缓存 */
+    private static final long SUGGEST_TIMEOUT = 200L;
+
+    /** 数量:前缀 -> 建议列表 */
+    private final Cache<String, List<String>> cache = CacheUtil.newLRUCache(CACHE_CAPACITY, CACHE_TTL);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /** 数量:前缀 -> 进行中的查询 */
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    /** 用户ID -> 该用户最新请求的取代信号 */
+    private final Map<Long, CompletableFuture<Void>> latestByUser = new ConcurrentHashMap<>();
+
+    private ElasticsearchAsyncClient asyncClient;
+
+    @PostConstruct
+    public void init() {
+        asyncClient = new ElasticsearchAsyncClient(elasticsearchClient._transport());
+    }
+
+    /**
+     * 注册缓存指标：按结果区分的访问次数、命中率、条目数（cache 标签为 suggest）
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("wknetic.cache.gets", hits, LongAdder::sum)
+                .tags("cache", "suggest", "result", "hit").register(registry);
+        FunctionCounter.builder("wknetic.cache.gets", misses, LongAdder::sum)
+                .tags("cache", "suggest", "result", "miss").register(registry);
+        Gauge.builder("wknetic.cache.hit.ratio", this, SearchSuggestService::hitRatio)
+                .tag("cache", "suggest").register(registry);
+        Gauge.builder("wknetic.cache.size", this, s -> s.cache.size())
+                .tag("cache", "suggest").register(registry);
+    }
+
+    private double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * 获取搜索建议
+     *
+     * @param prefix 输入的前缀
+     * @param limit 数量
+     * @param userId 当前用户ID（匿名为null，不参与取代）
+     * @return 建议列表（标题或标签）
+     */
+    public List<String> suggest(String prefix, int limit, Long userId) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int size = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        String key = size + ":" + normalized;
+        List<String> cached = cache.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        CompletableFuture<Void> superseded = new CompletableFuture<>();
+        if (userId != null) {
+            CompletableFuture<Void> previous = latestByUser.put(userId, superseded);
+            if (previous != null) {
+                previous.complete(null);
+            }
+        }
+
+        InFlight call = acquire(key, normalized, size);
+        boolean abandoned = false;
+        try {
+            CompletableFuture.anyOf(call.result, superseded).get(SUGGEST_TIMEOUT, TimeUnit.MILLISECONDS);
+            if (!call.result.isDone()) {
+                abandoned = true;
+                return Collections.emptyList();
+            }
+            return call.result.join();
+        } catch (TimeoutException e) {
+            log.debug("搜索建议超时: prefix={}", normalized);
+            return Collections.emptyList();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Collections.emptyList();
+        } catch (ExecutionException | CompletionException | CancellationException e) {
+            log.debug("completion 查询失败，回退到标题匹配: prefix={}", normalized, e);
+            List<String> fallback = elasticsearchService.getSuggestions(normalized, size);
+            cache.put(key, fallback);
+            return fallback;
+        } finally {
+            release(key, call, abandoned);
+            if (userId != null) {
+                latestByUser.remove(userId, superseded);
+            }
+        }
+    }
+
+    /**
+     * 加入进行中的查询，没有则发起新查询
+     */
+    private InFlight acquire(String key, String prefix, int size) {
+        return inFlight.compute(key, (k, existing) -> {
+            if (existing != null && !existing.search.isDone()) {
+                existing.waiters++;
+                return existing;
+            }
+            return new InFlight(k, prefix, size);
+        });
+    }
+
+    /**
+     * 离开查询，被取代的最后一个等待者中止仍未完成的ES请求
+     */
+    private void release(String key, InFlight call, boolean abandoned) {
+        inFlight.computeIfPresent(key, (k, existing) -> {
+            if (existing != call) {
+                return existing;
+            }
+            if (--existing.waiters > 0) {
+                return existing;
+            }
+            if (abandoned) {
+                existing.search.cancel(true);
+            }
+            return null;
+        });
+    }
+
+    private String normalize(String prefix) {
+        if (prefix == null) {
+            return "";
+        }
+        String normalized = prefix.trim().toLowerCase(Locale.ROOT);
+        return normalized.length() > MAX_PREFIX_LENGTH ? normalized.substring(0, MAX_PREFIX_LENGTH) : normalized;
+    }
+
+    /**
+     * 一次进行中的 completion 查询
+     */
+    private final class InFlight {
+
+        /** ES请求，取消时中止HTTP请求 */
+        private final CompletableFuture<SearchResponse<PostDocument>> search;
+
+        /** 解析后的建议列表 */
+        private final CompletableFuture<List<String>> result;
+
+        /** 等待者数量，只在 inFlight 的 compute 中修改 */
+        private int waiters = 1;
+
+        private InFlight(String key, String prefix, int size) {
+            this.search = asyncClient.search(s -> s
+                    .index(SearchReindexService.POST_ALIAS)
+                    .source(src -> src.fetch(false))
+                    .suggest(sg -> sg.suggesters(SUGGESTER, fs -> fs
+                            .prefix(prefix)
+                            .completion(c -> c
+                                    .field("suggest")
+                                    .size(size)
+                                    .skipDuplicates(true)))),
+                    PostDocument.class);
+            this.result = search.thenApply(response -> {
+                Set<String> texts = new LinkedHashSet<>();
+                for (Suggestion<PostDocument> suggestion : response.suggest().getOrDefault(SUGGESTER, List.of())) {
+                    if (suggestion.isCompletion()) {
+                        suggestion.completion().options().forEach(option -> texts.add(option.text()));
+                    }
+                }
+                List<String> suggestions = texts.stream().limit(size).toList();
+                cache.put(key, suggestions);
+                return suggestions;
+            });
+        }
+    }
+}
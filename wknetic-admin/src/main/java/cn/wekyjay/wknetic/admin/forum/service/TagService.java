@@ -0,0 +1,277 @@
+package cn.wekyjay.wknetic.admin.forum.service;
+
+import cn.wekyjay.wknetic.admin.forum.listener.EventDeduplicator;
+import cn.wekyjay.wknetic.common.mapper.ForumTagMapper;
+import cn.wekyjay.wknetic.common.mapper.PostTagMapper;
+import cn.wekyjay.wknetic.common.model.entity.ForumTag;
+import cn.wekyjay.wknetic.common.model.entity.PostTag;
+import cn.wekyjay.wknetic.community.event.post.PostDeletedEvent;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 标签服务
+ * <p>
+ * 维护内存中的 标签名 -> 标签ID 字典（启动时预热，未命中时回源数据库），
+ * 帖子打标签时批量创建标签、批量写入关联、批量调整使用次数，语句数与标签个数无关。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TagService {
+
+    private final ForumTagMapper tagMapper;
+    private final PostTagMapper postTagMapper;
+    private final EventDeduplicator eventDeduplicator;
+
+    /** 规范化标签名（小写） -> 标签ID */
+    private final Map<String, Long> tagIdByName = new ConcurrentHashMap<>();
+    /** 标签ID -> 标签名 */
+    private final Map<Long, String> tagNameById = new ConcurrentHashMap<>();
+
+    /**
+     * 启动完成后预热标签字典（在数据库初始化之后执行）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            List<ForumTag> tags = tagMapper.selectList(new LambdaQueryWrapper<ForumTag>()
+                    .select(ForumTag::getTagId, ForumTag::getTagName));
+            tags.forEach(this::cache);
+            log.info("标签字典预热完成，共{}个标签", tags.size());
+        } catch (Exception e) {
+            log.warn("标签字典预热失败，将在使用时按需加载: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 为新帖子添加标签
+     *
+     * @param postId 帖子ID
+     * @param tagNames 标签名称列表
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void attachTags(Long postId, List<String> tagNames) {
+        Set<Long> tagIds = new LinkedHashSet<>(resolveTagIds(tagNames).values());
+        if (tagIds.isEmpty()) {
+            return;
+        }
+        postTagMapper.insertBatch(postId, tagIds);
+        tagMapper.applyUseCountDeltas(toDeltas(tagIds, Collections.emptySet()));
+    }
+
+    /**
+     * 替换帖子标签，只处理新旧标签的差异部分
+     *
+     * @param postId 帖子ID
+     * @param tagNames 新的标签名称列表
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void replaceTags(Long postId, List<String> tagNames) {
+        Set<Long> oldIds = getTagIds(postId);
+        Set<Long> newIds = new LinkedHashSet<>(resolveTagIds(tagNames).values());
+
+        Set<Long> added = new LinkedHashSet<>(newIds);
+        added.removeAll(oldIds);
+        Set<Long> removed = new HashSet<>(oldIds);
+        removed.removeAll(newIds);
+
+        if (!removed.isEmpty()) {
+            postTagMapper.deleteBatch(postId, removed);
+        }
+        if (!added.isEmpty()) {
+            postTagMapper.insertBatch(postId, added);
+        }
+        Map<Long, Integer> deltas = toDeltas(added, removed);
+        if (!deltas.isEmpty()) {
+            tagMapper.applyUseCountDeltas(deltas);
+        }
+    }
+
+    /**
+     * 帖子删除后释放其标签的使用次数
+     * 帖子为软删除，关联记录保留以便追溯
+     * 同步监听器失败时发件箱会重新投递，扣减完成后记录，避免重复扣减
+     */
+    @Async
+    @EventListener
+    public void onPostDeleted(PostDeletedEvent event) {
+        if (eventDeduplicator.isDone(event, "tagUseCount")) {
+            return;
+        }
+        Set<Long> tagIds = getTagIds(event.getPostId());
+        if (!tagIds.isEmpty()) {
+            tagMapper.applyUseCountDeltas(toDeltas(Collections.emptySet(), tagIds));
+        }
+        eventDeduplicator.markDone(event, "tagUseCount");
+    }
+
+    /**
+     * 获取帖子的标签名称列表
+     *
+     * @param postId 帖子ID
+     * @return 标签名称列表
+     */
+    public List<String> getTagNames(Long postId) {
+        Set<Long> tagIds = getTagIds(postId);
+        if (tagIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> missing = tagIds.stream().filter(id -> !tagNameById.containsKey(id)).collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            tagMapper.selectBatchIds(missing).forEach(this::cache);
+        }
+        return tagIds.stream().map(tagNameById::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * 批量获取多个帖子的标签名称
+     *
+     * @param postIds 帖子ID集合
+     * @return 帖子ID -> 标签名称列表（没有标签的帖子不在结果中）
+     */
+    public Map<Long, List<String>> getTagNames(Collection<Long> postIds) {
+        if (postIds == null || postIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        List<PostTag> postTags = postTagMapper.selectList(new LambdaQueryWrapper<PostTag>()
+                .in(PostTag::getPostId, postIds));
+        List<Long> missing = postTags.stream().map(PostTag::getTagId)
+                .filter(id -> !tagNameById.containsKey(id)).distinct().collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            tagMapper.selectBatchIds(missing).forEach(this::cache);
+        }
+        Map<Long, List<String>> result = new HashMap<>();
+        for (PostTag postTag : postTags) {
+            String name = tagNameById.get(postTag.getTagId());
+            if (name != null) {
+                result.computeIfAbsent(postTag.getPostId(), k -> new ArrayList<>()).add(name);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 将标签名称解析为标签ID，不存在的标签批量创建
+     * 最多执行一次查询、一次批量插入和一次回查
+     *
+     * @param tagNames 标签名称列表
+     * @return 规范化标签名 -> 标签ID（保持输入顺序，已去重）
+     */
+    public Map<String, Long> resolveTagIds(List<String> tagNames) {
+        // 去除空白、按规范化名称去重，保留首次出现的写法
+        Map<String, String> wanted = new LinkedHashMap<>();
+        if (tagNames != null) {
+            for (String name : tagNames) {
+                if (StringUtils.hasText(name)) {
+                    String trimmed = name.trim();
+                    wanted.putIfAbsent(normalize(trimmed), trimmed);
+                }
+            }
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        if (wanted.isEmpty()) {
+            return result;
+        }
+
+        List<String> missing = new ArrayList<>();
+        wanted.forEach((key, name) -> {
+            Long id = tagIdByName.get(key);
+            if (id != null) {
+                result.put(key, id);
+            } else {
+                missing.add(name);
+            }
+        });
+
+        if (!missing.isEmpty()) {
+            // 其他节点可能已创建，先查询
+            tagMapper.selectByNames(missing).forEach(tag -> {
+                cache(tag);
+                result.put(normalize(tag.getTagName()), tag.getTagId());
+            });
+            List<String> toCreate = missing.stream()
+                    .filter(name -> !result.containsKey(normalize(name)))
+                    .collect(Collectors.toList());
+            if (!toCreate.isEmpty()) {
+                tagMapper.insertIgnoreBatch(toCreate);
+                List<ForumTag> created = tagMapper.selectByNames(toCreate);
+                created.forEach(tag -> result.put(normalize(tag.getTagName()), tag.getTagId()));
+                cacheAfterCommit(created);
+            }
+        }
+
+        // 按输入顺序返回
+        Map<String, Long> ordered = new LinkedHashMap<>();
+        wanted.keySet().forEach(key -> {
+            Long id = result.get(key);
+            if (id != null) {
+                ordered.put(key, id);
+            }
+        });
+        return ordered;
+    }
+
+    private Set<Long> getTagIds(Long postId) {
+        return postTagMapper.selectList(new LambdaQueryWrapper<PostTag>()
+                        .select(PostTag::getTagId)
+                        .eq(PostTag::getPostId, postId))
+                .stream().map(PostTag::getTagId).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private Map<Long, Integer> toDeltas(Set<Long> added, Set<Long> removed) {
+        Map<Long, Integer> deltas = new HashMap<>();
+        added.forEach(id -> deltas.merge(id, 1, Integer::sum));
+        removed.forEach(id -> deltas.merge(id, -1, Integer::sum));
+        deltas.values().removeIf(delta -> delta == 0);
+        return deltas;
+    }
+
+    /**
+     * 新建的标签在事务提交后才放入字典，避免回滚后字典中残留无效ID
+     */
+    private void cacheAfterCommit(List<ForumTag> tags) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tags.forEach(TagService.this::cache);
+                }
+            });
+        } else {
+            tags.forEach(this::cache);
+        }
+    }
+
+    private void cache(ForumTag tag) {
+        if (tag == null || tag.getTagId() == null || tag.getTagName() == null) {
+            return;
+        }
+        tagIdByName.put(normalize(tag.getTagName()), tag.getTagId());
+        tagNameById.put(tag.getTagId(), tag.getTagName());
+    }
+
+    /**
+     * 标签名唯一索引使用不区分大小写的排序规则，字典键同样按小写处理
+     */
+    private String normalize(String tagName) {
+        return tagName.trim().toLowerCase(Locale.ROOT);
+    }
+}
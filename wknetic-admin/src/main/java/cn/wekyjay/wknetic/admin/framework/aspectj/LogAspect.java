@@ -2,8 +2,7 @@
 
 import cn.wekyjay.wknetic.admin.common.annotation.Log;
 import cn.wekyjay.wknetic.admin.system.domain.SysOperLog;
-import cn.wekyjay.wknetic.admin.system.service.ISysOperLogService;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import cn.wekyjay.wknetic.admin.system.service.OperLogWriter;
 import jakarta.annotation.Resource;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -13,23 +12,23 @@
 import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Aspect;
 import org.springframework.stereotype.Component;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 @Aspect
 @Component
 @Slf4j
 public class LogAspect {
 
-    // 日志服务
+    // 日志批量写入器（参数、返回值的序列化也在写入器的后台线程完成）
     @Resource
-    private ISysOperLogService operLogService;
-
-    // JSON 转换器
-    @Resource
-    private ObjectMapper objectMapper;
+    private OperLogWriter operLogWriter;
 
 
     // 成功返回通知
@@ -75,44 +74,31 @@ protected void handleLog(final JoinPoint joinPoint, Log controllerLog, final Exc
             operLog.setTitle(controllerLog.title()); // 注解上的标题
             operLog.setBusinessType(controllerLog.businessType().ordinal());
 
-            if (controllerLog.isSaveRequestData()) {
-                operLog.setOperParam(argsArrayToString(joinPoint.getArgs()));
-            }
-            if (controllerLog.isSaveResponseData() && jsonResult != null) {
-                try {
-                    operLog.setJsonResult(objectMapper.writeValueAsString(jsonResult));
-                } catch (Exception ex) { }
-            }
-
-            // 2. 【虚拟线程】异步入库
-            Thread.ofVirtual().name("virtual-log-saver").start(() -> {
-                try {
-                    operLogService.insertOperLog(operLog);
-                } catch (Exception ex) {
-                    log.error("日志入库失败: {}", ex.getMessage());
-                }
-            });
+            // 2. 放入有界队列，由写入器批量入库
+            Object[] args = controllerLog.isSaveRequestData() ? filterArgs(joinPoint.getArgs()) : null;
+            Object result = controllerLog.isSaveResponseData() ? jsonResult : null;
+            operLogWriter.submit(operLog, args, result);
 
         } catch (Exception exp) {
             log.error("日志切面异常: {}", exp.getMessage());
         }
     }
 
-    private String argsArrayToString(Object[] paramsArray) {
-        StringBuilder params = new StringBuilder();
-        if (paramsArray != null && paramsArray.length > 0) {
-            for (Object o : paramsArray) {
-                if (o != null && !isFilterObject(o)) {
-                    try {
-                        params.append(objectMapper.writeValueAsString(o)).append(" ");
-                    } catch (Exception e) { }
-                }
+    private Object[] filterArgs(Object[] paramsArray) {
+        if (paramsArray == null || paramsArray.length == 0) {
+            return null;
+        }
+        List<Object> params = new ArrayList<>(paramsArray.length);
+        for (Object o : paramsArray) {
+            if (o != null && !isFilterObject(o)) {
+                params.add(o);
             }
         }
-        return params.toString().trim();
+        return params.isEmpty() ? null : params.toArray();
     }
 
     public boolean isFilterObject(final Object o) {
-        return o instanceof HttpServletRequest || o instanceof HttpServletResponse;
+        return o instanceof HttpServletRequest || o instanceof HttpServletResponse
+                || o instanceof MultipartFile || o instanceof BindingResult;
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package cn.wekyjay.wknetic.admin.framework.config;
 
+import cn.wekyjay.wknetic.common.utils.ThreadUtil;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.TaskExecutor;
@@ -11,6 +13,7 @@
 /**
  * 异步任务配置
  * 启用@Async注解支持，配置线程池
+ * 线程池的队列长度等指标由 Actuator 按 Bean 名称自动注册（executor.queued 等）
  */
 @Configuration
 @EnableAsync
@@ -61,4 +64,12 @@ public TaskExecutor deviceFlowTaskExecutor() {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    /**
+     * ThreadUtil 调度执行器的指标
+     */
+    @Bean
+    public MeterBinder threadUtilMetrics() {
+        return ThreadUtil::bindMetrics;
+    }
+}
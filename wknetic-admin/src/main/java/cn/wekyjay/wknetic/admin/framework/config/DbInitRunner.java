@@ -10,7 +10,11 @@
 import jakarta.annotation.Resource;
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 数据库自动初始化脚本
@@ -27,6 +31,65 @@ public class DbInitRunner implements CommandLineRunner {
     @Value("${wknetic.db-auto-init:true}")
     private boolean autoInit;
 
+    /**
+     * 已有表的增量字段补丁：{表名, 字段名, ALTER 语句}
+     * CREATE TABLE IF NOT EXISTS 不会修改已存在的表，新增字段需要在这里登记
+     */
+    private static final String[][] COLUMN_PATCHES = {
+            {"forum_comment", "path",
+                    "ALTER TABLE `forum_comment` " +
+                    "ADD COLUMN `path` varchar(255) CHARACTER SET ascii COLLATE ascii_bin DEFAULT NULL COMMENT '物化路径（祖先到自身的评论ID，每段8位36进制，按路径排序即为展示顺序）' AFTER `reply_to_user_id`, " +
+                    "ADD COLUMN `depth` tinyint(4) DEFAULT 0 COMMENT '层级深度（顶级评论为0）' AFTER `path`, " +
+                    "ADD COLUMN `reply_count` int(11) DEFAULT 0 COMMENT '直接回复数' AFTER `depth`, " +
+                    "ADD KEY `idx_post_path` (`post_id`, `path`)"},
+            {"forum_post_history", "revision",
+                    "ALTER TABLE `forum_post_history` " +
+                    "ADD COLUMN `revision` int(11) DEFAULT NULL COMMENT '版本号（帖子内从1递增，为空表示尚未压缩的旧数据）' AFTER `editor_id`, " +
+                    "ADD COLUMN `is_snapshot` tinyint(1) DEFAULT 1 COMMENT '是否完整快照（0增量 1快照）' AFTER `revision`, " +
+                    "ADD UNIQUE KEY `uk_post_revision` (`post_id`, `revision`)"},
+            {"search_index_outbox", "doc_type",
+                    "ALTER TABLE `search_index_outbox` " +
+                    "ADD COLUMN `doc_type` varchar(10) NOT NULL DEFAULT 'POST' COMMENT '文档类型（POST/COMMENT/USER）' AFTER `id`, " +
+                    "CHANGE COLUMN `post_id` `doc_id` bigint(20) NOT NULL COMMENT '文档ID', " +
+                    "DROP INDEX `uk_post_id`, " +
+                    "ADD UNIQUE KEY `uk_doc` (`doc_type`, `doc_id`)"},
+    };
+
+    /**
+     * 已有表的增量索引补丁：{表名, 索引名, ALTER 语句}
+     */
+    private static final String[][] INDEX_PATCHES = {
+            {"forum_post", "ft_title_content",
+                    "ALTER TABLE `forum_post` " +
+                    "ADD FULLTEXT KEY `ft_title_content` (`title`, `content`) WITH PARSER ngram COMMENT 'ES不可用时的降级搜索'"},
+            {"forum_post", "idx_status_audit",
+                    "ALTER TABLE `forum_post` ADD KEY `idx_status_audit` (`status`, `audit_time`, `audit_user_id`)"},
+            {"sys_oper_log", "idx_oper_time",
+                    "ALTER TABLE `sys_oper_log` ADD KEY `idx_oper_time` (`oper_time`)"},
+            {"forum_post_history", "uk_post_revision",
+                    "ALTER TABLE `forum_post_history` " +
+                    "DROP INDEX `idx_post_revision`, " +
+                    "ADD UNIQUE KEY `uk_post_revision` (`post_id`, `revision`)"},
+    };
+
+    /**
+     * 新建表的数据初始化：{表名, SQL}
+     * 只在本次启动新建该表时执行一次（从旧版本升级时迁移旧数据）
+     */
+    private static final String[][] TABLE_INIT_PATCHES = {
+            // 启用举报聚合前的待处理举报合并为处理项（权重按1计）
+            {"forum_report_target",
+                    "INSERT IGNORE INTO `forum_report_target` (`target_type`, `target_id`, `report_count`, `score`, `status`, " +
+                    "`last_reason`, `first_report_time`, `last_report_time`) " +
+                    "SELECT `target_type`, `target_id`, COUNT(*), COUNT(*), 0, MAX(`reason`), MIN(`create_time`), MAX(`create_time`) " +
+                    "FROM `forum_report` WHERE `status` = 0 GROUP BY `target_type`, `target_id`"},
+            // 仪表板总数由业务操作增量调整，建表时按源表统计初始值
+            {"stats_total",
+                    "INSERT IGNORE INTO `stats_total` (`metric`, `value`) " +
+                    "SELECT 'enabled_users', COUNT(*) FROM `sys_user` WHERE `status` = 1 " +
+                    "UNION ALL SELECT 'published_posts', COUNT(*) FROM `forum_post` WHERE `status` = 1"},
+    };
+
     @Override
     public void run(String... args) {
         if (!autoInit) {
@@ -41,9 +104,13 @@ public void run(String... args) {
             ClassPathResource rc = new ClassPathResource("db/schema.sql");
             
             if (connection != null && rc.exists()) {
+                List<String[]> tableInits = pendingTableInits(connection);
                 // Spring 自带的 ScriptUtils 工具类，非常强大
                 // 它会自动处理 SQL 分割、注释清理等
                 ScriptUtils.executeSqlScript(connection, rc);
+                applyTableInits(connection, tableInits);
+                applyColumnPatches(connection);
+                applyIndexPatches(connection);
                 log.info("✅ 数据库表结构初始化完成 (已跳过已存在的表)");
             } else {
                 log.warn("⚠️ 未找到初始化脚本: db/schema.sql");
@@ -52,4 +119,72 @@ public void run(String... args) {
             log.error("❌ 数据库初始化失败", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 执行建表脚本前找出尚不存在的表对应的数据初始化
+     */
+    private List<String[]> pendingTableInits(Connection connection) throws SQLException {
+        List<String[]> pending = new ArrayList<>();
+        for (String[] patch : TABLE_INIT_PATCHES) {
+            try (ResultSet rs = connection.getMetaData().getTables(connection.getCatalog(), null, patch[0], null)) {
+                if (!rs.next()) {
+                    pending.add(patch);
+                }
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * 为本次新建的表执行数据初始化
+     */
+    private void applyTableInits(Connection connection, List<String[]> patches) throws SQLException {
+        for (String[] patch : patches) {
+            try (Statement statement = connection.createStatement()) {
+                int rows = statement.executeUpdate(patch[1]);
+                log.info("已为新建表 {} 初始化数据 {} 行", patch[0], rows);
+            }
+        }
+    }
+
+    /**
+     * 为已存在的表补充新增字段
+     */
+    private void applyColumnPatches(Connection connection) throws SQLException {
+        for (String[] patch : COLUMN_PATCHES) {
+            try (ResultSet rs = connection.getMetaData().getColumns(connection.getCatalog(), null, patch[0], patch[1])) {
+                if (rs.next()) {
+                    continue;
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(patch[2]);
+                log.info("已为表 {} 补充字段 {}", patch[0], patch[1]);
+            }
+        }
+    }
+
+    /**
+     * 为已存在的表补充新增索引
+     */
+    private void applyIndexPatches(Connection connection) throws SQLException {
+        for (String[] patch : INDEX_PATCHES) {
+            boolean exists = false;
+            try (ResultSet rs = connection.getMetaData().getIndexInfo(connection.getCatalog(), null, patch[0], false, false)) {
+                while (rs.next()) {
+                    if (patch[1].equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                        exists = true;
+                        break;
+                    }
+                }
+            }
+            if (exists) {
+                continue;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(patch[2]);
+                log.info("已为表 {} 补充索引 {}", patch[0], patch[1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package cn.wekyjay.wknetic.admin.framework.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * 定时任务配置
+ * 启用@Scheduled注解支持，并为定时任务指定独立的调度线程池（线程数和线程名前缀取 spring.task.scheduling）
+ * WebSocket 消息代理会注册自己的 TaskScheduler，Spring Boot 因此不再创建默认调度器，
+ * 不显式指定时所有定时任务共用一个线程，耗时的任务会推迟其他任务
+ */
+@Configuration
+@EnableScheduling
+@RequiredArgsConstructor
+public class SchedulingConfig implements SchedulingConfigurer {
+
+    private final TaskSchedulingProperties schedulingProperties;
+
+    /**
+     * 定时任务专用调度线程池
+     */
+    @Bean(name = "scheduledTaskScheduler")
+    public ThreadPoolTaskScheduler scheduledTaskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(schedulingProperties.getPool().getSize());
+        scheduler.setThreadNamePrefix(schedulingProperties.getThreadNamePrefix());
+        // 关闭时不等待执行中的任务（维护类任务可能耗时较长）
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.setTaskScheduler(scheduledTaskScheduler());
+    }
+}
@@ -21,12 +21,14 @@
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.security.messaging.context.SecurityContextChannelInterceptor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import java.security.Principal;
 import java.util.Collections;
 import java.util.List;
 
@@ -44,6 +46,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Resource
     private SysUserMapper userMapper;
 
+    /** 只允许管理员订阅的主题前缀 */
+    private static final String ADMIN_TOPIC_PREFIX = "/topic/admin/";
+
     @Override
     public void configureMessageBroker(@NonNull MessageBrokerRegistry config) {
         // 开启一个简单的内存消息代理，客户端订阅以 /topic 开头的消息
@@ -93,11 +98,25 @@ public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel c
                         }
                     }
                 }
+                // 管理端主题只允许管理员订阅
+                if (accessor != null && StompCommand.SUBSCRIBE.equals(accessor.getCommand())
+                        && accessor.getDestination() != null && accessor.getDestination().startsWith(ADMIN_TOPIC_PREFIX)
+                        && !isAdmin(accessor.getUser())) {
+                    log.warn("拒绝非管理员订阅 {}: user={}", accessor.getDestination(),
+                            accessor.getUser() != null ? accessor.getUser().getName() : null);
+                    return null;
+                }
                 return message;
             }
         });
     }
 
+    private boolean isAdmin(Principal principal) {
+        return principal instanceof Authentication authentication
+                && authentication.getAuthorities().stream()
+                        .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+
     @Override
     public void registerStompEndpoints(@NonNull StompEndpointRegistry registry) {
         // 注册一个 WebSocket 端点，前端连接这个 URL
@@ -3,6 +3,7 @@
 import cn.wekyjay.wknetic.common.exception.BusinessException;
 import cn.wekyjay.wknetic.common.enums.ResultCode;
 import cn.wekyjay.wknetic.common.model.Result;
+import cn.wekyjay.wknetic.common.utils.MetricsUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -87,6 +88,8 @@ public Result<Void> handleHttpMessageNotReadableException(HttpMessageNotReadable
     @ExceptionHandler(Exception.class)
     public Result<Void> handleException(Exception e, HttpServletRequest request) {
         log.error("系统未知异常 [{}]: ", request.getRequestURI(), e);
+        // Redis、ES 抛出的异常计入外部依赖错误指标
+        MetricsUtil.recordIfExternal(e);
         // 生产环境通常只返回 "系统繁忙"，不返回具体堆栈信息
         return Result.error(ResultCode.SYSTEM_ERROR, "系统出了点小差错，请稍后再试");
     }
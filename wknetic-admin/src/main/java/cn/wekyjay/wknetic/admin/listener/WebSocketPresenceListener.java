@@ -0,0 +1,55 @@
+package cn.wekyjay.wknetic.admin.listener;
+
+import cn.wekyjay.wknetic.common.service.PresenceService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+
+/**
+ * WebSocket 在线状态监听器
+ * STOMP 连接建立和断开时上报用户活动，连接期间由 {@link PresenceService} 按心跳保持在线
+ * 
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WebSocketPresenceListener {
+
+    private final PresenceService presenceService;
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Long userId = userIdOf(event.getUser());
+        if (userId != null) {
+            presenceService.connect(StompHeaderAccessor.wrap(event.getMessage()).getSessionId(), userId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        presenceService.disconnect(event.getSessionId());
+    }
+
+    /**
+     * 连接认证时以用户ID作为 Principal 名称（见 WebSocketConfig），匿名连接不记录
+     */
+    private Long userIdOf(Principal principal) {
+        if (principal == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(principal.getName());
+        } catch (NumberFormatException e) {
+            log.debug("无法识别的 WebSocket 用户: {}", principal.getName());
+            return null;
+        }
+    }
+}
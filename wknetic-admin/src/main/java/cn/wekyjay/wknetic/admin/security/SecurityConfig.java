@@ -3,26 +3,34 @@
 import cn.wekyjay.wknetic.auth.security.JwtAuthenticationTokenFilter;
 import cn.wekyjay.wknetic.auth.security.RestAccessDeniedHandler;
 import cn.wekyjay.wknetic.auth.security.RestAuthenticationEntryPoint;
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
 import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.util.StringUtils;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import jakarta.annotation.Resource;
@@ -47,6 +55,45 @@ public class SecurityConfig {
     private RestAuthenticationEntryPoint restAuthenticationEntryPoint;
     @Resource
     private RestAccessDeniedHandler restAccessDeniedHandler;
+    @Resource
+    private WkNeticProperties properties;
+
+    /** Prometheus 抓取账号的角色 */
+    private static final String SCRAPER_ROLE = "METRICS_SCRAPER";
+
+    /**
+     * Prometheus 抓取端点的配置链（优先于核心配置链匹配）
+     * 配置了抓取密码时允许抓取账号以 HTTP Basic 认证，管理员仍可通过 JWT 访问
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain prometheusFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/actuator/prometheus")
+            .csrf(AbstractHttpConfigurer::disable)
+            .exceptionHandling(handling -> handling
+                .authenticationEntryPoint(restAuthenticationEntryPoint)
+                .accessDeniedHandler(restAccessDeniedHandler)
+            )
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(registry -> registry.anyRequest().hasAnyRole("ADMIN", SCRAPER_ROLE))
+            .addFilterBefore(jwtAuthenticationTokenFilter, UsernamePasswordAuthenticationFilter.class);
+
+        WkNeticProperties.Metrics metrics = properties.getMetrics();
+        if (StringUtils.hasText(metrics.getScrapePassword())) {
+            PasswordEncoder encoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+            DaoAuthenticationProvider provider = new DaoAuthenticationProvider(new InMemoryUserDetailsManager(
+                    User.withUsername(metrics.getScrapeUsername())
+                            .password(encoder.encode(metrics.getScrapePassword()))
+                            .roles(SCRAPER_ROLE)
+                            .build()));
+            provider.setPasswordEncoder(encoder);
+            http
+                .authenticationManager(new ProviderManager(provider))
+                .httpBasic(basic -> basic.authenticationEntryPoint(restAuthenticationEntryPoint));
+        }
+        return http.build();
+    }
 
     /**
      * Spring Security 6.0+ 核心配置链
@@ -79,6 +126,8 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Excepti
                 .requestMatchers("/api/v1/config/public").permitAll()      // 公开配置接口（主题、站点信息等）
                 .requestMatchers("/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**").permitAll() // Swagger UI
                 .requestMatchers("/ws-connect/**").permitAll()             // WebSocket 连接 (认证通过 STOMP)
+                .requestMatchers("/actuator/health").permitAll()           // 健康检查
+                .requestMatchers("/actuator/**").hasRole("ADMIN")          // 其他监控端点仅管理员（Prometheus 见抓取端点配置链）
                 // 其他所有请求必须认证
                 .anyRequest().authenticated()
             )
@@ -1,6 +1,8 @@
 package cn.wekyjay.wknetic.admin.system.controller;
 
 import cn.wekyjay.wknetic.admin.forum.dto.*;
+import cn.wekyjay.wknetic.admin.system.service.DailyStatsService;
+import cn.wekyjay.wknetic.admin.system.service.DashboardMetricsHub;
 import cn.wekyjay.wknetic.admin.system.service.DashboardService;
 import cn.wekyjay.wknetic.common.model.Result;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,10 +12,12 @@
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -34,17 +38,20 @@
 public class DashboardController {
     
     private final DashboardService dashboardService;
+    private final DailyStatsService dailyStatsService;
+    private final DashboardMetricsHub dashboardMetricsHub;
     
     /**
      * 获取仪表板统计卡片数据
      * 包含：总用户数、当前在线、总发帖数、待审核数，及各项周环比
+     * 返回推送中心的快照，不重新查询；version 用于与推送消息对齐
      * 
      * @return 统计VO
      */
     @GetMapping("/statistics")
-    @Operation(summary = "获取仪表板统计数据", description = "返回四个统计卡片的数据和周环比")
+    @Operation(summary = "获取仪表板统计数据", description = "返回四个统计卡片的数据和周环比（推送中心的快照），之后的变化订阅 /topic/admin/dashboard")
     public Result<DashboardStatisticsVO> getDashboardStatistics() {
-        DashboardStatisticsVO statistics = dashboardService.getDashboardStatistics();
+        DashboardStatisticsVO statistics = dashboardMetricsHub.getSnapshot();
         return Result.success(statistics);
     }
     
@@ -52,13 +59,13 @@ public Result<DashboardStatisticsVO> getDashboardStatistics() {
      * 获取帖子发布趋势
      * 用于绘制趋势图表
      * 
-     * @param days 查询天数，支持7或30天，默认7天
+     * @param days 查询天数（1-366），默认7天
      * @return 趋势数据列表
      */
     @GetMapping("/post-trend")
     @Operation(summary = "获取帖子发布趋势", description = "返回指定天数内每日的发帖数量，用于绘制趋势图")
     @Parameters({
-            @Parameter(name = "days", description = "查询天数（7或30），默认7天", example = "7")
+            @Parameter(name = "days", description = "查询天数（1-366），默认7天", example = "7")
     })
     public Result<List<PostTrendVO>> getPostTrend(
             @RequestParam(required = false, defaultValue = "7") Integer days) {
@@ -66,6 +73,39 @@ public Result<List<PostTrendVO>> getPostTrend(
         return Result.success(trends);
     }
     
+    /**
+     * 获取每日统计
+     * 按日期返回新增用户、发布帖子、新增待审核、举报和评论数量
+     * 
+     * @param startDate 开始日期（含）
+     * @param endDate 结束日期（含），与开始日期相差不超过366天
+     * @return 指标 -> 日期 -> 数量
+     */
+    @GetMapping("/daily-stats")
+    @Operation(summary = "获取每日统计", description = "返回日期范围内每天的新增用户（new_users）、发布帖子（posts）、新增待审核（audits）、举报（reports）和评论（comments）数量")
+    @Parameters({
+            @Parameter(name = "startDate", description = "开始日期", example = "2026-01-01"),
+            @Parameter(name = "endDate", description = "结束日期", example = "2026-03-31")
+    })
+    public Result<Map<String, Map<LocalDate, Long>>> getDailyStats(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return Result.success(dailyStatsService.getRange(startDate, endDate));
+    }
+    
+    /**
+     * 回填每日统计
+     * 按业务表重新汇总全部历史，首次启用或数据修正时执行
+     * 
+     * @return 成功响应
+     */
+    @PostMapping("/daily-stats/backfill")
+    @Operation(summary = "回填每日统计", description = "异步按业务表重新汇总全部历史的每日统计并覆盖写入")
+    public Result<String> backfillDailyStats() {
+        dailyStatsService.backfill();
+        return Result.success("统计回填任务已启动");
+    }
+    
     /**
      * 获取最近活动日志
      * 显示系统内的最近操作和重要事件
@@ -0,0 +1,40 @@
+package cn.wekyjay.wknetic.admin.system.domain;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 操作日志归档记录
+ */
+@Data
+@TableName("sys_oper_log_archive")
+public class SysOperLogArchive implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** 归档主键 */
+    @TableId(type = IdType.AUTO)
+    private Long archiveId;
+
+    /** 归档的分区名（未分区时为 before_yyyyMM） */
+    private String partitionName;
+
+    /** 归档数据的最早、最晚操作时间 */
+    private Date startTime;
+    private Date endTime;
+
+    /** 归档行数 */
+    private Long rowCount;
+
+    /** 压缩文件大小（字节） */
+    private Long fileSize;
+
+    /** 归档文件地址 */
+    private String fileUrl;
+
+    /** 归档时间 */
+    private Date createTime;
+}
@@ -0,0 +1,10 @@
+package cn.wekyjay.wknetic.admin.system.mapper;
+
+import cn.wekyjay.wknetic.admin.system.domain.SysOperLogArchive;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+public interface SysOperLogArchiveMapper extends BaseMapper<SysOperLogArchive> {
+
+}
@@ -2,9 +2,24 @@
 
 import cn.wekyjay.wknetic.admin.system.domain.SysOperLog;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
 
 @Mapper
 public interface SysOperLogMapper extends BaseMapper<SysOperLog> {
 
+    /**
+     * 批量写入操作日志
+     *
+     * @param logs 日志列表
+     * @return 影响行数
+     */
+    @Insert("<script>INSERT INTO sys_oper_log (title, business_type, method, request_method, oper_name, oper_url, oper_ip, oper_param, json_result, status, error_msg, oper_time) VALUES " +
+            "<foreach collection='logs' item='l' separator=','>" +
+            "(#{l.title}, #{l.businessType}, #{l.method}, #{l.requestMethod}, #{l.operName}, #{l.operUrl}, #{l.operIp}, #{l.operParam}, #{l.jsonResult}, #{l.status}, #{l.errorMsg}, #{l.operTime})" +
+            "</foreach></script>")
+    int insertBatch(@Param("logs") Collection<SysOperLog> logs);
 }
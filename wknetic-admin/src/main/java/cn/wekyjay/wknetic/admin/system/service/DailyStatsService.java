@@ -0,0 +1,169 @@
+package cn.wekyjay.wknetic.admin.system.service;
+
+import cn.wekyjay.wknetic.common.mapper.DailyStatsMapper;
+import cn.wekyjay.wknetic.common.model.entity.DailyStats;
+import cn.wekyjay.wknetic.common.utils.ThreadUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 每日统计汇总Service
+ * <p>
+ * 按 日期 + 指标 汇总业务数量，由事件监听器增量累加，仪表板按日期范围一次读取，不再扫描业务表。
+ * 当前总数（启用的用户、已发布的帖子）单独存放在总数表中，由改变状态的业务操作在同一事务中增减，
+ * 仪表板按主键读取，不再计数业务表。
+ * 回填任务按源表重新汇总全部历史和当前总数并覆盖写入，用于首次启用或数据修正；启动时汇总表或总数表为空则自动回填。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DailyStatsService {
+
+    private final DailyStatsMapper dailyStatsMapper;
+
+    /** 新注册用户数 */
+    public static final String NEW_USERS = "new_users";
+    /** 发布的帖子数（无需审核直接发布或审核通过） */
+    public static final String POSTS = "posts";
+    /** 新增的待审核数（提交审核的帖子和举报） */
+    public static final String AUDITS = "audits";
+    /** 举报数 */
+    public static final String REPORTS = "reports";
+    /** 评论数 */
+    public static final String COMMENTS = "comments";
+
+    /** 当前启用的用户数（总数表） */
+    public static final String TOTAL_USERS = "enabled_users";
+    /** 当前已发布的帖子数（总数表） */
+    public static final String TOTAL_POSTS = "published_posts";
+
+    /** 单次查询的最大天数 */
+    public static final int MAX_DAYS = 366;
+
+    private final AtomicBoolean backfilling = new AtomicBoolean();
+
+    /**
+     * 累加某日某指标的数量
+     *
+     * @param date 日期
+     * @param metric 指标
+     * @param delta 增量
+     */
+    public void increment(LocalDate date, String metric, long delta) {
+        dailyStatsMapper.increment(date, metric, delta);
+    }
+
+    /**
+     * 调整当前总数，在改变状态的事务中调用，随事务一起提交或回滚
+     *
+     * @param metric 总数指标
+     * @param delta 增量（可为负）
+     */
+    public void adjustTotal(String metric, long delta) {
+        if (delta != 0) {
+            dailyStatsMapper.incrementTotal(metric, delta);
+        }
+    }
+
+    /**
+     * 读取全部当前总数
+     *
+     * @return 总数指标 -> 数量
+     */
+    public Map<String, Long> getTotals() {
+        return dailyStatsMapper.selectTotals().stream()
+                .collect(Collectors.toMap(DailyStats::getMetric, DailyStats::getValue));
+    }
+
+    /**
+     * 读取日期范围内的统计，缺失的日期补0
+     *
+     * @param startDate 开始日期（含）
+     * @param endDate 结束日期（含）
+     * @return 指标 -> 按日期排列的数量
+     */
+    public Map<String, Map<LocalDate, Long>> getRange(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("结束日期不能早于开始日期");
+        }
+        if (startDate.plusDays(MAX_DAYS).isBefore(endDate)) {
+            throw new IllegalArgumentException("查询范围不能超过" + MAX_DAYS + "天");
+        }
+        Map<String, Map<LocalDate, Long>> result = new LinkedHashMap<>();
+        for (String metric : List.of(NEW_USERS, POSTS, AUDITS, REPORTS, COMMENTS)) {
+            Map<LocalDate, Long> series = new LinkedHashMap<>();
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+                series.put(date, 0L);
+            }
+            result.put(metric, series);
+        }
+        for (DailyStats stats : dailyStatsMapper.selectRange(startDate, endDate)) {
+            Map<LocalDate, Long> series = result.get(stats.getMetric());
+            if (series != null) {
+                series.put(stats.getStatDate(), stats.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 启动后汇总表或总数表为空时（从旧版本升级、手动建表）自动回填
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (!dailyStatsMapper.exists(new LambdaQueryWrapper<DailyStats>())) {
+                log.info("每日统计汇总表为空，开始自动回填");
+                backfill();
+            } else if (dailyStatsMapper.selectTotals().isEmpty()) {
+                dailyStatsMapper.upsertTotals(dailyStatsMapper.aggregateTotals());
+                log.info("统计总数表为空，已按源表初始化");
+            }
+        } catch (Exception e) {
+            log.warn("检查每日统计是否需要回填失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 按源表重新汇总全部历史和当前总数（异步执行）
+     * 回填期间产生、尚未处理的事件可能被重复计入当天的数据
+     */
+    public void backfill() {
+        if (!backfilling.compareAndSet(false, true)) {
+            throw new RuntimeException("统计回填正在进行中");
+        }
+        ThreadUtil.runAsync(() -> {
+            try {
+                List<DailyStats> records = new ArrayList<>();
+                records.addAll(dailyStatsMapper.aggregateNewUsers());
+                records.addAll(dailyStatsMapper.aggregatePosts());
+                records.addAll(dailyStatsMapper.aggregateAudits());
+                records.addAll(dailyStatsMapper.aggregateReports());
+                records.addAll(dailyStatsMapper.aggregateComments());
+                records.removeIf(record -> record.getStatDate() == null);
+                for (int from = 0; from < records.size(); from += 500) {
+                    dailyStatsMapper.upsertBatch(records.subList(from, Math.min(from + 500, records.size())));
+                }
+                dailyStatsMapper.upsertTotals(dailyStatsMapper.aggregateTotals());
+                log.info("每日统计回填完成: 记录数={}", records.size());
+            } catch (Exception e) {
+                log.error("每日统计回填失败", e);
+            } finally {
+                backfilling.set(false);
+            }
+        });
+    }
+}
@@ -0,0 +1,219 @@
+package cn.wekyjay.wknetic.admin.system.service;
+
+import cn.wekyjay.wknetic.admin.forum.dto.DashboardMetricsMessage;
+import cn.wekyjay.wknetic.admin.forum.dto.DashboardStatisticsVO;
+import cn.wekyjay.wknetic.admin.system.service.DashboardService.StatCard;
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 仪表板统计推送中心
+ * <p>
+ * 事件监听器只标记哪些卡片分组有变化，定时任务每个推送周期把期间的变化合并，只重新计算有变化的分组，
+ * 与上次的快照比较后把有变化的字段通过 Redis 频道广播，各节点收到后更新本地快照并推送到 /topic/admin/dashboard。
+ * 无论打开多少个仪表板页面，每个周期至多计算一次；REST 接口也直接返回本地快照。
+ * 在线用户等不由事件驱动的数据、以及定期的全量刷新，通过 Redis 锁保证每个周期只有一个节点计算。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardMetricsHub implements MessageListener {
+
+    private final DashboardService dashboardService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final WkNeticProperties properties;
+
+    /** STOMP 推送目的地 */
+    public static final String DESTINATION = "/topic/admin/dashboard";
+    /** 节点间广播的 Redis 频道 */
+    public static final String CHANNEL = "wknetic:dashboard:metrics";
+
+    private static final String VERSION_KEY = "wknetic:dashboard:version";
+    private static final String PRESENCE_LOCK_KEY = "wknetic:dashboard:lock:presence";
+    private static final String FULL_LOCK_KEY = "wknetic:dashboard:lock:full";
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    /** 待重新计算的分组 */
+    private final Set<StatCard> dirty = ConcurrentHashMap.newKeySet();
+
+    /** 本节点的快照（字段 -> 值，取值与推送消息反序列化后的类型一致，便于比较） */
+    private final Map<String, Object> snapshot = new ConcurrentHashMap<>();
+    private volatile long snapshotVersion;
+
+    private volatile long lastPresenceRefresh;
+    private volatile long lastFullRefresh;
+
+    /**
+     * 标记分组有变化，下个推送周期重新计算
+     *
+     * @param cards 卡片分组
+     */
+    public void markDirty(StatCard... cards) {
+        Collections.addAll(dirty, cards);
+    }
+
+    /**
+     * 按每日统计指标标记分组
+     *
+     * @param metrics 每日统计指标
+     */
+    public void markMetricsDirty(String... metrics) {
+        for (String metric : metrics) {
+            StatCard card = StatCard.ofMetric(metric);
+            if (card != null) {
+                dirty.add(card);
+            }
+        }
+    }
+
+    /**
+     * 推送周期：合并期间的变化，计算并广播
+     */
+    @Scheduled(initialDelay = 10000, fixedDelayString = "${wknetic.dashboard.push-interval:2000}")
+    public void tick() {
+        WkNeticProperties.Dashboard config = properties.getDashboard();
+        long now = System.currentTimeMillis();
+        if (now - lastFullRefresh >= config.getFullRefreshInterval()) {
+            lastFullRefresh = now;
+            if (tryLock(FULL_LOCK_KEY, config.getFullRefreshInterval())) {
+                dirty.clear();
+                publish(EnumSet.allOf(StatCard.class), true);
+                return;
+            }
+        }
+        if (now - lastPresenceRefresh >= config.getPresenceRefreshInterval()) {
+            lastPresenceRefresh = now;
+            if (tryLock(PRESENCE_LOCK_KEY, config.getPresenceRefreshInterval())) {
+                dirty.add(StatCard.ONLINE);
+            }
+        }
+
+        EnumSet<StatCard> cards = EnumSet.noneOf(StatCard.class);
+        for (StatCard card : StatCard.values()) {
+            if (dirty.remove(card)) {
+                cards.add(card);
+            }
+        }
+        if (!cards.isEmpty()) {
+            publish(cards, false);
+        }
+    }
+
+    /**
+     * 当前快照，本节点还没有快照时计算一次全量
+     *
+     * @return 统计VO
+     */
+    public DashboardStatisticsVO getSnapshot() {
+        if (snapshot.isEmpty()) {
+            synchronized (snapshot) {
+                if (snapshot.isEmpty()) {
+                    try {
+                        snapshot.putAll(toMap(dashboardService.getDashboardStatistics()));
+                    } catch (Exception e) {
+                        throw new RuntimeException("仪表板统计计算失败", e);
+                    }
+                }
+            }
+        }
+        DashboardStatisticsVO statistics = objectMapper.convertValue(snapshot, DashboardStatisticsVO.class);
+        statistics.setVersion(snapshotVersion);
+        return statistics;
+    }
+
+    /**
+     * 收到广播：更新本地快照并推送给本节点的订阅者
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            DashboardMetricsMessage metrics = objectMapper.readValue(message.getBody(), DashboardMetricsMessage.class);
+            synchronized (snapshot) {
+                if (metrics.getVersion() == null || metrics.getVersion() <= snapshotVersion) {
+                    return;
+                }
+                if (Boolean.TRUE.equals(metrics.getFull())) {
+                    snapshot.clear();
+                }
+                if (metrics.getChanges() != null) {
+                    metrics.getChanges().forEach((field, value) -> {
+                        if (value != null) {
+                            snapshot.put(field, value);
+                        }
+                    });
+                }
+                snapshotVersion = metrics.getVersion();
+            }
+            messagingTemplate.convertAndSend(DESTINATION, metrics);
+        } catch (Exception e) {
+            log.error("处理仪表板统计广播失败", e);
+        }
+    }
+
+    private void publish(Set<StatCard> cards, boolean full) {
+        try {
+            Map<String, Object> values = toMap(dashboardService.getDashboardStatistics(cards));
+            Map<String, Object> changes = values;
+            if (!full) {
+                changes = new LinkedHashMap<>();
+                for (Map.Entry<String, Object> entry : values.entrySet()) {
+                    if (!Objects.equals(snapshot.get(entry.getKey()), entry.getValue())) {
+                        changes.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                if (changes.isEmpty()) {
+                    return;
+                }
+            }
+            DashboardMetricsMessage message = DashboardMetricsMessage.builder()
+                    .version(stringRedisTemplate.opsForValue().increment(VERSION_KEY))
+                    .full(full)
+                    .changes(changes)
+                    .build();
+            stringRedisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(message));
+        } catch (Exception e) {
+            log.warn("仪表板统计推送失败: cards={}", cards, e);
+            if (!full) {
+                dirty.addAll(cards);
+            }
+        }
+    }
+
+    /**
+     * VO 转为 字段 -> 值，经过一次 JSON 序列化，使取值类型与广播消息反序列化后的一致；去掉未计算的字段
+     */
+    private Map<String, Object> toMap(DashboardStatisticsVO statistics) throws Exception {
+        Map<String, Object> values = objectMapper.readValue(objectMapper.writeValueAsString(statistics), MAP_TYPE);
+        values.values().removeIf(Objects::isNull);
+        return values;
+    }
+
+    /**
+     * 每个刷新周期只允许一个节点计算，锁在下个周期开始前到期
+     */
+    private boolean tryLock(String key, long interval) {
+        long ttl = Math.max(interval - properties.getDashboard().getPushInterval(), properties.getDashboard().getPushInterval());
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(key, "1", Duration.ofMillis(ttl)));
+    }
+}
@@ -3,10 +3,11 @@
 import cn.wekyjay.wknetic.admin.forum.dto.*;
 import cn.wekyjay.wknetic.admin.system.domain.SysOperLog;
 import cn.wekyjay.wknetic.admin.system.mapper.SysOperLogMapper;
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
 import cn.wekyjay.wknetic.common.mapper.*;
 import cn.wekyjay.wknetic.common.model.entity.ForumPost;
 import cn.wekyjay.wknetic.common.domain.UserQuickAction;
-import cn.wekyjay.wknetic.common.domain.SysUser;
+import cn.wekyjay.wknetic.common.service.PresenceService;
 import cn.wekyjay.wknetic.auth.utils.SecurityUtils;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
@@ -17,13 +18,14 @@
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -37,87 +39,138 @@
 @RequiredArgsConstructor
 public class DashboardService {
     
-    private final SysUserMapper userMapper;
     private final ForumPostMapper postMapper;
     private final ForumCommentMapper commentMapper;
     private final ForumReportMapper reportMapper;
     private final SysOperLogMapper operLogMapper;
     private final UserQuickActionMapper quickActionMapper;
+    private final DailyStatsService dailyStatsService;
+    private final PresenceService presenceService;
+    private final WkNeticProperties properties;
+    
+    /**
+     * 统计卡片分组，每组的字段一起计算，由 {@link DashboardMetricsHub} 按组增量刷新
+     */
+    public enum StatCard {
+        /** 总用户数及周环比 */
+        USERS(DailyStatsService.NEW_USERS),
+        /** 总发帖数及周环比 */
+        POSTS(DailyStatsService.POSTS),
+        /** 待审核数及周环比 */
+        AUDITS(DailyStatsService.AUDITS),
+        /** 在线用户数、周环比及日/周/月活跃用户数（来自在线状态，不由事件驱动） */
+        ONLINE(null);
+
+        private final String metric;
+
+        StatCard(String metric) {
+            this.metric = metric;
+        }
+
+        /**
+         * 每日统计指标对应的卡片
+         *
+         * @param metric 指标
+         * @return 卡片，没有对应卡片时返回null
+         */
+        public static StatCard ofMetric(String metric) {
+            for (StatCard card : values()) {
+                if (card.metric != null && card.metric.equals(metric)) {
+                    return card;
+                }
+            }
+            return null;
+        }
+    }
     
     /**
      * 获取仪表板统计卡片数据
-     * 包含：总用户数、当前在线、总发帖数、待审核数，及各项周环比
+     * 包含：总用户数、当前在线、总发帖数、待审核数，及各项周环比，以及日/周/月活跃用户数
+     * 总数取统计总数表（启用的用户、已发布的帖子，禁用、删除、隐藏会使总数减少），
+     * 周环比为最近7天与前7天的新增数对比，来自每日统计汇总表
      *
      * @return 统计VO
      */
     public DashboardStatisticsVO getDashboardStatistics() {
-        // 获取当前数据
-        Long totalUserCount = getTotalUserCount();
-        Long onlineUserCount = getOnlineUserCount();
-        Long totalPostCount = getTotalPostCount();
-        Long pendingAuditCount = getPendingAuditCount();
-        
-        // 获取上周同期数据（前7日到前14日）
+        return getDashboardStatistics(EnumSet.allOf(StatCard.class));
+    }
+    
+    /**
+     * 只计算指定分组的统计卡片数据，其余字段为null
+     *
+     * @param cards 卡片分组
+     * @return 统计VO
+     */
+    public DashboardStatisticsVO getDashboardStatistics(Set<StatCard> cards) {
+        DashboardStatisticsVO.DashboardStatisticsVOBuilder builder = DashboardStatisticsVO.builder();
         LocalDate today = LocalDate.now();
-        LocalDate weekAgo = today.minusDays(7);
-        LocalDate twoWeeksAgo = today.minusDays(14);
         
-        Long userCountLastWeek = getUserCountBetween(twoWeeksAgo, weekAgo);
-        Long postCountLastWeek = getPostCountBetween(twoWeeksAgo, weekAgo);
-        Long auditCountLastWeek = getPendingAuditCountBetween(twoWeeksAgo, weekAgo);
-        
-        // 计算周环比
-        BigDecimal userChangeRate = calculateChangeRate(totalUserCount, userCountLastWeek);
-        BigDecimal postChangeRate = calculateChangeRate(totalPostCount, postCountLastWeek);
-        BigDecimal auditChangeRate = calculateChangeRate(pendingAuditCount, auditCountLastWeek);
+        if (cards.contains(StatCard.USERS) || cards.contains(StatCard.POSTS) || cards.contains(StatCard.AUDITS)) {
+            Map<String, Long> totals = cards.contains(StatCard.USERS) || cards.contains(StatCard.POSTS)
+                    ? dailyStatsService.getTotals()
+                    : Map.of();
+            // 最近14天一次读取，前7天与后7天对比
+            Map<String, Map<LocalDate, Long>> stats = dailyStatsService.getRange(today.minusDays(13), today);
+            LocalDate weekStart = today.minusDays(6);
+            
+            if (cards.contains(StatCard.USERS)) {
+                builder.totalUserCount(totals.getOrDefault(DailyStatsService.TOTAL_USERS, 0L))
+                        .totalUserChangeRate(calculateWeekChangeRate(stats.get(DailyStatsService.NEW_USERS), weekStart));
+            }
+            if (cards.contains(StatCard.POSTS)) {
+                builder.totalPostCount(totals.getOrDefault(DailyStatsService.TOTAL_POSTS, 0L))
+                        .totalPostChangeRate(calculateWeekChangeRate(stats.get(DailyStatsService.POSTS), weekStart));
+            }
+            if (cards.contains(StatCard.AUDITS)) {
+                // 待审核是当前队列长度，不能由每日新增推算，按状态索引计数
+                builder.pendingAuditCount(getPendingAuditCount())
+                        .pendingAuditChangeRate(calculateWeekChangeRate(stats.get(DailyStatsService.AUDITS), weekStart));
+            }
+        }
         
-        // 在线用户周环比：使用平均在线数对比（固定为0，因为当前时刻的在线数无法与过去对比）
-        BigDecimal onlineChangeRate = BigDecimal.ZERO;
+        if (cards.contains(StatCard.ONLINE)) {
+            Long onlineUserCount = presenceService.getOnlineCount();
+            // 在线用户周环比：与上周同一时刻的采样对比，没有采样时为0
+            Long onlineLastWeek = presenceService.getOnlineCountAt(LocalDateTime.now().minusDays(7));
+            BigDecimal onlineChangeRate = onlineLastWeek != null
+                    ? calculateChangeRate(onlineUserCount, onlineLastWeek)
+                    : BigDecimal.ZERO;
+            builder.onlineUserCount(onlineUserCount)
+                    .onlineUserChangeRate(onlineChangeRate)
+                    .dailyActiveUsers(presenceService.getActiveUsers(today, 1))
+                    .weeklyActiveUsers(presenceService.getActiveUsers(today, 7))
+                    .monthlyActiveUsers(presenceService.getActiveUsers(today, 30));
+        }
         
-        return DashboardStatisticsVO.builder()
-                .totalUserCount(totalUserCount)
-                .totalUserChangeRate(userChangeRate)
-                .onlineUserCount(onlineUserCount)
-                .onlineUserChangeRate(onlineChangeRate)
-                .totalPostCount(totalPostCount)
-                .totalPostChangeRate(postChangeRate)
-                .pendingAuditCount(pendingAuditCount)
-                .pendingAuditChangeRate(auditChangeRate)
-                .build();
+        return builder.build();
     }
     
     /**
-     * 获取帖子发布趋势（最近7天或30天）
+     * 获取帖子发布趋势（最近N天）
+     * 从每日统计汇总表一次读取
      *
-     * @param days 天数（7或30）
+     * @param days 天数（1-366）
      * @return 趋势数据列表
      */
     public List<PostTrendVO> getPostTrend(Integer days) {
         if (days == null) {
             days = 7;
         }
-        if (days != 7 && days != 30) {
-            throw new IllegalArgumentException("天数只支持7或30");
+        if (days < 1 || days > DailyStatsService.MAX_DAYS) {
+            throw new IllegalArgumentException("天数只支持1到" + DailyStatsService.MAX_DAYS);
         }
         
-        List<PostTrendVO> trends = new ArrayList<>();
         LocalDate today = LocalDate.now();
+        Map<String, Map<LocalDate, Long>> stats = dailyStatsService.getRange(today.minusDays(days - 1), today);
+        Map<LocalDate, Long> posts = stats.get(DailyStatsService.POSTS);
+        Map<LocalDate, Long> comments = stats.get(DailyStatsService.COMMENTS);
         
-        for (int i = days - 1; i >= 0; i--) {
-            LocalDate date = today.minusDays(i);
-            LocalDateTime startTime = date.atStartOfDay();
-            LocalDateTime endTime = date.atTime(LocalTime.MAX);
-            
-            long postCount = postMapper.selectCount(new LambdaQueryWrapper<ForumPost>()
-                    .eq(ForumPost::getStatus, ForumPost.Status.PUBLISHED.getCode())
-                    .between(ForumPost::getCreateTime, startTime, endTime));
-            
-            trends.add(PostTrendVO.builder()
-                    .date(date)
-                    .postCount(postCount)
-                    .build());
-        }
-        
+        List<PostTrendVO> trends = new ArrayList<>(days);
+        posts.forEach((date, postCount) -> trends.add(PostTrendVO.builder()
+                .date(date)
+                .postCount(postCount)
+                .commentCount(comments.get(date))
+                .build()));
         return trends;
     }
     
@@ -135,11 +188,21 @@ public List<RecentActivityVO> getRecentActivities(Integer limit) {
             limit = 50;
         }
         
+        // 先查最近几天，命中分区裁剪和 oper_time 索引；不足时再查全部
+        LocalDateTime since = LocalDateTime.now().minusDays(properties.getOperLog().getRecentDays());
         List<SysOperLog> logs = operLogMapper.selectList(
                 new LambdaQueryWrapper<SysOperLog>()
+                        .ge(SysOperLog::getOperTime, Date.from(since.atZone(ZoneId.systemDefault()).toInstant()))
                         .orderByDesc(SysOperLog::getOperTime)
                         .last("LIMIT " + limit)
         );
+        if (logs.size() < limit) {
+            logs = operLogMapper.selectList(
+                    new LambdaQueryWrapper<SysOperLog>()
+                            .orderByDesc(SysOperLog::getOperTime)
+                            .last("LIMIT " + limit)
+            );
+        }
         
         return logs.stream()
                 .map(this::convertToRecentActivityVO)
@@ -239,40 +302,6 @@ private void addQuickActionOption(List<Map<String, Object>> options, String key,
         options.add(option);
     }
     
-    /**
-     * 获取总用户数
-     */
-    private Long getTotalUserCount() {
-        return userMapper.selectCount(
-                new LambdaQueryWrapper<SysUser>()
-                        .eq(SysUser::getStatus, 1)
-        );
-    }
-    
-    /**
-     * 获取当前在线用户数（最近15分钟内有活动的用户）
-     * 使用Redis存储的活跃用户数或SQL查询最近活跃用户
-     */
-    private Long getOnlineUserCount() {
-        LocalDateTime fifteenMinutesAgo = LocalDateTime.now().minusMinutes(15);
-        // 这里假设有last_active_time字段记录用户最后活跃时间
-        // 如果没有该字段，可改为：return 0L; 或从Redis获取
-        return userMapper.selectCount(
-                new LambdaQueryWrapper<SysUser>()
-                        .eq(SysUser::getStatus, 1)
-        );
-    }
-    
-    /**
-     * 获取总发帖数（已发布的帖子）
-     */
-    private Long getTotalPostCount() {
-        return postMapper.selectCount(
-                new LambdaQueryWrapper<ForumPost>()
-                        .eq(ForumPost::getStatus, ForumPost.Status.PUBLISHED.getCode())
-        );
-    }
-    
     /**
      * 获取待审核数（帖子+评论+举报）
      */
@@ -291,52 +320,22 @@ private Long getPendingAuditCount() {
     }
     
     /**
-     * 获取时间段内新增用户数
-     */
-    private Long getUserCountBetween(LocalDate startDate, LocalDate endDate) {
-        Date startTime = java.sql.Timestamp.valueOf(startDate.atStartOfDay());
-        Date endTime = java.sql.Timestamp.valueOf(endDate.atTime(LocalTime.MAX));
-        
-        return userMapper.selectCount(
-                new LambdaQueryWrapper<SysUser>()
-                        .between(SysUser::getCreateTime, startTime, endTime)
-        );
-    }
-    
-    /**
-     * 获取时间段内发帖数
-     */
-    private Long getPostCountBetween(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime startTime = startDate.atStartOfDay();
-        LocalDateTime endTime = endDate.atTime(LocalTime.MAX);
-        
-        return postMapper.selectCount(
-                new LambdaQueryWrapper<ForumPost>()
-                        .eq(ForumPost::getStatus, ForumPost.Status.PUBLISHED.getCode())
-                        .between(ForumPost::getCreateTime, startTime, endTime)
-        );
-    }
-    
-    /**
-     * 获取时间段内待审核数
+     * 计算周环比：最近7天的合计与前7天的合计对比
+     *
+     * @param series 按日期排列的数量（14天）
+     * @param weekStart 最近7天的第一天
      */
-    private Long getPendingAuditCountBetween(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime startTime = startDate.atStartOfDay();
-        LocalDateTime endTime = endDate.atTime(LocalTime.MAX);
-        
-        long pendingPosts = postMapper.selectCount(
-                new LambdaQueryWrapper<ForumPost>()
-                        .eq(ForumPost::getStatus, ForumPost.Status.UNDER_REVIEW.getCode())
-                        .between(ForumPost::getCreateTime, startTime, endTime)
-        );
-        
-        long pendingReports = reportMapper.selectCount(
-                new LambdaQueryWrapper<cn.wekyjay.wknetic.common.model.entity.ForumReport>()
-                        .eq(cn.wekyjay.wknetic.common.model.entity.ForumReport::getStatus, 0)
-                        .between(cn.wekyjay.wknetic.common.model.entity.ForumReport::getCreateTime, startTime, endTime)
-        );
-        
-        return pendingPosts + pendingReports;
+    private BigDecimal calculateWeekChangeRate(Map<LocalDate, Long> series, LocalDate weekStart) {
+        long thisWeek = 0L;
+        long lastWeek = 0L;
+        for (Map.Entry<LocalDate, Long> entry : series.entrySet()) {
+            if (entry.getKey().isBefore(weekStart)) {
+                lastWeek += entry.getValue();
+            } else {
+                thisWeek += entry.getValue();
+            }
+        }
+        return calculateChangeRate(thisWeek, lastWeek);
     }
     
     /**
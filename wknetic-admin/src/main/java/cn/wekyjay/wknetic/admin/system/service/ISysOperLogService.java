@@ -2,6 +2,10 @@
 
 import cn.wekyjay.wknetic.admin.system.domain.SysOperLog;
 
+import java.util.Collection;
+
 public interface ISysOperLogService {
     void insertOperLog(SysOperLog operLog);
-}
\ No newline at end of file
+
+    void insertOperLogBatch(Collection<SysOperLog> operLogs);
+}
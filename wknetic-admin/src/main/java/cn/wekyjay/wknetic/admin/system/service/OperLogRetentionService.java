@@ -0,0 +1,321 @@
+package cn.wekyjay.wknetic.admin.system.service;
+
+import cn.wekyjay.wknetic.admin.system.domain.SysOperLogArchive;
+import cn.wekyjay.wknetic.admin.system.mapper.SysOperLogArchiveMapper;
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
+import cn.wekyjay.wknetic.common.service.StorageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 操作日志保留Service
+ * <p>
+ * 操作日志表按 oper_time 做 RANGE COLUMNS 按月分区（分区名 pyyyyMM，另有兜底的 pmax），
+ * 定时任务提前从 pmax 拆出未来月份的分区，超过保留月数的分区先以 gzip 压缩的 JSON Lines 导出并上传到文件存储，
+ * 再整个 DROP，删除历史数据不产生逐行删除的开销。
+ * 关闭分区或表尚未分区时退化为按时间条件分批删除。从旧版本升级的未分区表需要重建才能分区，
+ * 默认不自动转换，由管理员在维护窗口执行 db/migration/sys_oper_log_partition.sql（或开启 partition-convert）。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OperLogRetentionService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SysOperLogArchiveMapper archiveMapper;
+    private final StorageService storageService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final WkNeticProperties properties;
+
+    private static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    /** 多实例部署时只由一个节点维护 */
+    private static final String LOCK_KEY = "wknetic:oper-log:maintain:lock";
+    private static final Duration LOCK_TTL = Duration.ofHours(2);
+
+    /** 未分区的提示只输出一次 */
+    private volatile boolean unpartitionedWarned;
+
+    /**
+     * 定时维护：创建未来分区、归档并删除过期数据
+     */
+    @Scheduled(initialDelay = 60000, fixedDelayString = "${wknetic.oper-log.maintain-interval:3600000}")
+    public void maintain() {
+        String token = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token, LOCK_TTL))) {
+            return;
+        }
+        try {
+            if (Boolean.TRUE.equals(properties.getOperLog().getPartitionEnabled())) {
+                maintainPartitions();
+            } else {
+                purgeExpired();
+            }
+        } catch (Exception e) {
+            log.error("操作日志保留维护失败", e);
+        } finally {
+            if (token.equals(stringRedisTemplate.opsForValue().get(LOCK_KEY))) {
+                stringRedisTemplate.delete(LOCK_KEY);
+            }
+        }
+    }
+
+    private void maintainPartitions() {
+        YearMonth current = YearMonth.now();
+        List<String> partitions = listPartitions();
+        if (partitions.isEmpty()) {
+            if (!Boolean.TRUE.equals(properties.getOperLog().getPartitionConvert())) {
+                if (!unpartitionedWarned) {
+                    unpartitionedWarned = true;
+                    log.warn("操作日志表尚未分区，按批删除过期日志；请在维护窗口执行 db/migration/sys_oper_log_partition.sql 转换为分区表");
+                }
+                purgeExpired();
+                return;
+            }
+            partitionTable(current);
+            partitions = listPartitions();
+        }
+        createFuturePartitions(partitions, current);
+
+        YearMonth cutoff = expireCutoff(current);
+        for (String partition : partitions) {
+            YearMonth month = parseMonth(partition);
+            if (month == null || !month.isBefore(cutoff)) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(properties.getOperLog().getArchiveEnabled())
+                    && !archive(partition, "PARTITION (`" + partition + "`)")) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE `sys_oper_log` DROP PARTITION `" + partition + "`");
+            log.info("已删除过期的操作日志分区 {}", partition);
+        }
+    }
+
+    /**
+     * 把未分区的旧表转换为按月分区（仅在开启 partition-convert 时执行）：
+     * 主键加入 oper_time（分区列必须包含在每个唯一键中），
+     * 比保留期更早的数据全部落入第一个分区，随后按过期分区归档删除
+     */
+    private void partitionTable(YearMonth current) {
+        log.warn("操作日志表尚未分区，开始转换为按月分区（需要重建表，数据量大时耗时较长）");
+        jdbcTemplate.update("UPDATE `sys_oper_log` SET `oper_time` = '1970-01-01 00:00:00' WHERE `oper_time` IS NULL");
+        LocalDateTime earliest = jdbcTemplate.queryForObject("SELECT MIN(`oper_time`) FROM `sys_oper_log`", LocalDateTime.class);
+        YearMonth first = earliest != null ? YearMonth.from(earliest) : current;
+        YearMonth oldest = expireCutoff(current).minusMonths(1);
+        if (first.isBefore(oldest)) {
+            first = oldest;
+        }
+        if (first.isAfter(current)) {
+            first = current;
+        }
+        jdbcTemplate.execute("ALTER TABLE `sys_oper_log` " +
+                "MODIFY `oper_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '操作时间', " +
+                "DROP PRIMARY KEY, ADD PRIMARY KEY (`oper_id`, `oper_time`)");
+        jdbcTemplate.execute("ALTER TABLE `sys_oper_log` PARTITION BY RANGE COLUMNS(`oper_time`) (" +
+                partitionDefinitions(first, current.plusMonths(properties.getOperLog().getPremakeMonths())) + ")");
+        log.info("操作日志表已转换为按月分区，起始月份 {}", first.format(MONTH_FORMAT));
+    }
+
+    /**
+     * 从 pmax 拆出最后一个月份分区之后、直到未来 premakeMonths 个月的分区（停机期间缺失的月份一并补上）
+     */
+    private void createFuturePartitions(List<String> partitions, YearMonth current) {
+        YearMonth latest = partitions.stream()
+                .map(this::parseMonth)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        YearMonth from = latest != null ? latest.plusMonths(1) : current;
+        YearMonth to = current.plusMonths(properties.getOperLog().getPremakeMonths());
+        if (from.isAfter(to)) {
+            return;
+        }
+        if (!partitions.contains(MAX_PARTITION)) {
+            log.warn("操作日志表缺少 {} 分区，无法自动创建月份分区: {}", MAX_PARTITION, partitions);
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE `sys_oper_log` REORGANIZE PARTITION `" + MAX_PARTITION + "` INTO (" +
+                partitionDefinitions(from, to) + ")");
+        log.info("已创建操作日志分区 {} ~ {}", from.format(MONTH_FORMAT), to.format(MONTH_FORMAT));
+    }
+
+    /**
+     * 未分区时：导出早于保留期的日志，再按批删除
+     */
+    private void purgeExpired() {
+        YearMonth cutoff = expireCutoff(YearMonth.now());
+        LocalDateTime cutoffTime = cutoff.atDay(1).atStartOfDay();
+        List<Integer> expired = jdbcTemplate.queryForList(
+                "SELECT 1 FROM `sys_oper_log` WHERE `oper_time` < ? LIMIT 1", Integer.class, cutoffTime);
+        if (expired.isEmpty()) {
+            return;
+        }
+        if (Boolean.TRUE.equals(properties.getOperLog().getArchiveEnabled())
+                && !archive("before_" + cutoff.format(MONTH_FORMAT), "WHERE `oper_time` < ?", cutoffTime)) {
+            return;
+        }
+        int batchSize = properties.getOperLog().getDeleteBatchSize();
+        long total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM `sys_oper_log` WHERE `oper_time` < ? LIMIT ?", cutoffTime, batchSize);
+            total += deleted;
+        } while (deleted >= batchSize);
+        log.info("已删除 {} 之前的操作日志 {} 条", cutoff.format(MONTH_FORMAT), total);
+    }
+
+    /**
+     * 流式导出日志为 gzip 压缩的 JSON Lines 临时文件，上传后登记归档记录
+     *
+     * @param name 归档名（分区名）
+     * @param condition 查询条件（分区选择或 WHERE 子句）
+     * @param args 查询参数
+     * @return 是否归档成功（没有数据也视为成功），失败时不应删除数据
+     */
+    private boolean archive(String name, String condition, Object... args) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("sys_oper_log_" + name + "_", ".jsonl.gz");
+            ArchiveStats stats = new ArchiveStats();
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8))) {
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement("SELECT * FROM `sys_oper_log` " + condition,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    // MySQL 驱动逐行流式读取，不把整月数据读入内存
+                    statement.setFetchSize(Integer.MIN_VALUE);
+                    for (int i = 0; i < args.length; i++) {
+                        statement.setObject(i + 1, args[i]);
+                    }
+                    return statement;
+                }, (RowCallbackHandler) rs -> writeRow(rs, writer, stats));
+            }
+            if (stats.rowCount == 0) {
+                return true;
+            }
+
+            String fileUrl;
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                fileUrl = storageService.upload(inputStream, "sys_oper_log_" + name + ".jsonl.gz",
+                        properties.getOperLog().getArchivePath());
+            }
+            SysOperLogArchive archive = new SysOperLogArchive();
+            archive.setPartitionName(name);
+            archive.setStartTime(stats.startTime);
+            archive.setEndTime(stats.endTime);
+            archive.setRowCount(stats.rowCount);
+            archive.setFileSize(Files.size(file));
+            archive.setFileUrl(fileUrl);
+            archive.setCreateTime(new java.util.Date());
+            archiveMapper.insert(archive);
+            log.info("操作日志 {} 已归档: 行数={}, 文件={}", name, stats.rowCount, fileUrl);
+            return true;
+        } catch (Exception e) {
+            log.error("操作日志 {} 归档失败，暂不删除", name, e);
+            return false;
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("删除归档临时文件失败: {}", file, e);
+                }
+            }
+        }
+    }
+
+    private void writeRow(ResultSet rs, Writer writer, ArchiveStats stats) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            row.put(meta.getColumnLabel(i), rs.getObject(i));
+        }
+        Timestamp operTime = rs.getTimestamp("oper_time");
+        if (operTime != null) {
+            if (stats.startTime == null || operTime.before(stats.startTime)) {
+                stats.startTime = operTime;
+            }
+            if (stats.endTime == null || operTime.after(stats.endTime)) {
+                stats.endTime = operTime;
+            }
+        }
+        try {
+            writer.write(objectMapper.writeValueAsString(row));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        stats.rowCount++;
+    }
+
+    /**
+     * 当前的分区名（按分区顺序），未分区时为空
+     */
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'sys_oper_log' AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION", String.class);
+    }
+
+    /**
+     * from ~ to 每月一个分区，末尾加上 pmax
+     */
+    private static String partitionDefinitions(YearMonth from, YearMonth to) {
+        StringBuilder definitions = new StringBuilder();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            definitions.append("PARTITION `p").append(month.format(MONTH_FORMAT))
+                    .append("` VALUES LESS THAN ('").append(month.plusMonths(1).atDay(1)).append("'), ");
+        }
+        return definitions.append("PARTITION `").append(MAX_PARTITION).append("` VALUES LESS THAN (MAXVALUE)").toString();
+    }
+
+    /**
+     * 早于该月份的数据过期（保留当月和之前 retentionMonths 个整月）
+     */
+    private YearMonth expireCutoff(YearMonth current) {
+        return current.minusMonths(properties.getOperLog().getRetentionMonths());
+    }
+
+    private YearMonth parseMonth(String partition) {
+        if (partition == null || partition.length() != 7 || partition.charAt(0) != 'p') {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(1), MONTH_FORMAT);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static class ArchiveStats {
+        private long rowCount;
+        private Timestamp startTime;
+        private Timestamp endTime;
+    }
+}
@@ -0,0 +1,195 @@
+package cn.wekyjay.wknetic.admin.system.service;
+
+import cn.wekyjay.wknetic.admin.system.domain.SysOperLog;
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 操作日志批量写入器
+ * <p>
+ * 切面只在请求线程上登记日志和原始的参数、返回值引用，放入有界队列后立即返回；
+ * 定时任务在后台把参数和返回值序列化为 JSON（超长截断到列宽），按批用一条多行 INSERT 写入。
+ * 队列超过高水位时只按比例采样正常日志，异常日志照常登记；队列写满时直接丢弃并计数，请求线程从不阻塞，
+ * 也不会为每条日志创建线程。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OperLogWriter implements MeterBinder {
+
+    private final ISysOperLogService operLogService;
+    private final ObjectMapper objectMapper;
+    private final WkNeticProperties properties;
+
+    /** 超长字段截断后追加的标记 */
+    private static final String TRUNCATED = "...";
+
+    private volatile BlockingQueue<PendingLog> queue;
+
+    /** 采样计数（高水位时每 N 条正常日志保留一条） */
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    /** 采样或队列满而丢弃的日志数（上次刷新以来） */
+    private final AtomicLong dropped = new AtomicLong();
+
+    /** 累计丢弃的日志数（指标用） */
+    private final AtomicLong droppedTotal = new AtomicLong();
+
+    /**
+     * 登记一条操作日志
+     *
+     * @param operLog 已填好请求信息的日志
+     * @param args 需要保存的请求参数（为空时不保存）
+     * @param result 需要保存的返回值（为空时不保存）
+     */
+    public void submit(SysOperLog operLog, Object[] args, Object result) {
+        BlockingQueue<PendingLog> buffer = queue();
+        WkNeticProperties.OperLog config = properties.getOperLog();
+        boolean normal = operLog.getStatus() == null || operLog.getStatus() == 0;
+        if (normal && buffer.size() >= config.getQueueCapacity() * config.getOverloadThreshold()
+                && sampleCounter.getAndIncrement() % config.getOverloadSampleRate() != 0) {
+            dropped.incrementAndGet();
+            droppedTotal.incrementAndGet();
+            return;
+        }
+        if (!buffer.offer(new PendingLog(operLog, args, result))) {
+            dropped.incrementAndGet();
+            droppedTotal.incrementAndGet();
+        }
+    }
+
+    /**
+     * 写入队列中的日志，积压时连续写多批，每次最多写到本次开始时的队列长度
+     */
+    @Scheduled(initialDelay = 5000, fixedDelayString = "${wknetic.oper-log.flush-interval:1000}")
+    public void flush() {
+        BlockingQueue<PendingLog> buffer = queue();
+        long droppedCount = dropped.getAndSet(0);
+        if (droppedCount > 0) {
+            log.warn("操作日志队列过载，已丢弃{}条日志", droppedCount);
+        }
+        int batchSize = properties.getOperLog().getBatchSize();
+        int remaining = buffer.size();
+        List<PendingLog> pending = new ArrayList<>(Math.min(remaining, batchSize));
+        while (remaining > 0) {
+            pending.clear();
+            remaining -= buffer.drainTo(pending, Math.min(remaining, batchSize));
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<SysOperLog> records = new ArrayList<>(pending.size());
+            for (PendingLog item : pending) {
+                records.add(serialize(item));
+            }
+            try {
+                operLogService.insertOperLogBatch(records);
+            } catch (Exception e) {
+                // 操作日志允许丢失，不重试，避免数据库故障时积压
+                log.error("操作日志入库失败: 条数={}", records.size(), e);
+            }
+        }
+    }
+
+    /**
+     * 关闭前写入剩余的日志
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 当前队列中的日志数
+     *
+     * @return 日志数
+     */
+    public int getQueueSize() {
+        return queue().size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("wknetic.oper-log.queue.size", this, OperLogWriter::getQueueSize)
+                .description("操作日志队列中待写入的日志数")
+                .register(registry);
+        FunctionCounter.builder("wknetic.oper-log.dropped", droppedTotal, AtomicLong::get)
+                .description("采样或队列满而丢弃的操作日志数")
+                .register(registry);
+    }
+
+    private SysOperLog serialize(PendingLog item) {
+        SysOperLog operLog = item.operLog();
+        int maxLength = properties.getOperLog().getMaxFieldLength();
+        if (item.args() != null) {
+            StringBuilder params = new StringBuilder();
+            for (Object arg : item.args()) {
+                if (arg == null) {
+                    continue;
+                }
+                try {
+                    params.append(objectMapper.writeValueAsString(arg)).append(' ');
+                } catch (Exception e) {
+                    params.append('[').append(arg.getClass().getSimpleName()).append("] ");
+                }
+                if (params.length() > maxLength) {
+                    break;
+                }
+            }
+            operLog.setOperParam(truncate(params.toString().trim(), maxLength));
+        }
+        if (item.result() != null) {
+            try {
+                operLog.setJsonResult(truncate(objectMapper.writeValueAsString(item.result()), maxLength));
+            } catch (Exception e) {
+                log.debug("操作日志返回值序列化失败: {}", operLog.getMethod(), e);
+            }
+        }
+        operLog.setErrorMsg(truncate(operLog.getErrorMsg(), maxLength));
+        return operLog;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        return value.substring(0, maxLength - TRUNCATED.length()) + TRUNCATED;
+    }
+
+    private BlockingQueue<PendingLog> queue() {
+        BlockingQueue<PendingLog> buffer = queue;
+        if (buffer == null) {
+            synchronized (this) {
+                if (queue == null) {
+                    queue = new ArrayBlockingQueue<>(properties.getOperLog().getQueueCapacity());
+                }
+                buffer = queue;
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * 待写入的日志：参数和返回值保留原始引用，写入时再序列化
+     */
+    private record PendingLog(SysOperLog operLog, Object[] args, Object result) {
+    }
+}
@@ -6,6 +6,8 @@
 import org.springframework.stereotype.Service;
 import jakarta.annotation.Resource;
 
+import java.util.Collection;
+
 @Service
 public class SysOperLogServiceImpl implements ISysOperLogService {
 
@@ -16,4 +18,12 @@ public class SysOperLogServiceImpl implements ISysOperLogService {
     public void insertOperLog(SysOperLog operLog) {
         operLogMapper.insert(operLog);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void insertOperLogBatch(Collection<SysOperLog> operLogs) {
+        if (operLogs == null || operLogs.isEmpty()) {
+            return;
+        }
+        operLogMapper.insertBatch(operLogs);
+    }
+}
@@ -1,8 +1,11 @@
 package cn.wekyjay.wknetic.admin.system.service.impl;
 
+import cn.wekyjay.wknetic.admin.forum.service.ForumSearchService;
+import cn.wekyjay.wknetic.admin.forum.service.SearchIndexQueue;
 import cn.wekyjay.wknetic.common.domain.SysUser;
 import cn.wekyjay.wknetic.common.mapper.SysUserMapper;
 import cn.wekyjay.wknetic.admin.system.domain.SysRole;
+import cn.wekyjay.wknetic.admin.system.service.DailyStatsService;
 import cn.wekyjay.wknetic.admin.system.service.ISysRoleService;
 import cn.wekyjay.wknetic.admin.system.service.ISysUserService;
 import cn.wekyjay.wknetic.admin.system.service.IUserFollowService;
@@ -13,6 +16,8 @@
 import cn.wekyjay.wknetic.common.model.dto.UserProfileUpdateDTO;
 import cn.wekyjay.wknetic.common.model.vo.MinecraftBindingInfo;
 import cn.wekyjay.wknetic.common.model.vo.UserProfileVO;
+import cn.wekyjay.wknetic.community.event.EventPublisher;
+import cn.wekyjay.wknetic.community.event.user.UserRegisterEvent;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
@@ -42,6 +47,18 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
     @Autowired
     private IUserFollowService userFollowService;
 
+    @Autowired
+    private ForumSearchService forumSearchService;
+
+    @Autowired
+    private SearchIndexQueue searchIndexQueue;
+
+    @Autowired
+    private EventPublisher eventPublisher;
+
+    @Autowired
+    private DailyStatsService dailyStatsService;
+
     @Override
     public boolean register(RegisterBody registerBody) {
         // 检查用户名是否已存在
@@ -80,6 +97,10 @@ public boolean register(RegisterBody registerBody) {
         
         if (success) {
             log.info("用户注册成功: {}", registerBody.getUsername());
+            dailyStatsService.adjustTotal(DailyStatsService.TOTAL_USERS, 1);
+            searchIndexQueue.enqueueIndex(SearchIndexQueue.TYPE_USER, user.getUserId());
+            eventPublisher.publishEvent(new UserRegisterEvent(
+                    this, user.getUserId(), user.getUsername(), user.getEmail(), null));
         }
         
         return success;
@@ -128,6 +149,16 @@ public SysUser getUserWithRole(Long userId) {
 
     @Override
     public Page<SysUser> getUserListByAdmin(UserQueryDTO queryDTO) {
+        // 关键词搜索走用户索引的子串匹配，ES不可用或用户索引正在回填时回退到数据库
+        if (StringUtils.hasText(queryDTO.getKeyword())
+                && !searchIndexQueue.isBackfilling(SearchIndexQueue.TYPE_USER)) {
+            try {
+                return forumSearchService.searchUsers(queryDTO);
+            } catch (Exception e) {
+                log.warn("用户索引检索失败，回退到数据库查询: {}", e.getMessage());
+            }
+        }
+        
         Page<SysUser> page = new Page<>(queryDTO.getPage(), queryDTO.getSize());
         
         LambdaQueryWrapper<SysUser> wrapper = new LambdaQueryWrapper<>();
@@ -205,6 +236,10 @@ public boolean createUserByAdmin(UserDTO userDTO) {
         
         if (success) {
             log.info("管理员创建用户成功: {}", user.getUsername());
+            dailyStatsService.adjustTotal(DailyStatsService.TOTAL_USERS, enabledDelta(null, user.getStatus()));
+            searchIndexQueue.enqueueIndex(SearchIndexQueue.TYPE_USER, user.getUserId());
+            eventPublisher.publishEvent(new UserRegisterEvent(
+                    this, user.getUserId(), user.getUsername(), user.getEmail(), null));
         }
         
         return success;
@@ -258,6 +293,11 @@ public boolean updateUserByAdmin(UserDTO userDTO) {
         
         if (success) {
             log.info("管理员更新用户成功: {}", user.getUsername());
+            if (user.getStatus() != null) {
+                dailyStatsService.adjustTotal(DailyStatsService.TOTAL_USERS,
+                        enabledDelta(existUser.getStatus(), user.getStatus()));
+            }
+            searchIndexQueue.enqueueIndex(SearchIndexQueue.TYPE_USER, user.getUserId());
         }
         
         return success;
@@ -274,6 +314,8 @@ public boolean deleteUserByAdmin(Long userId) {
         
         if (success) {
             log.info("管理员删除用户成功: {}", user.getUsername());
+            dailyStatsService.adjustTotal(DailyStatsService.TOTAL_USERS, enabledDelta(user.getStatus(), null));
+            searchIndexQueue.enqueueDelete(SearchIndexQueue.TYPE_USER, userId);
         }
         
         return success;
@@ -281,6 +323,7 @@ public boolean deleteUserByAdmin(Long userId) {
 
     @Override
     public boolean toggleUserStatus(Long userId, Integer status) {
+        SysUser existUser = this.getById(userId);
         LambdaUpdateWrapper<SysUser> wrapper = new LambdaUpdateWrapper<>();
         wrapper.eq(SysUser::getUserId, userId)
                .set(SysUser::getStatus, status);
@@ -289,6 +332,10 @@ public boolean toggleUserStatus(Long userId, Integer status) {
         
         if (success) {
             log.info("切换用户状态成功: userId={}, status={}", userId, status);
+            if (existUser != null) {
+                dailyStatsService.adjustTotal(DailyStatsService.TOTAL_USERS, enabledDelta(existUser.getStatus(), status));
+            }
+            searchIndexQueue.enqueueIndex(SearchIndexQueue.TYPE_USER, userId);
         }
         
         return success;
@@ -400,7 +447,11 @@ public boolean updateUserProfile(Long userId, UserProfileUpdateDTO profileUpdate
             user.setGender(profileUpdateDTO.getGender());
         }
 
-        return this.updateById(user);
+        boolean success = this.updateById(user);
+        if (success) {
+            searchIndexQueue.enqueueIndex(SearchIndexQueue.TYPE_USER, userId);
+        }
+        return success;
     }
 
     @Override
@@ -428,6 +479,7 @@ public boolean bindMinecraftAccount(Long userId, String minecraftUuid, String mi
         if (success) {
             log.info("绑定Minecraft账号成功: userId={}, minecraftUuid={}, username={}", 
                     userId, minecraftUuid, minecraftUsername);
+            searchIndexQueue.enqueueIndex(SearchIndexQueue.TYPE_USER, userId);
         }
         
         return success;
@@ -458,6 +510,7 @@ public boolean unbindMinecraftAccount(Long userId) {
         if (success) {
             log.info("解绑Minecraft账号成功: userId={}, previousUuid={}", 
                     userId, user.getMinecraftUuid());
+            searchIndexQueue.enqueueIndex(SearchIndexQueue.TYPE_USER, userId);
         }
         
         return success;
@@ -501,4 +554,11 @@ public MinecraftBindingInfo getMinecraftBindingInfo(Long userId) {
         
         return info;
     }
+
+    /**
+     * 状态变化对启用用户总数的影响（1为启用，null表示用户不存在）
+     */
+    private static long enabledDelta(Integer oldStatus, Integer newStatus) {
+        return (Integer.valueOf(1).equals(newStatus) ? 1 : 0) - (Integer.valueOf(1).equals(oldStatus) ? 1 : 0);
+    }
 }
@@ -3,6 +3,8 @@
 import cn.wekyjay.wknetic.admin.system.service.IUserFollowService;
 import cn.wekyjay.wknetic.common.domain.UserFollow;
 import cn.wekyjay.wknetic.common.mapper.UserFollowMapper;
+import cn.wekyjay.wknetic.community.event.EventPublisher;
+import cn.wekyjay.wknetic.community.event.user.UserFollowedEvent;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
@@ -18,9 +20,11 @@
 public class UserFollowServiceImpl extends ServiceImpl<UserFollowMapper, UserFollow> implements IUserFollowService {
 
     private final UserFollowMapper userFollowMapper;
+    private final EventPublisher eventPublisher;
 
-    public UserFollowServiceImpl(UserFollowMapper userFollowMapper) {
+    public UserFollowServiceImpl(UserFollowMapper userFollowMapper, EventPublisher eventPublisher) {
         this.userFollowMapper = userFollowMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -35,15 +39,31 @@ public boolean followUser(Long followerId, Long followingId) {
             return true;
         }
 
-        // 创建关注关系
-        UserFollow userFollow = new UserFollow();
-        userFollow.setFollowerId(followerId);
-        userFollow.setFollowingId(followingId);
-        userFollow.setStatus(1);
-        userFollow.setCreateTime(new Date());
-        userFollow.setUpdateTime(new Date());
+        // 曾经取消过关注则恢复原记录（follower_id + following_id 唯一）
+        UserFollow existing = this.getOne(new LambdaQueryWrapper<UserFollow>()
+                .eq(UserFollow::getFollowerId, followerId)
+                .eq(UserFollow::getFollowingId, followingId));
+        boolean success;
+        if (existing != null) {
+            success = this.update(new LambdaUpdateWrapper<UserFollow>()
+                    .eq(UserFollow::getId, existing.getId())
+                    .set(UserFollow::getStatus, 1)
+                    .set(UserFollow::getUpdateTime, new Date()));
+        } else {
+            // 创建关注关系
+            UserFollow userFollow = new UserFollow();
+            userFollow.setFollowerId(followerId);
+            userFollow.setFollowingId(followingId);
+            userFollow.setStatus(1);
+            userFollow.setCreateTime(new Date());
+            userFollow.setUpdateTime(new Date());
+            success = this.save(userFollow);
+        }
 
-        return this.save(userFollow);
+        if (success) {
+            eventPublisher.publishEvent(new UserFollowedEvent(this, followerId, followingId));
+        }
+        return success;
     }
 
     @Override
@@ -0,0 +1,36 @@
+-- ----------------------------
+-- 把从旧版本升级的未分区 sys_oper_log 转换为按月分区
+-- ----------------------------
+-- 新安装的 sys_oper_log 建表时即已分区，不需要执行本脚本。
+-- 转换需要重建整张表，期间阻塞日志写入（写入队列写满后丢弃新日志），请在维护窗口手动执行。
+-- 未转换前，定时任务按批删除过期日志；转换后改为按月创建、归档和删除分区。
+--
+-- 执行前调整第二条 ALTER 中的月份分区：
+--   * 第一个分区为保留期之前的一个月（当前月份减去 retention-months 再减一个月），更早的数据全部落入该分区，
+--     下次维护时随该分区一起归档删除；
+--   * 最后一个月份分区为当前月份之后 premake-months 个月，之后的月份由定时任务从 pmax 拆出；
+--   * 分区名必须为 pyyyyMM，并保留末尾的 pmax 分区。
+-- 以下示例按 2026 年 2 月执行、保留 6 个月、预建 2 个月编写。
+
+-- 分区列不能为空
+UPDATE `sys_oper_log` SET `oper_time` = '1970-01-01 00:00:00' WHERE `oper_time` IS NULL;
+
+-- 分区列必须包含在每个唯一键中，主键加入 oper_time
+ALTER TABLE `sys_oper_log`
+  MODIFY `oper_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '操作时间',
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (`oper_id`, `oper_time`);
+
+ALTER TABLE `sys_oper_log` PARTITION BY RANGE COLUMNS(`oper_time`) (
+  PARTITION `p202507` VALUES LESS THAN ('2025-08-01'),
+  PARTITION `p202508` VALUES LESS THAN ('2025-09-01'),
+  PARTITION `p202509` VALUES LESS THAN ('2025-10-01'),
+  PARTITION `p202510` VALUES LESS THAN ('2025-11-01'),
+  PARTITION `p202511` VALUES LESS THAN ('2025-12-01'),
+  PARTITION `p202512` VALUES LESS THAN ('2026-01-01'),
+  PARTITION `p202601` VALUES LESS THAN ('2026-02-01'),
+  PARTITION `p202602` VALUES LESS THAN ('2026-03-01'),
+  PARTITION `p202603` VALUES LESS THAN ('2026-04-01'),
+  PARTITION `p202604` VALUES LESS THAN ('2026-05-01'),
+  PARTITION `pmax` VALUES LESS THAN (MAXVALUE)
+);
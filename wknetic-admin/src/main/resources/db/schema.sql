@@ -14,9 +14,30 @@ CREATE TABLE IF NOT EXISTS `sys_oper_log` (
   `json_result` varchar(2000) DEFAULT '' COMMENT '返回参数',
   `status` int(1) DEFAULT 0 COMMENT '操作状态（0正常 1异常）',
   `error_msg` varchar(2000) DEFAULT '' COMMENT '错误消息',
-  `oper_time` datetime DEFAULT NULL COMMENT '操作时间',
-  PRIMARY KEY (`oper_id`)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='操作日志记录';
+  `oper_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '操作时间',
+  PRIMARY KEY (`oper_id`, `oper_time`),
+  KEY `idx_oper_time` (`oper_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='操作日志记录'
+-- 按月分区，月份分区由 OperLogRetentionService 定时创建，过期分区归档后删除
+PARTITION BY RANGE COLUMNS(`oper_time`) (
+  PARTITION `pmax` VALUES LESS THAN (MAXVALUE)
+);
+
+-- ----------------------------
+-- Table structure for sys_oper_log_archive
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `sys_oper_log_archive` (
+  `archive_id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '归档主键',
+  `partition_name` varchar(32) NOT NULL COMMENT '归档的分区名（未分区时为 before_yyyyMM）',
+  `start_time` datetime DEFAULT NULL COMMENT '归档数据的最早操作时间',
+  `end_time` datetime DEFAULT NULL COMMENT '归档数据的最晚操作时间',
+  `row_count` bigint(20) DEFAULT 0 COMMENT '归档行数',
+  `file_size` bigint(20) DEFAULT 0 COMMENT '压缩文件大小（字节）',
+  `file_url` varchar(500) DEFAULT '' COMMENT '归档文件地址（gzip 压缩的 JSON Lines）',
+  `create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '归档时间',
+  PRIMARY KEY (`archive_id`),
+  KEY `idx_create_time` (`create_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='操作日志归档记录';
 
 -- ----------------------------
 -- Table structure for sys_config
@@ -222,10 +243,12 @@ CREATE TABLE IF NOT EXISTS `forum_post` (
   KEY `idx_user_id` (`user_id`),
   KEY `idx_topic_id` (`topic_id`),
   KEY `idx_status` (`status`),
+  KEY `idx_status_audit` (`status`, `audit_time`, `audit_user_id`),
   KEY `idx_create_time` (`create_time` DESC),
   KEY `idx_hot` (`is_hot`, `like_count` DESC),
   KEY `idx_pinned` (`is_pinned`, `create_time` DESC),
   KEY `idx_last_comment` (`last_comment_time` DESC),
+  FULLTEXT KEY `ft_title_content` (`title`, `content`) WITH PARSER ngram COMMENT 'ES不可用时的降级搜索',
   CONSTRAINT `fk_post_user` FOREIGN KEY (`user_id`) REFERENCES `sys_user` (`user_id`) ON DELETE CASCADE ON UPDATE CASCADE,
   CONSTRAINT `fk_post_topic` FOREIGN KEY (`topic_id`) REFERENCES `forum_topic` (`topic_id`) ON DELETE SET NULL ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='论坛帖子表';
@@ -239,6 +262,9 @@ CREATE TABLE IF NOT EXISTS `forum_comment` (
   `user_id` bigint(20) NOT NULL COMMENT '评论用户ID',
   `parent_id` bigint(20) DEFAULT NULL COMMENT '父评论ID（NULL表示顶级评论，否则为回复）',
   `reply_to_user_id` bigint(20) DEFAULT NULL COMMENT '回复的目标用户ID',
+  `path` varchar(255) CHARACTER SET ascii COLLATE ascii_bin DEFAULT NULL COMMENT '物化路径（祖先到自身的评论ID，每段8位36进制，按路径排序即为展示顺序）',
+  `depth` tinyint(4) DEFAULT 0 COMMENT '层级深度（顶级评论为0）',
+  `reply_count` int(11) DEFAULT 0 COMMENT '直接回复数',
   `content` text NOT NULL COMMENT 'Markdown格式评论内容',
   `content_html` text DEFAULT NULL COMMENT '缓存的HTML内容',
   `like_count` int(11) DEFAULT 0 COMMENT '点赞数',
@@ -251,6 +277,7 @@ CREATE TABLE IF NOT EXISTS `forum_comment` (
   KEY `idx_parent_id` (`parent_id`),
   KEY `idx_status` (`status`),
   KEY `idx_create_time` (`create_time` DESC),
+  KEY `idx_post_path` (`post_id`, `path`),
   CONSTRAINT `fk_comment_post` FOREIGN KEY (`post_id`) REFERENCES `forum_post` (`post_id`) ON DELETE CASCADE ON UPDATE CASCADE,
   CONSTRAINT `fk_comment_user` FOREIGN KEY (`user_id`) REFERENCES `sys_user` (`user_id`) ON DELETE CASCADE ON UPDATE CASCADE,
   CONSTRAINT `fk_comment_parent` FOREIGN KEY (`parent_id`) REFERENCES `forum_comment` (`comment_id`) ON DELETE CASCADE ON UPDATE CASCADE
@@ -362,13 +389,16 @@ CREATE TABLE IF NOT EXISTS `forum_post_history` (
   `history_id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '历史记录ID',
   `post_id` bigint(20) NOT NULL COMMENT '帖子ID',
   `editor_id` bigint(20) NOT NULL COMMENT '编辑者ID',
+  `revision` int(11) DEFAULT NULL COMMENT '版本号（帖子内从1递增，为空表示尚未压缩的旧数据）',
+  `is_snapshot` tinyint(1) DEFAULT 1 COMMENT '是否完整快照（0增量 1快照）',
   `title` varchar(200) NOT NULL COMMENT '历史标题',
-  `content` text NOT NULL COMMENT '历史Markdown内容',
-  `content_html` text DEFAULT NULL COMMENT '历史HTML内容',
+  `content` text NOT NULL COMMENT '历史Markdown内容（增量记录为相对上一版本的差异）',
+  `content_html` text DEFAULT NULL COMMENT '历史HTML内容（增量记录为相对上一版本的差异）',
   `change_summary` varchar(500) DEFAULT NULL COMMENT '修改摘要说明',
   `create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   PRIMARY KEY (`history_id`),
   KEY `idx_post_id` (`post_id`, `create_time` DESC),
+  UNIQUE KEY `uk_post_revision` (`post_id`, `revision`),
   KEY `idx_editor_id` (`editor_id`),
   CONSTRAINT `fk_history_post` FOREIGN KEY (`post_id`) REFERENCES `forum_post` (`post_id`) ON DELETE CASCADE ON UPDATE CASCADE,
   CONSTRAINT `fk_history_editor` FOREIGN KEY (`editor_id`) REFERENCES `sys_user` (`user_id`) ON DELETE CASCADE ON UPDATE CASCADE
@@ -397,6 +427,27 @@ CREATE TABLE IF NOT EXISTS `forum_report` (
   CONSTRAINT `fk_report_handler` FOREIGN KEY (`handler_id`) REFERENCES `sys_user` (`user_id`) ON DELETE SET NULL ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='内容举报表';
 
+-- ----------------------------
+-- Table structure for forum_report_target
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `forum_report_target` (
+  `target_type` varchar(20) NOT NULL COMMENT '举报对象类型：POST-帖子 COMMENT-评论',
+  `target_id` bigint(20) NOT NULL COMMENT '举报对象ID',
+  `report_count` int(11) NOT NULL DEFAULT 0 COMMENT '本轮待处理的举报数',
+  `score` decimal(10,2) NOT NULL DEFAULT 0 COMMENT '按举报人信誉加权的举报分',
+  `status` tinyint(1) NOT NULL DEFAULT 0 COMMENT '处理状态：0-待处理 1-已处理 2-已驳回',
+  `hidden` tinyint(1) NOT NULL DEFAULT 0 COMMENT '是否已自动隐藏（0否 1是）',
+  `hidden_from_status` tinyint(2) DEFAULT NULL COMMENT '自动隐藏前的内容状态',
+  `last_reason` varchar(500) DEFAULT NULL COMMENT '最近一次举报原因',
+  `first_report_time` datetime DEFAULT NULL COMMENT '本轮首次举报时间',
+  `last_report_time` datetime DEFAULT NULL COMMENT '最近一次举报时间',
+  `handler_id` bigint(20) DEFAULT NULL COMMENT '处理人ID',
+  `handle_time` datetime DEFAULT NULL COMMENT '处理时间',
+  `handle_remark` varchar(500) DEFAULT NULL COMMENT '处理备注',
+  PRIMARY KEY (`target_type`, `target_id`),
+  KEY `idx_status_score` (`status`, `score` DESC)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='举报聚合表（同一对象的举报合并为一个处理项）';
+
 -- ----------------------------
 -- Table structure for sys_notification
 -- ----------------------------
@@ -457,3 +508,63 @@ CREATE TABLE IF NOT EXISTS `user_quick_action` (
   KEY `idx_status` (`status`),
   CONSTRAINT `fk_quick_action_user` FOREIGN KEY (`user_id`) REFERENCES `sys_user` (`user_id`) ON DELETE CASCADE ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户快捷入口表';
+
+-- ----------------------------
+-- Table structure for search_index_outbox
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `search_index_outbox` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '记录ID',
+  `doc_type` varchar(10) NOT NULL DEFAULT 'POST' COMMENT '文档类型（POST/COMMENT/USER）',
+  `doc_id` bigint(20) NOT NULL COMMENT '文档ID',
+  `action` varchar(10) NOT NULL COMMENT '失败的操作（INDEX/DELETE/STATS）',
+  `retry_count` int(11) DEFAULT 0 COMMENT '重试次数',
+  `last_error` varchar(500) DEFAULT NULL COMMENT '最近一次失败原因',
+  `next_retry_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '下次重试时间',
+  `create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_doc` (`doc_type`, `doc_id`),
+  KEY `idx_next_retry_time` (`next_retry_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='搜索索引同步失败重试表';
+
+-- ----------------------------
+-- Table structure for sys_event_outbox
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `sys_event_outbox` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '记录ID',
+  `event_id` varchar(36) NOT NULL COMMENT '事件ID（幂等键）',
+  `event_type` varchar(50) NOT NULL COMMENT '事件类型',
+  `payload` mediumblob NOT NULL COMMENT '序列化的事件',
+  `status` tinyint(1) NOT NULL DEFAULT 0 COMMENT '状态（0待投递 2投递失败已放弃）',
+  `attempts` int(11) NOT NULL DEFAULT 0 COMMENT '失败次数',
+  `next_attempt_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '下次投递时间',
+  `claim_token` varchar(36) DEFAULT NULL COMMENT '领取批次标识',
+  `claim_until` datetime DEFAULT NULL COMMENT '领取租约到期时间',
+  `last_error` varchar(500) DEFAULT NULL COMMENT '最近一次失败原因',
+  `create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_event_id` (`event_id`),
+  KEY `idx_status_next_attempt` (`status`, `next_attempt_time`),
+  KEY `idx_claim_token` (`claim_token`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='领域事件发件箱表';
+
+-- ----------------------------
+-- Table structure for daily_stats
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `daily_stats` (
+  `stat_date` date NOT NULL COMMENT '统计日期',
+  `metric` varchar(32) NOT NULL COMMENT '指标（new_users/posts/audits/reports/comments）',
+  `value` bigint(20) NOT NULL DEFAULT 0 COMMENT '当日数量',
+  `update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`stat_date`, `metric`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='每日统计汇总表';
+
+-- ----------------------------
+-- Table structure for stats_total
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `stats_total` (
+  `metric` varchar(32) NOT NULL COMMENT '指标（enabled_users/published_posts）',
+  `value` bigint(20) NOT NULL DEFAULT 0 COMMENT '当前总数',
+  `update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`metric`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='统计总数表';
@@ -0,0 +1,71 @@
+package cn.wekyjay.wknetic.admin.forum;
+
+import cn.wekyjay.wknetic.admin.forum.service.PostFallbackSearchService;
+import cn.wekyjay.wknetic.common.utils.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 降级搜索（熔断器、检索表达式）测试，不依赖ES和数据库
+ */
+class SearchFallbackTest {
+
+    @Test
+    void opensAfterThresholdAndRecoversAfterProbe() {
+        AtomicLong now = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(3, 1000, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.allowRequest());
+            breaker.recordFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        now.set(1000);
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        // 半开期间只放行一个探测请求
+        assertFalse(breaker.allowRequest());
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    void failedProbeReopens() {
+        AtomicLong now = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(1, 1000, now::get);
+        breaker.recordFailure();
+
+        now.set(1500);
+        assertTrue(breaker.allowRequest());
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        now.set(2500);
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    void successResetsConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 1000, () -> 0L);
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void booleanQueryStripsOperators() {
+        assertEquals("+\"fabric\" +\"模组\"", PostFallbackSearchService.toBooleanQuery("  +fabric  -模组* "));
+        assertEquals("+\"a\" +\"b\"", PostFallbackSearchService.toBooleanQuery("\"a\" (b) a"));
+        assertNull(PostFallbackSearchService.toBooleanQuery("  ~<>@ "));
+        assertNull(PostFallbackSearchService.toBooleanQuery(null));
+    }
+}
@@ -6,6 +6,7 @@
 import cn.wekyjay.wknetic.common.utils.JwtUtils;
 import cn.wekyjay.wknetic.common.domain.SysUser;
 import cn.wekyjay.wknetic.common.mapper.SysUserMapper;
+import cn.wekyjay.wknetic.common.service.PresenceService;
 import jakarta.annotation.Resource;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -43,6 +44,9 @@ public class JwtAuthenticationTokenFilter extends OncePerRequestFilter {
     
     @Resource
     private SysUserMapper userMapper;
+    
+    @Resource
+    private PresenceService presenceService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
@@ -94,6 +98,9 @@ protected void doFilterInternal(HttpServletRequest request, HttpServletResponse
 
             // 6. 将用户信息存入 Security 上下文
             SecurityContextHolder.getContext().setAuthentication(authentication);
+            
+            // 7. 记录在线状态（每分钟最多写一次Redis）
+            presenceService.touch(userId);
         }
 
         chain.doFilter(request, response);
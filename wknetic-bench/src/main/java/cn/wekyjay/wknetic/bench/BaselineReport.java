@@ -0,0 +1,171 @@
+package cn.wekyjay.wknetic.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * 基准结果与基线的对比报告
+ * <p>
+ * 读取 JMH 的 JSON 结果（-rf json），按 基准方法 + 参数 对齐，计算变化百分比。
+ * 吞吐量模式越大越好，其余模式（平均时间、采样、单次）越小越好；
+ * 变化超过阈值且超出两次结果误差之和时判定为退化或提升，否则视为持平。
+ * </p>
+ * 用法：java -cp benchmarks.jar cn.wekyjay.wknetic.bench.BaselineReport baseline.json current.json [阈值百分比]
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+public class BaselineReport {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final List<Row> rows = new ArrayList<>();
+    private final double threshold;
+
+    private BaselineReport(double threshold) {
+        this.threshold = threshold;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("用法: BaselineReport <baseline.json> <current.json> [阈值百分比，默认10]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        BaselineReport report = compare(Path.of(args[0]), Path.of(args[1]), threshold);
+        report.print(System.out);
+        if (report.hasRegressions()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 对比两次结果
+     *
+     * @param baseline 基线结果文件
+     * @param current 本次结果文件
+     * @param threshold 判定阈值（百分比）
+     * @return 对比报告
+     * @throws IOException 读取失败
+     */
+    public static BaselineReport compare(Path baseline, Path current, double threshold) throws IOException {
+        Map<String, Score> baseScores = load(baseline);
+        Map<String, Score> currentScores = load(current);
+        BaselineReport report = new BaselineReport(threshold);
+        for (Map.Entry<String, Score> entry : currentScores.entrySet()) {
+            report.rows.add(report.compare(entry.getKey(), baseScores.get(entry.getKey()), entry.getValue()));
+        }
+        for (Map.Entry<String, Score> entry : baseScores.entrySet()) {
+            if (!currentScores.containsKey(entry.getKey())) {
+                report.rows.add(new Row(entry.getKey(), entry.getValue(), null, Double.NaN, Status.REMOVED));
+            }
+        }
+        return report;
+    }
+
+    /**
+     * 是否有退化的基准
+     *
+     * @return 是否有退化
+     */
+    public boolean hasRegressions() {
+        return rows.stream().anyMatch(row -> row.status() == Status.REGRESSION);
+    }
+
+    /**
+     * 输出对比表格
+     *
+     * @param out 输出流
+     */
+    public void print(PrintStream out) {
+        int width = rows.stream().mapToInt(row -> row.key().length()).max().orElse(10);
+        String format = "%-" + width + "s  %14s  %14s  %-8s  %9s  %s%n";
+        out.printf(format, "Benchmark", "Baseline", "Current", "Unit", "Change", "Status");
+        for (Row row : rows) {
+            Score score = row.current() != null ? row.current() : row.baseline();
+            out.printf(format, row.key(),
+                    row.baseline() != null ? formatScore(row.baseline()) : "-",
+                    row.current() != null ? formatScore(row.current()) : "-",
+                    score.unit(),
+                    Double.isNaN(row.change()) ? "-" : String.format("%+.1f%%", row.change()),
+                    row.status());
+        }
+        Map<Status, Long> counts = new EnumMap<>(Status.class);
+        rows.forEach(row -> counts.merge(row.status(), 1L, Long::sum));
+        out.printf("%n阈值 %.1f%%，%s%n", threshold, counts);
+    }
+
+    private Row compare(String key, Score baseline, Score current) {
+        if (baseline == null) {
+            return new Row(key, null, current, Double.NaN, Status.NEW);
+        }
+        if (!baseline.unit().equals(current.unit()) || baseline.score() == 0) {
+            return new Row(key, baseline, current, Double.NaN, Status.INCOMPARABLE);
+        }
+        double change = (current.score() - baseline.score()) / baseline.score() * 100;
+        // 统一为"正数表示变好"
+        double improvement = current.higherIsBetter() ? change : -change;
+        boolean significant = Math.abs(current.score() - baseline.score()) > baseline.error() + current.error();
+        Status status = Status.SAME;
+        if (significant && improvement <= -threshold) {
+            status = Status.REGRESSION;
+        } else if (significant && improvement >= threshold) {
+            status = Status.IMPROVED;
+        }
+        return new Row(key, baseline, current, change, status);
+    }
+
+    private static Map<String, Score> load(Path path) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : OBJECT_MAPPER.readTree(path.toFile())) {
+            String benchmark = result.path("benchmark").asText();
+            // 只保留 类名.方法名
+            String[] parts = benchmark.split("\\.");
+            String key = parts.length >= 2 ? parts[parts.length - 2] + "." + parts[parts.length - 1] : benchmark;
+            JsonNode params = result.path("params");
+            if (params.isObject() && !params.isEmpty()) {
+                Map<String, String> sorted = new TreeMap<>();
+                params.fields().forEachRemaining(field -> sorted.put(field.getKey(), field.getValue().asText()));
+                key += sorted;
+            }
+            JsonNode metric = result.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble();
+            scores.put(key, new Score(
+                    metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error,
+                    metric.path("scoreUnit").asText(),
+                    "thrpt".equals(result.path("mode").asText())));
+        }
+        return scores;
+    }
+
+    private static String formatScore(Score score) {
+        return String.format("%.3f ± %.3f", score.score(), score.error());
+    }
+
+    private enum Status {
+        /** 退化 */
+        REGRESSION,
+        /** 提升 */
+        IMPROVED,
+        /** 持平（变化在阈值或误差范围内） */
+        SAME,
+        /** 基线中没有 */
+        NEW,
+        /** 本次没有运行 */
+        REMOVED,
+        /** 单位不同，无法比较 */
+        INCOMPARABLE
+    }
+
+    private record Score(double score, double error, String unit, boolean higherIsBetter) {
+    }
+
+    private record Row(String key, Score baseline, Score current, double change, Status status) {
+    }
+}
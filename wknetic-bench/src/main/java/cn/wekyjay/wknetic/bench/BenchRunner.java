@@ -0,0 +1,62 @@
+package cn.wekyjay.wknetic.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 基准测试入口（benchmarks.jar 的 Main-Class）
+ * <p>
+ * 参数与 JMH 命令行相同（如 "CommentTree" 只运行匹配的基准，-f/-wi/-i 覆盖分叉和迭代次数）。
+ * 未指定 -rff 时结果写入 jmh-result.json；通过 -Dbench.baseline 指定基线结果文件时，
+ * 运行结束后输出对比报告，超过 -Dbench.threshold（百分比，默认 10）的退化使进程以 1 退出。
+ * </p>
+ * 示例：
+ * <pre>
+ * java -jar wknetic-bench/target/benchmarks.jar -rff baseline.json
+ * java -Dbench.baseline=baseline.json -jar wknetic-bench/target/benchmarks.jar
+ * </pre>
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+public class BenchRunner {
+
+    private static final String DEFAULT_RESULT = "jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        String result = commandLine.getResult().orElse(DEFAULT_RESULT);
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .build();
+        new Runner(options).run();
+
+        String baseline = System.getProperty("bench.baseline");
+        if (baseline == null) {
+            return;
+        }
+        if (!Files.exists(Path.of(baseline))) {
+            System.err.println("基线结果文件不存在: " + baseline);
+            return;
+        }
+        double threshold = Double.parseDouble(System.getProperty("bench.threshold", "10"));
+        BaselineReport report = BaselineReport.compare(Path.of(baseline), Path.of(result), threshold);
+        System.out.println();
+        report.print(System.out);
+        if (report.hasRegressions()) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package cn.wekyjay.wknetic.bench;
+
+import cn.wekyjay.wknetic.admin.system.service.impl.GameChatServiceImpl;
+import cn.wekyjay.wknetic.bench.support.BenchFixtures;
+import cn.wekyjay.wknetic.bench.support.EmbeddedRedis;
+import cn.wekyjay.wknetic.common.model.dto.ChatHistoryDTO;
+import cn.wekyjay.wknetic.common.model.vo.ChatMessageVO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 聊天历史筛选基准（GameChatServiceImpl.getChatHistory）
+ * <p>
+ * 历史列表写满 500 条（与游戏端写入的格式相同），分布在 4 个服务器、3 个频道、3 个世界；
+ * 每次读取最近 limit 条，逐条反序列化后按服务器、频道、世界筛选。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatHistoryBenchmark {
+
+    private static final String CHAT_HISTORY_KEY = "wknetic:chat:history";
+    private static final int HISTORY_SIZE = 500;
+    private static final String[] SERVERS = {"lobby", "survival", "creative", "minigames"};
+    private static final String[] CHANNELS = {"global", "local", "trade"};
+    private static final String[] WORLDS = {"world", "world_nether", "world_the_end"};
+
+    /** 读取的条数 */
+    @Param({"100", "500"})
+    private int limit;
+
+    private EmbeddedRedis redis;
+    private GameChatServiceImpl chatService;
+    private ChatHistoryDTO serverQuery;
+    private ChatHistoryDTO channelWorldQuery;
+
+    @Setup
+    public void setup() throws IOException {
+        redis = EmbeddedRedis.start();
+        StringRedisTemplate stringRedisTemplate = redis.getStringRedisTemplate();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        // 只读取历史，RedisTemplate 和 SysUserMapper 用不到
+        chatService = new GameChatServiceImpl(null, stringRedisTemplate, null, objectMapper);
+
+        Random random = new Random(BenchFixtures.SEED);
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS");
+        LocalDateTime start = LocalDateTime.now().minusHours(1);
+        List<String> messages = new ArrayList<>(HISTORY_SIZE);
+        for (int i = 0; i < HISTORY_SIZE; i++) {
+            String uuid = UUID.nameUUIDFromBytes(("player-" + random.nextInt(100)).getBytes()).toString();
+            ObjectNode message = objectMapper.createObjectNode();
+            message.put("id", UUID.randomUUID().toString());
+            message.put("serverName", SERVERS[random.nextInt(SERVERS.length)]);
+            message.put("channel", CHANNELS[random.nextInt(CHANNELS.length)]);
+            message.put("world", WORLDS[random.nextInt(WORLDS.length)]);
+            ObjectNode player = message.putObject("player");
+            player.put("uuid", uuid);
+            player.put("username", "player_" + i % 100);
+            player.put("avatar", "https://mc-heads.net/avatar/" + uuid.replace("-", ""));
+            message.put("content", "聊天消息 " + i);
+            message.put("source", "game");
+            message.put("timestamp", start.plusSeconds(i).format(formatter));
+            messages.add(message.toString());
+        }
+        stringRedisTemplate.delete(CHAT_HISTORY_KEY);
+        stringRedisTemplate.opsForList().rightPushAll(CHAT_HISTORY_KEY, messages);
+
+        serverQuery = ChatHistoryDTO.builder().serverName("survival").limit(limit).build();
+        channelWorldQuery = ChatHistoryDTO.builder()
+                .serverName("survival").channel("global").world("world_nether").limit(limit).build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        redis.close();
+    }
+
+    @Benchmark
+    public List<ChatMessageVO> filterByServer() {
+        return chatService.getChatHistory(serverQuery);
+    }
+
+    @Benchmark
+    public List<ChatMessageVO> filterByChannelAndWorld() {
+        return chatService.getChatHistory(channelWorldQuery);
+    }
+}
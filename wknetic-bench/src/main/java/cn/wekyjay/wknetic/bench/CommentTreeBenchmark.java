@@ -0,0 +1,123 @@
+package cn.wekyjay.wknetic.bench;
+
+import cn.wekyjay.wknetic.admin.forum.service.CommentTreeBuilder;
+import cn.wekyjay.wknetic.bench.support.BenchFixtures;
+import cn.wekyjay.wknetic.common.model.entity.ForumComment;
+import cn.wekyjay.wknetic.common.model.vo.CommentVO;
+import cn.wekyjay.wknetic.common.model.vo.UserInfoVO;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 评论树组装基准（CommentService 的整帖评论接口经由 CommentTreeBuilder）
+ * <p>
+ * 只测内存中的建树和VO转换，不含查询。
+ * 评论按ID递增生成，每条以一定比例作为顶级评论，否则回复之前的某条评论：
+ * wide 主要回复顶级评论（热门帖的常见形态），deep 主要回复最近的评论（长对话链），
+ * 层级与发表评论时一样限制在 16 层以内。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommentTreeBenchmark {
+
+    /** 帖子下的评论总数 */
+    @Param({"1000", "10000"})
+    private int comments;
+
+    /** 评论树形态 */
+    @Param({"wide", "deep"})
+    private String shape;
+
+    /** 与 CommentService 的最大层数一致 */
+    private static final int MAX_TREE_DEPTH = 16;
+
+    private List<ForumComment> rows;
+    private Map<Long, UserInfoVO> users;
+    private Set<Long> likedIds;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(BenchFixtures.SEED);
+        LocalDateTime now = LocalDateTime.now();
+
+        rows = new ArrayList<>(comments);
+        List<ForumComment> roots = new ArrayList<>();
+        users = new HashMap<>();
+        likedIds = new HashSet<>();
+        for (int i = 0; i < comments; i++) {
+            ForumComment comment = new ForumComment();
+            comment.setCommentId((long) i + 1);
+            comment.setPostId(1L);
+            comment.setUserId((long) random.nextInt(500) + 1);
+            comment.setContent("评论内容 " + i);
+            comment.setContentHtml("<p>评论内容 " + i + "</p>");
+            comment.setLikeCount(random.nextInt(50));
+            comment.setReplyCount(0);
+            comment.setStatus(1);
+            comment.setCreateTime(now.minusMinutes(comments - i));
+            comment.setUpdateTime(comment.getCreateTime());
+
+            ForumComment parent = pickParent(random, roots);
+            if (parent == null) {
+                comment.setDepth(0);
+                roots.add(comment);
+            } else {
+                comment.setParentId(parent.getCommentId());
+                comment.setReplyToUserId(parent.getUserId());
+                comment.setDepth(parent.getDepth() + 1);
+                parent.setReplyCount(parent.getReplyCount() + 1);
+            }
+            rows.add(comment);
+            if (random.nextInt(10) == 0) {
+                likedIds.add(comment.getCommentId());
+            }
+        }
+        for (ForumComment comment : rows) {
+            users.computeIfAbsent(comment.getUserId(), this::user);
+        }
+    }
+
+    private ForumComment pickParent(Random random, List<ForumComment> roots) {
+        if (rows.isEmpty() || random.nextInt(10) < 2) {
+            return null;
+        }
+        if ("wide".equals(shape)) {
+            // 多数回复顶级评论，少数回复其下的楼中楼
+            return random.nextInt(4) == 0
+                    ? rows.get(random.nextInt(rows.size()))
+                    : roots.get(random.nextInt(roots.size()));
+        }
+        // 多数回复最近的几条评论，形成较深的对话链；到达最大层数后改为回复上一层（评论ID即下标+1）
+        int window = Math.min(rows.size(), 5);
+        ForumComment parent = rows.get(rows.size() - 1 - random.nextInt(window));
+        while (parent.getDepth() >= MAX_TREE_DEPTH - 1) {
+            parent = rows.get((int) (parent.getParentId() - 1));
+        }
+        return parent;
+    }
+
+    private UserInfoVO user(Long userId) {
+        UserInfoVO vo = new UserInfoVO();
+        vo.setUserId(userId);
+        vo.setUsername("user" + userId);
+        vo.setNickname("用户" + userId);
+        vo.setAvatar("https://example.com/avatar/" + userId + ".png");
+        return vo;
+    }
+
+    @Benchmark
+    public List<CommentVO> buildCommentTree() {
+        return CommentTreeBuilder.buildTree(rows, users, likedIds);
+    }
+}
@@ -0,0 +1,98 @@
+package cn.wekyjay.wknetic.bench;
+
+import cn.wekyjay.wknetic.api.enums.PacketType;
+import cn.wekyjay.wknetic.api.model.packet.ServerSessionPacket;
+import cn.wekyjay.wknetic.bench.support.BenchFixtures;
+import cn.wekyjay.wknetic.bench.support.EmbeddedRedis;
+import cn.wekyjay.wknetic.socket.handler.GamePacketHandler;
+import cn.wekyjay.wknetic.socket.manager.ChannelManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GamePacketHandler 分发基准
+ * <p>
+ * 通过 Netty EmbeddedChannel 走完整的入站流程（JSON 解析、按 PacketType 分发、处理、计时）。
+ * 心跳包只更新内存中的会话；聊天包会发布到 Redis 频道并写入历史列表（内嵌 Redis）。
+ * 登录包需要查询 Token 表，不在此基准范围内。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GamePacketHandlerBenchmark {
+
+    private EmbeddedRedis redis;
+    private ChannelManager channelManager;
+    private EmbeddedChannel channel;
+
+    private String heartbeatMessage;
+    private String chatMessage;
+
+    @Setup
+    public void setup() throws IOException {
+        redis = EmbeddedRedis.start();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        channelManager = new ChannelManager();
+
+        GamePacketHandler handler = new GamePacketHandler();
+        BenchFixtures.inject(handler, "channelManager", channelManager);
+        BenchFixtures.inject(handler, "objectMapper", objectMapper);
+        BenchFixtures.inject(handler, "stringRedisTemplate", redis.getStringRedisTemplate());
+        BenchFixtures.inject(handler, "meterRegistry", new SimpleMeterRegistry());
+        channel = new EmbeddedChannel(handler);
+
+        // 已登录的服务器连接
+        String token = UUID.randomUUID().toString().replace("-", "");
+        ServerSessionPacket session = new ServerSessionPacket();
+        session.setToken(token);
+        session.setServerName("bench-server");
+        channelManager.registerChannel(token, channel, session);
+
+        ObjectNode heartbeat = objectMapper.createObjectNode();
+        heartbeat.put("type", PacketType.SERVER_HEARTBEAT.name());
+        heartbeat.put("timestamp", System.currentTimeMillis());
+        heartbeatMessage = heartbeat.toString();
+
+        ObjectNode chat = objectMapper.createObjectNode();
+        chat.put("type", PacketType.CHAT_MSG.name());
+        chat.put("serverName", "bench-server");
+        chat.put("channel", "global");
+        chat.put("world", "world");
+        chat.put("player", "player_1");
+        chat.put("uuid", UUID.nameUUIDFromBytes("player-1".getBytes()).toString());
+        chat.put("msg", "有人一起去下界要塞吗？带了附魔金苹果");
+        chatMessage = chat.toString();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        channelManager.removeChannel(channel);
+        channel.finishAndReleaseAll();
+        redis.close();
+    }
+
+    @Benchmark
+    public void heartbeat() {
+        channel.writeInbound(heartbeatMessage);
+    }
+
+    @Benchmark
+    public void chat() {
+        channel.writeInbound(chatMessage);
+    }
+}
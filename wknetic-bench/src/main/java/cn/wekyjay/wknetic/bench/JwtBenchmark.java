@@ -0,0 +1,73 @@
+package cn.wekyjay.wknetic.bench;
+
+import cn.wekyjay.wknetic.bench.support.BenchFixtures;
+import cn.wekyjay.wknetic.bench.support.EmbeddedRedis;
+import cn.wekyjay.wknetic.common.config.JwtProperties;
+import cn.wekyjay.wknetic.common.utils.JwtUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtils.validateAndRenew 基准（每个认证请求都会调用）
+ * <p>
+ * 有效 Token 需要验签并访问 Redis（读取 Token、查询剩余时间，需要续签时再设置过期时间）；
+ * 签名错误的 Token 在验签阶段即返回，不访问 Redis。
+ * renew=true 时把续签阈值设为大于有效期，使每次校验都走续签分支。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    /** 是否每次都续签 */
+    @Param({"false", "true"})
+    private boolean renew;
+
+    private EmbeddedRedis redis;
+    private JwtUtils jwtUtils;
+    private String token;
+    private String forgedToken;
+
+    @Setup
+    public void setup() throws IOException {
+        redis = EmbeddedRedis.start();
+        JwtProperties properties = new JwtProperties();
+        jwtUtils = new JwtUtils();
+        BenchFixtures.inject(jwtUtils, "jwtProperties", properties);
+        BenchFixtures.inject(jwtUtils, "stringRedisTemplate", redis.getStringRedisTemplate());
+
+        token = jwtUtils.createToken(1001L, "bench", true);
+        // 篡改签名中的一个字符（避开末尾只含填充位的字符）
+        int index = token.length() - 5;
+        char tampered = token.charAt(index) == 'A' ? 'B' : 'A';
+        forgedToken = token.substring(0, index) + tampered + token.substring(index + 1);
+
+        if (renew) {
+            properties.setRefreshTime(properties.getExpiration() + 1);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        redis.close();
+    }
+
+    @Benchmark
+    public boolean validateAndRenew() {
+        return jwtUtils.validateAndRenew(token);
+    }
+
+    @Benchmark
+    public boolean rejectForged() {
+        return jwtUtils.validateAndRenew(forgedToken);
+    }
+}
@@ -0,0 +1,107 @@
+package cn.wekyjay.wknetic.bench;
+
+import cn.wekyjay.wknetic.api.model.dto.socket.PlayerInfoDto;
+import cn.wekyjay.wknetic.api.model.dto.socket.PluginInfoDto;
+import cn.wekyjay.wknetic.api.model.packet.PlayerChatPacket;
+import cn.wekyjay.wknetic.api.model.packet.ServerSessionPacket;
+import cn.wekyjay.wknetic.api.utils.PacketUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PacketUtils 序列化基准
+ * <p>
+ * 服务器状态包随在线人数变大（玩家列表、插件列表），聊天包是最频繁的小包。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PacketUtilsBenchmark {
+
+    /** 状态包中的在线玩家数 */
+    @Param({"10", "200"})
+    private int players;
+
+    private ServerSessionPacket sessionPacket;
+    private String sessionJson;
+    private PlayerChatPacket chatPacket;
+    private String chatJson;
+
+    @Setup
+    public void setup() throws IOException {
+        sessionPacket = new ServerSessionPacket();
+        sessionPacket.setServerName("bench-server");
+        sessionPacket.setServerVersion("1.21.1");
+        sessionPacket.setMotd("A Minecraft Server");
+        sessionPacket.setOnlinePlayers(players);
+        sessionPacket.setMaxPlayers(500);
+        sessionPacket.setTps(19.98);
+        sessionPacket.setRamUsage(4096L);
+        sessionPacket.setMaxRam(8192L);
+        sessionPacket.setLoginTime(new Date());
+        sessionPacket.setLastActiveTime(new Date());
+        List<PlayerInfoDto> playerList = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            PlayerInfoDto player = new PlayerInfoDto();
+            player.setUuid(UUID.nameUUIDFromBytes(("player-" + i).getBytes()).toString());
+            player.setName("player_" + i);
+            player.setPing(20 + i % 80);
+            player.setWorld(i % 3 == 0 ? "world_nether" : "world");
+            playerList.add(player);
+        }
+        sessionPacket.setPlayerList(playerList);
+        List<PluginInfoDto> pluginList = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            PluginInfoDto plugin = new PluginInfoDto();
+            plugin.setName("Plugin" + i);
+            plugin.setVersion("1." + i + ".0");
+            plugin.setEnabled(true);
+            plugin.setAuthor("author" + i);
+            pluginList.add(plugin);
+        }
+        sessionPacket.setPluginList(pluginList);
+        sessionJson = PacketUtils.toJson(sessionPacket);
+
+        chatPacket = new PlayerChatPacket();
+        chatPacket.setServerName("bench-server");
+        chatPacket.setPlayer("player_1");
+        chatPacket.setUuid(UUID.nameUUIDFromBytes("player-1".getBytes()).toString());
+        chatPacket.setWorld("world");
+        chatPacket.setMsg("有人一起去下界要塞吗？带了附魔金苹果");
+        chatPacket.setTime(System.currentTimeMillis());
+        chatJson = PacketUtils.toJson(chatPacket);
+    }
+
+    @Benchmark
+    public String sessionToJson() throws IOException {
+        return PacketUtils.toJson(sessionPacket);
+    }
+
+    @Benchmark
+    public ServerSessionPacket sessionFromJson() throws IOException {
+        return PacketUtils.fromJson(sessionJson, ServerSessionPacket.class);
+    }
+
+    @Benchmark
+    public byte[] chatToBytes() throws IOException {
+        return PacketUtils.toBytes(chatPacket);
+    }
+
+    @Benchmark
+    public PlayerChatPacket chatFromJson() throws IOException {
+        return PacketUtils.fromJson(chatJson, PlayerChatPacket.class);
+    }
+}
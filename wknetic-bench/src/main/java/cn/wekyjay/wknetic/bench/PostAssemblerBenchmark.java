@@ -0,0 +1,145 @@
+package cn.wekyjay.wknetic.bench;
+
+import cn.wekyjay.wknetic.admin.forum.service.PostAssembler;
+import cn.wekyjay.wknetic.bench.support.BenchFixtures;
+import cn.wekyjay.wknetic.bench.support.H2Database;
+import cn.wekyjay.wknetic.common.mapper.*;
+import cn.wekyjay.wknetic.common.model.entity.ForumPost;
+import cn.wekyjay.wknetic.common.model.vo.PostVO;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 帖子列表VO组装基准（PostService 的列表、热门、推荐接口都经由 PostAssembler）
+ * <p>
+ * 作者、话题、标签、点赞/收藏状态通过真实的 Mapper 从 H2 批量加载，
+ * 测量一页帖子的查询次数和组装开销；登录用户额外查询点赞和收藏状态。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostAssemblerBenchmark {
+
+    private static final int USERS = 2000;
+    private static final int TOPICS = 20;
+    private static final int TAGS = 300;
+    private static final int POSTS = 5000;
+
+    /** 每页帖子数 */
+    @Param({"20", "100"})
+    private int pageSize;
+
+    /** 是否登录（登录时查询点赞/收藏状态） */
+    @Param({"false", "true"})
+    private boolean loggedIn;
+
+    private H2Database database;
+    private PostAssembler postAssembler;
+    private List<ForumPost> page;
+    private Long currentUserId;
+
+    @Setup
+    public void setup() {
+        database = H2Database.create();
+        database.addMappers(SysUserMapper.class, ForumTopicMapper.class, ForumTagMapper.class,
+                PostTagMapper.class, PostLikeMapper.class, PostBookmarkMapper.class);
+        seed();
+        postAssembler = new PostAssembler(
+                database.getMapper(SysUserMapper.class),
+                database.getMapper(ForumTopicMapper.class),
+                database.getMapper(ForumTagMapper.class),
+                database.getMapper(PostTagMapper.class),
+                database.getMapper(PostLikeMapper.class),
+                database.getMapper(PostBookmarkMapper.class));
+
+        Random random = new Random(BenchFixtures.SEED);
+        LocalDateTime now = LocalDateTime.now();
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            ForumPost post = new ForumPost();
+            post.setPostId((long) i * (POSTS / pageSize) + 1);
+            post.setUserId((long) random.nextInt(USERS) + 1);
+            post.setTopicId((long) random.nextInt(TOPICS) + 1);
+            post.setTitle("帖子标题 " + i);
+            post.setExcerpt("帖子摘要 " + i);
+            post.setStatus(1);
+            post.setIsPinned(false);
+            post.setIsHot(false);
+            post.setLikeCount(random.nextInt(500));
+            post.setCommentCount(random.nextInt(200));
+            post.setViewCount(random.nextInt(10000));
+            post.setBookmarkCount(random.nextInt(100));
+            post.setCreateTime(now.minusHours(i));
+            post.setUpdateTime(now.minusHours(i));
+            page.add(post);
+        }
+        currentUserId = loggedIn ? 1L : null;
+    }
+
+    /**
+     * 准备关联数据：每篇帖子 3 个标签，用户 1 点赞/收藏了约 1/5 的帖子
+     */
+    private void seed() {
+        Random random = new Random(BenchFixtures.SEED);
+        List<Object[]> users = new ArrayList<>(USERS);
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{"user" + i, "用户" + i, "https://example.com/avatar/" + i + ".png"});
+        }
+        database.jdbc().batchUpdate("INSERT INTO sys_user (username, nickname, avatar) VALUES (?, ?, ?)", users);
+
+        List<Object[]> topics = new ArrayList<>(TOPICS);
+        for (int i = 1; i <= TOPICS; i++) {
+            topics.add(new Object[]{"话题" + i, "mdi:forum", "#409EFF", i});
+        }
+        database.jdbc().batchUpdate("INSERT INTO forum_topic (topic_name, icon, color, sort_order) VALUES (?, ?, ?, ?)", topics);
+
+        List<Object[]> tags = new ArrayList<>(TAGS);
+        for (int i = 1; i <= TAGS; i++) {
+            tags.add(new Object[]{"标签" + i});
+        }
+        database.jdbc().batchUpdate("INSERT INTO forum_tag (tag_name) VALUES (?)", tags);
+
+        List<Object[]> postTags = new ArrayList<>(POSTS * 3);
+        List<Object[]> likes = new ArrayList<>();
+        List<Object[]> bookmarks = new ArrayList<>();
+        for (long postId = 1; postId <= POSTS; postId++) {
+            int firstTag = random.nextInt(TAGS - 3);
+            for (int j = 1; j <= 3; j++) {
+                postTags.add(new Object[]{postId, (long) firstTag + j});
+            }
+            if (random.nextInt(5) == 0) {
+                likes.add(new Object[]{postId, 1L});
+            }
+            if (random.nextInt(5) == 0) {
+                bookmarks.add(new Object[]{postId, 1L});
+            }
+            // 其他用户的点赞，使点赞表有一定规模
+            likes.add(new Object[]{postId, (long) random.nextInt(USERS - 1) + 2});
+        }
+        database.jdbc().batchUpdate("INSERT INTO forum_post_tag (post_id, tag_id) VALUES (?, ?)", postTags);
+        database.jdbc().batchUpdate("INSERT INTO forum_post_like (post_id, user_id) VALUES (?, ?)", likes);
+        database.jdbc().batchUpdate("INSERT INTO forum_post_bookmark (post_id, user_id) VALUES (?, ?)", bookmarks);
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<PostVO> assemble() {
+        return postAssembler.assemble(page, currentUserId);
+    }
+}
@@ -0,0 +1,39 @@
+package cn.wekyjay.wknetic.bench.support;
+
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+
+/**
+ * 基准测试的装配工具
+ * <p>
+ * 被测组件大多使用字段注入（@Resource），这里不启动 Spring 容器，直接按字段名注入依赖。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+public final class BenchFixtures {
+
+    /** 固定随机种子，保证每次运行的数据相同，结果可与基线比较 */
+    public static final long SEED = 20260204L;
+
+    private BenchFixtures() {
+    }
+
+    /**
+     * 按字段名注入依赖
+     *
+     * @param target 被注入的对象
+     * @param fieldName 字段名
+     * @param value 依赖
+     */
+    public static void inject(Object target, String fieldName, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+        if (field == null) {
+            throw new IllegalArgumentException(target.getClass().getSimpleName() + " 没有字段 " + fieldName);
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,66 @@
+package cn.wekyjay.wknetic.bench.support;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+/**
+ * 基准测试用的内嵌 Redis
+ * <p>
+ * 在随机空闲端口启动一个 Redis 进程，通过与生产相同的 Lettuce 连接访问，
+ * 测得的耗时包含真实的网络往返和序列化，只是省去了独立部署。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+public class EmbeddedRedis implements AutoCloseable {
+
+    private final RedisServer server;
+    private final LettuceConnectionFactory connectionFactory;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private EmbeddedRedis(RedisServer server, LettuceConnectionFactory connectionFactory) {
+        this.server = server;
+        this.connectionFactory = connectionFactory;
+        this.stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    /**
+     * 启动内嵌 Redis 并建立连接
+     *
+     * @return 内嵌 Redis
+     * @throws IOException 启动失败
+     */
+    public static EmbeddedRedis start() throws IOException {
+        int port = freePort();
+        RedisServer server = new RedisServer(port);
+        server.start();
+        LettuceConnectionFactory connectionFactory =
+                new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        return new EmbeddedRedis(server, connectionFactory);
+    }
+
+    public StringRedisTemplate getStringRedisTemplate() {
+        return stringRedisTemplate;
+    }
+
+    @Override
+    public void close() throws IOException {
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            socket.setReuseAddress(true);
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+-- 基准测试用的 H2 表结构（MySQL 兼容模式）
+-- 列和索引与 wknetic-admin/src/main/resources/db/schema.sql 中对应的表一致，省略外键和注释
+
+CREATE TABLE sys_user (
+    user_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL,
+    password VARCHAR(100),
+    nickname VARCHAR(50),
+    email VARCHAR(100),
+    phone VARCHAR(20),
+    avatar VARCHAR(255),
+    bio VARCHAR(500),
+    location VARCHAR(100),
+    website VARCHAR(255),
+    gender INT DEFAULT 0,
+    status INT DEFAULT 1,
+    role_id BIGINT,
+    role VARCHAR(20) DEFAULT 'USER',
+    minecraft_uuid VARCHAR(36),
+    minecraft_username VARCHAR(50),
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE forum_topic (
+    topic_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    topic_name VARCHAR(50) NOT NULL,
+    topic_desc VARCHAR(255),
+    icon VARCHAR(100),
+    color VARCHAR(20),
+    sort_order INT DEFAULT 0,
+    post_count INT DEFAULT 0,
+    status INT DEFAULT 1,
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE forum_tag (
+    tag_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tag_name VARCHAR(50) NOT NULL,
+    use_count INT DEFAULT 0,
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE forum_post_tag (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    post_id BIGINT NOT NULL,
+    tag_id BIGINT NOT NULL,
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE UNIQUE INDEX uk_post_tag ON forum_post_tag (post_id, tag_id);
+CREATE INDEX idx_post_tag_post ON forum_post_tag (post_id);
+CREATE INDEX idx_post_tag_tag ON forum_post_tag (tag_id);
+
+CREATE TABLE forum_post_like (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    post_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE UNIQUE INDEX uk_post_like ON forum_post_like (post_id, user_id);
+CREATE INDEX idx_post_like_user ON forum_post_like (user_id);
+
+CREATE TABLE forum_post_bookmark (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    post_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    category_id BIGINT,
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE UNIQUE INDEX uk_post_bookmark ON forum_post_bookmark (post_id, user_id);
+CREATE INDEX idx_post_bookmark_user ON forum_post_bookmark (user_id);
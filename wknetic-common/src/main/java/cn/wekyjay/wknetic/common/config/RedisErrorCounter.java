@@ -0,0 +1,68 @@
+package cn.wekyjay.wknetic.common.config;
+
+import cn.wekyjay.wknetic.common.utils.MetricsUtil;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.event.command.CommandFailedEvent;
+import io.lettuce.core.event.command.CommandListener;
+import io.lettuce.core.event.connection.ReconnectFailedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis 错误计数
+ * <p>
+ * 在 Lettuce 客户端和连接工厂上统计 Redis 错误，与调用方是否捕获异常无关：
+ * 执行失败的命令（服务端错误、超时、断线期间被取消）按异常类名计数，
+ * 获取连接失败和重连失败计为 connection。业务代码的降级分支不再单独计数。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+@Slf4j
+@Component
+public class RedisErrorCounter implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof LettuceConnectionFactory factory)) {
+            return bean;
+        }
+        // 连接工厂默认随初始化启动，此时已创建客户端
+        AbstractRedisClient client = factory.getNativeClient();
+        if (client != null) {
+            register(client);
+        } else {
+            log.warn("Redis 客户端未启动，只统计获取连接失败: bean={}", beanName);
+        }
+
+        // 按接口代理连接工厂，获取连接失败时还没有命令发出，监听器看不到
+        ProxyFactory proxy = new ProxyFactory(factory);
+        proxy.addAdvice((MethodInterceptor) invocation -> {
+            try {
+                return invocation.proceed();
+            } catch (RedisConnectionFailureException e) {
+                MetricsUtil.recordError(MetricsUtil.REDIS, "connection");
+                throw e;
+            }
+        });
+        return proxy.getProxy();
+    }
+
+    private void register(AbstractRedisClient client) {
+        client.addListener(new CommandListener() {
+            @Override
+            public void commandFailed(CommandFailedEvent event) {
+                MetricsUtil.recordError(MetricsUtil.REDIS, event.getCause());
+            }
+        });
+        client.getResources().eventBus().get()
+                .filter(ReconnectFailedEvent.class::isInstance)
+                .subscribe(event -> MetricsUtil.recordError(MetricsUtil.REDIS, "connection"));
+    }
+}
@@ -0,0 +1,125 @@
+package cn.wekyjay.wknetic.common.config;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SQL 耗时统计拦截器
+ * <p>
+ * 按 Mapper 语句（namespace.方法名）记录耗时 wknetic.sql，区分语句类型和是否出错；
+ * 超过阈值的慢SQL输出 WARN 日志，同一条语句在日志间隔内只输出一次，下次输出时带上期间省略的次数，
+ * 替代逐条打印到标准输出的 SQL 日志。日志只包含SQL文本，不包含参数值。
+ * 计时器注册到全局注册表，不注入 MeterRegistry，避免与依赖 Mapper 的指标组件形成循环依赖。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})
+})
+public class SqlMetricsInterceptor implements Interceptor {
+
+    private final WkNeticProperties properties;
+
+    private static final String TIMER_NAME = "wknetic.sql";
+
+    /** 语句ID + 结果 -> 计时器 */
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /** 语句ID -> 慢SQL日志状态 */
+    private final Map<String, SlowLogState> slowLogStates = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object result = invocation.proceed();
+            success = true;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer(statement, success).record(elapsed, TimeUnit.NANOSECONDS);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+            if (elapsedMillis >= properties.getMetrics().getSlowSqlThreshold()) {
+                logSlow(invocation, statement, elapsedMillis);
+            }
+        }
+    }
+
+    private Timer timer(MappedStatement statement, boolean success) {
+        String outcome = success ? "success" : "error";
+        return timers.computeIfAbsent(statement.getId() + '#' + outcome, key -> Timer.builder(TIMER_NAME)
+                .description("Mapper 语句耗时")
+                .tag("statement", statement.getId())
+                .tag("type", statement.getSqlCommandType().name())
+                .tag("outcome", outcome)
+                .register(Metrics.globalRegistry));
+    }
+
+    private void logSlow(Invocation invocation, MappedStatement statement, long elapsedMillis) {
+        WkNeticProperties.Metrics config = properties.getMetrics();
+        SlowLogState state = slowLogStates.computeIfAbsent(statement.getId(), id -> new SlowLogState());
+        long now = System.currentTimeMillis();
+        long last = state.lastLoggedAt.get();
+        if (last != 0 && now - last < config.getSlowSqlLogInterval() || !state.lastLoggedAt.compareAndSet(last, now)) {
+            state.suppressed.incrementAndGet();
+            return;
+        }
+        long suppressed = state.suppressed.getAndSet(0);
+        try {
+            log.warn("慢SQL: {} 耗时{}ms（此前省略{}次） {}", statement.getId(), elapsedMillis, suppressed,
+                    abbreviate(boundSql(invocation, statement).getSql(), config.getSlowSqlMaxLength()));
+        } catch (Exception e) {
+            log.warn("慢SQL: {} 耗时{}ms（此前省略{}次）", statement.getId(), elapsedMillis, suppressed);
+        }
+    }
+
+    private static BoundSql boundSql(Invocation invocation, MappedStatement statement) {
+        Object[] args = invocation.getArgs();
+        if (args.length == 6) {
+            return (BoundSql) args[5];
+        }
+        return statement.getBoundSql(args[1]);
+    }
+
+    /**
+     * 压缩空白并截断
+     */
+    private static String abbreviate(String sql, int maxLength) {
+        String compact = sql.replaceAll("\\s+", " ").trim();
+        return compact.length() <= maxLength ? compact : compact.substring(0, maxLength) + "...";
+    }
+
+    private static class SlowLogState {
+        private final AtomicLong lastLoggedAt = new AtomicLong();
+        private final AtomicLong suppressed = new AtomicLong();
+    }
+}
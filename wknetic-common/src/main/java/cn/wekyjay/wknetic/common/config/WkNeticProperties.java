@@ -8,9 +8,352 @@
 public class WkNeticProperties {
     private Socket socket = new Socket();
     private Boolean dbAutoInit;
+    private Hot hot = new Hot();
+    private Feed feed = new Feed();
+    private History history = new History();
+    private Search search = new Search();
+    private Presence presence = new Presence();
+    private Audit audit = new Audit();
+    private Report report = new Report();
+    private OperLog operLog = new OperLog();
+    private Dashboard dashboard = new Dashboard();
+    private Metrics metrics = new Metrics();
 
     @Data
     public static class Socket {
         private Integer port;
     }
+
+    /**
+     * 热门帖子排行配置
+     */
+    @Data
+    public static class Hot {
+        /**
+         * 热度半衰期（小时），互动产生的热度每经过一个半衰期衰减一半
+         */
+        private Integer halfLifeHours = 12;
+        /**
+         * 每个排行榜（全站/话题）保留的候选帖子数量
+         */
+        private Integer capacity = 1000;
+        /**
+         * 全站排行前 N 名标记为热门（is_hot）
+         */
+        private Integer hotCount = 20;
+        /**
+         * 热门标记刷新间隔（毫秒）
+         */
+        private Long refreshInterval = 300000L;
+        /**
+         * 审核通过时的初始热度
+         */
+        private Double publishWeight = 10.0;
+        private Double likeWeight = 3.0;
+        private Double commentWeight = 5.0;
+        private Double bookmarkWeight = 4.0;
+        private Double viewWeight = 0.2;
+    }
+
+    /**
+     * 关注动态配置
+     */
+    @Data
+    public static class Feed {
+        /**
+         * 每个用户收件箱保留的帖子数量
+         */
+        private Integer inboxCapacity = 500;
+        /**
+         * 每个作者发件箱保留的帖子数量
+         */
+        private Integer outboxCapacity = 200;
+        /**
+         * 粉丝数达到该阈值的作者改为读扩散（不再推送到粉丝收件箱）
+         */
+        private Long fanoutThreshold = 5000L;
+        /**
+         * 推送时每批处理的粉丝数量
+         */
+        private Integer fanoutBatchSize = 500;
+    }
+
+    /**
+     * 帖子编辑历史配置
+     */
+    @Data
+    public static class History {
+        /**
+         * 每隔多少个版本保存一次完整快照，其余版本只保存差异
+         */
+        private Integer snapshotInterval = 10;
+        /**
+         * 旧历史数据压缩任务间隔（毫秒）
+         */
+        private Long compactInterval = 3600000L;
+    }
+
+    /**
+     * 搜索索引配置
+     */
+    @Data
+    public static class Search {
+        /**
+         * 全量重建时每次从数据库读取的帖子数量
+         */
+        private Integer reindexPageSize = 1000;
+        /**
+         * 单个 _bulk 请求的最大文档数
+         */
+        private Integer bulkMaxActions = 500;
+        /**
+         * 单个 _bulk 请求的最大字节数（估算值）
+         */
+        private Long bulkMaxBytes = 5L * 1024 * 1024;
+        /**
+         * 同时进行中的 _bulk 请求数量
+         */
+        private Integer bulkConcurrency = 4;
+        /**
+         * 增量同步队列的合并刷新间隔（毫秒），窗口内同一帖子的变更只同步一次
+         */
+        private Long indexFlushInterval = 1000L;
+        /**
+         * 同步失败记录的重试扫描间隔（毫秒），也是首次重试的退避时间
+         */
+        private Long outboxRetryInterval = 30000L;
+        /**
+         * 每次重试处理的失败记录数量
+         */
+        private Integer outboxBatchSize = 500;
+        /**
+         * 搜索结果缓存有效期（毫秒），索引写入后缓存立即失效，有效期只是兜底
+         */
+        private Long resultCacheTtl = 30000L;
+        /**
+         * 热门关键词缓存有效期（毫秒），不随索引写入失效
+         */
+        private Long hotKeywordsCacheTtl = 300000L;
+        /**
+         * 搜索结果缓存的最大条目数
+         */
+        private Integer resultCacheSize = 5000;
+        /**
+         * 搜索词统计写入 Redis 的间隔（毫秒）
+         */
+        private Long analyticsFlushInterval = 60000L;
+        /**
+         * 每个节点每个刷新周期跟踪的高频搜索词数量
+         */
+        private Integer analyticsTopK = 100;
+        /**
+         * ES连续失败多少次后切换到降级搜索（MySQL全文索引）
+         */
+        private Integer fallbackFailureThreshold = 5;
+        /**
+         * 切换到降级搜索后多久再尝试ES（毫秒）
+         */
+        private Long fallbackOpenDuration = 30000L;
+        /**
+         * 索引一致性检查间隔（毫秒）
+         */
+        private Long consistencyCheckInterval = 300000L;
+        /**
+         * 一致性检查每个分段的帖子数
+         */
+        private Integer consistencyBucketSize = 500;
+        /**
+         * 每次定时检查的分段数，下次从断点继续
+         */
+        private Integer consistencyBucketsPerRun = 20;
+    }
+
+    /**
+     * 在线状态配置
+     */
+    @Data
+    public static class Presence {
+        /**
+         * 最近多少分钟内有活动的用户算作在线
+         */
+        private Integer onlineWindowMinutes = 15;
+        /**
+         * WebSocket 连接中的用户的活动上报间隔、在线人数采样间隔（毫秒）
+         */
+        private Long heartbeatInterval = 60000L;
+    }
+
+    /**
+     * 审核队列配置
+     */
+    @Data
+    public static class Audit {
+        /**
+         * 审核员领取帖子的租约时长（毫秒），到期未处理的帖子回到队列
+         */
+        private Long claimLeaseDuration = 600000L;
+        /**
+         * 每次领取的默认数量
+         */
+        private Integer claimBatchSize = 10;
+        /**
+         * 批量审核一次最多处理的帖子数
+         */
+        private Integer maxBatchSize = 100;
+        /**
+         * 优先级：每条待处理举报的权重
+         */
+        private Double reportWeight = 10.0;
+        /**
+         * 优先级：作者首次发帖（没有已发布帖子）的权重
+         */
+        private Double firstPostWeight = 5.0;
+        /**
+         * 优先级：每等待一小时的权重
+         */
+        private Double waitingHourWeight = 1.0;
+    }
+
+    /**
+     * 举报聚合配置
+     */
+    @Data
+    public static class Report {
+        /**
+         * 加权举报分达到多少时自动隐藏内容并送审
+         */
+        private Double hideScore = 10.0;
+        /**
+         * 自动隐藏至少需要的举报人数
+         */
+        private Integer hideMinReporters = 3;
+        /**
+         * 举报人信誉权重的下限、上限（新用户的默认权重为1）
+         */
+        private Double minReputation = 0.2;
+        private Double maxReputation = 3.0;
+        /**
+         * 审核员、管理员举报的权重
+         */
+        private Double moderatorWeight = 5.0;
+        /**
+         * 注册不满多少天的账号举报权重打折，以及折扣系数
+         */
+        private Integer newAccountDays = 7;
+        private Double newAccountFactor = 0.5;
+    }
+
+    /**
+     * 操作日志写入配置
+     */
+    @Data
+    public static class OperLog {
+        /**
+         * 待写入队列容量，写满后丢弃新日志
+         */
+        private Integer queueCapacity = 10000;
+        /**
+         * 每批写入的日志数（一条多行INSERT）
+         */
+        private Integer batchSize = 200;
+        /**
+         * 写入间隔（毫秒）
+         */
+        private Long flushInterval = 1000L;
+        /**
+         * 队列占用超过容量的多少比例时开始采样正常日志（异常日志不采样）
+         */
+        private Double overloadThreshold = 0.8;
+        /**
+         * 采样时每多少条正常日志保留一条
+         */
+        private Integer overloadSampleRate = 10;
+        /**
+         * 请求参数、返回值、异常信息的最大长度（与表字段长度一致）
+         */
+        private Integer maxFieldLength = 2000;
+        /**
+         * 是否按月分区（关闭时过期日志按批删除）
+         */
+        private Boolean partitionEnabled = true;
+        /**
+         * 是否在维护时自动把未分区的旧表转换为分区表（需要重建整表并阻塞写入，
+         * 默认关闭，建议在维护窗口手动执行 db/migration/sys_oper_log_partition.sql）
+         */
+        private Boolean partitionConvert = false;
+        /**
+         * 日志保留的整月数（不含当月），更早的分区归档后删除
+         */
+        private Integer retentionMonths = 6;
+        /**
+         * 提前创建的未来月份分区数
+         */
+        private Integer premakeMonths = 2;
+        /**
+         * 删除前是否把过期日志导出为压缩文件并上传到文件存储
+         */
+        private Boolean archiveEnabled = true;
+        /**
+         * 归档文件的存储路径
+         */
+        private String archivePath = "archive/oper-log";
+        /**
+         * 分区维护间隔（毫秒）
+         */
+        private Long maintainInterval = 3600000L;
+        /**
+         * 未分区时每批删除的行数
+         */
+        private Integer deleteBatchSize = 5000;
+        /**
+         * 仪表板最近活动优先查询最近多少天（命中分区裁剪），不足时再查全部
+         */
+        private Integer recentDays = 7;
+    }
+
+    /**
+     * 仪表板推送配置
+     */
+    @Data
+    public static class Dashboard {
+        /**
+         * 推送间隔（毫秒），间隔内的多次变更合并为一次计算和推送
+         */
+        private Long pushInterval = 2000L;
+        /**
+         * 在线用户、活跃用户的刷新间隔（毫秒），这些数据不由事件驱动
+         */
+        private Long presenceRefreshInterval = 30000L;
+        /**
+         * 全量刷新间隔（毫秒），修正漏掉的变更并让新订阅的页面得到完整快照
+         */
+        private Long fullRefreshInterval = 60000L;
+    }
+
+    /**
+     * 监控指标配置
+     */
+    @Data
+    public static class Metrics {
+        /**
+         * 慢SQL阈值（毫秒），超过时输出日志
+         */
+        private Long slowSqlThreshold = 500L;
+        /**
+         * 同一条语句的慢SQL日志最短间隔（毫秒），间隔内只计数，下次输出时带上被省略的次数
+         */
+        private Long slowSqlLogInterval = 60000L;
+        /**
+         * 慢SQL日志中SQL文本的最大长度
+         */
+        private Integer slowSqlMaxLength = 1000;
+        /**
+         * Prometheus 抓取账号（HTTP Basic）
+         */
+        private String scrapeUsername = "prometheus";
+        /**
+         * Prometheus 抓取密码，为空时 /actuator/prometheus 仅管理员可访问
+         */
+        private String scrapePassword;
+    }
 }
@@ -0,0 +1,147 @@
+package cn.wekyjay.wknetic.common.mapper;
+
+import cn.wekyjay.wknetic.common.model.entity.DailyStats;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 每日统计汇总Mapper接口
+ * 
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+@Mapper
+public interface DailyStatsMapper extends BaseMapper<DailyStats> {
+    
+    /**
+     * 累加某日某指标的数量
+     *
+     * @param statDate 日期
+     * @param metric 指标
+     * @param delta 增量
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO daily_stats (stat_date, metric, value) VALUES (#{statDate}, #{metric}, #{delta}) " +
+            "ON DUPLICATE KEY UPDATE value = value + #{delta}")
+    int increment(@Param("statDate") LocalDate statDate, @Param("metric") String metric, @Param("delta") long delta);
+    
+    /**
+     * 批量覆盖写入（回填）
+     *
+     * @param records 记录列表（不能为空）
+     * @return 影响行数
+     */
+    @Insert("<script>INSERT INTO daily_stats (stat_date, metric, value) VALUES " +
+            "<foreach collection='records' item='r' separator=','>" +
+            "(#{r.statDate}, #{r.metric}, #{r.value})</foreach> " +
+            "ON DUPLICATE KEY UPDATE value = VALUES(value)</script>")
+    int upsertBatch(@Param("records") Collection<DailyStats> records);
+    
+    /**
+     * 按日期范围读取（主键范围扫描）
+     *
+     * @param startDate 开始日期（含）
+     * @param endDate 结束日期（含）
+     * @return 范围内所有指标的记录
+     */
+    @Select("SELECT stat_date, metric, value FROM daily_stats " +
+            "WHERE stat_date BETWEEN #{startDate} AND #{endDate} ORDER BY stat_date")
+    List<DailyStats> selectRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    /**
+     * 调整当前总数（stats_total）
+     *
+     * @param metric 指标
+     * @param delta 增量（可为负）
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO stats_total (metric, value) VALUES (#{metric}, #{delta}) " +
+            "ON DUPLICATE KEY UPDATE value = value + #{delta}")
+    int incrementTotal(@Param("metric") String metric, @Param("delta") long delta);
+    
+    /**
+     * 读取全部当前总数
+     *
+     * @return 每个指标一条记录（statDate 为空）
+     */
+    @Select("SELECT metric, value FROM stats_total")
+    List<DailyStats> selectTotals();
+    
+    /**
+     * 批量覆盖写入当前总数（回填）
+     *
+     * @param records 记录列表（不能为空）
+     * @return 影响行数
+     */
+    @Insert("<script>INSERT INTO stats_total (metric, value) VALUES " +
+            "<foreach collection='records' item='r' separator=','>" +
+            "(#{r.metric}, #{r.value})</foreach> " +
+            "ON DUPLICATE KEY UPDATE value = VALUES(value)</script>")
+    int upsertTotals(@Param("records") Collection<DailyStats> records);
+    
+    /**
+     * 按源表统计当前启用的用户数和已发布的帖子数（回填）
+     *
+     * @return 每个指标一条记录（statDate 为空）
+     */
+    @Select("SELECT 'enabled_users' AS metric, COUNT(*) AS value FROM sys_user WHERE status = 1 " +
+            "UNION ALL " +
+            "SELECT 'published_posts' AS metric, COUNT(*) AS value FROM forum_post WHERE status = 1")
+    List<DailyStats> aggregateTotals();
+    
+    /**
+     * 按注册日期汇总用户数（回填）
+     *
+     * @return 每日新增用户数
+     */
+    @Select("SELECT DATE(create_time) AS stat_date, 'new_users' AS metric, COUNT(*) AS value " +
+            "FROM sys_user WHERE create_time IS NOT NULL GROUP BY DATE(create_time)")
+    List<DailyStats> aggregateNewUsers();
+    
+    /**
+     * 按发布日期（审核通过时间，未经审核的取创建时间）汇总已发布帖子数（回填）
+     *
+     * @return 每日发布帖子数
+     */
+    @Select("SELECT DATE(COALESCE(audit_time, create_time)) AS stat_date, 'posts' AS metric, COUNT(*) AS value " +
+            "FROM forum_post WHERE status = 1 GROUP BY DATE(COALESCE(audit_time, create_time))")
+    List<DailyStats> aggregatePosts();
+    
+    /**
+     * 按提交日期汇总进入审核的帖子数与举报数（回填）
+     *
+     * @return 每日新增待审核数
+     */
+    @Select("SELECT stat_date, 'audits' AS metric, SUM(cnt) AS value FROM (" +
+            "SELECT DATE(create_time) AS stat_date, COUNT(*) AS cnt FROM forum_post " +
+            "WHERE status = 2 OR audit_time IS NOT NULL GROUP BY DATE(create_time) " +
+            "UNION ALL " +
+            "SELECT DATE(create_time) AS stat_date, COUNT(*) AS cnt FROM forum_report GROUP BY DATE(create_time)" +
+            ") t GROUP BY stat_date")
+    List<DailyStats> aggregateAudits();
+    
+    /**
+     * 按日期汇总举报数（回填）
+     *
+     * @return 每日举报数
+     */
+    @Select("SELECT DATE(create_time) AS stat_date, 'reports' AS metric, COUNT(*) AS value " +
+            "FROM forum_report GROUP BY DATE(create_time)")
+    List<DailyStats> aggregateReports();
+    
+    /**
+     * 按日期汇总评论数（回填）
+     *
+     * @return 每日评论数
+     */
+    @Select("SELECT DATE(create_time) AS stat_date, 'comments' AS metric, COUNT(*) AS value " +
+            "FROM forum_comment GROUP BY DATE(create_time)")
+    List<DailyStats> aggregateComments();
+}
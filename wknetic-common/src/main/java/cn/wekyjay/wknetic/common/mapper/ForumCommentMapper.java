@@ -5,6 +5,7 @@
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 import java.util.List;
 
@@ -35,4 +36,74 @@ public interface ForumCommentMapper extends BaseMapper<ForumComment> {
      */
     @Select("SELECT * FROM forum_comment WHERE user_id = #{userId} AND status = 1 ORDER BY create_time DESC LIMIT #{limit}")
     List<ForumComment> selectByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+    
+    /**
+     * 按物化路径范围扫描评论（展示顺序，走 idx_post_path 索引）
+     *
+     * @param postId 帖子ID
+     * @param subtreePath 子树根路径（只返回该节点的后代，为空表示整个帖子）
+     * @param afterPath 游标路径（只返回路径大于它的评论，为空表示从头开始）
+     * @param maxDepth 最大层级（为空表示不限）
+     * @param limit 数量
+     * @return 按路径排序的评论列表
+     */
+    @Select("<script>SELECT * FROM forum_comment WHERE post_id = #{postId} AND status = 1 AND path IS NOT NULL" +
+            "<if test='subtreePath != null'> AND path &gt; #{subtreePath} AND path &lt; CONCAT(#{subtreePath}, '~')</if>" +
+            "<if test='afterPath != null'> AND path &gt; #{afterPath}</if>" +
+            "<if test='maxDepth != null'> AND depth &lt;= #{maxDepth}</if>" +
+            " ORDER BY path LIMIT #{limit}</script>")
+    List<ForumComment> selectTreeRange(@Param("postId") Long postId,
+                                       @Param("subtreePath") String subtreePath,
+                                       @Param("afterPath") String afterPath,
+                                       @Param("maxDepth") Integer maxDepth,
+                                       @Param("limit") int limit);
+    
+    /**
+     * 设置评论的物化路径和层级
+     *
+     * @param commentId 评论ID
+     * @param path 物化路径
+     * @param depth 层级深度
+     * @return 影响行数
+     */
+    @Update("UPDATE forum_comment SET path = #{path}, depth = #{depth} WHERE comment_id = #{commentId}")
+    int updatePath(@Param("commentId") Long commentId, @Param("path") String path, @Param("depth") int depth);
+    
+    /**
+     * 增加直接回复数
+     *
+     * @param commentId 评论ID
+     * @return 影响行数
+     */
+    @Update("UPDATE forum_comment SET reply_count = reply_count + 1 WHERE comment_id = #{commentId}")
+    int incrementReplyCount(@Param("commentId") Long commentId);
+    
+    /**
+     * 减少直接回复数
+     *
+     * @param commentId 评论ID
+     * @return 影响行数
+     */
+    @Update("UPDATE forum_comment SET reply_count = GREATEST(reply_count - 1, 0) WHERE comment_id = #{commentId}")
+    int decrementReplyCount(@Param("commentId") Long commentId);
+    
+    /**
+     * 查询尚未生成物化路径的帖子（用于历史数据回填）
+     *
+     * @param limit 数量
+     * @return 帖子ID列表
+     */
+    @Select("SELECT DISTINCT post_id FROM forum_comment WHERE path IS NULL LIMIT #{limit}")
+    List<Long> selectPostIdsWithoutPath(@Param("limit") int limit);
+    
+    /**
+     * 按实际数据重算帖子下所有评论的直接回复数
+     *
+     * @param postId 帖子ID
+     * @return 影响行数
+     */
+    @Update("UPDATE forum_comment c LEFT JOIN (SELECT parent_id, COUNT(*) AS cnt FROM forum_comment " +
+            "WHERE post_id = #{postId} AND parent_id IS NOT NULL AND status = 1 GROUP BY parent_id) r " +
+            "ON c.comment_id = r.parent_id SET c.reply_count = IFNULL(r.cnt, 0) WHERE c.post_id = #{postId}")
+    int recountReplies(@Param("postId") Long postId);
 }
@@ -1,13 +1,20 @@
 package cn.wekyjay.wknetic.common.mapper;
 
 import cn.wekyjay.wknetic.common.model.entity.ForumPost;
+import cn.wekyjay.wknetic.common.model.vo.AuditCountVO;
+import cn.wekyjay.wknetic.common.model.vo.ModerationCandidateVO;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * 帖子Mapper接口
  * 
@@ -52,4 +59,158 @@ public interface ForumPostMapper extends BaseMapper<ForumPost> {
      */
     @Update("UPDATE forum_post SET last_comment_time = NOW() WHERE post_id = #{postId}")
     int updateLastCommentTime(@Param("postId") Long postId);
+    
+    /**
+     * 取消热门标记（保留指定帖子）
+     *
+     * @param postIds 仍然保持热门的帖子ID（为空时清除全部）
+     * @return 影响行数
+     */
+    @Update("<script>UPDATE forum_post SET is_hot = 0 WHERE is_hot = 1" +
+            "<if test='postIds != null and postIds.size() > 0'> AND post_id NOT IN " +
+            "<foreach collection='postIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</if></script>")
+    int clearHotExcept(@Param("postIds") Collection<Long> postIds);
+    
+    /**
+     * 批量标记热门帖子
+     *
+     * @param postIds 帖子ID集合（不能为空）
+     * @return 影响行数
+     */
+    @Update("<script>UPDATE forum_post SET is_hot = 1 WHERE is_hot = 0 AND post_id IN " +
+            "<foreach collection='postIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int markHot(@Param("postIds") Collection<Long> postIds);
+    
+    /**
+     * 全文检索已发布帖子（ngram 全文索引，ES不可用时的降级搜索），不返回正文
+     *
+     * @param keyword 布尔模式检索表达式（为空时不按关键词过滤）
+     * @param topicId 话题ID（可为空）
+     * @param startTime 创建时间下限（可为空）
+     * @param endTime 创建时间上限（可为空）
+     * @param orderColumn 排序列（为空时按相关性，没有关键词时按创建时间），调用方必须使用白名单中的列名
+     * @param asc 是否升序
+     * @param offset 偏移量
+     * @param limit 数量
+     * @return 帖子列表
+     */
+    @Select("<script>SELECT post_id, user_id, topic_id, title, excerpt, status, is_pinned, is_hot, like_count, " +
+            "comment_count, view_count, bookmark_count, last_comment_time, create_time, update_time " +
+            "FROM forum_post WHERE status = 1" +
+            "<if test='keyword != null'> AND MATCH(title, content) AGAINST(#{keyword} IN BOOLEAN MODE)</if>" +
+            "<if test='topicId != null'> AND topic_id = #{topicId}</if>" +
+            "<if test='startTime != null'> AND create_time &gt;= #{startTime}</if>" +
+            "<if test='endTime != null'> AND create_time &lt;= #{endTime}</if>" +
+            "<choose>" +
+            "<when test='orderColumn != null'> ORDER BY ${orderColumn} <if test='asc'>ASC</if><if test='!asc'>DESC</if>, post_id DESC</when>" +
+            "<when test='keyword != null'> ORDER BY MATCH(title, content) AGAINST(#{keyword} IN BOOLEAN MODE) DESC, post_id DESC</when>" +
+            "<otherwise> ORDER BY create_time DESC, post_id DESC</otherwise>" +
+            "</choose>" +
+            " LIMIT #{offset}, #{limit}</script>")
+    List<ForumPost> selectFulltext(@Param("keyword") String keyword,
+                                   @Param("topicId") Long topicId,
+                                   @Param("startTime") LocalDateTime startTime,
+                                   @Param("endTime") LocalDateTime endTime,
+                                   @Param("orderColumn") String orderColumn,
+                                   @Param("asc") boolean asc,
+                                   @Param("offset") long offset,
+                                   @Param("limit") int limit);
+    
+    /**
+     * 全文检索命中的已发布帖子数
+     *
+     * @param keyword 布尔模式检索表达式（为空时不按关键词过滤）
+     * @param topicId 话题ID（可为空）
+     * @param startTime 创建时间下限（可为空）
+     * @param endTime 创建时间上限（可为空）
+     * @return 帖子数
+     */
+    @Select("<script>SELECT COUNT(*) " +
+            "FROM forum_post WHERE status = 1" +
+            "<if test='keyword != null'> AND MATCH(title, content) AGAINST(#{keyword} IN BOOLEAN MODE)</if>" +
+            "<if test='topicId != null'> AND topic_id = #{topicId}</if>" +
+            "<if test='startTime != null'> AND create_time &gt;= #{startTime}</if>" +
+            "<if test='endTime != null'> AND create_time &lt;= #{endTime}</if>" +
+            "</script>")
+    long countFulltext(@Param("keyword") String keyword,
+                       @Param("topicId") Long topicId,
+                       @Param("startTime") LocalDateTime startTime,
+                       @Param("endTime") LocalDateTime endTime);
+    
+    /**
+     * 一次扫描统计各审核口径的帖子数（条件聚合，走 idx_status_audit 覆盖索引）
+     * 时间下限之后的审核都计入，不设上限
+     *
+     * @param todayStart 今日开始时间
+     * @param weekStart 本周统计开始时间
+     * @return 审核计数（不含审核耗时）
+     */
+    @Select("SELECT " +
+            "COALESCE(SUM(status = 2), 0) AS pending_count, " +
+            "COALESCE(SUM(status = 1 AND audit_time >= #{todayStart}), 0) AS today_approved_count, " +
+            "COALESCE(SUM(status = 3 AND audit_time >= #{todayStart}), 0) AS today_rejected_count, " +
+            "COALESCE(SUM(status = 1 AND audit_time >= #{weekStart}), 0) AS week_approved_count, " +
+            "COALESCE(SUM(status = 3 AND audit_time >= #{weekStart}), 0) AS week_rejected_count, " +
+            "COALESCE(SUM(status = 1 AND audit_user_id IS NOT NULL), 0) AS total_approved_count, " +
+            "COALESCE(SUM(status = 3), 0) AS total_rejected_count " +
+            "FROM forum_post WHERE status IN (1, 2, 3)")
+    AuditCountVO selectAuditCounts(@Param("todayStart") LocalDateTime todayStart,
+                                   @Param("weekStart") LocalDateTime weekStart);
+    
+    /**
+     * 汇总历史审核耗时（从创建到审核），用于初始化平均审核时间
+     *
+     * @return 样本数和耗时总和（秒）
+     */
+    @Select("SELECT COUNT(*) AS audited_count, " +
+            "COALESCE(SUM(GREATEST(TIMESTAMPDIFF(SECOND, create_time, audit_time), 0)), 0) AS audit_seconds " +
+            "FROM forum_post WHERE status IN (1, 3) AND audit_time IS NOT NULL AND audit_user_id IS NOT NULL")
+    AuditCountVO selectAuditLatencyTotals();
+    
+    /**
+     * 按优先级读取审核队列：优先级 = 待处理举报数 × 举报权重 + 首次发帖 × 首帖权重 + 等待小时数 × 等待权重
+     *
+     * @param reportWeight 举报权重
+     * @param firstPostWeight 首帖权重
+     * @param waitingHourWeight 等待权重
+     * @param offset 偏移量
+     * @param limit 数量
+     * @return 候选帖子，按优先级从高到低
+     */
+    @Select("SELECT t.*, t.report_count * #{reportWeight} + t.first_post * #{firstPostWeight} " +
+            "+ t.waiting_minutes / 60 * #{waitingHourWeight} AS priority FROM (" +
+            "SELECT p.post_id, " +
+            "(SELECT COUNT(*) FROM forum_report r WHERE r.target_type = 'POST' AND r.target_id = p.post_id AND r.status = 0) AS report_count, " +
+            "NOT EXISTS (SELECT 1 FROM forum_post o WHERE o.user_id = p.user_id AND o.status = 1) AS first_post, " +
+            "TIMESTAMPDIFF(MINUTE, p.create_time, NOW()) AS waiting_minutes " +
+            "FROM forum_post p WHERE p.status = 2) t " +
+            "ORDER BY priority DESC, t.post_id LIMIT #{offset}, #{limit}")
+    List<ModerationCandidateVO> selectModerationQueue(@Param("reportWeight") double reportWeight,
+                                                      @Param("firstPostWeight") double firstPostWeight,
+                                                      @Param("waitingHourWeight") double waitingHourWeight,
+                                                      @Param("offset") int offset,
+                                                      @Param("limit") int limit);
+    
+    /**
+     * 批量写入审核结果，只更新仍在审核中的帖子
+     *
+     * @param postIds 帖子ID
+     * @param status 审核后的状态
+     * @param auditorId 审核人ID
+     * @param auditTime 审核时间
+     * @param remark 审核备注（可为空）
+     * @return 影响行数
+     */
+    @Update("<script>UPDATE forum_post SET status = #{status}, audit_user_id = #{auditorId}, " +
+            "audit_time = #{auditTime}, audit_remark = #{remark}, update_time = #{auditTime} " +
+            "WHERE status = 2 AND post_id IN " +
+            "<foreach collection='postIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int auditBatch(@Param("postIds") Collection<Long> postIds,
+                   @Param("status") int status,
+                   @Param("auditorId") Long auditorId,
+                   @Param("auditTime") LocalDateTime auditTime,
+                   @Param("remark") String remark);
 }
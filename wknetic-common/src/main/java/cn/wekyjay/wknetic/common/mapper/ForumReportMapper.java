@@ -3,6 +3,12 @@
 import cn.wekyjay.wknetic.common.model.entity.ForumReport;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 举报Mapper接口
@@ -12,4 +18,36 @@
  */
 @Mapper
 public interface ForumReportMapper extends BaseMapper<ForumReport> {
+    
+    /**
+     * 查询对象的待处理举报的举报人
+     *
+     * @param targetType 对象类型
+     * @param targetId 对象ID
+     * @return 举报人ID（去重）
+     */
+    @Select("SELECT DISTINCT reporter_id FROM forum_report " +
+            "WHERE target_type = #{targetType} AND target_id = #{targetId} AND status = 0")
+    List<Long> selectPendingReporterIds(@Param("targetType") String targetType, @Param("targetId") Long targetId);
+    
+    /**
+     * 一次处理对象的全部待处理举报
+     *
+     * @param targetType 对象类型
+     * @param targetId 对象ID
+     * @param status 处理结果
+     * @param handlerId 处理人ID
+     * @param handleTime 处理时间
+     * @param remark 处理备注
+     * @return 影响行数
+     */
+    @Update("UPDATE forum_report SET status = #{status}, handler_id = #{handlerId}, " +
+            "handle_time = #{handleTime}, handle_remark = #{remark} " +
+            "WHERE target_type = #{targetType} AND target_id = #{targetId} AND status = 0")
+    int resolvePending(@Param("targetType") String targetType,
+                       @Param("targetId") Long targetId,
+                       @Param("status") int status,
+                       @Param("handlerId") Long handlerId,
+                       @Param("handleTime") LocalDateTime handleTime,
+                       @Param("remark") String remark);
 }
@@ -0,0 +1,96 @@
+package cn.wekyjay.wknetic.common.mapper;
+
+import cn.wekyjay.wknetic.common.model.entity.ForumReportTarget;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+
+/**
+ * 举报聚合Mapper接口
+ * 
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Mapper
+public interface ForumReportTargetMapper extends BaseMapper<ForumReportTarget> {
+    
+    /**
+     * 累加一次举报，已处理的对象再次被举报时开始新的一轮
+     * （MySQL 按顺序执行赋值，status 必须最后更新）
+     *
+     * @param targetType 对象类型
+     * @param targetId 对象ID
+     * @param weight 举报权重
+     * @param reason 举报原因
+     * @param reportTime 举报时间
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO forum_report_target (target_type, target_id, report_count, score, status, last_reason, " +
+            "first_report_time, last_report_time) " +
+            "VALUES (#{targetType}, #{targetId}, 1, #{weight}, 0, #{reason}, #{reportTime}, #{reportTime}) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "report_count = IF(status = 0, report_count + 1, 1), " +
+            "score = IF(status = 0, score + #{weight}, #{weight}), " +
+            "first_report_time = IF(status = 0, first_report_time, #{reportTime}), " +
+            "hidden = IF(status = 0, hidden, 0), " +
+            "hidden_from_status = IF(status = 0, hidden_from_status, NULL), " +
+            "handler_id = IF(status = 0, handler_id, NULL), " +
+            "handle_time = IF(status = 0, handle_time, NULL), " +
+            "handle_remark = IF(status = 0, handle_remark, NULL), " +
+            "last_reason = #{reason}, last_report_time = #{reportTime}, status = 0")
+    int increment(@Param("targetType") String targetType,
+                  @Param("targetId") Long targetId,
+                  @Param("weight") double weight,
+                  @Param("reason") String reason,
+                  @Param("reportTime") LocalDateTime reportTime);
+    
+    /**
+     * 查询举报对象
+     *
+     * @param targetType 对象类型
+     * @param targetId 对象ID
+     * @return 举报聚合，不存在时返回null
+     */
+    @Select("SELECT * FROM forum_report_target WHERE target_type = #{targetType} AND target_id = #{targetId}")
+    ForumReportTarget selectTarget(@Param("targetType") String targetType, @Param("targetId") Long targetId);
+    
+    /**
+     * 标记为已自动隐藏（仅待处理且未隐藏的对象）
+     *
+     * @param targetType 对象类型
+     * @param targetId 对象ID
+     * @param fromStatus 隐藏前的内容状态
+     * @return 影响行数
+     */
+    @Update("UPDATE forum_report_target SET hidden = 1, hidden_from_status = #{fromStatus} " +
+            "WHERE target_type = #{targetType} AND target_id = #{targetId} AND status = 0 AND hidden = 0")
+    int markHidden(@Param("targetType") String targetType,
+                   @Param("targetId") Long targetId,
+                   @Param("fromStatus") Integer fromStatus);
+    
+    /**
+     * 结束本轮举报（仅待处理的对象）
+     *
+     * @param targetType 对象类型
+     * @param targetId 对象ID
+     * @param status 处理结果
+     * @param handlerId 处理人ID
+     * @param handleTime 处理时间
+     * @param remark 处理备注
+     * @return 影响行数
+     */
+    @Update("UPDATE forum_report_target SET status = #{status}, handler_id = #{handlerId}, " +
+            "handle_time = #{handleTime}, handle_remark = #{remark} " +
+            "WHERE target_type = #{targetType} AND target_id = #{targetId} AND status = 0")
+    int resolve(@Param("targetType") String targetType,
+                @Param("targetId") Long targetId,
+                @Param("status") int status,
+                @Param("handlerId") Long handlerId,
+                @Param("handleTime") LocalDateTime handleTime,
+                @Param("remark") String remark);
+}
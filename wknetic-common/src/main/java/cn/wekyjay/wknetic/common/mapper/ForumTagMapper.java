@@ -2,12 +2,15 @@
 
 import cn.wekyjay.wknetic.common.model.entity.ForumTag;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 标签Mapper接口
@@ -19,12 +22,39 @@
 public interface ForumTagMapper extends BaseMapper<ForumTag> {
     
     /**
-     * 根据标签名称列表批量查询或创建标签
+     * 根据标签名称批量查询
      *
-     * @param tagNames 标签名称列表
+     * @param tagNames 标签名称集合（不能为空）
      * @return 标签列表
      */
-    List<ForumTag> selectOrCreateByNames(@Param("tagNames") List<String> tagNames);
+    @Select("<script>SELECT * FROM forum_tag WHERE tag_name IN " +
+            "<foreach collection='tagNames' item='name' open='(' separator=',' close=')'>#{name}</foreach>" +
+            "</script>")
+    List<ForumTag> selectByNames(@Param("tagNames") Collection<String> tagNames);
+    
+    /**
+     * 批量创建标签（已存在的名称忽略）
+     *
+     * @param tagNames 标签名称集合（不能为空）
+     * @return 实际插入行数
+     */
+    @Insert("<script>INSERT IGNORE INTO forum_tag (tag_name, use_count) VALUES " +
+            "<foreach collection='tagNames' item='name' separator=','>(#{name}, 0)</foreach>" +
+            "</script>")
+    int insertIgnoreBatch(@Param("tagNames") Collection<String> tagNames);
+    
+    /**
+     * 批量调整使用次数（一条语句完成多个标签的增减）
+     *
+     * @param deltas 标签ID -> 增量（可为负数）
+     * @return 影响行数
+     */
+    @Update("<script>UPDATE forum_tag SET use_count = GREATEST(use_count + CASE tag_id " +
+            "<foreach collection='deltas' index='tagId' item='delta'>WHEN #{tagId} THEN #{delta} </foreach>" +
+            "ELSE 0 END, 0) WHERE tag_id IN " +
+            "<foreach collection='deltas' index='tagId' open='(' separator=',' close=')'>#{tagId}</foreach>" +
+            "</script>")
+    int applyUseCountDeltas(@Param("deltas") Map<Long, Integer> deltas);
     
     /**
      * 增加使用次数
@@ -2,10 +2,13 @@
 
 import cn.wekyjay.wknetic.common.model.entity.Notification;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.Collection;
+
 /**
  * 通知Mapper接口
  * 
@@ -23,4 +26,16 @@ public interface NotificationMapper extends BaseMapper<Notification> {
      */
     @Select("SELECT COUNT(*) FROM sys_notification WHERE user_id = #{userId} AND is_read = 0")
     int countUnreadByUserId(@Param("userId") Long userId);
+    
+    /**
+     * 批量写入通知
+     *
+     * @param notifications 通知列表
+     * @return 影响行数
+     */
+    @Insert("<script>INSERT INTO sys_notification (user_id, type, title, content, related_id, related_type, sender_id, is_read, create_time) VALUES " +
+            "<foreach collection='notifications' item='n' separator=','>" +
+            "(#{n.userId}, #{n.type}, #{n.title}, #{n.content}, #{n.relatedId}, #{n.relatedType}, #{n.senderId}, #{n.isRead}, #{n.createTime})" +
+            "</foreach></script>")
+    int insertBatch(@Param("notifications") Collection<Notification> notifications);
 }
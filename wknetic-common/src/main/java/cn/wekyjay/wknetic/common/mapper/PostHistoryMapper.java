@@ -26,4 +26,45 @@ public interface PostHistoryMapper extends BaseMapper<PostHistory> {
      */
     @Select("SELECT * FROM forum_post_history WHERE post_id = #{postId} ORDER BY create_time DESC LIMIT #{limit}")
     List<PostHistory> selectByPostId(@Param("postId") Long postId, @Param("limit") int limit);
+    
+    /**
+     * 查询帖子当前最大版本号
+     *
+     * @param postId 帖子ID
+     * @return 最大版本号（没有历史时为null）
+     */
+    @Select("SELECT MAX(revision) FROM forum_post_history WHERE post_id = #{postId}")
+    Integer selectMaxRevision(@Param("postId") Long postId);
+    
+    /**
+     * 查询重建指定版本所需的记录：最近一个快照到目标版本之间的所有记录
+     *
+     * @param postId 帖子ID
+     * @param revision 目标版本号
+     * @return 按版本号升序的记录列表（首条为快照）
+     */
+    @Select("SELECT * FROM forum_post_history WHERE post_id = #{postId} AND revision <= #{revision} " +
+            "AND revision >= (SELECT IFNULL(MAX(revision), 1) FROM forum_post_history " +
+            "WHERE post_id = #{postId} AND revision <= #{revision} AND is_snapshot = 1) " +
+            "ORDER BY revision")
+    List<PostHistory> selectReplayChain(@Param("postId") Long postId, @Param("revision") int revision);
+    
+    /**
+     * 查询帖子的版本列表（不含内容）
+     *
+     * @param postId 帖子ID
+     * @return 按版本号倒序的记录列表
+     */
+    @Select("SELECT history_id, post_id, editor_id, revision, is_snapshot, title, change_summary, create_time " +
+            "FROM forum_post_history WHERE post_id = #{postId} AND revision IS NOT NULL ORDER BY revision DESC")
+    List<PostHistory> selectRevisions(@Param("postId") Long postId);
+    
+    /**
+     * 查询存在未压缩历史记录的帖子
+     *
+     * @param limit 数量
+     * @return 帖子ID列表
+     */
+    @Select("SELECT DISTINCT post_id FROM forum_post_history WHERE revision IS NULL LIMIT #{limit}")
+    List<Long> selectUncompactedPostIds(@Param("limit") int limit);
 }
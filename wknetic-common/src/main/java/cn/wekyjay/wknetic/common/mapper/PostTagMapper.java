@@ -2,7 +2,12 @@
 
 import cn.wekyjay.wknetic.common.model.entity.PostTag;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
 
 /**
  * 帖子-标签关联Mapper接口
@@ -12,4 +17,28 @@
  */
 @Mapper
 public interface PostTagMapper extends BaseMapper<PostTag> {
+    
+    /**
+     * 批量创建帖子-标签关联
+     *
+     * @param postId 帖子ID
+     * @param tagIds 标签ID集合（不能为空）
+     * @return 影响行数
+     */
+    @Insert("<script>INSERT IGNORE INTO forum_post_tag (post_id, tag_id) VALUES " +
+            "<foreach collection='tagIds' item='tagId' separator=','>(#{postId}, #{tagId})</foreach>" +
+            "</script>")
+    int insertBatch(@Param("postId") Long postId, @Param("tagIds") Collection<Long> tagIds);
+    
+    /**
+     * 批量删除帖子-标签关联
+     *
+     * @param postId 帖子ID
+     * @param tagIds 标签ID集合（不能为空）
+     * @return 影响行数
+     */
+    @Delete("<script>DELETE FROM forum_post_tag WHERE post_id = #{postId} AND tag_id IN " +
+            "<foreach collection='tagIds' item='tagId' open='(' separator=',' close=')'>#{tagId}</foreach>" +
+            "</script>")
+    int deleteBatch(@Param("postId") Long postId, @Param("tagIds") Collection<Long> tagIds);
 }
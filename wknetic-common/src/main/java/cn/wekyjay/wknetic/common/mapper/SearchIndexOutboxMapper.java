@@ -0,0 +1,55 @@
+package cn.wekyjay.wknetic.common.mapper;
+
+import cn.wekyjay.wknetic.common.model.entity.SearchIndexOutbox;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 搜索索引同步失败重试Mapper接口
+ * 
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Mapper
+public interface SearchIndexOutboxMapper extends BaseMapper<SearchIndexOutbox> {
+    
+    /**
+     * 批量记录失败的同步操作，已存在的记录累加重试次数
+     *
+     * @param records 记录列表（不能为空）
+     * @return 影响行数
+     */
+    @Insert("<script>INSERT INTO search_index_outbox (doc_type, doc_id, action, last_error, next_retry_time) VALUES " +
+            "<foreach collection='records' item='r' separator=','>" +
+            "(#{r.docType}, #{r.docId}, #{r.action}, #{r.lastError}, #{r.nextRetryTime})</foreach> " +
+            "ON DUPLICATE KEY UPDATE action = VALUES(action), last_error = VALUES(last_error), " +
+            "next_retry_time = VALUES(next_retry_time), retry_count = retry_count + 1</script>")
+    int upsertBatch(@Param("records") Collection<SearchIndexOutbox> records);
+    
+    /**
+     * 查询到期待重试的记录
+     *
+     * @param limit 数量
+     * @return 记录列表
+     */
+    @Select("SELECT * FROM search_index_outbox WHERE next_retry_time <= NOW() ORDER BY next_retry_time LIMIT #{limit}")
+    List<SearchIndexOutbox> selectDue(@Param("limit") int limit);
+    
+    /**
+     * 删除重试成功的记录（重试期间再次失败而被更新的记录不删除）
+     *
+     * @param records 重试成功的记录（不能为空）
+     * @return 影响行数
+     */
+    @Delete("<script>DELETE FROM search_index_outbox WHERE " +
+            "<foreach collection='records' item='r' separator=' OR '>" +
+            "(id = #{r.id} AND retry_count = #{r.retryCount})</foreach></script>")
+    int deleteProcessed(@Param("records") Collection<SearchIndexOutbox> records);
+}
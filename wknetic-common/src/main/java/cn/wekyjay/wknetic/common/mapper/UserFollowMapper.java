@@ -6,6 +6,8 @@
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.List;
+
 /**
  * 用户关注 Mapper 接口
  */
@@ -39,4 +41,24 @@ public interface UserFollowMapper extends BaseMapper<UserFollow> {
      */
     @Select("SELECT COUNT(*) FROM user_follow WHERE follower_id = #{userId} AND status = 1")
     long getFollowingCount(@Param("userId") Long userId);
+
+    /**
+     * 按主键游标分批获取粉丝ID（用于动态推送）
+     *
+     * @param userId 被关注者ID
+     * @param lastId 上一批最后一条关注记录ID（首批传0）
+     * @param limit 每批数量
+     * @return 关注记录（仅包含 id 和 follower_id）
+     */
+    @Select("SELECT id, follower_id FROM user_follow WHERE following_id = #{userId} AND status = 1 AND id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<UserFollow> selectFollowerBatch(@Param("userId") Long userId, @Param("lastId") Long lastId, @Param("limit") int limit);
+
+    /**
+     * 获取用户关注的所有用户ID
+     *
+     * @param userId 关注者ID
+     * @return 被关注者ID列表
+     */
+    @Select("SELECT following_id FROM user_follow WHERE follower_id = #{userId} AND status = 1")
+    List<Long> selectFollowingIds(@Param("userId") Long userId);
 }
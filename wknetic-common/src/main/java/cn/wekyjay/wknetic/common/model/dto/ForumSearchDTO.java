@@ -0,0 +1,35 @@
+package cn.wekyjay.wknetic.common.model.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 论坛统一搜索DTO（帖子、评论、用户）
+ * 
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Data
+public class ForumSearchDTO {
+    
+    /**
+     * 搜索关键词
+     */
+    private String keyword;
+    
+    /**
+     * 返回结果的类型：POST, COMMENT, USER（为空表示全部，分类计数总是包含全部类型）
+     */
+    private List<String> types;
+    
+    /**
+     * 页码（从0开始）
+     */
+    private Integer page = 0;
+    
+    /**
+     * 每页数量
+     */
+    private Integer size = 20;
+}
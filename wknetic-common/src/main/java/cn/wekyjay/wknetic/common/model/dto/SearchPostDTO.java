@@ -63,4 +63,9 @@ public class SearchPostDTO {
      * 每页大小
      */
     private Integer size = 20;
+    
+    /**
+     * 游标（游标翻页时传入上一页返回的nextCursor，首页为空，翻页期间其他条件需保持不变）
+     */
+    private String cursor;
 }
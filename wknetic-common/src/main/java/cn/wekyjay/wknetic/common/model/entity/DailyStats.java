@@ -0,0 +1,40 @@
+package cn.wekyjay.wknetic.common.model.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * 每日统计汇总实体
+ * 每个日期、每个指标一行，由业务事件增量累加，历史数据由回填任务按源表重新汇总
+ * 
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("daily_stats")
+public class DailyStats implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * 统计日期
+     */
+    private LocalDate statDate;
+    
+    /**
+     * 指标（new_users/posts/audits/reports/comments）
+     */
+    private String metric;
+    
+    /**
+     * 当日数量
+     */
+    private Long value;
+}
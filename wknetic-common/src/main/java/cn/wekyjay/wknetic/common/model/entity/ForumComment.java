@@ -44,6 +44,21 @@ public class ForumComment implements Serializable {
      */
     private Long replyToUserId;
     
+    /**
+     * 物化路径（祖先到自身的评论ID编码，按路径排序即为展示顺序）
+     */
+    private String path;
+    
+    /**
+     * 层级深度（顶级评论为0）
+     */
+    private Integer depth;
+    
+    /**
+     * 直接回复数
+     */
+    private Integer replyCount;
+    
     /**
      * Markdown格式评论内容
      */
@@ -0,0 +1,87 @@
+package cn.wekyjay.wknetic.common.model.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 举报聚合实体
+ * 同一对象的所有待处理举报合并为一个处理项，审核员按对象处理，处理后该对象的待处理举报一并结束
+ * 
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Data
+@TableName("forum_report_target")
+public class ForumReportTarget implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * 举报对象类型：POST/COMMENT
+     */
+    private String targetType;
+    
+    /**
+     * 举报对象ID
+     */
+    private Long targetId;
+    
+    /**
+     * 本轮待处理的举报数
+     */
+    private Integer reportCount;
+    
+    /**
+     * 按举报人信誉加权的举报分
+     */
+    private BigDecimal score;
+    
+    /**
+     * 处理状态：0-待处理 1-已处理 2-已驳回（与举报状态一致）
+     */
+    private Integer status;
+    
+    /**
+     * 是否已自动隐藏
+     */
+    private Boolean hidden;
+    
+    /**
+     * 自动隐藏前的内容状态
+     */
+    private Integer hiddenFromStatus;
+    
+    /**
+     * 最近一次举报原因
+     */
+    private String lastReason;
+    
+    /**
+     * 本轮首次举报时间
+     */
+    private LocalDateTime firstReportTime;
+    
+    /**
+     * 最近一次举报时间
+     */
+    private LocalDateTime lastReportTime;
+    
+    /**
+     * 处理人ID
+     */
+    private Long handlerId;
+    
+    /**
+     * 处理时间
+     */
+    private LocalDateTime handleTime;
+    
+    /**
+     * 处理备注
+     */
+    private String handleRemark;
+}
@@ -35,17 +35,27 @@ public class PostHistory implements Serializable {
     private Long editorId;
     
     /**
-     * 历史标题
+     * 版本号（帖子内从1递增，为空表示尚未压缩的旧数据）
+     */
+    private Integer revision;
+    
+    /**
+     * 是否完整快照（否则 content/contentHtml 为相对上一版本的增量）
+     */
+    private Boolean isSnapshot;
+    
+    /**
+     * 历史标题（始终保存完整标题）
      */
     private String title;
     
     /**
-     * 历史Markdown内容
+     * 历史Markdown内容（快照为全文，增量记录为差异）
      */
     private String content;
     
     /**
-     * 历史HTML内容
+     * 历史HTML内容（快照为全文，增量记录为差异）
      */
     private String contentHtml;
     
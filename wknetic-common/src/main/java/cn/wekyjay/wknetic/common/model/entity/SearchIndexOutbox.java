@@ -0,0 +1,69 @@
+package cn.wekyjay.wknetic.common.model.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 搜索索引同步失败重试实体
+ * 同一文档只保留一条记录，重试时按数据库当前状态重新同步
+ * 
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Data
+@TableName("search_index_outbox")
+public class SearchIndexOutbox implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * 记录ID
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+    
+    /**
+     * 文档类型（POST/COMMENT/USER）
+     */
+    private String docType;
+    
+    /**
+     * 文档ID（帖子ID、评论ID或用户ID）
+     */
+    private Long docId;
+    
+    /**
+     * 失败的操作（INDEX/DELETE/STATS）
+     */
+    private String action;
+    
+    /**
+     * 重试次数
+     */
+    private Integer retryCount;
+    
+    /**
+     * 最近一次失败原因
+     */
+    private String lastError;
+    
+    /**
+     * 下次重试时间
+     */
+    private LocalDateTime nextRetryTime;
+    
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+    
+    /**
+     * 更新时间
+     */
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,61 @@
+package cn.wekyjay.wknetic.common.model.vo;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 审核计数VO
+ * 由一次条件聚合查询得出各个统计口径的帖子数
+ *
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Data
+@NoArgsConstructor
+public class AuditCountVO {
+
+    /**
+     * 待审核数
+     */
+    private Long pendingCount;
+
+    /**
+     * 今日审核通过数
+     */
+    private Long todayApprovedCount;
+
+    /**
+     * 今日审核拒绝数
+     */
+    private Long todayRejectedCount;
+
+    /**
+     * 本周审核通过数
+     */
+    private Long weekApprovedCount;
+
+    /**
+     * 本周审核拒绝数
+     */
+    private Long weekRejectedCount;
+
+    /**
+     * 累计审核通过数
+     */
+    private Long totalApprovedCount;
+
+    /**
+     * 累计审核拒绝数
+     */
+    private Long totalRejectedCount;
+
+    /**
+     * 已审核且有审核时间的帖子数（审核耗时的样本数）
+     */
+    private Long auditedCount;
+
+    /**
+     * 上述帖子从提交到审核的耗时总和（秒）
+     */
+    private Long auditSeconds;
+}
@@ -54,6 +54,16 @@ public class CommentVO {
      */
     private UserInfoVO replyToUser;
     
+    /**
+     * 层级深度（顶级评论为0）
+     */
+    private Integer depth;
+    
+    /**
+     * 直接回复数（用于判断是否需要"加载更多回复"）
+     */
+    private Integer replyCount;
+    
     /**
      * 子回复列表
      */
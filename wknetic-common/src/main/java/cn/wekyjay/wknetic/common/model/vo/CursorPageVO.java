@@ -0,0 +1,35 @@
+package cn.wekyjay.wknetic.common.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标分页VO
+ * 适用于时间线等持续追加的数据，翻页不受新数据插入影响
+ * 
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageVO<T> {
+    
+    /**
+     * 当前页数据
+     */
+    private List<T> records;
+    
+    /**
+     * 下一页游标（没有更多数据时为null）
+     */
+    private Long nextCursor;
+    
+    /**
+     * 是否还有更多数据
+     */
+    private Boolean hasMore;
+}
@@ -0,0 +1,65 @@
+package cn.wekyjay.wknetic.common.model.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 论坛统一搜索的单条结果VO
+ * 
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Data
+public class ForumSearchHitVO {
+    
+    /**
+     * 结果类型：POST, COMMENT, USER
+     */
+    private String type;
+    
+    /**
+     * 帖子ID、评论ID或用户ID
+     */
+    private Long id;
+    
+    /**
+     * 标题（帖子标题、评论所属帖子标题、用户昵称）
+     */
+    private String title;
+    
+    /**
+     * 摘要（高亮片段，匹配关键词用 <em> 标记）
+     */
+    private String snippet;
+    
+    /**
+     * 跳转用的帖子ID（帖子和评论）
+     */
+    private Long postId;
+    
+    /**
+     * 作者或用户本人的ID
+     */
+    private Long userId;
+    
+    /**
+     * 作者或用户本人的用户名
+     */
+    private String username;
+    
+    /**
+     * 头像（仅用户）
+     */
+    private String avatar;
+    
+    /**
+     * 创建时间（用户为注册时间）
+     */
+    private LocalDateTime createTime;
+    
+    /**
+     * 相关性得分
+     */
+    private Double score;
+}
@@ -0,0 +1,35 @@
+package cn.wekyjay.wknetic.common.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 论坛统一搜索结果VO
+ * 
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ForumSearchVO {
+    
+    /**
+     * 当前页结果（按相关性排序，混合各类型）
+     */
+    private List<ForumSearchHitVO> records;
+    
+    /**
+     * 所选类型的匹配总数
+     */
+    private Long total;
+    
+    /**
+     * 各类型的匹配数（POST/COMMENT/USER -> 数量），不受类型筛选影响
+     */
+    private Map<String, Long> facets;
+}
@@ -0,0 +1,40 @@
+package cn.wekyjay.wknetic.common.model.vo;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 审核队列候选帖子VO
+ * 
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Data
+@NoArgsConstructor
+public class ModerationCandidateVO {
+    
+    /**
+     * 帖子ID
+     */
+    private Long postId;
+    
+    /**
+     * 待处理的举报数
+     */
+    private Integer reportCount;
+    
+    /**
+     * 是否作者的首个帖子（作者没有已发布的帖子）
+     */
+    private Boolean firstPost;
+    
+    /**
+     * 已等待的分钟数
+     */
+    private Long waitingMinutes;
+    
+    /**
+     * 优先级得分（越大越优先）
+     */
+    private Double priority;
+}
@@ -0,0 +1,60 @@
+package cn.wekyjay.wknetic.common.model.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 帖子历史版本VO
+ * 
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Data
+public class PostHistoryVO {
+    
+    /**
+     * 历史记录ID
+     */
+    private Long historyId;
+    
+    /**
+     * 帖子ID
+     */
+    private Long postId;
+    
+    /**
+     * 版本号
+     */
+    private Integer revision;
+    
+    /**
+     * 编辑者ID
+     */
+    private Long editorId;
+    
+    /**
+     * 标题
+     */
+    private String title;
+    
+    /**
+     * Markdown内容（版本列表中不返回）
+     */
+    private String content;
+    
+    /**
+     * HTML内容（版本列表中不返回）
+     */
+    private String contentHtml;
+    
+    /**
+     * 修改摘要说明
+     */
+    private String changeSummary;
+    
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+}
@@ -122,4 +122,9 @@ public class PostSearchVO {
      * value: 高亮片段列表
      */
     private Map<String, List<String>> highlights;
+    
+    /**
+     * 是否为降级结果（ES不可用时由数据库全文检索返回，没有相关性得分和标签过滤）
+     */
+    private Boolean degraded;
 }
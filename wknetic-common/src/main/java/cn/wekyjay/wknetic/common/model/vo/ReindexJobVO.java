@@ -0,0 +1,70 @@
+package cn.wekyjay.wknetic.common.model.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 搜索索引重建任务VO
+ * 
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Data
+public class ReindexJobVO {
+    
+    /**
+     * 任务ID
+     */
+    private String jobId;
+    
+    /**
+     * 状态：RUNNING-运行中 COMPLETED-已完成 FAILED-失败 CANCELLED-已取消
+     */
+    private String status;
+    
+    /**
+     * 写入的新索引名称
+     */
+    private String targetIndex;
+    
+    /**
+     * 待索引帖子总数（任务开始时统计）
+     */
+    private Long total;
+    
+    /**
+     * 已索引数量
+     */
+    private Long indexed;
+    
+    /**
+     * 失败数量
+     */
+    private Long failed;
+    
+    /**
+     * 进度百分比
+     */
+    private Double progress;
+    
+    /**
+     * 断点：已确认写入的最大帖子ID
+     */
+    private Long checkpoint;
+    
+    /**
+     * 说明信息
+     */
+    private String message;
+    
+    /**
+     * 开始时间
+     */
+    private LocalDateTime startTime;
+    
+    /**
+     * 结束时间
+     */
+    private LocalDateTime finishTime;
+}
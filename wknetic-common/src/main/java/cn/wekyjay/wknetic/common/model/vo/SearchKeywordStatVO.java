@@ -0,0 +1,37 @@
+package cn.wekyjay.wknetic.common.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 搜索词统计VO
+ * 
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchKeywordStatVO {
+    
+    /**
+     * 搜索词（已规范化：去除多余空白、小写）
+     */
+    private String keyword;
+    
+    /**
+     * 统计时间段内的搜索次数（估计值，不小于真实值）
+     */
+    private Long count;
+    
+    /**
+     * 基线：之前同等时长内的平均搜索次数（仅趋势榜）
+     */
+    private Double baseline;
+    
+    /**
+     * 排序得分（仅趋势榜，近期次数相对基线的增幅）
+     */
+    private Double score;
+}
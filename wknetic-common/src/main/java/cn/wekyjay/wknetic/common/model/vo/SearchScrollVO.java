@@ -0,0 +1,40 @@
+package cn.wekyjay.wknetic.common.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 搜索游标分页VO
+ * 基于 search_after + point-in-time，翻页深度不受结果窗口限制，翻页期间结果集保持一致
+ * 
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchScrollVO<T> {
+    
+    /**
+     * 当前页数据
+     */
+    private List<T> records;
+    
+    /**
+     * 匹配总数（超过10000时为下限）
+     */
+    private Long total;
+    
+    /**
+     * 下一页游标（没有更多数据时为null）
+     */
+    private String nextCursor;
+    
+    /**
+     * 是否还有更多数据
+     */
+    private Boolean hasMore;
+}
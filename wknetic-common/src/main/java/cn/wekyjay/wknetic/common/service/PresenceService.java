@@ -0,0 +1,269 @@
+package cn.wekyjay.wknetic.common.service;
+
+import cn.wekyjay.wknetic.common.config.WkNeticProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 在线状态服务
+ * <p>
+ * 已登录请求和 WebSocket 连接上报用户活动，同一用户每分钟最多上报一次，由定时任务批量写入 Redis：
+ * 有序集合记录每个用户的最后活动时间（在线判断），每分钟、每天各一个 HyperLogLog 记录活跃用户。
+ * 在线人数为最近若干分钟 HyperLogLog 的并集基数，DAU/WAU/MAU 由按天的 HyperLogLog 合并（PFMERGE）得出，
+ * 内存占用与用户数无关，误差约 0.81%。
+ * 在线人数每5分钟采样一次，保留8天，用于周环比。
+ * WebSocket 连接期间即使没有请求也按心跳间隔上报活动。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PresenceService {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final WkNeticProperties properties;
+
+    private static final String ONLINE_KEY = "wknetic:presence:online";
+    private static final String MINUTE_KEY_PREFIX = "wknetic:presence:minute:";
+    private static final String DAY_KEY_PREFIX = "wknetic:presence:day:";
+    private static final String MERGED_KEY_PREFIX = "wknetic:presence:merged:";
+    private static final String SAMPLE_KEY_PREFIX = "wknetic:presence:samples:";
+
+    private static final Duration MINUTE_RETENTION = Duration.ofHours(2);
+    /** 按天的数据保留到可以计算上一个月的 MAU */
+    private static final Duration DAY_RETENTION = Duration.ofDays(62);
+    private static final Duration SAMPLE_RETENTION = Duration.ofDays(8);
+    private static final int SAMPLE_SLOT_MINUTES = 5;
+
+    private static final DateTimeFormatter MINUTE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    /** 用户 -> 最近一次登记的分钟 */
+    private final Map<Long, Long> reportedMinute = new ConcurrentHashMap<>();
+
+    /** 待写入的活跃用户 */
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    /** 本节点的 WebSocket 会话 -> 用户 */
+    private final Map<String, Long> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * 上报用户活动，同一分钟内的重复上报直接忽略
+     *
+     * @param userId 用户ID
+     */
+    public void touch(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        long minute = System.currentTimeMillis() / 60_000L;
+        Long previous = reportedMinute.put(userId, minute);
+        if (previous == null || previous != minute) {
+            pending.add(userId);
+        }
+    }
+
+    /**
+     * WebSocket 连接建立
+     *
+     * @param sessionId 会话ID
+     * @param userId 用户ID
+     */
+    public void connect(String sessionId, Long userId) {
+        if (sessionId == null || userId == null) {
+            return;
+        }
+        sessions.put(sessionId, userId);
+        touch(userId);
+    }
+
+    /**
+     * WebSocket 连接断开，以断开时间作为最后活动时间
+     *
+     * @param sessionId 会话ID
+     */
+    public void disconnect(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        Long userId = sessions.remove(sessionId);
+        if (userId != null) {
+            reportedMinute.remove(userId);
+            touch(userId);
+        }
+    }
+
+    /**
+     * 批量写入待上报的活动
+     */
+    @Scheduled(initialDelay = 5000, fixedDelay = 5000)
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Long> userIds = new ArrayList<>(pending);
+        userIds.forEach(pending::remove);
+        String[] members = userIds.stream().map(String::valueOf).toArray(String[]::new);
+
+        long now = System.currentTimeMillis();
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault());
+        String minuteKey = MINUTE_KEY_PREFIX + time.format(MINUTE_FORMATTER);
+        String dayKey = DAY_KEY_PREFIX + time.format(DAY_FORMATTER);
+        try {
+            stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    for (String member : members) {
+                        ops.opsForZSet().add(ONLINE_KEY, member, now);
+                    }
+                    ops.opsForHyperLogLog().add(minuteKey, members);
+                    ops.expire(minuteKey, MINUTE_RETENTION);
+                    ops.opsForHyperLogLog().add(dayKey, members);
+                    ops.expire(dayKey, DAY_RETENTION);
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            // 在线统计允许丢失，不重试
+            log.warn("写入在线状态失败: users={}", members.length, e);
+        }
+    }
+
+    /**
+     * 心跳：为 WebSocket 连接中的用户上报活动，清理过期数据，采样在线人数
+     */
+    @Scheduled(initialDelay = 60000, fixedDelayString = "${wknetic.presence.heartbeat-interval:60000}")
+    public void heartbeat() {
+        sessions.values().forEach(this::touch);
+        long minute = System.currentTimeMillis() / 60_000L;
+        reportedMinute.values().removeIf(reported -> reported < minute - 1);
+        try {
+            long windowStart = System.currentTimeMillis() - Duration.ofMinutes(onlineWindow()).toMillis();
+            stringRedisTemplate.opsForZSet().removeRangeByScore(ONLINE_KEY, 0, windowStart);
+
+            LocalDateTime now = LocalDateTime.now();
+            String sampleKey = SAMPLE_KEY_PREFIX + now.format(DAY_FORMATTER);
+            stringRedisTemplate.opsForHash().put(sampleKey, sampleSlot(now), String.valueOf(getOnlineCount()));
+            stringRedisTemplate.expire(sampleKey, SAMPLE_RETENTION);
+        } catch (Exception e) {
+            log.warn("在线状态维护失败", e);
+        }
+    }
+
+    /**
+     * 当前在线人数（最近若干分钟内有活动的用户数，近似值）
+     *
+     * @return 在线人数
+     */
+    public long getOnlineCount() {
+        LocalDateTime now = LocalDateTime.now();
+        int window = onlineWindow();
+        String[] keys = new String[window];
+        for (int i = 0; i < window; i++) {
+            keys[i] = MINUTE_KEY_PREFIX + now.minusMinutes(i).format(MINUTE_FORMATTER);
+        }
+        Long count = stringRedisTemplate.opsForHyperLogLog().size(keys);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * 过去某个时刻采样的在线人数
+     *
+     * @param time 时刻（按5分钟取整）
+     * @return 在线人数，没有采样时返回null
+     */
+    public Long getOnlineCountAt(LocalDateTime time) {
+        Object value = stringRedisTemplate.opsForHash().get(SAMPLE_KEY_PREFIX + time.format(DAY_FORMATTER), sampleSlot(time));
+        return value != null ? Long.parseLong(value.toString()) : null;
+    }
+
+    /**
+     * 用户是否在线
+     *
+     * @param userId 用户ID
+     * @return 最近若干分钟内是否有活动
+     */
+    public boolean isOnline(Long userId) {
+        LocalDateTime lastActive = getLastActiveTime(userId);
+        return lastActive != null && lastActive.isAfter(LocalDateTime.now().minusMinutes(onlineWindow()));
+    }
+
+    /**
+     * 用户最后活动时间（仅保留在线窗口内的记录）
+     *
+     * @param userId 用户ID
+     * @return 最后活动时间，不在线时返回null
+     */
+    public LocalDateTime getLastActiveTime(Long userId) {
+        Double score = stringRedisTemplate.opsForZSet().score(ONLINE_KEY, String.valueOf(userId));
+        return score != null
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(score.longValue()), ZoneId.systemDefault())
+                : null;
+    }
+
+    /**
+     * 截至某天（含）最近若干天的活跃用户数，days=1/7/30 即 DAU/WAU/MAU
+     * 已结束的日期合并结果缓存一天，当天的数据实时并入
+     *
+     * @param endDate 截止日期
+     * @param days 天数（1-60）
+     * @return 活跃用户数（近似值）
+     */
+    public long getActiveUsers(LocalDate endDate, int days) {
+        if (days < 1 || days > 60) {
+            throw new IllegalArgumentException("天数只支持1到60");
+        }
+        LocalDate today = LocalDate.now();
+        List<String> countKeys = new ArrayList<>(2);
+        LocalDate lastClosed = endDate;
+        int closedDays = days;
+        if (!endDate.isBefore(today)) {
+            countKeys.add(DAY_KEY_PREFIX + today.format(DAY_FORMATTER));
+            lastClosed = today.minusDays(1);
+            closedDays = days - 1;
+        }
+        if (closedDays > 0) {
+            String mergedKey = MERGED_KEY_PREFIX + lastClosed.format(DAY_FORMATTER) + ":" + closedDays;
+            if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(mergedKey))) {
+                String[] sources = new String[closedDays];
+                for (int i = 0; i < closedDays; i++) {
+                    sources[i] = DAY_KEY_PREFIX + lastClosed.minusDays(i).format(DAY_FORMATTER);
+                }
+                stringRedisTemplate.opsForHyperLogLog().union(mergedKey, sources);
+                stringRedisTemplate.expire(mergedKey, Duration.ofDays(1));
+            }
+            countKeys.add(mergedKey);
+        }
+        Long count = stringRedisTemplate.opsForHyperLogLog().size(countKeys.toArray(new String[0]));
+        return count != null ? count : 0L;
+    }
+
+    private int onlineWindow() {
+        return Math.max(1, properties.getPresence().getOnlineWindowMinutes());
+    }
+
+    private static String sampleSlot(LocalDateTime time) {
+        int minutes = time.getHour() * 60 + time.getMinute();
+        return String.valueOf(minutes / SAMPLE_SLOT_MINUTES);
+    }
+}
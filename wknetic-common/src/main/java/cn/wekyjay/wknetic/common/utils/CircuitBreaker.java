@@ -0,0 +1,106 @@
+package cn.wekyjay.wknetic.common.utils;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 熔断器
+ * <p>
+ * 连续失败达到阈值后断开（OPEN），断开期间调用方直接走降级逻辑，不再请求故障的下游；
+ * 断开时间过后进入半开（HALF_OPEN），只放行一个探测请求：成功则恢复（CLOSED），失败则重新断开。
+ * 探测请求没有回报结果（例如命中了缓存）时，超过断开时间会放行下一个探测请求。
+ * 线程安全。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private long probeStartedAt;
+
+    /**
+     * @param failureThreshold 断开前允许的连续失败次数
+     * @param openMillis 断开持续时间（毫秒）
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * @param failureThreshold 断开前允许的连续失败次数
+     * @param openMillis 断开持续时间（毫秒）
+     * @param clock 毫秒时钟（测试时可替换）
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        if (failureThreshold <= 0 || openMillis <= 0) {
+            throw new IllegalArgumentException("failureThreshold and openMillis must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * 是否放行本次请求
+     *
+     * @return false 表示应直接走降级逻辑
+     */
+    public synchronized boolean allowRequest() {
+        long now = clock.getAsLong();
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (now - openedAt < openMillis) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeStartedAt = now;
+                return true;
+            default:
+                if (now - probeStartedAt < openMillis) {
+                    return false;
+                }
+                probeStartedAt = now;
+                return true;
+        }
+    }
+
+    /**
+     * 记录一次成功，恢复闭合
+     */
+    public synchronized void recordSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+    }
+
+    /**
+     * 记录一次失败，连续失败达到阈值或探测失败时断开
+     */
+    public synchronized void recordFailure() {
+        failures++;
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getFailures() {
+        return failures;
+    }
+}
@@ -0,0 +1,129 @@
+package cn.wekyjay.wknetic.common.utils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Count-Min Sketch 频率估计
+ * <p>
+ * 用 depth 行、每行 width 个计数器的固定内存估计任意字符串的出现次数，
+ * 估计值只会偏大不会偏小，误差上限约为 总次数 × e / width，置信度 1 - e^(-depth)。
+ * 哈希只依赖字符串的 UTF-8 字节，不同节点上同样尺寸的 sketch 可以按单元格相加合并。
+ * 非线程安全。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-02
+ */
+public final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final long[] table;
+    private long total;
+
+    /**
+     * @param width 每行计数器数量
+     * @param depth 行数（哈希函数个数）
+     */
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("width and depth must be positive");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.table = new long[width * depth];
+    }
+
+    /**
+     * 累加计数
+     *
+     * @param item 字符串
+     * @param count 次数
+     */
+    public void add(String item, long count) {
+        for (int cell : cells(item, width, depth)) {
+            table[cell] += count;
+        }
+        total += count;
+    }
+
+    /**
+     * 估计出现次数
+     *
+     * @param item 字符串
+     * @return 估计值（不小于真实值）
+     */
+    public long estimate(String item) {
+        long min = Long.MAX_VALUE;
+        for (int cell : cells(item, width, depth)) {
+            min = Math.min(min, table[cell]);
+        }
+        return min;
+    }
+
+    /**
+     * 单元格计数（按 行 × width + 列 排列）
+     *
+     * @param cell 单元格下标
+     * @return 计数
+     */
+    public long get(int cell) {
+        return table[cell];
+    }
+
+    /**
+     * @return 单元格总数
+     */
+    public int size() {
+        return table.length;
+    }
+
+    /**
+     * @return 累加的总次数
+     */
+    public long total() {
+        return total;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * 字符串在各行命中的单元格下标，可用于直接读取外部存储（如 Redis Hash）中合并后的计数
+     *
+     * @param item 字符串
+     * @param width 每行计数器数量
+     * @param depth 行数
+     * @return 每行一个单元格下标
+     */
+    public static int[] cells(String item, int width, int depth) {
+        long hash = fnv1a64(item.getBytes(StandardCharsets.UTF_8));
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int[] cells = new int[depth];
+        for (int row = 0; row < depth; row++) {
+            // 双重哈希构造 depth 个独立的哈希函数
+            int combined = h1 + row * h2;
+            cells[row] = row * width + Math.floorMod(combined, width);
+        }
+        return cells;
+    }
+
+    private static long fnv1a64(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        // 混合高低位，避免短字符串的低位相关
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,72 @@
+package cn.wekyjay.wknetic.common.utils;
+
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * 指标工具
+ * <p>
+ * 外部依赖（Redis、Elasticsearch）的错误计数统一记为 wknetic.errors，按 component、type 区分。
+ * 使用 Micrometer 全局注册表（Spring Boot 会把 Actuator 的注册表加入其中），
+ * 便于在工具类、降级分支等无法注入 MeterRegistry 的地方调用。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-04
+ */
+public final class MetricsUtil {
+
+    public static final String ERRORS = "wknetic.errors";
+
+    public static final String REDIS = "redis";
+    public static final String ELASTICSEARCH = "elasticsearch";
+
+    private MetricsUtil() {
+    }
+
+    /**
+     * 记录一次外部依赖错误
+     *
+     * @param component 组件（redis/elasticsearch）
+     * @param type 错误类型（异常类名、HTTP状态等）
+     */
+    public static void recordError(String component, String type) {
+        Metrics.counter(ERRORS, "component", component, "type", type).increment();
+    }
+
+    /**
+     * 记录一次外部依赖错误，错误类型取异常类名
+     *
+     * @param component 组件（redis/elasticsearch）
+     * @param e 异常
+     */
+    public static void recordError(String component, Throwable e) {
+        recordError(component, e != null ? e.getClass().getSimpleName() : "unknown");
+    }
+
+    /**
+     * 按异常链判断出错的外部依赖，是 Elasticsearch 的错误时计数
+     * <p>
+     * Redis 错误已在客户端和连接工厂上计数（见 RedisErrorCounter），这里不再重复计入。
+     * </p>
+     *
+     * @param e 异常
+     * @return 是否计入了外部依赖错误
+     */
+    public static boolean recordIfExternal(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            String className = t.getClass().getName();
+            if (className.startsWith("org.springframework.data.redis.") || className.startsWith("io.lettuce.")) {
+                return false;
+            }
+            if (className.startsWith("co.elastic.clients.") || className.startsWith("org.elasticsearch.")
+                    || className.startsWith("org.springframework.data.elasticsearch.")) {
+                recordError(ELASTICSEARCH, t);
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,207 @@
+package cn.wekyjay.wknetic.common.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 按行的文本差异工具（Myers 差分算法）
+ * <p>
+ * 增量格式为按行排列的操作序列：{@code =n} 保留原文 n 行，{@code -n} 删除原文 n 行，
+ * {@code +n} 后跟 n 行新增内容。只记录差异部分，适合存储频繁小幅修改的长文本。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+public final class TextDiffUtils {
+
+    /**
+     * 编辑距离上限，超过时放弃差分（改动过大，直接存全文更划算）
+     */
+    private static final int MAX_EDIT_DISTANCE = 2000;
+
+    private TextDiffUtils() {
+    }
+
+    /**
+     * 计算从 source 到 target 的增量
+     *
+     * @param source 原文
+     * @param target 新文本
+     * @return 增量数据；改动过大时返回 null
+     */
+    public static String diff(String source, String target) {
+        String[] a = split(source);
+        String[] b = split(target);
+
+        // 去掉公共前缀和后缀，缩小差分范围
+        int prefix = 0;
+        while (prefix < a.length && prefix < b.length && a[prefix].equals(b[prefix])) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < a.length - prefix && suffix < b.length - prefix
+                && a[a.length - 1 - suffix].equals(b[b.length - 1 - suffix])) {
+            suffix++;
+        }
+
+        char[] script = shortestEdit(a, b, prefix, a.length - prefix - suffix, b.length - prefix - suffix);
+        if (script == null) {
+            return null;
+        }
+
+        List<String> out = new ArrayList<>();
+        if (prefix > 0) {
+            out.add("=" + prefix);
+        }
+        int y = prefix;
+        int i = 0;
+        while (i < script.length) {
+            char op = script[i];
+            int start = i;
+            while (i < script.length && script[i] == op) {
+                i++;
+            }
+            int count = i - start;
+            out.add(String.valueOf(op) + count);
+            if (op == '+') {
+                out.addAll(Arrays.asList(b).subList(y, y + count));
+            }
+            if (op != '-') {
+                y += count;
+            }
+        }
+        if (suffix > 0) {
+            out.add("=" + suffix);
+        }
+        return String.join("\n", out);
+    }
+
+    /**
+     * 将增量应用到原文
+     *
+     * @param source 原文
+     * @param delta 由 {@link #diff(String, String)} 生成的增量
+     * @return 新文本
+     */
+    public static String patch(String source, String delta) {
+        String[] src = split(source);
+        String[] ops = split(delta);
+        List<String> out = new ArrayList<>(src.length);
+        int pos = 0;
+        int i = 0;
+        while (i < ops.length) {
+            String op = ops[i++];
+            int count;
+            try {
+                count = Integer.parseInt(op.substring(1));
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("增量数据格式错误: " + op);
+            }
+            switch (op.charAt(0)) {
+                case '=' -> {
+                    checkRange(pos + count, src.length);
+                    out.addAll(Arrays.asList(src).subList(pos, pos + count));
+                    pos += count;
+                }
+                case '-' -> {
+                    checkRange(pos + count, src.length);
+                    pos += count;
+                }
+                case '+' -> {
+                    checkRange(i + count, ops.length);
+                    out.addAll(Arrays.asList(ops).subList(i, i + count));
+                    i += count;
+                }
+                default -> throw new IllegalStateException("增量数据格式错误: " + op);
+            }
+        }
+        if (pos != src.length) {
+            throw new IllegalStateException("增量数据与原文不匹配");
+        }
+        return String.join("\n", out);
+    }
+
+    /**
+     * Myers 最短编辑脚本
+     * 只保存每一步实际用到的对角线区间，内存为 O(D²)
+     *
+     * @return 编辑操作序列（'=' 保留，'-' 删除，'+' 新增）；超过编辑距离上限时返回 null
+     */
+    private static char[] shortestEdit(String[] a, String[] b, int offset, int n, int m) {
+        int max = n + m;
+        if (max == 0) {
+            return new char[0];
+        }
+        int limit = Math.min(max, MAX_EDIT_DISTANCE);
+        int center = max + 1;
+        int[] v = new int[2 * max + 3];
+        List<int[]> trace = new ArrayList<>();
+
+        for (int d = 0; d <= limit; d++) {
+            trace.add(Arrays.copyOfRange(v, center - d, center + d + 1));
+            for (int k = -d; k <= d; k += 2) {
+                int x;
+                if (k == -d || (k != d && v[center + k - 1] < v[center + k + 1])) {
+                    x = v[center + k + 1];
+                } else {
+                    x = v[center + k - 1] + 1;
+                }
+                int y = x - k;
+                while (x < n && y < m && a[offset + x].equals(b[offset + y])) {
+                    x++;
+                    y++;
+                }
+                v[center + k] = x;
+                if (x >= n && y >= m) {
+                    return backtrack(trace, n, m);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static char[] backtrack(List<int[]> trace, int n, int m) {
+        List<Character> reversed = new ArrayList<>();
+        int x = n;
+        int y = m;
+        for (int d = trace.size() - 1; d >= 0; d--) {
+            int[] v = trace.get(d);
+            int k = x - y;
+            int prevK;
+            if (k == -d || (k != d && v[k - 1 + d] < v[k + 1 + d])) {
+                prevK = k + 1;
+            } else {
+                prevK = k - 1;
+            }
+            int prevX = d == 0 ? 0 : v[prevK + d];
+            int prevY = prevX - prevK;
+            while (x > prevX && y > prevY) {
+                reversed.add('=');
+                x--;
+                y--;
+            }
+            if (d > 0) {
+                reversed.add(x == prevX ? '+' : '-');
+            }
+            x = prevX;
+            y = prevY;
+        }
+        char[] script = new char[reversed.size()];
+        for (int i = 0; i < script.length; i++) {
+            script[i] = reversed.get(script.length - 1 - i);
+        }
+        return script;
+    }
+
+    private static void checkRange(int end, int length) {
+        if (end > length) {
+            throw new IllegalStateException("增量数据与原文不匹配");
+        }
+    }
+
+    private static String[] split(String text) {
+        return (text == null ? "" : text).split("\n", -1);
+    }
+}
@@ -1,4 +1,7 @@
 package cn.wekyjay.wknetic.common.utils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import lombok.extern.slf4j.Slf4j;
 import java.util.concurrent.*;
 
@@ -48,6 +51,13 @@ public static void schedule(Runnable task, long delay, TimeUnit unit) {
         SCHEDULED_EXECUTOR.schedule(() -> runAsync(task), delay, unit);
     }
 
+    /**
+     * 注册调度执行器的指标（队列长度、活跃线程数、任务耗时等，executor 标签为 wk-scheduled）
+     */
+    public static void bindMetrics(MeterRegistry registry) {
+        new ExecutorServiceMetrics(SCHEDULED_EXECUTOR, "wk-scheduled", Tags.empty()).bindTo(registry);
+    }
+
     /**
      * 获取通用的虚拟线程工厂（可供 Netty 或其他框架使用）
      */
@@ -3,7 +3,10 @@
 import lombok.Getter;
 import org.springframework.context.ApplicationEvent;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 /**
  * 基础事件类
@@ -15,10 +18,22 @@
 @Getter
 public abstract class BaseEvent extends ApplicationEvent {
 
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 从发件箱恢复的事件的事件源（事件源不参与序列化）
+     */
+    public static final String OUTBOX_SOURCE = "outbox";
+
     public LocalDateTime getEventTime() {
         return eventTime;
     }
     
+    /**
+     * 事件ID（全局唯一，监听器以此作为幂等键）
+     */
+    private final String eventId;
+    
     /**
      * 事件时间（LocalDateTime 类型，避免与 ApplicationEvent 的 getTimestamp() 冲突）
      */
@@ -43,6 +58,7 @@ public LocalDateTime getEventTime() {
      */
     protected BaseEvent(Object source, Long userId, String eventType) {
         super(source);
+        this.eventId = UUID.randomUUID().toString();
         this.eventTime = LocalDateTime.now();
         this.userId = userId;
         this.eventType = eventType;
@@ -58,10 +74,24 @@ protected BaseEvent(Object source, String eventType) {
         this(source, null, eventType);
     }
     
+    /**
+     * 是否需要可靠投递
+     * 可靠投递的事件经发件箱在事务提交后投递，至少投递一次；高频且允许丢失的事件可覆盖为false直接发布
+     *
+     * @return 是否需要可靠投递
+     */
+    public boolean isDurable() {
+        return true;
+    }
+    
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.source = OUTBOX_SOURCE;
+    }
 
     @Override
     public String toString() {
-        return String.format("%s{eventType='%s', userId=%d, eventTime=%s}",
-                getClass().getSimpleName(), eventType, userId, eventTime);
+        return String.format("%s{eventId='%s', eventType='%s', userId=%d, eventTime=%s}",
+                getClass().getSimpleName(), eventId, eventType, userId, eventTime);
     }
 }
@@ -1,14 +1,27 @@
 package cn.wekyjay.wknetic.community.event;
 
+import cn.wekyjay.wknetic.community.event.outbox.EventCodec;
+import cn.wekyjay.wknetic.community.event.outbox.EventOutbox;
+import cn.wekyjay.wknetic.community.event.outbox.EventOutboxRelay;
+import cn.wekyjay.wknetic.community.mapper.EventOutboxMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 事件发布工具类
- * 封装Spring ApplicationEventPublisher，提供统一的事件发布接口
- * 
+ * <p>
+ * 需要可靠投递的事件写入发件箱表，与业务数据在同一事务中提交（写入失败时业务一并回滚），
+ * 事务提交后由 {@link EventOutboxRelay} 批量投递给监听器，监听器读到的一定是已提交的数据。
+ * 高频且允许丢失的事件（{@link BaseEvent#isDurable()} 为 false）直接发布。
+ * </p>
+ *
  * @author WkNetic
  * @since 2026-02-01
  */
@@ -16,27 +29,75 @@
 @Component
 @RequiredArgsConstructor
 public class EventPublisher {
-    
+
     private final ApplicationEventPublisher applicationEventPublisher;
-    
+    private final EventOutboxMapper outboxMapper;
+    private final EventOutboxRelay outboxRelay;
+
     /**
      * 发布事件
      *
      * @param event 事件对象
      */
     public void publishEvent(BaseEvent event) {
-        try {
-            // log.debug("Publishing event: {}", event);
-            applicationEventPublisher.publishEvent(event);
-            // log.debug("Event published successfully: {}", event.getClass().getSimpleName());
-        } catch (Exception e) {
-            // log.error("Failed to publish event: {}", event, e);
-            // 不抛出异常，避免影响主业务流程
+        if (!event.isDurable()) {
+            try {
+                applicationEventPublisher.publishEvent(event);
+            } catch (Exception e) {
+                // 不抛出异常，避免影响主业务流程
+                log.warn("事件发布失败: {}", event, e);
+            }
+            return;
         }
+
+        outboxMapper.insert(toOutbox(event));
+        wakeUpRelay();
     }
-    
+
+    /**
+     * 批量发布事件，需要可靠投递的事件用一条多行 INSERT 写入发件箱
+     *
+     * @param events 事件列表
+     */
+    public void publishEvents(List<? extends BaseEvent> events) {
+        List<EventOutbox> records = new ArrayList<>(events.size());
+        for (BaseEvent event : events) {
+            if (event.isDurable()) {
+                records.add(toOutbox(event));
+            } else {
+                publishEvent(event);
+            }
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+        outboxMapper.insertBatch(records);
+        wakeUpRelay();
+    }
+
+    private static EventOutbox toOutbox(BaseEvent event) {
+        EventOutbox record = new EventOutbox();
+        record.setEventId(event.getEventId());
+        record.setEventType(event.getEventType());
+        record.setPayload(EventCodec.encode(event));
+        return record;
+    }
+
+    private void wakeUpRelay() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    outboxRelay.wakeUp();
+                }
+            });
+        } else {
+            outboxRelay.wakeUp();
+        }
+    }
+
     /**
-     * 异步发布事件（实际异步处理由监听器的@Async注解决定）
+     * 异步发布事件（实际异步处理由发件箱中继和监听器的@Async注解决定）
      * 此方法仅作为语义化接口，提醒开发者此事件适合异步处理
      *
      * @param event 事件对象
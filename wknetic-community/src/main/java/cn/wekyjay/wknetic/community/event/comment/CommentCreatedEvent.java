@@ -11,6 +11,8 @@
  */
 @Getter
 public class CommentCreatedEvent extends BaseEvent {
+
+    private static final long serialVersionUID = 1L;
     
     /**
      * 评论ID
@@ -11,6 +11,8 @@
  */
 @Getter
 public class AchievementUnlockedEvent extends BaseEvent {
+
+    private static final long serialVersionUID = 1L;
     
     /**
      * 用户ID
@@ -11,6 +11,8 @@
  */
 @Getter
 public class PlayerJoinEvent extends BaseEvent {
+
+    private static final long serialVersionUID = 1L;
     
     /**
      * 用户ID
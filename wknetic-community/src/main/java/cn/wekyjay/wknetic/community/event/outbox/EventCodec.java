@@ -0,0 +1,54 @@
+package cn.wekyjay.wknetic.community.event.outbox;
+
+import cn.wekyjay.wknetic.community.event.BaseEvent;
+
+import java.io.*;
+
+/**
+ * 事件序列化工具
+ * 反序列化只允许事件类及其字段用到的JDK类型
+ *
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+public final class EventCodec {
+
+    private static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter(
+            "maxdepth=20;maxbytes=1048576;"
+            + "cn.wekyjay.wknetic.community.event.**;java.lang.*;java.time.*;java.util.*;"
+            + "org.springframework.context.ApplicationEvent;!*");
+
+    private EventCodec() {
+    }
+
+    /**
+     * 序列化事件
+     *
+     * @param event 事件
+     * @return 字节数组
+     */
+    public static byte[] encode(BaseEvent event) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+            out.writeObject(event);
+        } catch (IOException e) {
+            throw new RuntimeException("事件序列化失败: " + event.getEventType(), e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 反序列化事件
+     *
+     * @param payload 字节数组
+     * @return 事件
+     */
+    public static BaseEvent decode(byte[] payload) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            in.setObjectInputFilter(FILTER);
+            return (BaseEvent) in.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            throw new RuntimeException("事件反序列化失败", e);
+        }
+    }
+}
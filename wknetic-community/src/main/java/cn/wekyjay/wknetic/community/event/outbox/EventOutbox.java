@@ -0,0 +1,88 @@
+package cn.wekyjay.wknetic.community.event.outbox;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 领域事件发件箱实体
+ * 与业务数据在同一事务中写入，事务提交后由中继批量投递给监听器
+ *
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Data
+@TableName("sys_event_outbox")
+public class EventOutbox implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 待投递
+     */
+    public static final int STATUS_PENDING = 0;
+
+    /**
+     * 超过最大重试次数，已放弃
+     */
+    public static final int STATUS_DEAD = 2;
+
+    /**
+     * 记录ID
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 事件ID（监听器的幂等键）
+     */
+    private String eventId;
+
+    /**
+     * 事件类型
+     */
+    private String eventType;
+
+    /**
+     * 序列化的事件
+     */
+    private byte[] payload;
+
+    /**
+     * 状态
+     */
+    private Integer status;
+
+    /**
+     * 失败次数
+     */
+    private Integer attempts;
+
+    /**
+     * 下次投递时间
+     */
+    private LocalDateTime nextAttemptTime;
+
+    /**
+     * 领取批次标识
+     */
+    private String claimToken;
+
+    /**
+     * 领取租约到期时间
+     */
+    private LocalDateTime claimUntil;
+
+    /**
+     * 最近一次失败原因
+     */
+    private String lastError;
+
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+}
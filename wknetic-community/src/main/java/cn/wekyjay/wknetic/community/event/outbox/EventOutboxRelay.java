@@ -0,0 +1,175 @@
+package cn.wekyjay.wknetic.community.event.outbox;
+
+import cn.wekyjay.wknetic.community.event.BaseEvent;
+import cn.wekyjay.wknetic.community.mapper.EventOutboxMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 领域事件发件箱中继
+ * <p>
+ * 在单独的线程中按批领取发件箱中的事件，同步投递给监听器，全部成功后删除；
+ * 任一同步监听器抛出异常则按指数退避重新投递（至少一次），超过最大次数后标记放弃。
+ * 监听器需以事件ID作为幂等键。
+ * 业务事务提交后立即唤醒，另有定时轮询兜底（重试、其他实例写入的事件、崩溃遗留的事件）。
+ * </p>
+ *
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventOutboxRelay {
+
+    private final EventOutboxMapper outboxMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${wknetic.event.relay-batch-size:200}")
+    private int batchSize;
+
+    @Value("${wknetic.event.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${wknetic.event.retry-interval:5000}")
+    private long retryInterval;
+
+    @Value("${wknetic.event.claim-lease-seconds:60}")
+    private int claimLeaseSeconds;
+
+    /** 重试退避上限（毫秒） */
+    private static final long MAX_RETRY_BACKOFF = 3600_000L;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "event-outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** 是否已有一次待执行的投递 */
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    /**
+     * 唤醒中继，多次唤醒合并为一次投递
+     */
+    public void wakeUp() {
+        if (!scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                scheduled.set(false);
+                drain();
+            });
+        } catch (RejectedExecutionException e) {
+            scheduled.set(false);
+        }
+    }
+
+    /**
+     * 定时轮询兜底
+     */
+    @Scheduled(initialDelay = 10000, fixedDelayString = "${wknetic.event.relay-interval:1000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 持续投递直到没有到期的事件
+     */
+    private void drain() {
+        try {
+            int claimed;
+            do {
+                claimed = relayBatch();
+            } while (claimed >= batchSize);
+        } catch (Exception e) {
+            log.error("领域事件投递失败", e);
+        }
+    }
+
+    /**
+     * 领取并投递一批事件
+     *
+     * @return 领取到的事件数
+     */
+    private int relayBatch() {
+        String token = UUID.randomUUID().toString();
+        int claimed = outboxMapper.claimBatch(token, claimLeaseSeconds, batchSize);
+        if (claimed == 0) {
+            return 0;
+        }
+
+        List<Long> delivered = new ArrayList<>();
+        for (EventOutbox record : outboxMapper.selectClaimed(token)) {
+            BaseEvent event;
+            try {
+                event = EventCodec.decode(record.getPayload());
+            } catch (Exception e) {
+                // 无法解析的事件重试也不会成功
+                log.error("领域事件无法解析，已放弃: eventId={}, eventType={}", record.getEventId(), record.getEventType(), e);
+                outboxMapper.markFailed(record.getId(), EventOutbox.STATUS_DEAD, attemptsOf(record) + 1,
+                        LocalDateTime.now(), truncate(e.getMessage()));
+                continue;
+            }
+            try {
+                applicationEventPublisher.publishEvent(event);
+                delivered.add(record.getId());
+            } catch (Exception e) {
+                markFailed(record, e);
+            }
+        }
+
+        if (!delivered.isEmpty()) {
+            outboxMapper.deleteBatchIds(delivered);
+        }
+        return claimed;
+    }
+
+    private void markFailed(EventOutbox record, Exception e) {
+        int attempts = attemptsOf(record) + 1;
+        if (attempts >= maxAttempts) {
+            log.error("领域事件投递失败{}次，已放弃: eventId={}, eventType={}",
+                    attempts, record.getEventId(), record.getEventType(), e);
+            outboxMapper.markFailed(record.getId(), EventOutbox.STATUS_DEAD, attempts,
+                    LocalDateTime.now(), truncate(e.getMessage()));
+            return;
+        }
+        long backoff = Math.min(retryInterval << Math.min(attempts - 1, 16), MAX_RETRY_BACKOFF);
+        log.warn("领域事件投递失败，{}毫秒后重试: eventId={}, eventType={}, attempts={}",
+                backoff, record.getEventId(), record.getEventType(), attempts, e);
+        outboxMapper.markFailed(record.getId(), EventOutbox.STATUS_PENDING, attempts,
+                LocalDateTime.now().plus(backoff, ChronoUnit.MILLIS), truncate(e.getMessage()));
+    }
+
+    private int attemptsOf(EventOutbox record) {
+        return record.getAttempts() != null ? record.getAttempts() : 0;
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
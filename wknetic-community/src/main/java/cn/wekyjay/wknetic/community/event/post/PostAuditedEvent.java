@@ -11,6 +11,8 @@
  */
 @Getter
 public class PostAuditedEvent extends BaseEvent {
+
+    private static final long serialVersionUID = 1L;
     
     /**
      * 帖子ID
@@ -37,6 +39,11 @@ public class PostAuditedEvent extends BaseEvent {
      */
     private final String remark;
     
+    /**
+     * 是否为复审：已发布的帖子被举报自动隐藏后重新审核（发布统计和审核耗时不再计入）
+     */
+    private final boolean reaudit;
+    
     /**
      * 构造函数
      *
@@ -48,12 +55,29 @@ public class PostAuditedEvent extends BaseEvent {
      * @param remark 审核备注
      */
     public PostAuditedEvent(Object source, Long postId, Long postAuthorId, Long auditorId, boolean approved, String remark) {
+        this(source, postId, postAuthorId, auditorId, approved, remark, false);
+    }
+    
+    /**
+     * 构造函数（带复审标志）
+     *
+     * @param source 事件源
+     * @param postId 帖子ID
+     * @param postAuthorId 帖子作者ID
+     * @param auditorId 审核人ID
+     * @param approved 是否通过
+     * @param remark 审核备注
+     * @param reaudit 是否为复审
+     */
+    public PostAuditedEvent(Object source, Long postId, Long postAuthorId, Long auditorId, boolean approved, String remark,
+                            boolean reaudit) {
         super(source, auditorId, approved ? "POST_APPROVED" : "POST_REJECTED");
         this.postId = postId;
         this.postAuthorId = postAuthorId;
         this.auditorId = auditorId;
         this.approved = approved;
         this.remark = remark;
+        this.reaudit = reaudit;
     }
     
     /**
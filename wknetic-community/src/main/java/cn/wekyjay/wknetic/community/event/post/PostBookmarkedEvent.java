@@ -0,0 +1,60 @@
+package cn.wekyjay.wknetic.community.event.post;
+
+import cn.wekyjay.wknetic.community.event.BaseEvent;
+import lombok.Getter;
+
+/**
+ * 帖子被收藏事件
+ * 
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Getter
+public class PostBookmarkedEvent extends BaseEvent {
+
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * 帖子ID
+     */
+    private final Long postId;
+    
+    /**
+     * 帖子作者ID
+     */
+    private final Long postAuthorId;
+    
+    /**
+     * 收藏者ID（即userId）
+     */
+    private final Long bookmarkerId;
+    
+    /**
+     * 是否为取消收藏（false=收藏，true=取消收藏）
+     */
+    private final boolean unbookmarked;
+    
+    /**
+     * 构造函数
+     *
+     * @param source 事件源
+     * @param postId 帖子ID
+     * @param postAuthorId 帖子作者ID
+     * @param bookmarkerId 收藏者ID
+     * @param unbookmarked 是否取消收藏
+     */
+    public PostBookmarkedEvent(Object source, Long postId, Long postAuthorId, Long bookmarkerId, boolean unbookmarked) {
+        super(source, bookmarkerId, unbookmarked ? "POST_UNBOOKMARKED" : "POST_BOOKMARKED");
+        this.postId = postId;
+        this.postAuthorId = postAuthorId;
+        this.bookmarkerId = bookmarkerId;
+        this.unbookmarked = unbookmarked;
+    }
+    
+    /**
+     * 是否为收藏（与unbookmarked相反）
+     */
+    public boolean isBookmarked() {
+        return !unbookmarked;
+    }
+}
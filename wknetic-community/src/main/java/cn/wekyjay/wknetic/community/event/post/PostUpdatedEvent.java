@@ -11,6 +11,8 @@
  */
 @Getter
 public class PostUpdatedEvent extends BaseEvent {
+
+    private static final long serialVersionUID = 1L;
     
     /**
      * 帖子ID
@@ -0,0 +1,48 @@
+package cn.wekyjay.wknetic.community.event.post;
+
+import cn.wekyjay.wknetic.community.event.BaseEvent;
+import lombok.Getter;
+
+/**
+ * 帖子被浏览事件
+ * 
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Getter
+public class PostViewedEvent extends BaseEvent {
+
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * 帖子ID
+     */
+    private final Long postId;
+    
+    /**
+     * 所属话题ID
+     */
+    private final Long topicId;
+    
+    /**
+     * 构造函数
+     *
+     * @param source 事件源
+     * @param postId 帖子ID
+     * @param topicId 话题ID
+     * @param viewerId 浏览者ID（匿名访问为null）
+     */
+    public PostViewedEvent(Object source, Long postId, Long topicId, Long viewerId) {
+        super(source, viewerId, "POST_VIEWED");
+        this.postId = postId;
+        this.topicId = topicId;
+    }
+    
+    /**
+     * 浏览事件量大且只影响计数和热度，直接发布，不经过发件箱
+     */
+    @Override
+    public boolean isDurable() {
+        return false;
+    }
+}
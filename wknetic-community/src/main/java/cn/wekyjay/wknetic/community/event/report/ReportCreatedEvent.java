@@ -11,6 +11,8 @@
  */
 @Getter
 public class ReportCreatedEvent extends BaseEvent {
+
+    private static final long serialVersionUID = 1L;
     
     /**
      * 举报ID
@@ -11,6 +11,8 @@
  */
 @Getter
 public class UserFollowedEvent extends BaseEvent {
+
+    private static final long serialVersionUID = 1L;
     
     /**
      * 关注者ID
@@ -13,6 +13,8 @@
  */
 @Getter
 public class UserMentionedEvent extends BaseEvent {
+
+    private static final long serialVersionUID = 1L;
     
     /**
      * 被提及的用户ID列表
@@ -11,6 +11,8 @@
  */
 @Getter
 public class UserRegisterEvent extends BaseEvent {
+
+    private static final long serialVersionUID = 1L;
     
     /**
      * 用户ID
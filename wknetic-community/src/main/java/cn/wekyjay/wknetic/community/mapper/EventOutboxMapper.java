@@ -0,0 +1,75 @@
+package cn.wekyjay.wknetic.community.mapper;
+
+import cn.wekyjay.wknetic.community.event.outbox.EventOutbox;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 领域事件发件箱Mapper接口
+ *
+ * @author WkNetic
+ * @since 2026-02-01
+ */
+@Mapper
+public interface EventOutboxMapper extends BaseMapper<EventOutbox> {
+
+    /**
+     * 批量写入事件（一条多行 INSERT）
+     *
+     * @param records 事件记录
+     * @return 影响行数
+     */
+    @Insert("<script>INSERT INTO sys_event_outbox (event_id, event_type, payload) VALUES " +
+            "<foreach collection='records' item='r' separator=','>" +
+            "(#{r.eventId}, #{r.eventType}, #{r.payload})</foreach></script>")
+    int insertBatch(@Param("records") Collection<EventOutbox> records);
+
+    /**
+     * 领取一批到期的待投递事件
+     * 领取带租约，多个实例并发领取互不重复，实例崩溃后租约到期可被重新领取
+     *
+     * @param token 领取批次标识
+     * @param leaseSeconds 租约时长（秒）
+     * @param limit 数量
+     * @return 领取到的记录数
+     */
+    @Update("UPDATE sys_event_outbox SET claim_token = #{token}, " +
+            "claim_until = DATE_ADD(NOW(), INTERVAL #{leaseSeconds} SECOND) " +
+            "WHERE status = 0 AND next_attempt_time <= NOW() " +
+            "AND (claim_until IS NULL OR claim_until < NOW()) " +
+            "ORDER BY id LIMIT #{limit}")
+    int claimBatch(@Param("token") String token, @Param("leaseSeconds") int leaseSeconds, @Param("limit") int limit);
+
+    /**
+     * 查询某批次领取到的事件，按写入顺序
+     *
+     * @param token 领取批次标识
+     * @return 记录列表
+     */
+    @Select("SELECT * FROM sys_event_outbox WHERE claim_token = #{token} ORDER BY id")
+    List<EventOutbox> selectClaimed(@Param("token") String token);
+
+    /**
+     * 记录投递失败并释放领取
+     *
+     * @param id 记录ID
+     * @param status 状态
+     * @param attempts 失败次数
+     * @param nextAttemptTime 下次投递时间
+     * @param lastError 失败原因
+     * @return 影响行数
+     */
+    @Update("UPDATE sys_event_outbox SET status = #{status}, attempts = #{attempts}, " +
+            "next_attempt_time = #{nextAttemptTime}, last_error = #{lastError}, " +
+            "claim_token = NULL, claim_until = NULL WHERE id = #{id}")
+    int markFailed(@Param("id") Long id, @Param("status") int status, @Param("attempts") int attempts,
+                   @Param("nextAttemptTime") LocalDateTime nextAttemptTime, @Param("lastError") String lastError);
+}
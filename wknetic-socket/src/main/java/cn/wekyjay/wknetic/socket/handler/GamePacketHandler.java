@@ -19,6 +19,8 @@
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import org.springframework.data.redis.core.StringRedisTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
@@ -52,19 +54,29 @@ public class GamePacketHandler extends SimpleChannelInboundHandler<String> {
     @Resource
     private SysServerTokenMapper serverTokenMapper;
 
+    @Resource
+    private MeterRegistry meterRegistry;
+
     public static final String CHAT_TOPIC = "wknetic-global-chat";
     public static final String SERVER_STATUS_TOPIC = "wknetic:server:status";
 
+    /** 数据包处理耗时指标 */
+    private static final String PACKET_TIMER = "wknetic.socket.packet";
+
   @Override
   protected void channelRead0(ChannelHandlerContext ctx, String msg) {
     log.debug("RECV: {}", msg);
 
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String packetTag = "UNKNOWN";
+    String outcome = "error";
     try {
       JsonNode json = objectMapper.readTree(msg);
       
       // 检查是否有 type 字段
     String type = json.get("type").asText();
     PacketType packetType = PacketType.valueOf(type);
+    packetTag = packetType.name();
     switch (packetType) {
         case AUTH_REQUEST:
         case HANDSHAKE:
@@ -92,8 +104,12 @@ protected void channelRead0(ChannelHandlerContext ctx, String msg) {
         log.warn("Unhandled packet type: {}", packetType);
         break;
     }
+    outcome = "success";
     } catch (Exception e) {
       log.error("Packet parse error", e);
+    } finally {
+      // 按包类型统计处理耗时，无法解析的包记为 UNKNOWN
+      sample.stop(meterRegistry.timer(PACKET_TIMER, "type", packetTag, "outcome", outcome));
     }
   }
 
@@ -169,7 +185,7 @@ private void handleServerLogin(ChannelHandlerContext ctx, JsonNode json) {
      * 处理服务器心跳
      */
     private void handleServerHeartbeat(ChannelHandlerContext ctx, JsonNode json) {
-        log.info("收到服务器心跳");
+        log.debug("收到服务器心跳");
         ServerSessionPacket session = channelManager.getSession(ctx.channel());
         if (session != null) {
             session.setLastActiveTime(new Date());
@@ -230,7 +246,7 @@ private void handleGameChat(JsonNode json) {
             String uuid = json.has("uuid") ? json.get("uuid").asText() : "";
             String channel = json.has("channel") ? json.get("channel").asText() : "global";
 
-            log.info("收到游戏聊天消息 serverName={}, channel={}, world={}, player={}, content={}",
+            log.debug("收到游戏聊天消息 serverName={}, channel={}, world={}, player={}, content={}",
                     serverName, channel, world, playerName, content);
             
             // 构建新的消息格式
@@ -266,7 +282,7 @@ private void handleGameChat(JsonNode json) {
                 stringRedisTemplate.opsForList().trim(historyKey, -500, -1);
             }
             
-            log.info("转发并保存聊天完成 serverName={}, channel={}, world={}, player={}", 
+            log.debug("转发并保存聊天完成 serverName={}, channel={}, world={}, player={}", 
                     serverName, channel, world, playerName);
         } catch (Exception e) {
             log.error("处理游戏聊天失败", e);
@@ -281,7 +297,7 @@ private String getMinecraftAvatarUrl(String uuid) {
             return "";
         }
         String cleanUuid = uuid.replace("-", "").toLowerCase();
-        log.info("获取Minecraft头像URL，原始UUID: {}, 清理后UUID: {}", uuid, cleanUuid);
+        log.debug("获取Minecraft头像URL，原始UUID: {}, 清理后UUID: {}", uuid, cleanUuid);
         return "https://mc-heads.net/avatar/" + cleanUuid;
     }
 
@@ -1,5 +1,8 @@
 package cn.wekyjay.wknetic.socket.manager;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelId;
 import lombok.extern.slf4j.Slf4j;
@@ -19,7 +22,7 @@
  */
 @Slf4j
 @Component
-public class ChannelManager {
+public class ChannelManager implements MeterBinder {
 
     // SessionId -> Channel 映射（公开查询用）
     private static final ConcurrentHashMap<String, Channel> sessionChannelMap = new ConcurrentHashMap<>();
@@ -183,6 +186,13 @@ public List<ServerSessionPacket> getAllSessions() {
     public int size() {
         return sessionChannelMap.size();
     }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("wknetic.socket.channels", this, ChannelManager::size)
+                .description("在线游戏服务器连接数")
+                .register(registry);
+    }
     
     /**
      * 根据Token获取SessionId（内部查询用）